@@ -49,6 +49,8 @@ import javax.annotation.Nonnull;
  */
 public abstract class AbstractJAnnotationValue implements IJGenerable
 {
+  private static final long serialVersionUID = 1L;
+
   @Nonnull
   public static JAnnotationStringValue wrap (final boolean bValue)
   {
@@ -53,8 +53,12 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public abstract class AbstractJAnnotationValueOwned extends AbstractJAnnotationValue implements IJOwned
 {
+  private static final long serialVersionUID = 1L;
+
   protected final class JEnumConstantExpr implements IJExpression
   {
+    private static final long serialVersionUID = 1L;
+
     private final Enum <?> m_aEnumConstant;
 
     protected JEnumConstantExpr (@Nonnull final Enum <?> aEnumConstant)
@@ -70,6 +74,8 @@ public abstract class AbstractJAnnotationValueOwned extends AbstractJAnnotationV
 
   protected final class FullClassNameExpr implements IJExpression
   {
+    private static final long serialVersionUID = 1L;
+
     private final Class <?> m_aClass;
 
     protected FullClassNameExpr (@Nonnull final Class <?> aClass)
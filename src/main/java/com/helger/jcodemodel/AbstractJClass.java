@@ -46,6 +46,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -61,6 +63,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public abstract class AbstractJClass extends AbstractJType
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Sometimes useful reusable empty array.
    */
@@ -68,6 +72,43 @@ public abstract class AbstractJClass extends AbstractJType
 
   private final JCodeModel m_aOwner;
   private JArrayClass m_aArrayClass;
+  // Lazily created sort key
+  private transient String m_sSortKey;
+  /**
+   * The version of the type hierarchy of the owning code model at the last
+   * change of the own super classes, interfaces or bounds of this class. 0 if
+   * they never changed.
+   */
+  private transient volatile long m_nOwnHierarchyStamp;
+  // Memoized results of getBaseClass
+  private transient volatile BaseClassCache m_aBaseClassCache;
+
+  /**
+   * The results of {@link AbstractJClass#getBaseClass(AbstractJClass)} of a
+   * class. The results stay valid as long as neither the class nor any of its
+   * super types change their super types, so changes in unrelated classes of
+   * the same code model don't discard them.
+   */
+  private static final class BaseClassCache
+  {
+    /** Stored for base types that are not assignable */
+    private static final Object NO_BASE_CLASS = new Object ();
+
+    /** The type hierarchy version of the code model this was checked with */
+    private final long m_nModelVersion;
+    /** The highest own hierarchy stamp of the class and all its super types */
+    private final long m_nHierarchyStamp;
+    private final Map <AbstractJClass, Object> m_aResults;
+
+    BaseClassCache (final long nModelVersion,
+                    final long nHierarchyStamp,
+                    @Nonnull final Map <AbstractJClass, Object> aResults)
+    {
+      m_nModelVersion = nModelVersion;
+      m_nHierarchyStamp = nHierarchyStamp;
+      m_aResults = aResults;
+    }
+  }
 
   protected AbstractJClass (@Nonnull final JCodeModel aOwner)
   {
@@ -109,6 +150,30 @@ public abstract class AbstractJClass extends AbstractJType
     return m_aOwner;
   }
 
+  /**
+   * Get the key by which classes are ordered in imports and
+   * <code>implements</code> clauses. It consists of a leading <code>0</code>
+   * for classes in <code>java.</code> packages and <code>1</code> for all
+   * others, followed by the full name. The key is computed only once, as the
+   * full name of a class never changes.
+   *
+   * @return The sort key. Never <code>null</code>.
+   * @see com.helger.jcodemodel.util.ClassNameComparator
+   * @since 3.0.3
+   */
+  @Nonnull
+  public final String getSortKey ()
+  {
+    String ret = m_sSortKey;
+    if (ret == null)
+    {
+      final String sFullName = fullName ();
+      ret = (sFullName.startsWith ("java.") ? '0' : '1') + sFullName;
+      m_sSortKey = ret;
+    }
+    return ret;
+  }
+
   /**
    * Gets the super class of this class.
    *
@@ -203,6 +268,9 @@ public abstract class AbstractJClass extends AbstractJType
    * </code>
    * </pre>
    *
+   * The results are memoized per class until a super class, interface or type
+   * variable bound is added to this class or one of its super types.
+   *
    * @param aBaseType
    *        The class whose parameterization we are interested in.
    * @return The use of {@code baseType} in {@code this} type. or null if the
@@ -214,6 +282,74 @@ public abstract class AbstractJClass extends AbstractJType
     if (erasure ().equals (aBaseType))
       return this;
 
+    final BaseClassCache aCache = _getBaseClassCache ();
+    final Object aCached = aCache.m_aResults.get (aBaseType);
+    if (aCached != null)
+      return aCached == BaseClassCache.NO_BASE_CLASS ? null : (AbstractJClass) aCached;
+
+    final AbstractJClass ret = _findBaseClass (aBaseType);
+    aCache.m_aResults.put (aBaseType, ret == null ? BaseClassCache.NO_BASE_CLASS : ret);
+    return ret;
+  }
+
+  @Nonnull
+  private BaseClassCache _getBaseClassCache ()
+  {
+    // Only if a type hierarchy in the owning model changed, check if the
+    // hierarchy of this class is affected
+    final long nVersion = owner ().getTypeHierarchyVersion ();
+    BaseClassCache aCache = m_aBaseClassCache;
+    if (aCache == null || aCache.m_nModelVersion != nVersion)
+    {
+      final long nStamp = computeHierarchyStamp ();
+      aCache = new BaseClassCache (nVersion,
+                                   nStamp,
+                                   aCache != null && aCache.m_nHierarchyStamp == nStamp ? aCache.m_aResults
+                                                                                         : new ConcurrentHashMap <> ());
+      m_aBaseClassCache = aCache;
+    }
+    return aCache;
+  }
+
+  /**
+   * Must be called whenever a super class, interface or bound of this class is
+   * added.
+   */
+  /* package */ final void onSuperTypesChanged ()
+  {
+    m_nOwnHierarchyStamp = owner ().onTypeHierarchyChanged ();
+  }
+
+  /**
+   * @return The highest own hierarchy stamp of this class and all its super
+   *         types. Memoized for each version of the type hierarchy of the
+   *         owning code model.
+   */
+  /* package */ final long getHierarchyStamp ()
+  {
+    return _getBaseClassCache ().m_nHierarchyStamp;
+  }
+
+  /**
+   * @return The highest own hierarchy stamp of this class and all its super
+   *         types. Called at most once per version of the type hierarchy of
+   *         the owning code model.
+   */
+  /* package */ long computeHierarchyStamp ()
+  {
+    long ret = m_nOwnHierarchyStamp;
+    final AbstractJClass aSuperClass = _extends ();
+    if (aSuperClass != null)
+      ret = Math.max (ret, aSuperClass.getHierarchyStamp ());
+    final Iterator <AbstractJClass> it = _implements ();
+    while (it.hasNext ())
+      ret = Math.max (ret, it.next ().getHierarchyStamp ());
+    return ret;
+  }
+
+  @Nullable
+  private AbstractJClass _findBaseClass (@Nonnull final AbstractJClass aBaseType)
+  {
     final AbstractJClass b = _extends ();
     if (b != null)
     {
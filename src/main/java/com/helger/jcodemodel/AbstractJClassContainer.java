@@ -40,15 +40,17 @@
  */
 package com.helger.jcodemodel;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Locale;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.helger.jcodemodel.util.JCNameRegistry;
+
 /**
  * A generated Java class/interface/enum/annotation<br>
  * This class models a declaration, and since a declaration can be always used
@@ -60,6 +62,8 @@ public abstract class AbstractJClassContainer <CLASSTYPE extends AbstractJClassC
                                               AbstractJClass implements
                                               IJClassContainer <CLASSTYPE>
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * If this is a package-member class, this is {@link JPackage}. If this is a
    * nested class, this is {@link AbstractJClassContainer}. If this is an
@@ -78,12 +82,11 @@ public abstract class AbstractJClassContainer <CLASSTYPE extends AbstractJClassC
   private final String m_sName;
 
   /**
-   * Nested classes as a map from name to JDefinedClass. The name is all
-   * capitalized in a case sensitive file system (
-   * {@link JCodeModel#isFileSystemCaseSensitive()}) to avoid conflicts. Lazily
-   * created to save footprint.
+   * Nested classes keyed by their name. The name is case folded in a case
+   * sensitive file system ( {@link JCodeModel#isFileSystemCaseSensitive()}) to
+   * avoid conflicts. Lazily created to save footprint.
    */
-  protected Map <String, CLASSTYPE> m_aClasses;
+  protected JCNameRegistry <CLASSTYPE> m_aClasses;
 
   /**
    * JClass constructor
@@ -217,42 +220,59 @@ public abstract class AbstractJClassContainer <CLASSTYPE extends AbstractJClassC
                                                  @Nonnull final EClassType eClassType,
                                                  @Nonnull final String sName);
 
+  /**
+   * Check if members may be added to or removed from this container.
+   *
+   * @throws IllegalStateException
+   *         If the owning code model is frozen.
+   */
+  protected void checkModifiable ()
+  {
+    owner ().checkNotFrozen ();
+  }
+
   @Nonnull
   public final CLASSTYPE _class (final int nMods,
                                  @Nonnull final String sName,
                                  @Nonnull final EClassType eClassType) throws JClassAlreadyExistsException
   {
-    String sRealName;
-    if (JCodeModel.isFileSystemCaseSensitive ())
-      sRealName = sName.toUpperCase (Locale.US);
-    else
-      sRealName = sName;
+    checkModifiable ();
 
     // Existing class?
     if (m_aClasses != null)
     {
-      final CLASSTYPE aExistingClass = m_aClasses.get (sRealName);
+      final CLASSTYPE aExistingClass = m_aClasses.getConflicting (sName);
       if (aExistingClass != null)
         throw new JClassAlreadyExistsException (aExistingClass);
     }
     else
-      m_aClasses = new TreeMap <> ();
+      m_aClasses = new JCNameRegistry <> ((Function <CLASSTYPE, String> & Serializable) AbstractJClassContainer::name,
+                                        (BooleanSupplier & Serializable) JCodeModel::isFileSystemCaseSensitive);
 
     // Create and add inner class
     final CLASSTYPE c = createInnerClass (nMods, eClassType, sName);
-    m_aClasses.put (sRealName, c);
+    m_aClasses.add (c);
     return c;
   }
 
   /**
-   * Returns an iterator that walks the nested classes defined in this class.
-   * Don't modify the returned collection!
+   * Returns the nested classes defined in this class, sorted by name. The
+   * returned collection is an unmodifiable snapshot.
    */
   @Nonnull
   public final Collection <CLASSTYPE> classes ()
   {
     if (m_aClasses == null)
       return Collections.emptyList ();
-    return m_aClasses.values ();
+    return m_aClasses.getSorted ();
+  }
+
+  @Override
+  @Nullable
+  public AbstractJClassContainer <?> getInnerClass (@Nullable final String sName)
+  {
+    if (m_aClasses == null)
+      return null;
+    return m_aClasses.get (sName);
   }
 }
@@ -52,6 +52,8 @@ import javax.annotation.Nonnull;
  */
 public abstract class AbstractJGenerifiableImpl implements IJGenerifiable
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Lazily created list of {@link JTypeVar}s.
    */
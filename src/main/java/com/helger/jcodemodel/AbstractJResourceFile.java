@@ -42,6 +42,7 @@ package com.helger.jcodemodel;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Serializable;
 
 import javax.annotation.Nonnull;
 import javax.annotation.WillNotClose;
@@ -51,8 +52,10 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
 /**
  * Represents a resource file in the application-specific file format.
  */
-public abstract class AbstractJResourceFile
+public abstract class AbstractJResourceFile implements Serializable
 {
+  private static final long serialVersionUID = 1L;
+
   private final String m_sName;
 
   protected AbstractJResourceFile (@Nonnull final String sName)
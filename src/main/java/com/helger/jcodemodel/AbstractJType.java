@@ -54,6 +54,8 @@ import javax.annotation.Nullable;
  */
 public abstract class AbstractJType implements IJGenerable, IJOwned
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Obtains a reference to the primitive type object from a type name.
    *
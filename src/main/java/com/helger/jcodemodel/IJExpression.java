@@ -56,6 +56,30 @@ import javax.annotation.Nonnull;
  */
 public interface IJExpression extends IJGenerable
 {
+  /**
+   * Check if the hash code of this expression can only change together with
+   * {@link com.helger.jcodemodel.util.JCStructuralHashCode#getModificationStamp()},
+   * because neither this expression nor any of its child nodes can be modified
+   * otherwise. Only stable expressions may be memoized by their parents.
+   * <p>
+   * Constants, variables, string literals, field references, enum constant
+   * references and all operators, casts, assignments and array accesses built
+   * from them are stable, so their hash codes are calculated only once.
+   * Method invocations, array creations, lambdas and other expressions that
+   * are usually modified after creation are not stable: they are hashed again
+   * by their parents each time, and so are all trees containing them.
+   *
+   * @return <code>true</code> if the hash code is stable, <code>false</code>
+   *         if this expression or a child node is modifiable. The default is
+   *         <code>false</code>.
+   * @see com.helger.jcodemodel.util.JCStructuralHashCode
+   * @since 3.0.3
+   */
+  default boolean isHashCodeStable ()
+  {
+    return false;
+  }
+
   /**
    * @return <code>-[this]" from "[this]</code>.
    */
@@ -0,0 +1,143 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import javax.annotation.Nonnull;
+
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
+/**
+ * Callback used by {@link JMethod#instrument(IJMetricsSink)} to emit the code
+ * that reports the measurements of an instrumented method to a metrics sink of
+ * the generated code.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+public interface IJMetricsSink
+{
+  /**
+   * Emit code that is executed when the method is entered, e.g. to increment
+   * an invocation counter. The default implementation emits nothing.
+   *
+   * @param aMethod
+   *        The instrumented method. Never <code>null</code>.
+   * @param aBlock
+   *        The block to add the code to. It is executed before the timer is
+   *        started. Never <code>null</code>.
+   */
+  default void onEnter (@Nonnull final JMethod aMethod, @Nonnull final JBlock aBlock)
+  {}
+
+  /**
+   * Emit code that is executed when the method is left, either regularly or
+   * by an exception.
+   *
+   * @param aMethod
+   *        The instrumented method. Never <code>null</code>.
+   * @param aFinallyBlock
+   *        The <code>finally</code> block to add the code to. Never
+   *        <code>null</code>.
+   * @param aElapsedNanos
+   *        The expression that computes the elapsed nano seconds. It should be
+   *        evaluated only once. Never <code>null</code>.
+   */
+  void onExit (@Nonnull JMethod aMethod, @Nonnull JBlock aFinallyBlock, @Nonnull IJExpression aElapsedNanos);
+
+  /**
+   * Get the name under which the measurements of the passed method are
+   * reported by the default implementations.
+   *
+   * @param aMethod
+   *        The method to use. May not be <code>null</code>.
+   * @return The fully qualified class name followed by a dot and the method
+   *         name.
+   */
+  @Nonnull
+  static String getMetricName (@Nonnull final JMethod aMethod)
+  {
+    return aMethod.owningClass ().fullName () + "." + aMethod.name ();
+  }
+
+  /**
+   * Create a sink that reports the elapsed time by calling a static method
+   * <code>sMethodName (String sMetricName, long nElapsedNanos)</code> of the
+   * passed class.
+   *
+   * @param aSinkClass
+   *        The class containing the static method. May not be
+   *        <code>null</code>.
+   * @param sMethodName
+   *        The name of the method to invoke. May not be <code>null</code>.
+   * @return A new sink. Never <code>null</code>.
+   */
+  @Nonnull
+  static IJMetricsSink staticInvoke (@Nonnull final AbstractJClass aSinkClass, @Nonnull final String sMethodName)
+  {
+    JCValueEnforcer.notNull (aSinkClass, "SinkClass");
+    JCValueEnforcer.notNull (sMethodName, "MethodName");
+    return (aMethod, aFinallyBlock, aElapsedNanos) -> aFinallyBlock.staticInvoke (aSinkClass, sMethodName)
+                                                                   .arg (getMetricName (aMethod))
+                                                                   .arg (aElapsedNanos);
+  }
+
+  /**
+   * Create a sink that reports the elapsed time by calling the method
+   * <code>sMethodName (String sMetricName, long nElapsedNanos)</code> on the
+   * passed object.
+   *
+   * @param aSink
+   *        The expression evaluating to the sink object, e.g. a field. May not
+   *        be <code>null</code>.
+   * @param sMethodName
+   *        The name of the method to invoke. May not be <code>null</code>.
+   * @return A new sink. Never <code>null</code>.
+   */
+  @Nonnull
+  static IJMetricsSink invoke (@Nonnull final IJExpression aSink, @Nonnull final String sMethodName)
+  {
+    JCValueEnforcer.notNull (aSink, "Sink");
+    JCValueEnforcer.notNull (sMethodName, "MethodName");
+    return (aMethod, aFinallyBlock, aElapsedNanos) -> aFinallyBlock.invoke (aSink, sMethodName)
+                                                                   .arg (getMetricName (aMethod))
+                                                                   .arg (aElapsedNanos);
+  }
+}
@@ -0,0 +1,170 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Callback interface for {@link JModelWalker}. All methods return
+ * {@link EVisitResult#CONTINUE} by default, so implementations only need to
+ * override the callbacks they are interested in.
+ * <p>
+ * Expressions that are used as statements (like method invocations or
+ * assignments) are first passed to {@link #visitStatement(IJStatement)} and
+ * afterwards to {@link #visitExpression(IJExpression)}.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+public interface IJModelVisitor
+{
+  /**
+   * Called for every class, including inner and anonymous classes.
+   *
+   * @param aClass
+   *        The class to visit. Never <code>null</code>.
+   * @return The walking mode. May not be <code>null</code>.
+   */
+  @Nonnull
+  default EVisitResult visitClass (@Nonnull final JDefinedClass aClass)
+  {
+    return EVisitResult.CONTINUE;
+  }
+
+  /**
+   * Called for every method and constructor.
+   *
+   * @param aMethod
+   *        The method to visit. Never <code>null</code>.
+   * @return The walking mode. May not be <code>null</code>.
+   */
+  @Nonnull
+  default EVisitResult visitMethod (@Nonnull final JMethod aMethod)
+  {
+    return EVisitResult.CONTINUE;
+  }
+
+  /**
+   * Called for every variable declaration (fields, parameters and local
+   * variables). References to variables are passed to
+   * {@link #visitExpression(IJExpression)}.
+   *
+   * @param aVar
+   *        The declared variable. Never <code>null</code>.
+   * @return The walking mode. May not be <code>null</code>.
+   */
+  @Nonnull
+  default EVisitResult visitVar (@Nonnull final JVar aVar)
+  {
+    return EVisitResult.CONTINUE;
+  }
+
+  /**
+   * Called for every statement including blocks.
+   *
+   * @param aStatement
+   *        The statement to visit. Never <code>null</code>.
+   * @return The walking mode. May not be <code>null</code>.
+   */
+  @Nonnull
+  default EVisitResult visitStatement (@Nonnull final IJStatement aStatement)
+  {
+    return EVisitResult.CONTINUE;
+  }
+
+  /**
+   * Called for every expression.
+   *
+   * @param aExpression
+   *        The expression to visit. Never <code>null</code>.
+   * @return The walking mode. May not be <code>null</code>.
+   */
+  @Nonnull
+  default EVisitResult visitExpression (@Nonnull final IJExpression aExpression)
+  {
+    return EVisitResult.CONTINUE;
+  }
+
+  /**
+   * Called for every referenced type. Narrowed classes, array classes and
+   * wildcards are passed first, followed by their components.
+   *
+   * @param aType
+   *        The referenced type. Never <code>null</code>.
+   * @return The walking mode. May not be <code>null</code>.
+   */
+  @Nonnull
+  default EVisitResult visitType (@Nonnull final AbstractJType aType)
+  {
+    return EVisitResult.CONTINUE;
+  }
+
+  /**
+   * Called for every annotation usage.
+   *
+   * @param aAnnotation
+   *        The annotation to visit. Never <code>null</code>.
+   * @return The walking mode. May not be <code>null</code>.
+   */
+  @Nonnull
+  default EVisitResult visitAnnotation (@Nonnull final JAnnotationUse aAnnotation)
+  {
+    return EVisitResult.CONTINUE;
+  }
+
+  /**
+   * Called for every element the walker cannot look into, like JavaDoc
+   * comments, class literals, directly provided source code or custom
+   * implementations of {@link IJExpression} and {@link IJStatement}. Such
+   * elements may still reference types when generated.
+   *
+   * @param aObject
+   *        The opaque element. Usually an {@link IJGenerable} or an
+   *        {@link IJStatement}. Never <code>null</code>.
+   * @return The walking mode. Only {@link EVisitResult#TERMINATE} has an
+   *         effect. May not be <code>null</code>.
+   */
+  @Nonnull
+  default EVisitResult visitOpaque (@Nonnull final IJObject aObject)
+  {
+    return EVisitResult.CONTINUE;
+  }
+}
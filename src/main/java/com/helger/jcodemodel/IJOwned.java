@@ -40,6 +40,8 @@
  */
 package com.helger.jcodemodel;
 
+import java.io.Serializable;
+
 import javax.annotation.Nonnull;
 
 /**
@@ -47,7 +49,7 @@ import javax.annotation.Nonnull;
  *
  * @author Philip Helger
  */
-public interface IJOwned
+public interface IJOwned extends Serializable
 {
   /**
    * Gets the owner code model object.
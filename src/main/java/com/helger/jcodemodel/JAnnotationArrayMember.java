@@ -61,6 +61,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JAnnotationArrayMember extends AbstractJAnnotationValueOwned implements IJAnnotatable
 {
+  private static final long serialVersionUID = 1L;
+
   private final JCodeModel m_aOwner;
   private final List <AbstractJAnnotationValue> m_aValues = new ArrayList <> ();
 
@@ -51,6 +51,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JAnnotationStringValue extends AbstractJAnnotationValue
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * The value of the Annotation member
    */
@@ -62,6 +62,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JAnnotationUse extends AbstractJAnnotationValueOwned
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * The special parameter name that can be optimized away if used without any
    * other parameter
@@ -49,6 +49,8 @@ import javax.annotation.Nonnull;
  */
 public class JAnonymousClass extends JDefinedClass
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Base interface/class from which this anonymous class is built.
    */
@@ -50,15 +50,25 @@ import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.helger.jcodemodel.util.JCStructuralHashCode;
+
 /**
  * array creation and initialization.
  */
 public class JArray implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   private final AbstractJType m_aType;
   private final IJExpression m_aSize;
   private List <IJExpression> m_aExprs;
 
+  /**
+   * Memoized structural hash code. 0 if not yet calculated or after a
+   * modification.
+   */
+  private transient int m_nHashCode;
+
   protected JArray (@Nonnull final AbstractJType aType, @Nullable final IJExpression aSize)
   {
     m_aType = aType;
@@ -90,6 +100,7 @@ public class JArray implements IJExpression
     if (m_aExprs == null)
       m_aExprs = new ArrayList <> ();
     m_aExprs.add (aExpr);
+    m_nHashCode = 0;
     return this;
   }
 
@@ -102,6 +113,7 @@ public class JArray implements IJExpression
   public JArray removeAll ()
   {
     m_aExprs = null;
+    m_nHashCode = 0;
     return this;
   }
 
@@ -166,6 +178,13 @@ public class JArray implements IJExpression
   @Override
   public int hashCode ()
   {
-    return getHashCode (this, m_aType.fullName (), m_aSize, m_aExprs);
+    int ret = m_nHashCode;
+    if (ret == 0)
+    {
+      ret = getHashCode (this, m_aType.fullName (), m_aSize, m_aExprs);
+      if (JCStructuralHashCode.isStable (m_aSize) && JCStructuralHashCode.areAllStable (m_aExprs))
+        m_nHashCode = ret;
+    }
+    return ret;
   }
 }
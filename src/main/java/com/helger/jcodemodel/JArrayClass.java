@@ -56,6 +56,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JArrayClass extends AbstractJClass
 {
+  private static final long serialVersionUID = 1L;
+
   // array component type
   private final AbstractJType m_aComponentType;
 
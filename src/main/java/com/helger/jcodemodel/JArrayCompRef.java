@@ -45,6 +45,7 @@ import static com.helger.jcodemodel.util.JCHashCodeGenerator.getHashCode;
 
 import javax.annotation.Nonnull;
 
+import com.helger.jcodemodel.util.JCStructuralHashCode;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 /**
@@ -52,6 +53,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JArrayCompRef implements IJAssignmentTarget
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * JArray expression upon which this component will be accessed.
    */
@@ -62,6 +65,15 @@ public class JArrayCompRef implements IJAssignmentTarget
    */
   private final IJExpression m_aIndex;
 
+  /** Memoized structural hash code. 0 if not yet calculated. */
+  private transient int m_nHashCode;
+
+  /** The modification stamp {@link #m_nHashCode} was calculated with. */
+  private transient long m_nHashCodeStamp;
+
+  /** Lazily determined result of {@link #isHashCodeStable()}. */
+  private transient Boolean m_aHashCodeStable;
+
   /**
    * JArray component reference constructor given an array expression and index.
    *
@@ -106,9 +118,28 @@ public class JArrayCompRef implements IJAssignmentTarget
     return isEqual (m_aArray, rhs.m_aArray) && isEqual (m_aIndex, rhs.m_aIndex);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    if (m_aHashCodeStable == null)
+      m_aHashCodeStable = Boolean.valueOf (JCStructuralHashCode.areStable (m_aArray, m_aIndex));
+    return m_aHashCodeStable.booleanValue ();
+  }
+
   @Override
   public int hashCode ()
   {
-    return getHashCode (this, m_aArray, m_aIndex);
+    int ret = m_nHashCode;
+    final long nStamp = JCStructuralHashCode.getModificationStamp ();
+    if (ret == 0 || m_nHashCodeStamp != nStamp)
+    {
+      ret = getHashCode (this, m_aArray, m_aIndex);
+      if (isHashCodeStable ())
+      {
+        m_nHashCode = ret;
+        m_nHashCodeStamp = nStamp;
+      }
+    }
+    return ret;
   }
 }
@@ -45,15 +45,28 @@ import static com.helger.jcodemodel.util.JCHashCodeGenerator.getHashCode;
 
 import javax.annotation.Nonnull;
 
+import com.helger.jcodemodel.util.JCStructuralHashCode;
+
 /**
  * Assignment statements, which are also expressions.
  */
 public class JAssignment implements IJExpressionStatement
 {
+  private static final long serialVersionUID = 1L;
+
   private final IJAssignmentTarget m_aLhs;
   private final String m_sOperator;
   private final IJExpression m_aRhs;
 
+  /** Memoized structural hash code. 0 if not yet calculated. */
+  private transient int m_nHashCode;
+
+  /** The modification stamp {@link #m_nHashCode} was calculated with. */
+  private transient long m_nHashCodeStamp;
+
+  /** Lazily determined result of {@link #isHashCodeStable()}. */
+  private transient Boolean m_aHashCodeStable;
+
   /**
    * Constructor for "=" operator
    *
@@ -137,9 +150,28 @@ public class JAssignment implements IJExpressionStatement
     return isEqual (m_aLhs, rhs.m_aLhs) && isEqual (m_aRhs, rhs.m_aRhs) && isEqual (m_sOperator, rhs.m_sOperator);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    if (m_aHashCodeStable == null)
+      m_aHashCodeStable = Boolean.valueOf (JCStructuralHashCode.areStable (m_aLhs, m_aRhs));
+    return m_aHashCodeStable.booleanValue ();
+  }
+
   @Override
   public int hashCode ()
   {
-    return getHashCode (this, m_aLhs, m_aRhs, m_sOperator);
+    int ret = m_nHashCode;
+    final long nStamp = JCStructuralHashCode.getModificationStamp ();
+    if (ret == 0 || m_nHashCodeStamp != nStamp)
+    {
+      ret = getHashCode (this, m_aLhs, m_aRhs, m_sOperator);
+      if (isHashCodeStable ())
+      {
+        m_nHashCode = ret;
+        m_nHashCodeStamp = nStamp;
+      }
+    }
+    return ret;
   }
 }
@@ -52,6 +52,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JAtom implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   private final String m_sWhat;
 
   protected JAtom (@Nonnull final String sWhat)
@@ -66,6 +68,11 @@ public class JAtom implements IJExpression
     return m_sWhat;
   }
 
+  private Object readResolve ()
+  {
+    return JExpr.getPredefinedAtom (this);
+  }
+
   public void generate (@Nonnull final JFormatter f)
   {
     f.print (m_sWhat);
@@ -82,6 +89,12 @@ public class JAtom implements IJExpression
     return isEqual (m_sWhat, rhs.m_sWhat);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    return true;
+  }
+
   @Override
   public int hashCode ()
   {
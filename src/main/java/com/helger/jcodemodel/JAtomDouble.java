@@ -50,6 +50,8 @@ import javax.annotation.Nonnull;
  */
 public class JAtomDouble implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   public static final String JAVA_LANG_DOUBLE_NEGATIVE_INFINITY = "java.lang.Double.NEGATIVE_INFINITY";
   public static final String JAVA_LANG_DOUBLE_POSITIVE_INFINITY = "java.lang.Double.POSITIVE_INFINITY";
   public static final String JAVA_LANG_DOUBLE_NAN = "java.lang.Double.NaN";
@@ -91,6 +93,12 @@ public class JAtomDouble implements IJExpression
     return isEqual (m_dWhat, rhs.m_dWhat);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    return true;
+  }
+
   @Override
   public int hashCode ()
   {
@@ -50,6 +50,8 @@ import javax.annotation.Nonnull;
  */
 public class JAtomFloat implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   public static final String JAVA_LANG_FLOAT_NEGATIVE_INFINITY = "java.lang.Float.NEGATIVE_INFINITY";
   public static final String JAVA_LANG_FLOAT_POSITIVE_INFINITY = "java.lang.Float.POSITIVE_INFINITY";
   public static final String JAVA_LANG_FLOAT_NAN = "java.lang.Float.NaN";
@@ -92,6 +94,12 @@ public class JAtomFloat implements IJExpression
     return isEqual (m_fWhat, rhs.m_fWhat);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    return true;
+  }
+
   @Override
   public int hashCode ()
   {
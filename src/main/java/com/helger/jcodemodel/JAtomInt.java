@@ -50,6 +50,8 @@ import javax.annotation.Nonnull;
  */
 public class JAtomInt implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   private final int m_nValue;
 
   protected JAtomInt (final int nWhat)
@@ -78,6 +80,12 @@ public class JAtomInt implements IJExpression
     return isEqual (m_nValue, rhs.m_nValue);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    return true;
+  }
+
   @Override
   public int hashCode ()
   {
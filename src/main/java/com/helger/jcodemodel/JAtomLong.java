@@ -50,6 +50,8 @@ import javax.annotation.Nonnull;
  */
 public class JAtomLong implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   public static final String SUFFIX_LONG = "L";
 
   private final long m_nValue;
@@ -80,6 +82,12 @@ public class JAtomLong implements IJExpression
     return isEqual (m_nValue, rhs.m_nValue);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    return true;
+  }
+
   @Override
   public int hashCode ()
   {
@@ -40,7 +40,9 @@
  */
 package com.helger.jcodemodel;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Collections;
 import java.util.List;
 
@@ -48,6 +50,7 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.helger.jcodemodel.util.JCGapList;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 /**
@@ -60,15 +63,20 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JBlock implements IJGenerable, IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   public static final boolean DEFAULT_VIRTUAL_BLOCK = false;
   public static final boolean DEFAULT_BRACES_REQUIRED = true;
   public static final boolean DEFAULT_INDENT_REQUIRED = true;
 
   /**
    * Declarations and statements contained in this block. Either
-   * {@link IJStatement} or {@link IJDeclaration}.
+   * {@link IJStatement} or {@link IJDeclaration}. This is an immutable empty
+   * list until the first element is inserted, to save footprint for the many
+   * empty blocks. Afterwards it is a {@link JCGapList} so that inserting at the
+   * current position is cheap, even if it is not the end of the block.
    */
-  protected final List <IJObject> m_aContentList = new ArrayList <> ();
+  protected transient List <IJObject> m_aContentList = Collections.emptyList ();
 
   private boolean m_bVirtualBlock = DEFAULT_VIRTUAL_BLOCK;
 
@@ -83,9 +91,26 @@ public class JBlock implements IJGenerable, IJStatement
    */
   private int m_nPos;
 
+  /**
+   * <code>true</code> if the code model of this block was frozen. Blocks don't
+   * know their code model, so they are marked when the model is frozen.
+   */
+  private transient boolean m_bFrozen;
+
   public JBlock ()
   {}
 
+  /* package */ final void freeze ()
+  {
+    m_bFrozen = true;
+  }
+
+  private void _checkNotFrozen ()
+  {
+    if (m_bFrozen)
+      throw new IllegalStateException ("This block belongs to a frozen code model and can no longer be modified");
+  }
+
   /**
    * @return <code>true</code> if this is a virtual block never emitting braces
    *         or indent. The default is {@link #DEFAULT_VIRTUAL_BLOCK}
@@ -106,6 +131,7 @@ public class JBlock implements IJGenerable, IJStatement
   @Nonnull
   public JBlock virtual (final boolean bVirtualBlock)
   {
+    _checkNotFrozen ();
     m_bVirtualBlock = bVirtualBlock;
     return this;
   }
@@ -118,6 +144,7 @@ public class JBlock implements IJGenerable, IJStatement
   @Nonnull
   public JBlock bracesRequired (final boolean bBracesRequired)
   {
+    _checkNotFrozen ();
     m_bBracesRequired = bBracesRequired;
     return this;
   }
@@ -130,6 +157,7 @@ public class JBlock implements IJGenerable, IJStatement
   @Nonnull
   public JBlock indentRequired (final boolean bIndentRequired)
   {
+    _checkNotFrozen ();
     m_bIndentRequired = bIndentRequired;
     return this;
   }
@@ -155,7 +183,10 @@ public class JBlock implements IJGenerable, IJStatement
   {
     JCValueEnforcer.isGE0 (nIndex, "Index");
     JCValueEnforcer.notNull (aStatementOrDeclaration, "StatementOrDeclaration");
+    _checkNotFrozen ();
 
+    if (m_aContentList.isEmpty () && !(m_aContentList instanceof JCGapList <?>))
+      m_aContentList = new JCGapList <> ();
     m_aContentList.add (nIndex, aStatementOrDeclaration);
     m_nPos++;
 
@@ -168,13 +199,45 @@ public class JBlock implements IJGenerable, IJStatement
     return aStatementOrDeclaration;
   }
 
+  @Nonnull
+  protected final <T extends IJObject> T internalSet (final int nIndex, @Nonnull final T aStatementOrDeclaration)
+  {
+    JCValueEnforcer.notNull (aStatementOrDeclaration, "StatementOrDeclaration");
+    _checkNotFrozen ();
+    m_aContentList.set (nIndex, aStatementOrDeclaration);
+    return aStatementOrDeclaration;
+  }
+
+  /**
+   * Move the contents of this block starting at the passed index to the end of
+   * the passed block.
+   *
+   * @param nFromIndex
+   *        The index of the first element to move.
+   * @param aTarget
+   *        The block to move the contents to.
+   */
+  final void internalMoveTo (@Nonnegative final int nFromIndex, @Nonnull final JBlock aTarget)
+  {
+    _checkNotFrozen ();
+    final List <IJObject> aMoved = m_aContentList.subList (nFromIndex, m_aContentList.size ());
+    for (final IJObject aElement : aMoved)
+      aTarget.internalInsert (aElement);
+    aMoved.clear ();
+    m_nPos = m_aContentList.size ();
+  }
+
   public void remove (final IJObject o)
   {
+    _checkNotFrozen ();
     m_aContentList.remove (o);
   }
 
   public void remove (@Nonnegative final int index)
   {
+    _checkNotFrozen ();
+    if (m_aContentList.isEmpty ())
+      throw new IndexOutOfBoundsException ("Index: " + index + ", Size: 0");
     m_aContentList.remove (index);
   }
 
@@ -183,6 +246,7 @@ public class JBlock implements IJGenerable, IJStatement
    */
   public void removeAll ()
   {
+    _checkNotFrozen ();
     m_aContentList.clear ();
     m_nPos = 0;
   }
@@ -212,6 +276,7 @@ public class JBlock implements IJGenerable, IJStatement
   @Nonnegative
   public int pos (@Nonnegative final int nNewPos)
   {
+    _checkNotFrozen ();
     JCValueEnforcer.isTrue (nNewPos >= 0 && nNewPos <= m_aContentList.size (),
                             () -> "Illegal position provided: " + nNewPos);
 
@@ -238,6 +303,49 @@ public class JBlock implements IJGenerable, IJStatement
     return m_aContentList.size ();
   }
 
+  final void writeContents (@Nonnull final ObjectOutputStream aOOS) throws IOException
+  {
+    aOOS.writeInt (m_aContentList.size ());
+    for (final IJObject aElement : m_aContentList)
+      aOOS.writeObject (aElement);
+  }
+
+  final void readContents (@Nonnull final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  {
+    final int nSize = aOIS.readInt ();
+    if (nSize == 0)
+      m_aContentList = Collections.emptyList ();
+    else
+    {
+      final JCGapList <IJObject> aContents = new JCGapList <> ();
+      for (int i = 0; i < nSize; ++i)
+        aContents.add ((IJObject) aOIS.readObject ());
+      m_aContentList = aContents;
+    }
+  }
+
+  private void writeObject (@Nonnull final ObjectOutputStream aOOS) throws IOException
+  {
+    aOOS.defaultWriteObject ();
+    // In a snapshot the contents are written later on top level, so that the
+    // recursion depth does not grow with the chain of referenced methods
+    final boolean bDeferred = aOOS instanceof JCodeModelSnapshot.SnapshotOutputStream;
+    aOOS.writeBoolean (bDeferred);
+    if (bDeferred)
+      ((JCodeModelSnapshot.SnapshotOutputStream) aOOS).deferContents (this);
+    else
+      writeContents (aOOS);
+  }
+
+  private void readObject (@Nonnull final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  {
+    aOIS.defaultReadObject ();
+    m_aContentList = Collections.emptyList ();
+    final boolean bDeferred = aOIS.readBoolean ();
+    if (!bDeferred)
+      readContents (aOIS);
+  }
+
   /**
    * Adds a local variable declaration to this block. This enforces braces and
    * indentation to be enabled!
@@ -318,6 +426,12 @@ public class JBlock implements IJGenerable, IJStatement
   /**
    * Insert a variable before another element of this block. This enforces
    * braces and indentation to be enabled!
+   * <p>
+   * The variable is inserted before the first element that equals the passed
+   * object. Finding it is a linear search, so this takes O(n) in the size of
+   * the block even if the element is close to the current position. To insert
+   * many elements at a known position, set it with {@link #pos(int)} and use
+   * the regular methods, which take amortized O(1) at the current position.
    *
    * @param aVar
    *        The variable to be inserted. May not be <code>null</code>.
@@ -326,11 +440,14 @@ public class JBlock implements IJGenerable, IJStatement
    *        object is not contained in this block, an
    *        {@link IndexOutOfBoundsException} is thrown.
    * @return this for chaining
+   * @see #pos(int)
    */
   @Nonnull
   public JBlock insertBefore (@Nonnull final JVar aVar, @Nonnull final Object aBefore)
   {
     final int i = m_aContentList.indexOf (aBefore);
+    if (i < 0)
+      throw new IndexOutOfBoundsException ("The passed object is not contained in this block");
     internalInsertAt (i, aVar);
     return this;
   }
@@ -883,7 +1000,8 @@ public class JBlock implements IJGenerable, IJStatement
     }
     else
     {
-      if (m_bBracesRequired)
+      final boolean bBraces = generatesBraces ();
+      if (bBraces)
       {
         f.print ('{');
         f.newline ();
@@ -893,11 +1011,21 @@ public class JBlock implements IJGenerable, IJStatement
       generateBody (f);
       if (m_bIndentRequired)
         f.outdent ();
-      if (m_bBracesRequired)
+      if (bBraces)
         f.print ('}');
     }
   }
 
+  /**
+   * @return <code>true</code> if braces are emitted around the contents.
+   *         Generating may not modify the block, as frozen code models can be
+   *         built concurrently.
+   */
+  /* package */ boolean generatesBraces ()
+  {
+    return m_bBracesRequired;
+  }
+
   protected void generateBody (@Nonnull final JFormatter f)
   {
     for (final IJObject aContentElement : m_aContentList)
@@ -918,7 +1046,7 @@ public class JBlock implements IJGenerable, IJStatement
   public void state (@Nonnull final JFormatter f)
   {
     f.generable (this);
-    if (m_bBracesRequired)
+    if (generatesBraces ())
       f.newline ();
   }
 }
@@ -0,0 +1,432 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A hash-consing factory for expressions. For the same input it always returns
+ * the same expression instance, so that large method bodies can share common
+ * sub-expressions like <code>0</code>, <code>null</code>,
+ * <code>this.field</code> or <code>x == null</code>, and canonical expressions
+ * can be compared by identity.
+ * <p>
+ * Operands of operators and the left hand side of field references are
+ * compared by identity, so operators are only shared, if their operands are
+ * shared as well (e.g. created by the same factory). Literals and names are
+ * compared by value.
+ * <p>
+ * The returned expressions are shared and must therefore not be modified
+ * (e.g. via {@link JFieldRef#explicitThis(boolean)} or
+ * {@link JStringLiteral#what(String)}).
+ *
+ * @author Philip Helger
+ * @see JCodeModel#canonicalExpr()
+ * @since 3.0.3
+ */
+@NotThreadSafe
+public final class JCanonicalExprFactory
+{
+  /**
+   * Key of a canonical expression. Strings, numbers, characters and booleans
+   * are compared by value, everything else by identity.
+   */
+  private static final class Key
+  {
+    private final String m_sKind;
+    private final Object m_aPart1;
+    private final Object m_aPart2;
+    private final Object m_aPart3;
+    private final int m_nHashCode;
+
+    Key (@Nonnull final String sKind,
+         @Nullable final Object aPart1,
+         @Nullable final Object aPart2,
+         @Nullable final Object aPart3)
+    {
+      m_sKind = sKind;
+      m_aPart1 = aPart1;
+      m_aPart2 = aPart2;
+      m_aPart3 = aPart3;
+      int nHashCode = sKind.hashCode ();
+      nHashCode = nHashCode * 31 + _hashCode (aPart1);
+      nHashCode = nHashCode * 31 + _hashCode (aPart2);
+      nHashCode = nHashCode * 31 + _hashCode (aPart3);
+      m_nHashCode = nHashCode;
+    }
+
+    private static boolean _isValue (@Nullable final Object aPart)
+    {
+      return aPart instanceof String ||
+             aPart instanceof Number ||
+             aPart instanceof Character ||
+             aPart instanceof Boolean;
+    }
+
+    private static int _hashCode (@Nullable final Object aPart)
+    {
+      if (aPart == null)
+        return 0;
+      return _isValue (aPart) ? aPart.hashCode () : System.identityHashCode (aPart);
+    }
+
+    private static boolean _isSame (@Nullable final Object aPart1, @Nullable final Object aPart2)
+    {
+      if (aPart1 == aPart2)
+        return true;
+      return _isValue (aPart1) && aPart1.equals (aPart2);
+    }
+
+    @Override
+    public boolean equals (final Object o)
+    {
+      if (o == this)
+        return true;
+      if (!(o instanceof Key))
+        return false;
+      final Key rhs = (Key) o;
+      return m_nHashCode == rhs.m_nHashCode &&
+             m_sKind.equals (rhs.m_sKind) &&
+             _isSame (m_aPart1, rhs.m_aPart1) &&
+             _isSame (m_aPart2, rhs.m_aPart2) &&
+             _isSame (m_aPart3, rhs.m_aPart3);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      return m_nHashCode;
+    }
+  }
+
+  private final Map <Key, IJExpression> m_aExpressions = new HashMap <> ();
+
+  public JCanonicalExprFactory ()
+  {}
+
+  @SuppressWarnings ("unchecked")
+  @Nonnull
+  private <T extends IJExpression> T _get (@Nonnull final String sKind,
+                                           @Nullable final Object aPart1,
+                                           @Nullable final Object aPart2,
+                                           @Nullable final Object aPart3,
+                                           @Nonnull final Supplier <T> aFactory)
+  {
+    final Key aKey = new Key (sKind, aPart1, aPart2, aPart3);
+    IJExpression ret = m_aExpressions.get (aKey);
+    if (ret == null)
+    {
+      ret = aFactory.get ();
+      m_aExpressions.put (aKey, ret);
+    }
+    return (T) ret;
+  }
+
+  /**
+   * @return The number of canonical expressions created so far. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    return m_aExpressions.size ();
+  }
+
+  /* -- Atoms and literals -- */
+
+  @Nonnull
+  public JAtom _this ()
+  {
+    return JExpr._this ();
+  }
+
+  @Nonnull
+  public JAtom _super ()
+  {
+    return JExpr._super ();
+  }
+
+  @Nonnull
+  public JAtom _null ()
+  {
+    return JExpr._null ();
+  }
+
+  @Nonnull
+  public JAtom lit (final boolean b)
+  {
+    return JExpr.lit (b);
+  }
+
+  @Nonnull
+  public JAtomInt lit (final int n)
+  {
+    return _get ("int", Integer.valueOf (n), null, null, () -> JExpr.lit (n));
+  }
+
+  @Nonnull
+  public JAtomLong lit (final long n)
+  {
+    return _get ("long", Long.valueOf (n), null, null, () -> JExpr.lit (n));
+  }
+
+  @Nonnull
+  public JAtomFloat lit (final float f)
+  {
+    // Float.equals distinguishes 0.0 and -0.0
+    return _get ("float", Float.valueOf (f), null, null, () -> JExpr.lit (f));
+  }
+
+  @Nonnull
+  public JAtomDouble lit (final double d)
+  {
+    // Double.equals distinguishes 0.0 and -0.0
+    return _get ("double", Double.valueOf (d), null, null, () -> JExpr.lit (d));
+  }
+
+  @Nonnull
+  public JAtom lit (final char c)
+  {
+    return _get ("char", Character.valueOf (c), null, null, () -> JExpr.lit (c));
+  }
+
+  @Nonnull
+  public JStringLiteral lit (@Nonnull final String sStr)
+  {
+    return _get ("String", sStr, null, null, () -> JExpr.lit (sStr));
+  }
+
+  /* -- Field references -- */
+
+  @Nonnull
+  public JFieldRef ref (@Nonnull final JVar aField)
+  {
+    return ref (null, aField);
+  }
+
+  @Nonnull
+  public JFieldRef ref (@Nonnull final String sField)
+  {
+    return ref (null, sField);
+  }
+
+  @Nonnull
+  public JFieldRef ref (@Nullable final IJExpression aLhs, @Nonnull final JVar aField)
+  {
+    return _get ("ref", aLhs, aField, Boolean.FALSE, () -> JExpr.ref (aLhs, aField));
+  }
+
+  @Nonnull
+  public JFieldRef ref (@Nullable final IJExpression aLhs, @Nonnull final String sField)
+  {
+    return _get ("ref", aLhs, sField, Boolean.FALSE, () -> JExpr.ref (aLhs, sField));
+  }
+
+  @Nonnull
+  public JFieldRef refthis (@Nonnull final JVar aField)
+  {
+    return _get ("ref", null, aField, Boolean.TRUE, () -> JExpr.refthis (aField));
+  }
+
+  @Nonnull
+  public JFieldRef refthis (@Nonnull final String sField)
+  {
+    return _get ("ref", null, sField, Boolean.TRUE, () -> JExpr.refthis (sField));
+  }
+
+  /* -- Unary operators -- */
+
+  @Nonnull
+  public JOpUnary minus (@Nonnull final IJExpression aExpr)
+  {
+    return _get ("-x", aExpr, null, null, () -> JOp.minus (aExpr));
+  }
+
+  @Nonnull
+  public IJExpression not (@Nonnull final IJExpression aExpr)
+  {
+    return _get ("!", aExpr, null, null, () -> JOp.not (aExpr));
+  }
+
+  @Nonnull
+  public JOpUnary complement (@Nonnull final IJExpression aExpr)
+  {
+    return _get ("~", aExpr, null, null, () -> JOp.complement (aExpr));
+  }
+
+  /* -- Binary operators -- */
+
+  @Nonnull
+  public JOpBinary plus (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("+", aLhs, aRhs, null, () -> JOp.plus (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary minus (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("-", aLhs, aRhs, null, () -> JOp.minus (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary mul (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("*", aLhs, aRhs, null, () -> JOp.mul (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary div (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("/", aLhs, aRhs, null, () -> JOp.div (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary mod (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("%", aLhs, aRhs, null, () -> JOp.mod (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary shl (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("<<", aLhs, aRhs, null, () -> JOp.shl (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary shr (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get (">>", aLhs, aRhs, null, () -> JOp.shr (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary shrz (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get (">>>", aLhs, aRhs, null, () -> JOp.shrz (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary band (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("&", aLhs, aRhs, null, () -> JOp.band (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary bor (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("|", aLhs, aRhs, null, () -> JOp.bor (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public IJExpression cand (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("&&", aLhs, aRhs, null, () -> JOp.cand (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public IJExpression cor (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("||", aLhs, aRhs, null, () -> JOp.cor (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary xor (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("^", aLhs, aRhs, null, () -> JOp.xor (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary lt (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("<", aLhs, aRhs, null, () -> JOp.lt (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary lte (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("<=", aLhs, aRhs, null, () -> JOp.lte (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary gt (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get (">", aLhs, aRhs, null, () -> JOp.gt (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary gte (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get (">=", aLhs, aRhs, null, () -> JOp.gte (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary eq (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("==", aLhs, aRhs, null, () -> JOp.eq (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary ne (@Nonnull final IJExpression aLhs, @Nonnull final IJExpression aRhs)
+  {
+    return _get ("!=", aLhs, aRhs, null, () -> JOp.ne (aLhs, aRhs));
+  }
+
+  @Nonnull
+  public JOpBinary _instanceof (@Nonnull final IJExpression aLhs, @Nonnull final AbstractJType aRhs)
+  {
+    return _get ("instanceof", aLhs, aRhs, null, () -> JOp._instanceof (aLhs, aRhs));
+  }
+
+  /* -- Ternary operators -- */
+
+  @Nonnull
+  public JOpTernary cond (@Nonnull final IJExpression aCond,
+                          @Nonnull final IJExpression aIfTrue,
+                          @Nonnull final IJExpression aIfFalse)
+  {
+    return _get ("?:", aCond, aIfTrue, aIfFalse, () -> JOp.cond (aCond, aIfTrue, aIfFalse));
+  }
+}
@@ -48,6 +48,8 @@ import javax.annotation.Nullable;
  */
 public class JCase implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * label part of the case statement
    */
@@ -101,6 +103,16 @@ public class JCase implements IJStatement
     return m_bIsDefaultCase;
   }
 
+  /**
+   * @return <code>true</code> if the body was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasBody ()
+  {
+    return m_aBody != null;
+  }
+
   @Nonnull
   public JBlock body ()
   {
@@ -45,11 +45,15 @@ import static com.helger.jcodemodel.util.JCHashCodeGenerator.getHashCode;
 
 import javax.annotation.Nonnull;
 
+import com.helger.jcodemodel.util.JCStructuralHashCode;
+
 /**
  * A cast operation.
  */
 public class JCast implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * JType to which the expression is to be cast.
    */
@@ -60,6 +64,15 @@ public class JCast implements IJExpression
    */
   private final IJExpression m_aObject;
 
+  /** Memoized structural hash code. 0 if not yet calculated. */
+  private transient int m_nHashCode;
+
+  /** The modification stamp {@link #m_nHashCode} was calculated with. */
+  private transient long m_nHashCodeStamp;
+
+  /** Lazily determined result of {@link #isHashCodeStable()}. */
+  private transient Boolean m_aHashCodeStable;
+
   /**
    * JCast constructor
    *
@@ -102,9 +115,28 @@ public class JCast implements IJExpression
     return isEqual (m_aType.fullName (), rhs.m_aType.fullName ()) && isEqual (m_aObject, rhs.m_aObject);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    if (m_aHashCodeStable == null)
+      m_aHashCodeStable = Boolean.valueOf (JCStructuralHashCode.areStable (m_aObject));
+    return m_aHashCodeStable.booleanValue ();
+  }
+
   @Override
   public int hashCode ()
   {
-    return getHashCode (this, m_aType.fullName (), m_aObject);
+    int ret = m_nHashCode;
+    final long nStamp = JCStructuralHashCode.getModificationStamp ();
+    if (ret == 0 || m_nHashCodeStamp != nStamp)
+    {
+      ret = getHashCode (this, m_aType.fullName (), m_aObject);
+      if (isHashCodeStable ())
+      {
+        m_nHashCode = ret;
+        m_nHashCodeStamp = nStamp;
+      }
+    }
+    return ret;
   }
 }
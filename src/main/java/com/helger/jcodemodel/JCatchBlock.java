@@ -48,6 +48,11 @@ import javax.annotation.Nullable;
  */
 public class JCatchBlock implements IJGenerable
 {
+  private static final long serialVersionUID = 1L;
+
+  /** The name of the parameter if none was set explicitly */
+  /* package */ static final String DEFAULT_PARAM_NAME = "ex";
+
   private final AbstractJClass m_aException;
   private JVar m_aVar;
   private final JBlock m_aBody = new JBlock ();
@@ -87,7 +92,7 @@ public class JCatchBlock implements IJGenerable
   public void generate (@Nonnull final JFormatter f)
   {
     if (m_aVar == null)
-      m_aVar = new JVar (JMods.forVar (JMod.FINAL), m_aException, "ex", null);
+      m_aVar = new JVar (JMods.forVar (JMod.FINAL), m_aException, DEFAULT_PARAM_NAME, null);
     f.print ("catch (").var (m_aVar).print (')').generable (m_aBody);
   }
 }
@@ -42,9 +42,13 @@ package com.helger.jcodemodel;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.PrintStream;
+import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -52,10 +56,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.WillNotClose;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
@@ -63,6 +70,7 @@ import javax.lang.model.util.Elements;
 import com.helger.jcodemodel.meta.CodeModelBuildingException;
 import com.helger.jcodemodel.meta.ErrorTypeFound;
 import com.helger.jcodemodel.meta.JCodeModelJavaxLangModelAdapter;
+import com.helger.jcodemodel.util.JCMemoryFootprint;
 import com.helger.jcodemodel.util.JCSecureLoader;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 import com.helger.jcodemodel.writer.FileCodeWriter;
@@ -97,9 +105,27 @@ import com.helger.jcodemodel.writer.ProgressCodeWriter;
  * <p>
  * Most of the time you'd want to populate new type definitions in a
  * {@link JCodeModel}. See {@link #_class(String, EClassType)}.
+ * <h2>Sharing a model</h2>
+ * <p>
+ * A model that is completely populated can be frozen with {@link #freeze()}.
+ * A frozen model rejects all further structural modifications and can be built
+ * from multiple threads concurrently. Use {@link #fork()} to get a modifiable
+ * overlay on top of a frozen model.
+ * <h2>Persisting a model</h2>
+ * <p>
+ * A model is serializable and can be stored and restored efficiently with
+ * {@link JCodeModelSnapshot}.
+ * <h2>Streaming generation</h2>
+ * <p>
+ * Completed top-level classes can be written right away with
+ * {@link #emit(JDefinedClass, AbstractCodeWriter)}, which releases their
+ * contents, so huge models don't need to be kept in memory until
+ * {@link #build(AbstractCodeWriter, AbstractCodeWriter)} is called.
  */
-public final class JCodeModel
+public final class JCodeModel implements Serializable
 {
+  private static final long serialVersionUID = 1L;
+
   protected static boolean checkIfFileSystemIsCaseSensitive ()
   {
     try
@@ -174,11 +200,37 @@ public final class JCodeModel
     primitiveToBox = Collections.unmodifiableMap (m2);
   }
 
-  /** The packages that this JCodeWriter contains. */
-  private final Map <String, JPackage> m_aPackages = new HashMap <> ();
+  /**
+   * The packages that this JCodeWriter contains. Concurrent because packages
+   * are also created while building (e.g. for referenced classes).
+   */
+  private final Map <String, JPackage> m_aPackages = new ConcurrentHashMap <> ();
 
   /** All JReferencedClasses are pooled here. */
-  private final Map <Class <?>, JReferencedClass> m_aRefClasses = new HashMap <> ();
+  private final Map <Class <?>, JReferencedClass> m_aRefClasses = new ConcurrentHashMap <> ();
+
+  /** The frozen model this model is a fork of. May be <code>null</code>. */
+  private final JCodeModel m_aBase;
+
+  /**
+   * <code>true</code> if this model may no longer be modified. Volatile,
+   * because freezing publishes the model to other threads.
+   */
+  private volatile boolean m_bFrozen = false;
+
+  /**
+   * <code>true</code> if at least one {@link JErrorClass} was created for this
+   * model. If not, no class can reference an error type.
+   */
+  private volatile boolean m_bHasErrorClasses = false;
+
+  /**
+   * Incremented whenever a super class, interface or type variable bound is
+   * added. Used to check if the memoized
+   * {@link AbstractJClass#getBaseClass(AbstractJClass)} results of a class are
+   * affected.
+   */
+  private final AtomicLong m_aTypeHierarchyVersion = new AtomicLong ();
 
   /** Obtains a reference to the special "null" type. */
   public final JNullType NULL = new JNullType (this);
@@ -199,26 +251,190 @@ public final class JCodeModel
   private AbstractJClass m_aWildcard;
 
   /** The charset used for building the output - null means system default */
-  private Charset m_aBuildingCharset;
+  private transient Charset m_aBuildingCharset;
 
   /** The newline string to be used. Defaults to system default */
   private String m_sBuildingNewLine = AbstractCodeWriter.getDefaultNewLine ();
 
   private final Set <AbstractJClass> m_aDontImportClasses = new HashSet <> ();
 
+  /** Lazily created hash-consing expression factory */
+  private transient JCanonicalExprFactory m_aCanonicalExprFactory;
+
   public JCodeModel ()
-  {}
+  {
+    m_aBase = null;
+  }
+
+  private JCodeModel (@Nonnull final JCodeModel aBase)
+  {
+    m_aBase = aBase;
+    m_aBuildingCharset = aBase.m_aBuildingCharset;
+    m_sBuildingNewLine = aBase.m_sBuildingNewLine;
+    m_aDontImportClasses.addAll (aBase.m_aDontImportClasses);
+  }
+
+  /**
+   * Freeze this code model. Afterwards no more classes, packages contents,
+   * class members, block contents or build settings can be added, removed or
+   * changed, and trying to do so results in an {@link IllegalStateException}.
+   * Statements and expressions themselves (e.g. the arguments of a
+   * {@link JInvocation} or the else block of a {@link JConditional}) are not
+   * guarded and must be treated as read-only by the caller. {@link #ref(Class)}
+   * can still be used, as referenced classes are immutable and only pooled, and
+   * {@link #_package(String)} no longer adds packages.<br>
+   * A frozen model can be built concurrently from multiple threads, as long as
+   * it was handed over to these threads in a thread-safe way. Use
+   * {@link #fork()} to create modifiable variants.
+   *
+   * @return this for chaining
+   * @since 3.0.3
+   */
+  @Nonnull
+  public JCodeModel freeze ()
+  {
+    if (!m_bFrozen)
+    {
+      // Compute all lazily cached values, so that building only reads
+      wildcard ();
+      for (final JPackage aPackage : m_aPackages.values ())
+        _resolveSortedClasses (aPackage.classes ());
+      // Forks share the referenced classes, so their packages must exist
+      for (final JReferencedClass aRefClass : m_aRefClasses.values ())
+        aRefClass._package ();
+      m_bFrozen = true;
+      freezeBlocks ();
+    }
+    return this;
+  }
+
+  /**
+   * Mark all blocks of this model as frozen, as blocks don't know their code
+   * model. Also called after a frozen model was deserialized.
+   */
+  /* package */ void freezeBlocks ()
+  {
+    final IJModelVisitor aVisitor = new IJModelVisitor ()
+    {
+      @Override
+      public EVisitResult visitStatement (@Nonnull final IJStatement aStatement)
+      {
+        if (aStatement instanceof JBlock)
+          ((JBlock) aStatement).freeze ();
+        return EVisitResult.CONTINUE;
+      }
+    };
+    for (final JPackage aPackage : m_aPackages.values ())
+      for (final JDefinedClass aClass : aPackage.classes ())
+        JModelWalker.walkClass (aClass, aVisitor);
+  }
+
+  private static void _resolveSortedClasses (@Nonnull final Collection <JDefinedClass> aClasses)
+  {
+    for (final JDefinedClass aClass : aClasses)
+      _resolveSortedClasses (aClass.classes ());
+  }
+
+  /**
+   * @return <code>true</code> if {@link #freeze()} was called on this model.
+   * @since 3.0.3
+   */
+  public boolean isFrozen ()
+  {
+    return m_bFrozen;
+  }
+
+  /* package */ void onErrorClassCreated ()
+  {
+    m_bHasErrorClasses = true;
+  }
+
+  /* package */ long onTypeHierarchyChanged ()
+  {
+    return m_aTypeHierarchyVersion.incrementAndGet ();
+  }
+
+  /* package */ long getTypeHierarchyVersion ()
+  {
+    return m_aTypeHierarchyVersion.get ();
+  }
+
+  /**
+   * @return <code>true</code> if at least one error class was created for this
+   *         model or for the model it was forked from.
+   * @see #errorClass(String)
+   * @since 3.0.3
+   */
+  public boolean hasErrorClasses ()
+  {
+    return m_bHasErrorClasses || (m_aBase != null && m_aBase.m_bHasErrorClasses);
+  }
+
+  /* package */ void checkNotFrozen ()
+  {
+    if (m_bFrozen)
+      throw new IllegalStateException ("This code model is frozen and can no longer be modified - fork it instead");
+  }
+
+  /**
+   * Create a modifiable overlay on top of this frozen model. The fork shares
+   * all packages, classes and referenced classes of this model without copying
+   * them, so creating a fork is cheap. The fork never modifies this model:
+   * classes that are referenced for the first time in the fork are kept in the
+   * fork. Classes created in the fork are only
+   * visible in the fork. A class created in the fork replaces the class with
+   * the same fully qualified name of this model in the output of the fork
+   * (copy-on-write on class level), so a variant of a shared class is created
+   * by defining it again in the fork. Resource files and package annotations
+   * are replaced the same way. The build settings are copied at the time of
+   * forking.
+   *
+   * @return A new modifiable code model that builds all classes of this model
+   *         and its own classes.
+   * @throws IllegalStateException
+   *         If this model is not frozen or if this model is a fork itself
+   * @since 3.0.3
+   */
+  @Nonnull
+  public JCodeModel fork ()
+  {
+    // Not checked with JCValueEnforcer, as these checks must not be disabled
+    if (!m_bFrozen)
+      throw new IllegalStateException ("Only frozen code models can be forked");
+    if (m_aBase != null)
+      throw new IllegalStateException ("A fork cannot be forked again");
+    return new JCodeModel (this);
+  }
+
+  /**
+   * @return The frozen model this model was forked from or <code>null</code>
+   *         if this model is not a fork.
+   * @since 3.0.3
+   */
+  @Nullable
+  public JCodeModel getForkBase ()
+  {
+    return m_aBase;
+  }
 
   /**
    * Add a package to the list of packages to be generated
    *
    * @param sName
    *        Name of the package. Use "" to indicate the root package.
-   * @return Newly generated package
+   * @return Newly generated package. If this model is frozen and does not
+   *         contain the package, an empty package is returned that is not
+   *         added to this model.
    */
   @Nonnull
   public JPackage _package (@Nonnull final String sName)
   {
+    if (m_bFrozen)
+    {
+      // Lookup only - e.g. for classes referenced while building
+      final JPackage ret = m_aPackages.get (sName);
+      return ret != null ? ret : new JPackage (sName, this);
+    }
     return m_aPackages.computeIfAbsent (sName, k -> new JPackage (k, this));
   }
 
@@ -422,18 +638,29 @@ public final class JCodeModel
   }
 
   /**
-   * Check if any error-types leaked into output Java-sources.
+   * Check if any error-types leaked into output Java-sources. If no error class
+   * was ever created for this model, this check is performed in constant time.
+   * Otherwise the classes are checked until the first error type is found.
+   * Error classes created by other code models are not considered.
    *
    * @return <code>true</code> if so
    * @see JCodeModel#errorClass(String)
    */
   public boolean buildsErrorTypeRefs ()
   {
+    if (!hasErrorClasses ())
+      return false;
+
+    if (m_aBase != null)
+      for (final JPackage pkg : m_aBase.m_aPackages.values ())
+        if (pkg.buildsErrorTypeRefs (m_aPackages.get (pkg.name ())))
+          return true;
+
     final JPackage [] pkgs = m_aPackages.values ().toArray (new JPackage [m_aPackages.size ()]);
     // avoid concurrent modification exception
     for (final JPackage pkg : pkgs)
     {
-      if (pkg.buildsErrorTypeRefs ())
+      if (pkg.buildsErrorTypeRefs (null))
         return true;
     }
     return false;
@@ -451,10 +678,13 @@ public final class JCodeModel
   public JDefinedClass _getClass (@Nonnull final String sFullyQualifiedClassName)
   {
     final int nIndex = sFullyQualifiedClassName.lastIndexOf ('.');
-    if (nIndex < 0)
-      return rootPackage ()._getClass (sFullyQualifiedClassName);
-    return _package (sFullyQualifiedClassName.substring (0,
-                                                         nIndex))._getClass (sFullyQualifiedClassName.substring (nIndex + 1));
+    final String sPackageName = nIndex < 0 ? "" : sFullyQualifiedClassName.substring (0, nIndex);
+    final JPackage aPackage = m_aPackages.get (sPackageName);
+    final JDefinedClass ret = aPackage == null ? null
+                                               : aPackage._getClass (sFullyQualifiedClassName.substring (nIndex + 1));
+    if (ret == null && m_aBase != null)
+      return m_aBase._getClass (sFullyQualifiedClassName);
+    return ret;
   }
 
   /**
@@ -504,6 +734,7 @@ public final class JCodeModel
   @Nonnull
   public JCodeModel setBuildingCharset (@Nullable final Charset aCharset)
   {
+    checkNotFrozen ();
     m_aBuildingCharset = aCharset;
     return this;
   }
@@ -528,10 +759,46 @@ public final class JCodeModel
   public JCodeModel setBuildingNewLine (@Nonnull final String sNewLine)
   {
     JCValueEnforcer.notEmpty (sNewLine, "NewLine");
+    checkNotFrozen ();
     m_sBuildingNewLine = sNewLine;
     return this;
   }
 
+  /**
+   * Get the hash-consing expression factory of this model. It returns shared
+   * canonical instances for literals, field references and operators, which
+   * saves memory if the same expressions are created very often. Using it is
+   * optional - expressions created by {@link JExpr} and {@link JOp} can be
+   * mixed with canonical ones.
+   *
+   * @return The lazily created factory. Never <code>null</code>.
+   * @since 3.0.3
+   */
+  @Nonnull
+  public JCanonicalExprFactory canonicalExpr ()
+  {
+    if (m_aCanonicalExprFactory == null)
+      m_aCanonicalExprFactory = new JCanonicalExprFactory ();
+    return m_aCanonicalExprFactory;
+  }
+
+  private void writeObject (@Nonnull final ObjectOutputStream aOOS) throws IOException
+  {
+    aOOS.defaultWriteObject ();
+    aOOS.writeObject (m_aBuildingCharset == null ? null : m_aBuildingCharset.name ());
+  }
+
+  private void readObject (@Nonnull final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  {
+    aOIS.defaultReadObject ();
+    final String sCharsetName = (String) aOIS.readObject ();
+    m_aBuildingCharset = sCharsetName == null ? null : Charset.forName (sCharsetName);
+    // Snapshots read the block contents after the model and freeze the blocks
+    // themselves
+    if (m_bFrozen && !(aOIS instanceof JCodeModelSnapshot.SnapshotInputStream))
+      aOIS.registerValidation (this::freezeBlocks, 0);
+  }
+
   /**
    * Generates Java source code. A convenience method for
    * <code>build(destDir,destDir,status)</code>.
@@ -633,10 +900,14 @@ public final class JCodeModel
   {
     try
     {
+      if (m_aBase != null)
+        for (final JPackage pkg : m_aBase.m_aPackages.values ())
+          pkg.build (aSource, aResource, m_aPackages.get (pkg.name ()));
+
       // Copy to avoid concurrent modification exception
       final List <JPackage> pkgs = new ArrayList <> (m_aPackages.values ());
       for (final JPackage pkg : pkgs)
-        pkg.build (aSource, aResource);
+        pkg.build (aSource, aResource, null);
     }
     finally
     {
@@ -645,6 +916,85 @@ public final class JCodeModel
     }
   }
 
+  /**
+   * Write a completed top-level class (including its nested classes) to the
+   * passed source writer right away, instead of waiting for
+   * {@link #build(AbstractCodeWriter, AbstractCodeWriter)}. Afterwards the
+   * fields, methods, initializers, annotations and javadoc of the class are
+   * released, and only a stub is kept, which can still be referenced by other
+   * classes but no longer be modified (see
+   * {@link JDefinedClass#isEmitted()}). The emitted class is not written again
+   * by the final build, which must still be called for all other artifacts.
+   *
+   * @param aClass
+   *        The top-level class of this model to write. May not be
+   *        <code>null</code>.
+   * @param aSrcWriter
+   *        The source writer to use. May not be <code>null</code>. It is not
+   *        closed, so the same writer can be passed to the final build, which
+   *        closes it.
+   * @throws IOException
+   *         on IO error
+   * @throws IllegalArgumentException
+   *         If the class is not a top-level class of this model or was already
+   *         emitted
+   * @since 3.0.3
+   */
+  public void emit (@Nonnull final JDefinedClass aClass,
+                    @Nonnull @WillNotClose final AbstractCodeWriter aSrcWriter) throws IOException
+  {
+    JCValueEnforcer.notNull (aClass, "Class");
+    JCValueEnforcer.notNull (aSrcWriter, "SrcWriter");
+    JCValueEnforcer.isTrue (aClass.owner () == this, "The class belongs to a different code model");
+    JCValueEnforcer.isTrue (aClass.parentContainer ().isPackage () &&
+                            aClass._package ()._getClass (aClass.name ()) == aClass,
+                            () -> aClass.fullName () + " is not a top-level class");
+    JCValueEnforcer.isFalse (aClass.isEmitted (), () -> aClass.fullName () + " was already emitted");
+    checkNotFrozen ();
+
+    aClass._package ().emit (aClass, aSrcWriter);
+  }
+
+  /**
+   * Write all top-level classes of the passed package that were not yet
+   * emitted to the passed source writer right away. See
+   * {@link #emit(JDefinedClass, AbstractCodeWriter)} for details. Package
+   * annotations and resource files are written by the final build.
+   *
+   * @param aPackage
+   *        The package of this model to write. May not be <code>null</code>.
+   * @param aSrcWriter
+   *        The source writer to use. May not be <code>null</code>. It is not
+   *        closed.
+   * @throws IOException
+   *         on IO error
+   * @since 3.0.3
+   */
+  public void emit (@Nonnull final JPackage aPackage,
+                    @Nonnull @WillNotClose final AbstractCodeWriter aSrcWriter) throws IOException
+  {
+    JCValueEnforcer.notNull (aPackage, "Package");
+    JCValueEnforcer.isTrue (aPackage.owner () == this, "The package belongs to a different code model");
+
+    for (final JDefinedClass aClass : aPackage.classes ())
+      if (!aClass.isEmitted ())
+        emit (aClass, aSrcWriter);
+  }
+
+  /**
+   * Estimate the memory retained by this code model, grouped by the model
+   * element type. This walks the whole model, so it should be used for
+   * monitoring and not be called too often.
+   *
+   * @return The estimated footprint. Never <code>null</code>.
+   * @since 3.0.3
+   */
+  @Nonnull
+  public JCMemoryFootprint getMemoryFootprint ()
+  {
+    return JCMemoryFootprint.estimate (this);
+  }
+
   /**
    * @return the number of files to be generated if {@link #build} is invoked
    *         now.
@@ -653,17 +1003,23 @@ public final class JCodeModel
   public int countArtifacts ()
   {
     int r = 0;
+    if (m_aBase != null)
+      for (final JPackage pkg : m_aBase.m_aPackages.values ())
+        r += pkg.countArtifacts (m_aPackages.get (pkg.name ()));
+
     final JPackage [] pkgs = m_aPackages.values ().toArray (new JPackage [m_aPackages.size ()]);
     // avoid concurrent modification exception
     for (final JPackage pkg : pkgs)
-      r += pkg.countArtifacts ();
+      r += pkg.countArtifacts (null);
     return r;
   }
 
   /**
    * Obtains a reference to an existing class from its Class object.
    * <p>
-   * The parameter may not be primitive.
+   * The parameter may not be primitive. On a frozen model this is still
+   * possible, as the pool of referenced classes is thread-safe and doesn't
+   * change the generated output.
    *
    * @param aClazz
    *        Existing class to reference
@@ -675,6 +1031,11 @@ public final class JCodeModel
   public AbstractJClass ref (@Nonnull final Class <?> aClazz)
   {
     JReferencedClass aRefClass = m_aRefClasses.get (aClazz);
+    if (aRefClass == null && m_aBase != null)
+    {
+      // Share the references of the base model, but never add new ones to it
+      aRefClass = m_aBase.m_aRefClasses.get (aClazz);
+    }
     if (aRefClass == null)
     {
       if (aClazz.isPrimitive ())
@@ -691,7 +1052,12 @@ public final class JCodeModel
       }
 
       aRefClass = new JReferencedClass (this, aClazz);
-      m_aRefClasses.put (aClazz, aRefClass);
+      // May be called concurrently on frozen models. The pool is also filled
+      // on frozen models, because the formatter relies on the identity of
+      // referenced classes and they don't change the output.
+      final JReferencedClass aOld = m_aRefClasses.putIfAbsent (aClazz, aRefClass);
+      if (aOld != null)
+        aRefClass = aOld;
     }
     return aRefClass;
   }
@@ -1035,6 +1401,7 @@ public final class JCodeModel
   public boolean addDontImportClass (@Nonnull final AbstractJClass aClass)
   {
     JCValueEnforcer.notNull (aClass, "Class");
+    checkNotFrozen ();
     return m_aDontImportClasses.add (aClass);
   }
 
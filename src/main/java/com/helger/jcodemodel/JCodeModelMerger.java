@@ -0,0 +1,343 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
+/**
+ * Merges the packages, classes and resource files of independently built code
+ * models into one model. This allows to populate disjoint parts of a large
+ * model concurrently - each thread with its own, not thread-safe
+ * {@link JCodeModel} - and to build them as one.
+ * <p>
+ * The classes of the source models are rebound to the target model: all
+ * references to the source model, its packages, its primitive types and its
+ * referenced classes (see {@link JCodeModel#ref(Class)}) are replaced with the
+ * respective objects of the target model. This is done by copying the classes
+ * with the same mechanism as {@link JCodeModelSnapshot}, so the classes of the
+ * source models stay unchanged and the source models should be discarded
+ * afterwards. The sources are copied one after another, so that only the
+ * serialized form of a single source model is held in memory at a time.
+ * Resource files don't reference their model and are not copied: the same
+ * instances are added to the target model, so they are shared with the source
+ * models and must not be modified afterwards.
+ * <p>
+ * All conflicts are detected before the target model is modified: two classes
+ * with the same fully qualified name (or names differing only in case on case
+ * insensitive file systems), two resource files with the same name in the same
+ * package and package annotations or javadoc for the same package in more than
+ * one model.
+ * <p>
+ * Each source model must be self-contained: its classes may only reference
+ * classes of the same source model or referenced classes (see
+ * {@link JCodeModel#ref(Class)}). Classes built by one worker cannot reference
+ * the classes of another worker's model - e.g. a class extending a class of
+ * another source model - as they would not be rebound. Use
+ * {@link JCodeModel#ref(String)} or {@link JCodeModel#directClass(String)} for
+ * such references instead.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+@Immutable
+public final class JCodeModelMerger
+{
+  private enum EPlaceholderType
+  {
+    MODEL,
+    PACKAGE,
+    PRIMITIVE,
+    NULL,
+    REFERENCED_CLASS;
+  }
+
+  /**
+   * Written instead of the objects of the source model that are replaced by
+   * the respective objects of the target model.
+   */
+  private static final class Placeholder implements Serializable
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final EPlaceholderType m_eType;
+    private final String m_sName;
+    private final Class <?> m_aClass;
+
+    Placeholder (@Nonnull final EPlaceholderType eType, @Nullable final String sName, @Nullable final Class <?> aClass)
+    {
+      m_eType = eType;
+      m_sName = sName;
+      m_aClass = aClass;
+    }
+  }
+
+  private static final class MergeOutputStream extends JCodeModelSnapshot.SnapshotOutputStream
+  {
+    private final JCodeModel m_aSource;
+
+    MergeOutputStream (@Nonnull final OutputStream aOS, @Nonnull final JCodeModel aSource) throws IOException
+    {
+      super (aOS);
+      m_aSource = aSource;
+      enableReplaceObject (true);
+    }
+
+    @Override
+    protected Object replaceObject (final Object aObj) throws IOException
+    {
+      if (aObj == m_aSource)
+        return new Placeholder (EPlaceholderType.MODEL, null, null);
+      if (aObj instanceof JCodeModel)
+        throw new NotSerializableException ("The source model references another code model");
+      if (aObj instanceof JPackage)
+        return new Placeholder (EPlaceholderType.PACKAGE, ((JPackage) aObj).name (), null);
+      if (aObj instanceof JPrimitiveType)
+        return new Placeholder (EPlaceholderType.PRIMITIVE, ((JPrimitiveType) aObj).fullName (), null);
+      if (aObj instanceof JNullType)
+        return new Placeholder (EPlaceholderType.NULL, null, null);
+      if (aObj instanceof JReferencedClass)
+        return new Placeholder (EPlaceholderType.REFERENCED_CLASS, null, ((JReferencedClass) aObj).getReferencedClass ());
+      return aObj;
+    }
+  }
+
+  private static final class MergeInputStream extends JCodeModelSnapshot.SnapshotInputStream
+  {
+    private final JCodeModel m_aTarget;
+
+    MergeInputStream (@Nonnull final InputStream aIS, @Nonnull final JCodeModel aTarget) throws IOException
+    {
+      super (aIS, null);
+      m_aTarget = aTarget;
+      enableResolveObject (true);
+    }
+
+    @Override
+    protected Object resolveObject (final Object aObj) throws IOException
+    {
+      if (aObj instanceof Placeholder)
+      {
+        final Placeholder aPlaceholder = (Placeholder) aObj;
+        switch (aPlaceholder.m_eType)
+        {
+          case MODEL:
+            return m_aTarget;
+          case PACKAGE:
+            return m_aTarget._package (aPlaceholder.m_sName);
+          case PRIMITIVE:
+            return AbstractJType.parse (m_aTarget, aPlaceholder.m_sName);
+          case NULL:
+            return m_aTarget.NULL;
+          case REFERENCED_CLASS:
+            return m_aTarget.ref (aPlaceholder.m_aClass);
+          default:
+            throw new IllegalStateException ("Unsupported placeholder type " + aPlaceholder.m_eType);
+        }
+      }
+      if (aObj instanceof JErrorClass)
+        m_aTarget.onErrorClassCreated ();
+      return aObj;
+    }
+  }
+
+  /** Used to check if a source model can be serialized */
+  private static final OutputStream DISCARDING_OUTPUT_STREAM = new OutputStream ()
+  {
+    @Override
+    public void write (final int b)
+    {}
+
+    @Override
+    public void write (@Nonnull final byte [] aBuf, final int nOfs, final int nLen)
+    {}
+  };
+
+  private JCodeModelMerger ()
+  {}
+
+  private static void _checkConflicts (@Nonnull final JCodeModel aTarget,
+                                       @Nonnull final JCodeModel... aSources) throws JClassAlreadyExistsException
+  {
+    // All packages with the same name merged so far
+    final Map <String, List <JPackage>> aPackages = new HashMap <> ();
+    final Iterator <JPackage> itTarget = aTarget.packages ();
+    while (itTarget.hasNext ())
+    {
+      final JPackage aPackage = itTarget.next ();
+      aPackages.computeIfAbsent (aPackage.name (), k -> new ArrayList <> ()).add (aPackage);
+    }
+
+    for (final JCodeModel aSource : aSources)
+    {
+      JCValueEnforcer.notNull (aSource, "Source");
+      // Not checked with JCValueEnforcer, as these checks must not be disabled
+      if (aSource == aTarget)
+        throw new IllegalArgumentException ("A code model cannot be merged into itself");
+      if (aSource.getForkBase () != null)
+        throw new IllegalArgumentException ("Forked code models cannot be merged");
+
+      final Iterator <JPackage> itSource = aSource.packages ();
+      while (itSource.hasNext ())
+      {
+        final JPackage aPackage = itSource.next ();
+        final List <JPackage> aSameName = aPackages.computeIfAbsent (aPackage.name (), k -> new ArrayList <> ());
+        for (final JPackage aExisting : aSameName)
+          aExisting.checkMergeable (aPackage);
+        aSameName.add (aPackage);
+      }
+    }
+  }
+
+  private static void _serialize (@Nonnull final JCodeModel aSource, @Nonnull final OutputStream aOS) throws IOException
+  {
+    try (final MergeOutputStream aOOS = new MergeOutputStream (aOS, aSource))
+    {
+      final Iterator <JPackage> it = aSource.packages ();
+      while (it.hasNext ())
+      {
+        final JPackage aPackage = it.next ();
+        aOOS.writeObject (aPackage.name ());
+        aPackage.writeMergeContents (aOOS);
+      }
+      aOOS.writeObject (null);
+      aOOS.writeObject (new ArrayList <> (aSource.getAllDontImportClasses ()));
+      aOOS.writeDeferredContents ();
+    }
+  }
+
+  private static void _merge (@Nonnull final JCodeModel aTarget, @Nonnull final JCodeModel aSource) throws IOException,
+                                                                                                        ClassNotFoundException
+  {
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    _serialize (aSource, aBAOS);
+    try (final MergeInputStream aOIS = new MergeInputStream (new ByteArrayInputStream (aBAOS.toByteArray ()),
+                                                             aTarget))
+    {
+      String sPackageName;
+      while ((sPackageName = (String) aOIS.readObject ()) != null)
+        aTarget._package (sPackageName).readMergeContents (aOIS);
+      @SuppressWarnings ("unchecked")
+      final List <AbstractJClass> aDontImportClasses = (List <AbstractJClass>) aOIS.readObject ();
+      for (final AbstractJClass aClass : aDontImportClasses)
+        aTarget.addDontImportClass (aClass);
+      aOIS.readDeferredContents ();
+    }
+
+    // Resource files don't reference the model
+    final Iterator <JPackage> it = aSource.packages ();
+    while (it.hasNext ())
+    {
+      final JPackage aPackage = it.next ();
+      final Iterator <AbstractJResourceFile> itResources = aPackage.propertyFiles ();
+      while (itResources.hasNext ())
+        aTarget._package (aPackage.name ()).addResourceFile (itResources.next ());
+    }
+  }
+
+  /**
+   * Merge the contents of the passed source models into the target model.
+   *
+   * @param aTarget
+   *        The model to merge into. May not be <code>null</code> and may not be
+   *        frozen.
+   * @param aSources
+   *        The models to be merged. They may not be forks and may not be
+   *        modified while merging. They are not modified, but their resource
+   *        files are shared with the target model.
+   * @throws JClassAlreadyExistsException
+   *         If a class of a source model conflicts with a class of the target
+   *         model or of another source model. The target model is not modified
+   *         in this case.
+   * @throws IllegalArgumentException
+   *         If a resource file, package annotations or package javadoc
+   *         conflict. The target model is not modified in this case.
+   * @throws UncheckedIOException
+   *         If a source model contains an object that is not serializable or
+   *         references another code model. The target model is not modified
+   *         in this case.
+   */
+  public static void merge (@Nonnull final JCodeModel aTarget,
+                            @Nonnull final JCodeModel... aSources) throws JClassAlreadyExistsException
+  {
+    JCValueEnforcer.notNull (aTarget, "Target");
+    JCValueEnforcer.notNull (aSources, "Sources");
+    aTarget.checkNotFrozen ();
+
+    _checkConflicts (aTarget, aSources);
+    try
+    {
+      // Check that all sources can be serialized before the target is
+      // modified. Nothing is retained, so that the sources can be merged one
+      // after another afterwards.
+      for (final JCodeModel aSource : aSources)
+        _serialize (aSource, DISCARDING_OUTPUT_STREAM);
+      for (final JCodeModel aSource : aSources)
+        _merge (aTarget, aSource);
+    }
+    catch (final IOException ex)
+    {
+      throw new UncheckedIOException ("Failed to merge code models", ex);
+    }
+    catch (final ClassNotFoundException ex)
+    {
+      throw new IllegalStateException ("Failed to merge code models", ex);
+    }
+    aTarget.onTypeHierarchyChanged ();
+  }
+}
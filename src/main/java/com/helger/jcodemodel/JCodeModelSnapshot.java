@@ -0,0 +1,293 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.WillNotClose;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
+/**
+ * Stores a complete {@link JCodeModel} in a compact binary snapshot and
+ * restores it again. This allows to cache a model that is expensive to build
+ * (e.g. from a large schema) on disk and to only render it in subsequent runs.
+ * <p>
+ * The snapshot is based on Java serialization, so every object is written only
+ * once and all references between the model objects (including
+ * {@link JCodeModel#ref(Class)} references, which are stored by class name)
+ * are restored identically. The contents of all blocks are written one after
+ * another after the structure of the model, so the nesting depth while writing
+ * and reading does not depend on how many methods reference each other.
+ * <p>
+ * Snapshots are only meant as a cache: they can only be read by a version of
+ * jcodemodel whose classes have the same serialized fields as the version the
+ * snapshot was created with. The serialized fields of every jcodemodel class
+ * are recorded in the snapshot and an {@link IOException} is thrown on read if
+ * they differ. Because reading a snapshot instantiates the contained classes,
+ * only snapshots from a trusted source should be read. Resource files
+ * must be serializable to be contained in a snapshot, which is e.g. not the
+ * case for {@link com.helger.jcodemodel.fmt.JStaticFile}.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+@Immutable
+public final class JCodeModelSnapshot
+{
+  /** "JCMS" */
+  private static final int MAGIC = 0x4a434d53;
+  /**
+   * Must be increased whenever the custom serialized form (writeObject or
+   * writeExternal) of a class changes, as this is not covered by the
+   * fingerprints of the serialized fields.
+   */
+  private static final int FORMAT_VERSION = 1;
+  private static final String PACKAGE_PREFIX = JCodeModel.class.getPackage ().getName () + '.';
+
+  /**
+   * Get a fingerprint of the serialized fields of the passed class, so that
+   * snapshots created by an incompatible version of jcodemodel are detected on
+   * read even though all classes declare a fixed <code>serialVersionUID</code>.
+   *
+   * @param aClass
+   *        The class to get the fingerprint of. May not be <code>null</code>.
+   * @return 0 for classes that are not part of jcodemodel
+   */
+  static long getFieldFingerprint (@Nonnull final Class <?> aClass)
+  {
+    if (!aClass.getName ().startsWith (PACKAGE_PREFIX))
+      return 0;
+    final ObjectStreamClass aDesc = ObjectStreamClass.lookup (aClass);
+    if (aDesc == null)
+      return 0;
+    long ret = 1;
+    for (final ObjectStreamField aField : aDesc.getFields ())
+    {
+      ret = 31 * ret + aField.getName ().hashCode ();
+      final String sType = aField.getTypeString ();
+      ret = 31 * ret + (sType != null ? sType.hashCode () : aField.getTypeCode ());
+    }
+    return ret;
+  }
+
+  /**
+   * Output stream collecting the blocks whose contents are written on top
+   * level after the model.
+   */
+  static class SnapshotOutputStream extends ObjectOutputStream
+  {
+    private final Deque <JBlock> m_aDeferredBlocks = new ArrayDeque <> ();
+
+    SnapshotOutputStream (@Nonnull final OutputStream aOS) throws IOException
+    {
+      super (aOS);
+    }
+
+    @Override
+    protected void annotateClass (@Nonnull final Class <?> aClass) throws IOException
+    {
+      writeLong (getFieldFingerprint (aClass));
+    }
+
+    void deferContents (@Nonnull final JBlock aBlock)
+    {
+      m_aDeferredBlocks.add (aBlock);
+    }
+
+    void writeDeferredContents () throws IOException
+    {
+      JBlock aBlock;
+      while ((aBlock = m_aDeferredBlocks.poll ()) != null)
+      {
+        // Only a back reference
+        writeObject (aBlock);
+        aBlock.writeContents (this);
+      }
+      writeObject (null);
+    }
+  }
+
+  static class SnapshotInputStream extends ObjectInputStream
+  {
+    private final ClassLoader m_aClassLoader;
+
+    SnapshotInputStream (@Nonnull final InputStream aIS, @Nullable final ClassLoader aClassLoader) throws IOException
+    {
+      super (aIS);
+      m_aClassLoader = aClassLoader;
+    }
+
+    @Override
+    protected Class <?> resolveClass (@Nonnull final ObjectStreamClass aDesc) throws IOException,
+                                                                               ClassNotFoundException
+    {
+      final long nFingerprint = readLong ();
+      Class <?> ret = null;
+      if (m_aClassLoader != null)
+        try
+        {
+          ret = Class.forName (aDesc.getName (), false, m_aClassLoader);
+        }
+        catch (final ClassNotFoundException ex)
+        {
+          // Fall through - e.g. for primitive types
+        }
+      if (ret == null)
+        ret = super.resolveClass (aDesc);
+      if (getFieldFingerprint (ret) != nFingerprint)
+        throw new InvalidClassException (aDesc.getName (),
+                                         "the snapshot was created with an incompatible version of jcodemodel");
+      return ret;
+    }
+
+    void readDeferredContents () throws IOException, ClassNotFoundException
+    {
+      Object aObj;
+      while ((aObj = readObject ()) != null)
+        ((JBlock) aObj).readContents (this);
+    }
+  }
+
+  private JCodeModelSnapshot ()
+  {}
+
+  /**
+   * Write a snapshot of the passed code model.
+   *
+   * @param aCodeModel
+   *        The code model to write. May not be <code>null</code>. It must not
+   *        be modified while it is written.
+   * @param aOS
+   *        The stream to write to. May not be <code>null</code>. It is flushed
+   *        but not closed.
+   * @throws IOException
+   *         In case of a write error or if the model contains an object that
+   *         is not serializable.
+   */
+  public static void write (@Nonnull final JCodeModel aCodeModel,
+                            @Nonnull @WillNotClose final OutputStream aOS) throws IOException
+  {
+    JCValueEnforcer.notNull (aCodeModel, "CodeModel");
+    JCValueEnforcer.notNull (aOS, "OutputStream");
+
+    final SnapshotOutputStream aOOS = new SnapshotOutputStream (new BufferedOutputStream (aOS));
+    aOOS.writeInt (MAGIC);
+    aOOS.writeInt (FORMAT_VERSION);
+    aOOS.writeObject (aCodeModel);
+    aOOS.writeDeferredContents ();
+    aOOS.flush ();
+  }
+
+  /**
+   * Read a snapshot created by {@link #write(JCodeModel, OutputStream)}. The
+   * referenced classes are resolved with the default class loader of Java
+   * serialization.
+   *
+   * @param aIS
+   *        The stream to read from. May not be <code>null</code>. It is not
+   *        closed but may be read beyond the end of the snapshot.
+   * @return The restored code model. Never <code>null</code>.
+   * @throws IOException
+   *         In case of a read error or if the stream does not contain a valid
+   *         snapshot.
+   */
+  @Nonnull
+  public static JCodeModel read (@Nonnull @WillNotClose final InputStream aIS) throws IOException
+  {
+    return read (aIS, null);
+  }
+
+  /**
+   * Read a snapshot created by {@link #write(JCodeModel, OutputStream)}.
+   *
+   * @param aIS
+   *        The stream to read from. May not be <code>null</code>. It is not
+   *        closed but may be read beyond the end of the snapshot.
+   * @param aClassLoader
+   *        The class loader to resolve the referenced classes with. May be
+   *        <code>null</code> to use the default class loader of Java
+   *        serialization.
+   * @return The restored code model. Never <code>null</code>.
+   * @throws IOException
+   *         In case of a read error or if the stream does not contain a valid
+   *         snapshot.
+   */
+  @Nonnull
+  public static JCodeModel read (@Nonnull @WillNotClose final InputStream aIS,
+                                 @Nullable final ClassLoader aClassLoader) throws IOException
+  {
+    JCValueEnforcer.notNull (aIS, "InputStream");
+
+    final SnapshotInputStream aOIS = new SnapshotInputStream (new BufferedInputStream (aIS), aClassLoader);
+    if (aOIS.readInt () != MAGIC)
+      throw new IOException ("The stream does not contain a code model snapshot");
+    final int nVersion = aOIS.readInt ();
+    if (nVersion != FORMAT_VERSION)
+      throw new IOException ("Unsupported code model snapshot version " + nVersion);
+    try
+    {
+      final JCodeModel ret = (JCodeModel) aOIS.readObject ();
+      aOIS.readDeferredContents ();
+      if (ret.isFrozen ())
+        ret.freezeBlocks ();
+      return ret;
+    }
+    catch (final ClassNotFoundException | ClassCastException ex)
+    {
+      throw new IOException ("Failed to read code model snapshot", ex);
+    }
+  }
+}
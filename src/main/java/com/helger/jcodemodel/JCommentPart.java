@@ -63,6 +63,8 @@ import javax.annotation.Nullable;
  */
 public class JCommentPart extends ArrayList <Object>
 {
+  private static final long serialVersionUID = 1L;
+
   public JCommentPart ()
   {}
 
@@ -137,6 +139,7 @@ public class JCommentPart extends ArrayList <Object>
     if (!isEmpty ())
       f.print (sIndent);
 
+    StringBuilder aEscapeBuf = null;
     final Iterator <Object> itr = iterator ();
     while (itr.hasNext ())
     {
@@ -144,18 +147,18 @@ public class JCommentPart extends ArrayList <Object>
 
       if (o instanceof String)
       {
-        int idx;
-        String sStr = (String) o;
-        while ((idx = sStr.indexOf ('\n')) != -1)
-        {
-          final String line = sStr.substring (0, idx);
-          if (line.length () > 0)
-            f.print (_escape (line));
-          sStr = sStr.substring (idx + 1);
-          f.newline ().print (sIndent);
-        }
-        if (sStr.length () != 0)
-          f.print (_escape (sStr));
+        // Single pass over the lines without creating substrings
+        final String sStr = (String) o;
+        final int nLen = sStr.length ();
+        int nLineStart = 0;
+        for (int i = 0; i < nLen; ++i)
+          if (sStr.charAt (i) == '\n')
+          {
+            aEscapeBuf = _printEscaped (f, sStr, nLineStart, i, aEscapeBuf);
+            f.newline ().print (sIndent);
+            nLineStart = i + 1;
+          }
+        aEscapeBuf = _printEscaped (f, sStr, nLineStart, nLen, aEscapeBuf);
       }
       else
         if (o instanceof AbstractJClass)
@@ -176,23 +179,56 @@ public class JCommentPart extends ArrayList <Object>
       f.newline ();
   }
 
+  private static int _indexOfTerminator (@Nonnull final String sText, final int nStart, final int nEnd)
+  {
+    for (int i = nStart; i < nEnd - 1; ++i)
+      if (sText.charAt (i) == '*' && sText.charAt (i + 1) == '/')
+        return i;
+    return -1;
+  }
+
   /**
-   * Escapes the appearance of the comment terminator.
+   * Prints a part of a line and escapes the appearance of the comment
+   * terminator. Only lines containing the terminator are copied.
    *
+   * @param f
+   *        Formatter to print to
    * @param sText
    *        Source text
-   * @return Escaped text
+   * @param nStart
+   *        Index of the first char of the line (inclusive)
+   * @param nEnd
+   *        Index of the last char of the line (exclusive)
+   * @param aEscapeBuf
+   *        The buffer for escaping that is reused. May be <code>null</code>.
+   * @return The buffer to be reused. May be <code>null</code>.
    */
-  private static String _escape (@Nonnull final String sText)
+  @Nullable
+  private static StringBuilder _printEscaped (@Nonnull final JFormatter f,
+                                              @Nonnull final String sText,
+                                              final int nStart,
+                                              final int nEnd,
+                                              @Nullable final StringBuilder aEscapeBuf)
   {
-    String s = sText;
-    while (true)
+    int nTerminator = _indexOfTerminator (sText, nStart, nEnd);
+    if (nTerminator < 0)
     {
-      final int idx = s.indexOf ("*/");
-      if (idx < 0)
-        return s;
+      // Nothing to escape
+      f.print (sText, nStart, nEnd);
+      return aEscapeBuf;
+    }
 
-      s = s.substring (0, idx + 1) + "<!---->" + s.substring (idx + 1);
+    final StringBuilder aSB = aEscapeBuf != null ? aEscapeBuf : new StringBuilder (nEnd - nStart + 16);
+    aSB.setLength (0);
+    int nRunStart = nStart;
+    while (nTerminator >= 0)
+    {
+      aSB.append (sText, nRunStart, nTerminator + 1).append ("<!---->");
+      nRunStart = nTerminator + 1;
+      nTerminator = _indexOfTerminator (sText, nRunStart, nEnd);
     }
+    aSB.append (sText, nRunStart, nEnd);
+    f.print (aSB.toString ());
+    return aSB;
   }
 }
@@ -49,10 +49,12 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JConditional implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Expression to test to determine branching
    */
-  private final IJExpression m_aTestExpr;
+  private IJExpression m_aTestExpr;
 
   /**
    * Block of statements for "then" clause. Must always be present
@@ -82,6 +84,19 @@ public class JConditional implements IJStatement
     return m_aTestExpr;
   }
 
+  /**
+   * Change the test expression of this conditional.
+   *
+   * @param aTestExpr
+   *        The new test expression. May not be <code>null</code>.
+   * @since 3.0.3
+   */
+  public void test (@Nonnull final IJExpression aTestExpr)
+  {
+    JCValueEnforcer.notNull (aTestExpr, "Test expression");
+    m_aTestExpr = aTestExpr;
+  }
+
   /**
    * Return the block to be executed by the "then" branch
    *
@@ -106,6 +121,16 @@ public class JConditional implements IJStatement
     return m_aElseBlock;
   }
 
+  /**
+   * @return <code>true</code> if an else block was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasElse ()
+  {
+    return m_aElseBlock != null;
+  }
+
   /**
    * Creates <tt>... else if(...) ...</tt> code.
    *
@@ -121,14 +146,17 @@ public class JConditional implements IJStatement
 
   public void state (@Nonnull final JFormatter f)
   {
-    if (m_aTestExpr == JExpr.TRUE)
+    // Only the taken branch is generated - unless it cannot complete normally,
+    // as subsequent statements would be unreachable without the "if"
+    if (m_aTestExpr == JExpr.TRUE && JReachability.canCompleteNormally (m_aThenBlock))
     {
       m_aThenBlock.generateBody (f);
       return;
     }
-    if (m_aTestExpr == JExpr.FALSE)
+    if (m_aTestExpr == JExpr.FALSE && (m_aElseBlock == null || JReachability.canCompleteNormally (m_aElseBlock)))
     {
-      m_aElseBlock.generateBody (f);
+      if (m_aElseBlock != null)
+        m_aElseBlock.generateBody (f);
       return;
     }
 
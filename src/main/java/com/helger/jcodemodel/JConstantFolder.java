@@ -0,0 +1,785 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A simple optimization pass that folds constant sub-expressions and removes
+ * statically dead branches. Only literals created via {@link JExpr} (numbers,
+ * strings and booleans) are considered constant, so the folded code has
+ * exactly the semantics of the original code:
+ * <ul>
+ * <li>Arithmetic, bitwise, shift and comparison operators on numeric literals
+ * are evaluated using the Java promotion rules (e.g. <code>(1 + 2) * 4</code>
+ * becomes <code>12</code>). Integer division by zero is never folded.</li>
+ * <li>Boolean operators on <code>true</code>/<code>false</code> are evaluated.
+ * <code>&amp;&amp;</code> and <code>||</code> are simplified if the left
+ * operand is constant, or if the right operand is the neutral element.</li>
+ * <li>String concatenation of literals is evaluated (e.g.
+ * <code>"a" + "b" + 1</code> becomes <code>"ab1"</code>), also if the left
+ * operand is a concatenation ending with a string literal.</li>
+ * <li>Casts of numeric literals to <code>int</code>, <code>long</code>,
+ * <code>float</code> or <code>double</code> are evaluated.</li>
+ * <li>If statements with a constant condition are replaced by the taken
+ * block, and <code>while (false)</code> loops are removed.</li>
+ * </ul>
+ * Expressions are folded in place where the expression classes allow it (e.g.
+ * invocation arguments). Therefore shared expressions (see
+ * {@link JCanonicalExprFactory}) should not be used in code models that are
+ * optimized.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+@Immutable
+public final class JConstantFolder
+{
+  private static final int RANK_INT = 0;
+  private static final int RANK_LONG = 1;
+  private static final int RANK_FLOAT = 2;
+  private static final int RANK_DOUBLE = 3;
+
+  private JConstantFolder ()
+  {}
+
+  private static boolean _isBoolean (@Nonnull final IJExpression aExpr)
+  {
+    return aExpr == JExpr.TRUE || aExpr == JExpr.FALSE;
+  }
+
+  /**
+   * @return the numeric rank of the passed literal or -1 if the expression is
+   *         not a numeric literal
+   */
+  private static int _getRank (@Nonnull final IJExpression aExpr)
+  {
+    if (aExpr instanceof JAtomInt)
+      return RANK_INT;
+    if (aExpr instanceof JAtomLong)
+      return RANK_LONG;
+    if (aExpr instanceof JAtomFloat)
+      return RANK_FLOAT;
+    if (aExpr instanceof JAtomDouble)
+      return RANK_DOUBLE;
+    return -1;
+  }
+
+  @Nonnull
+  private static Number _getNumber (@Nonnull final IJExpression aExpr)
+  {
+    if (aExpr instanceof JAtomInt)
+      return Integer.valueOf (((JAtomInt) aExpr).what ());
+    if (aExpr instanceof JAtomLong)
+      return Long.valueOf (((JAtomLong) aExpr).what ());
+    if (aExpr instanceof JAtomFloat)
+      return Float.valueOf (((JAtomFloat) aExpr).what ());
+    return Double.valueOf (((JAtomDouble) aExpr).what ());
+  }
+
+  /**
+   * @return the string conversion of the passed literal as performed by the
+   *         Java string concatenation or <code>null</code> if the expression is
+   *         not a literal.
+   */
+  @Nullable
+  private static String _getConstantString (@Nonnull final IJExpression aExpr)
+  {
+    if (aExpr instanceof JStringLiteral)
+      return ((JStringLiteral) aExpr).what ();
+    if (_isBoolean (aExpr))
+      return ((JAtom) aExpr).what ();
+    if (_getRank (aExpr) >= 0)
+      return _getNumber (aExpr).toString ();
+    return null;
+  }
+
+  @Nullable
+  private static IJExpression _foldInt (@Nonnull final String sOp, final int a, final int b)
+  {
+    switch (sOp)
+    {
+      case "+":
+        return JExpr.lit (a + b);
+      case "-":
+        return JExpr.lit (a - b);
+      case "*":
+        return JExpr.lit (a * b);
+      case "/":
+        return b == 0 ? null : JExpr.lit (a / b);
+      case "%":
+        return b == 0 ? null : JExpr.lit (a % b);
+      case "&":
+        return JExpr.lit (a & b);
+      case "|":
+        return JExpr.lit (a | b);
+      case "^":
+        return JExpr.lit (a ^ b);
+      case "<":
+        return JExpr.lit (a < b);
+      case "<=":
+        return JExpr.lit (a <= b);
+      case ">":
+        return JExpr.lit (a > b);
+      case ">=":
+        return JExpr.lit (a >= b);
+      case "==":
+        return JExpr.lit (a == b);
+      case "!=":
+        return JExpr.lit (a != b);
+      default:
+        return null;
+    }
+  }
+
+  @Nullable
+  private static IJExpression _foldLong (@Nonnull final String sOp, final long a, final long b)
+  {
+    switch (sOp)
+    {
+      case "+":
+        return JExpr.lit (a + b);
+      case "-":
+        return JExpr.lit (a - b);
+      case "*":
+        return JExpr.lit (a * b);
+      case "/":
+        return b == 0 ? null : JExpr.lit (a / b);
+      case "%":
+        return b == 0 ? null : JExpr.lit (a % b);
+      case "&":
+        return JExpr.lit (a & b);
+      case "|":
+        return JExpr.lit (a | b);
+      case "^":
+        return JExpr.lit (a ^ b);
+      case "<":
+        return JExpr.lit (a < b);
+      case "<=":
+        return JExpr.lit (a <= b);
+      case ">":
+        return JExpr.lit (a > b);
+      case ">=":
+        return JExpr.lit (a >= b);
+      case "==":
+        return JExpr.lit (a == b);
+      case "!=":
+        return JExpr.lit (a != b);
+      default:
+        return null;
+    }
+  }
+
+  @Nullable
+  private static IJExpression _foldFloat (@Nonnull final String sOp, final float a, final float b)
+  {
+    switch (sOp)
+    {
+      case "+":
+        return JExpr.lit (a + b);
+      case "-":
+        return JExpr.lit (a - b);
+      case "*":
+        return JExpr.lit (a * b);
+      case "/":
+        return JExpr.lit (a / b);
+      case "%":
+        return JExpr.lit (a % b);
+      case "<":
+        return JExpr.lit (a < b);
+      case "<=":
+        return JExpr.lit (a <= b);
+      case ">":
+        return JExpr.lit (a > b);
+      case ">=":
+        return JExpr.lit (a >= b);
+      case "==":
+        return JExpr.lit (a == b);
+      case "!=":
+        return JExpr.lit (a != b);
+      default:
+        return null;
+    }
+  }
+
+  @Nullable
+  private static IJExpression _foldDouble (@Nonnull final String sOp, final double a, final double b)
+  {
+    switch (sOp)
+    {
+      case "+":
+        return JExpr.lit (a + b);
+      case "-":
+        return JExpr.lit (a - b);
+      case "*":
+        return JExpr.lit (a * b);
+      case "/":
+        return JExpr.lit (a / b);
+      case "%":
+        return JExpr.lit (a % b);
+      case "<":
+        return JExpr.lit (a < b);
+      case "<=":
+        return JExpr.lit (a <= b);
+      case ">":
+        return JExpr.lit (a > b);
+      case ">=":
+        return JExpr.lit (a >= b);
+      case "==":
+        return JExpr.lit (a == b);
+      case "!=":
+        return JExpr.lit (a != b);
+      default:
+        return null;
+    }
+  }
+
+  @Nullable
+  private static IJExpression _foldNumeric (@Nonnull final String sOp,
+                                            @Nonnull final IJExpression aLeft,
+                                            @Nonnull final IJExpression aRight)
+  {
+    final int nLeftRank = _getRank (aLeft);
+    final int nRightRank = _getRank (aRight);
+    final Number aLeftNum = _getNumber (aLeft);
+    final Number aRightNum = _getNumber (aRight);
+
+    if (sOp.equals ("<<") || sOp.equals (">>") || sOp.equals (">>>"))
+    {
+      // The type of a shift expression is the type of the left operand
+      if (nLeftRank > RANK_LONG || nRightRank > RANK_LONG)
+        return null;
+      final int nDistance = aRightNum.intValue ();
+      if (nLeftRank == RANK_INT)
+      {
+        final int a = aLeftNum.intValue ();
+        return JExpr.lit (sOp.equals ("<<") ? a << nDistance : sOp.equals (">>") ? a >> nDistance : a >>> nDistance);
+      }
+      final long a = aLeftNum.longValue ();
+      return JExpr.lit (sOp.equals ("<<") ? a << nDistance : sOp.equals (">>") ? a >> nDistance : a >>> nDistance);
+    }
+
+    // Binary numeric promotion
+    switch (Math.max (nLeftRank, nRightRank))
+    {
+      case RANK_INT:
+        return _foldInt (sOp, aLeftNum.intValue (), aRightNum.intValue ());
+      case RANK_LONG:
+        return _foldLong (sOp, aLeftNum.longValue (), aRightNum.longValue ());
+      case RANK_FLOAT:
+        return _foldFloat (sOp, aLeftNum.floatValue (), aRightNum.floatValue ());
+      default:
+        return _foldDouble (sOp, aLeftNum.doubleValue (), aRightNum.doubleValue ());
+    }
+  }
+
+  @Nullable
+  private static IJExpression _foldBoolean (@Nonnull final String sOp, final boolean a, final boolean b)
+  {
+    switch (sOp)
+    {
+      case "&&":
+      case "&":
+        return JExpr.lit (a & b);
+      case "||":
+      case "|":
+        return JExpr.lit (a | b);
+      case "^":
+      case "!=":
+        return JExpr.lit (a != b);
+      case "==":
+        return JExpr.lit (a == b);
+      default:
+        return null;
+    }
+  }
+
+  @Nullable
+  private static IJExpression _foldPartial (@Nonnull final String sOp,
+                                            @Nonnull final IJExpression aLeft,
+                                            @Nonnull final IJExpression aRight)
+  {
+    if (sOp.equals ("&&"))
+    {
+      if (aLeft == JExpr.TRUE)
+        return aRight;
+      if (aLeft == JExpr.FALSE)
+        return JExpr.FALSE;
+      // The left operand must be evaluated anyway
+      if (aRight == JExpr.TRUE)
+        return aLeft;
+    }
+    else
+      if (sOp.equals ("||"))
+      {
+        if (aLeft == JExpr.FALSE)
+          return aRight;
+        if (aLeft == JExpr.TRUE)
+          return JExpr.TRUE;
+        if (aRight == JExpr.FALSE)
+          return aLeft;
+      }
+    return null;
+  }
+
+  @Nullable
+  private static IJExpression _foldConcat (@Nonnull final IJExpression aLeft, @Nonnull final IJExpression aRight)
+  {
+    final String sRight = _getConstantString (aRight);
+    if (sRight == null)
+      return null;
+
+    if (aLeft instanceof JStringLiteral || aRight instanceof JStringLiteral)
+    {
+      final String sLeft = _getConstantString (aLeft);
+      if (sLeft != null)
+        return JExpr.lit (sLeft + sRight);
+    }
+
+    // (x + "a") + "b" is a string concatenation and can be written as x + "ab"
+    if (aLeft instanceof JOpBinary)
+    {
+      final JOpBinary aLeftOp = (JOpBinary) aLeft;
+      if (aLeftOp.op ().equals ("+") && aLeftOp.right () instanceof JStringLiteral)
+        return new JOpBinary (aLeftOp.left (),
+                              "+",
+                              JExpr.lit (((JStringLiteral) aLeftOp.right ()).what () + sRight));
+    }
+    return null;
+  }
+
+  @Nonnull
+  private static IJExpression _foldBinary (@Nonnull final JOpBinary aOp)
+  {
+    final IJExpression aLeft = fold (aOp.left ());
+    if (!(aOp.right () instanceof IJExpression))
+    {
+      // E.g. instanceof
+      return aLeft == aOp.left () ? aOp : new JOpBinary (aLeft, aOp.op (), aOp.right ());
+    }
+    final IJExpression aRight = fold ((IJExpression) aOp.right ());
+    final String sOp = aOp.op ();
+
+    IJExpression aFolded;
+    if (_isBoolean (aLeft) && _isBoolean (aRight))
+      aFolded = _foldBoolean (sOp, aLeft == JExpr.TRUE, aRight == JExpr.TRUE);
+    else
+      if (_getRank (aLeft) >= 0 && _getRank (aRight) >= 0)
+        aFolded = _foldNumeric (sOp, aLeft, aRight);
+      else
+        if (sOp.equals ("+"))
+          aFolded = _foldConcat (aLeft, aRight);
+        else
+          aFolded = _foldPartial (sOp, aLeft, aRight);
+    if (aFolded != null)
+      return aFolded;
+
+    if (aLeft == aOp.left () && aRight == aOp.right ())
+      return aOp;
+    return new JOpBinary (aLeft, sOp, aRight);
+  }
+
+  @Nonnull
+  private static IJExpression _foldUnary (@Nonnull final JOpUnary aOp)
+  {
+    final IJExpression aExpr = fold (aOp.expr ());
+    final String sOp = aOp.op ();
+    if (aOp.opFirst ())
+    {
+      if (sOp.equals ("-"))
+      {
+        if (aExpr instanceof JAtomInt)
+          return JExpr.lit (-((JAtomInt) aExpr).what ());
+        if (aExpr instanceof JAtomLong)
+          return JExpr.lit (-((JAtomLong) aExpr).what ());
+        if (aExpr instanceof JAtomFloat)
+          return JExpr.lit (-((JAtomFloat) aExpr).what ());
+        if (aExpr instanceof JAtomDouble)
+          return JExpr.lit (-((JAtomDouble) aExpr).what ());
+      }
+      else
+        if (sOp.equals ("!"))
+        {
+          if (_isBoolean (aExpr))
+            return JExpr.lit (aExpr == JExpr.FALSE);
+        }
+        else
+          if (sOp.equals ("~"))
+          {
+            if (aExpr instanceof JAtomInt)
+              return JExpr.lit (~((JAtomInt) aExpr).what ());
+            if (aExpr instanceof JAtomLong)
+              return JExpr.lit (~((JAtomLong) aExpr).what ());
+          }
+    }
+
+    if (aExpr == aOp.expr ())
+      return aOp;
+    return aOp.opFirst () ? new JOpUnary (sOp, aExpr) : new JOpUnary (aExpr, sOp);
+  }
+
+  private static boolean _isSameConstantKind (@Nonnull final IJExpression a, @Nonnull final IJExpression b)
+  {
+    if (_isBoolean (a) && _isBoolean (b))
+      return true;
+    if (a instanceof JStringLiteral && b instanceof JStringLiteral)
+      return true;
+    final int nRank = _getRank (a);
+    return nRank >= 0 && nRank == _getRank (b);
+  }
+
+  @Nonnull
+  private static IJExpression _foldTernary (@Nonnull final JOpTernary aOp)
+  {
+    final IJExpression aCond = fold (aOp.expr1 ());
+    // The branches are always expressions - see JOp.cond
+    final IJExpression aIfTrue = fold ((IJExpression) aOp.expr2 ());
+    final IJExpression aIfFalse = fold ((IJExpression) aOp.expr3 ());
+
+    // Only fold if both branches are of the same type, because otherwise the
+    // type of the conditional expression might differ from the type of the
+    // selected branch (e.g. "true ? 1 : 2.0" is 1.0)
+    if (_isBoolean (aCond) && _isSameConstantKind (aIfTrue, aIfFalse))
+      return aCond == JExpr.TRUE ? aIfTrue : aIfFalse;
+
+    if (aCond == aOp.expr1 () && aIfTrue == aOp.expr2 () && aIfFalse == aOp.expr3 ())
+      return aOp;
+    return new JOpTernary (aCond, aOp.op1 (), aIfTrue, aOp.op2 (), aIfFalse);
+  }
+
+  @Nonnull
+  private static IJExpression _foldCast (@Nonnull final JCast aCast)
+  {
+    final IJExpression aObject = fold (aCast.object ());
+    final AbstractJType aType = aCast.type ();
+    if (aType.isPrimitive () && _getRank (aObject) >= 0)
+    {
+      final Number aNum = _getNumber (aObject);
+      switch (aType.name ())
+      {
+        case "int":
+          return JExpr.lit (aNum.intValue ());
+        case "long":
+          return JExpr.lit (aNum.longValue ());
+        case "float":
+          return JExpr.lit (aNum.floatValue ());
+        case "double":
+          return JExpr.lit (aNum.doubleValue ());
+        default:
+          // byte, short and char have no literals
+          break;
+      }
+    }
+    if (aObject == aCast.object ())
+      return aCast;
+    return new JCast (aType, aObject);
+  }
+
+  private static void _foldArgs (@Nonnull final JInvocation aInvocation)
+  {
+    final List <IJExpression> aArgs = aInvocation.args ();
+    for (int i = 0; i < aArgs.size (); ++i)
+    {
+      final IJExpression aArg = aArgs.get (i);
+      final IJExpression aFolded = fold (aArg);
+      if (aFolded != aArg)
+        aInvocation.internalSetArg (i, aFolded);
+    }
+  }
+
+  /**
+   * Fold the constant parts of the passed expression. Operator expressions are
+   * immutable, so a new expression is returned if anything was folded.
+   *
+   * @param aExpr
+   *        The expression to fold. May not be <code>null</code>.
+   * @return The folded expression or the passed expression, if nothing could
+   *         be folded. Never <code>null</code>.
+   */
+  @Nonnull
+  public static IJExpression fold (@Nonnull final IJExpression aExpr)
+  {
+    if (aExpr instanceof JOpBinary)
+      return _foldBinary ((JOpBinary) aExpr);
+    if (aExpr instanceof JOpUnary && !(aExpr instanceof JOpUnaryTight))
+      return _foldUnary ((JOpUnary) aExpr);
+    if (aExpr instanceof JOpTernary)
+      return _foldTernary ((JOpTernary) aExpr);
+    if (aExpr instanceof JCast)
+      return _foldCast ((JCast) aExpr);
+    if (aExpr instanceof JInvocation)
+      _foldArgs ((JInvocation) aExpr);
+    return aExpr;
+  }
+
+  /**
+   * Optimize a single statement or declaration.
+   *
+   * @return the object to be used instead of the passed object or
+   *         <code>null</code> if the statement can be removed.
+   */
+  @Nullable
+  private static IJObject _optimize (@Nonnull final IJObject aObj)
+  {
+    if (aObj instanceof JVar)
+    {
+      final JVar aVar = (JVar) aObj;
+      if (aVar.init () != null)
+        aVar.init (fold (aVar.init ()));
+      return aVar;
+    }
+    if (aObj instanceof JConditional)
+    {
+      final JConditional aCond = (JConditional) aObj;
+      aCond.test (fold (aCond.test ()));
+      optimize (aCond._then ());
+      if (aCond.hasElse ())
+        optimize (aCond._else ());
+
+      // Replace with the taken block (including braces), so that the scope of
+      // the contained variables does not change. A block that cannot complete
+      // normally keeps its "if", because javac would reject the following
+      // statements as unreachable otherwise.
+      if (aCond.test () == JExpr.TRUE)
+      {
+        if (aCond._then ().isEmpty ())
+          return null;
+        return JReachability.canCompleteNormally (aCond._then ()) ? aCond._then () : aCond;
+      }
+      if (aCond.test () == JExpr.FALSE)
+      {
+        if (!aCond.hasElse () || aCond._else ().isEmpty ())
+          return null;
+        return JReachability.canCompleteNormally (aCond._else ()) ? aCond._else () : aCond;
+      }
+      return aCond;
+    }
+    if (aObj instanceof JWhileLoop)
+    {
+      final JWhileLoop aLoop = (JWhileLoop) aObj;
+      aLoop.test (fold (aLoop.test ()));
+      if (aLoop.test () == JExpr.FALSE)
+        return null;
+      if (aLoop.hasBody ())
+        optimize (aLoop.body ());
+      return aLoop;
+    }
+    if (aObj instanceof JDoLoop)
+    {
+      final JDoLoop aLoop = (JDoLoop) aObj;
+      aLoop.test (fold (aLoop.test ()));
+      if (aLoop.hasBody ())
+        optimize (aLoop.body ());
+      return aLoop;
+    }
+    if (aObj instanceof JForLoop)
+    {
+      final JForLoop aLoop = (JForLoop) aObj;
+      for (final Object aInit : aLoop.inits ())
+        if (aInit instanceof JVar)
+          _optimize ((JVar) aInit);
+      if (aLoop.test () != null)
+        aLoop.test (fold (aLoop.test ()));
+      if (aLoop.hasBody ())
+        optimize (aLoop.body ());
+      return aLoop;
+    }
+    if (aObj instanceof JForEach)
+    {
+      final JForEach aLoop = (JForEach) aObj;
+      if (aLoop.hasBody ())
+        optimize (aLoop.body ());
+      return aLoop;
+    }
+    if (aObj instanceof JSwitch)
+    {
+      final JSwitch aSwitch = (JSwitch) aObj;
+      final Iterator <JCase> it = aSwitch.cases ();
+      while (it.hasNext ())
+      {
+        final JCase aCase = it.next ();
+        if (aCase.hasBody ())
+          optimize (aCase.body ());
+      }
+      if (aSwitch.hasDefault () && aSwitch._default ().hasBody ())
+        optimize (aSwitch._default ().body ());
+      return aSwitch;
+    }
+    if (aObj instanceof JTryBlock)
+    {
+      final JTryBlock aTry = (JTryBlock) aObj;
+      optimize (aTry.body ());
+      for (final JCatchBlock aCatch : aTry.catches ())
+        optimize (aCatch.body ());
+      if (aTry.hasFinally ())
+        optimize (aTry._finally ());
+      return aTry;
+    }
+    if (aObj instanceof JSynchronizedBlock)
+    {
+      final JSynchronizedBlock aSync = (JSynchronizedBlock) aObj;
+      aSync.expr (fold (aSync.expr ()));
+      if (aSync.hasBody ())
+        optimize (aSync.body ());
+      return aSync;
+    }
+    if (aObj instanceof JBlock)
+    {
+      optimize ((JBlock) aObj);
+      return aObj;
+    }
+    if (aObj instanceof JReturn)
+    {
+      final JReturn aReturn = (JReturn) aObj;
+      if (aReturn.expr () != null)
+      {
+        final IJExpression aFolded = fold (aReturn.expr ());
+        if (aFolded != aReturn.expr ())
+          return new JReturn (aFolded);
+      }
+      return aReturn;
+    }
+    if (aObj instanceof JThrow)
+    {
+      final JThrow aThrow = (JThrow) aObj;
+      final IJExpression aFolded = fold (aThrow.expr ());
+      return aFolded == aThrow.expr () ? aThrow : new JThrow (aFolded);
+    }
+    if (aObj instanceof JAssignment)
+    {
+      final JAssignment aAssignment = (JAssignment) aObj;
+      final IJExpression aFolded = fold (aAssignment.rhs ());
+      return aFolded == aAssignment.rhs () ? aAssignment
+                                            : new JAssignment (aAssignment.lhs (), aFolded, aAssignment.op ());
+    }
+    if (aObj instanceof JInvocation)
+      _foldArgs ((JInvocation) aObj);
+    return aObj;
+  }
+
+  /**
+   * Fold all constant expressions in the passed block and its nested blocks.
+   * Statically dead statements are removed.
+   *
+   * @param aBlock
+   *        The block to optimize. May not be <code>null</code>.
+   */
+  public static void optimize (@Nonnull final JBlock aBlock)
+  {
+    int i = 0;
+    while (i < aBlock.size ())
+    {
+      final IJObject aObj = aBlock.getContents ().get (i);
+      final IJObject aOptimized = _optimize (aObj);
+      if (aOptimized == null)
+      {
+        aBlock.remove (i);
+        if (i < aBlock.pos ())
+          aBlock.pos (aBlock.pos () - 1);
+      }
+      else
+      {
+        if (aOptimized != aObj)
+          aBlock.internalSet (i, aOptimized);
+        ++i;
+      }
+    }
+  }
+
+  /**
+   * Optimize the body of the passed method, if it has one.
+   *
+   * @param aMethod
+   *        The method to optimize. May not be <code>null</code>.
+   */
+  public static void optimize (@Nonnull final JMethod aMethod)
+  {
+    if (aMethod.hasBody ())
+      optimize (aMethod.body ());
+  }
+
+  /**
+   * Optimize all field initializers, initializer blocks, constructors and
+   * methods of the passed class and its inner classes.
+   *
+   * @param aClass
+   *        The class to optimize. May not be <code>null</code>.
+   */
+  public static void optimize (@Nonnull final JDefinedClass aClass)
+  {
+    aClass.owner ().checkNotFrozen ();
+
+    for (final JFieldVar aField : aClass.fields ().values ())
+      _optimize (aField);
+    if (aClass.hasInit ())
+      optimize (aClass.init ());
+    if (aClass.hasInstanceInit ())
+      optimize (aClass.instanceInit ());
+    final Iterator <JMethod> it = aClass.constructors ();
+    while (it.hasNext ())
+      optimize (it.next ());
+    for (final JMethod aMethod : aClass.methods ())
+      optimize (aMethod);
+    for (final JDefinedClass aInnerClass : aClass.classes ())
+      optimize (aInnerClass);
+  }
+
+  /**
+   * Optimize all classes of the passed code model.
+   *
+   * @param aCodeModel
+   *        The code model to optimize. May not be <code>null</code>.
+   */
+  public static void optimize (@Nonnull final JCodeModel aCodeModel)
+  {
+    aCodeModel.checkNotFrozen ();
+
+    final Iterator <JPackage> it = aCodeModel.packages ();
+    while (it.hasNext ())
+      for (final JDefinedClass aClass : it.next ().classes ())
+        optimize (aClass);
+  }
+}
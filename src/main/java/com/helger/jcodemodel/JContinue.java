@@ -48,6 +48,8 @@ import javax.annotation.Nullable;
  */
 public class JContinue implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   private final JLabel m_aLabel;
 
   /**
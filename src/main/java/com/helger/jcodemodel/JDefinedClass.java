@@ -41,20 +41,26 @@
 package com.helger.jcodemodel;
 
 import java.lang.annotation.Annotation;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Predicate;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.helger.jcodemodel.util.ClassNameComparator;
+import com.helger.jcodemodel.util.JCEqualsHelper;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 /**
@@ -73,6 +79,56 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
                            IJAnnotatable,
                            IJDocCommentable
 {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The number of constructors and methods above which they are indexed by
+   * name and number of parameters.
+   */
+  private static final int METHOD_INDEX_THRESHOLD = 8;
+
+  /**
+   * The key of the member index. The parameter types are not part of the key,
+   * because they stay mutable after a method was added, so the signatures
+   * still need to be compared within a bucket.
+   */
+  private static final class MemberKey
+  {
+    // null for constructors
+    private final String m_sName;
+    private final int m_nParamCount;
+
+    MemberKey (@Nullable final String sName, final int nParamCount)
+    {
+      m_sName = sName;
+      m_nParamCount = nParamCount;
+    }
+
+    @Nonnull
+    static MemberKey of (@Nonnull final JMethod aMember)
+    {
+      return new MemberKey (aMember.isConstructor () ? null : aMember.name (), aMember.params ().size ());
+    }
+
+    @Override
+    public boolean equals (final Object o)
+    {
+      if (o == this)
+        return true;
+      if (o == null || getClass () != o.getClass ())
+        return false;
+      final MemberKey rhs = (MemberKey) o;
+      return m_nParamCount == rhs.m_nParamCount && JCEqualsHelper.isEqual (m_sName, rhs.m_sName);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      // Called on every member lookup - avoid allocating a hash code generator
+      return 31 * Objects.hashCode (m_sName) + m_nParamCount;
+    }
+  }
+
   /**
    * The optional header that is emitted prior to the package (Issue #47)
    */
@@ -89,14 +145,14 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   private AbstractJClass m_aSuperClass;
 
   /**
-   * List of interfaces that this class implements
+   * List of interfaces that this class implements. Lazily created.
    */
-  private final Set <AbstractJClass> m_aInterfaces = new TreeSet <> (ClassNameComparator.getInstance ());
+  private Set <AbstractJClass> m_aInterfaces;
 
   /**
-   * Fields keyed by their names.
+   * Fields keyed by their names. Lazily created.
    */
-  private final Map <String, JFieldVar> m_aFields = new LinkedHashMap <> ();
+  private Map <String, JFieldVar> m_aFields;
 
   /**
    * Static initializer, if this class has one
@@ -114,14 +170,25 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   private JDocComment m_aJDoc;
 
   /**
-   * Set of constructors for this class, if any
+   * Set of constructors for this class, if any. Lazily created.
+   */
+  private List <JMethod> m_aConstructors;
+
+  /**
+   * Set of methods that are members of this class. Lazily created.
    */
-  private final List <JMethod> m_aConstructors = new ArrayList <> ();
+  private List <JMethod> m_aMethods;
 
   /**
-   * Set of methods that are members of this class
+   * All constructors and methods keyed by their name and their number of
+   * parameters. Used to speed up {@link #getMethod(String, AbstractJType[])}
+   * and {@link #getConstructor(AbstractJType[])}. Only created on lookup if
+   * there are more than {@link #METHOD_INDEX_THRESHOLD} members, because for
+   * small classes a linear search is cheap and the index would be a
+   * significant part of the footprint. Not serialized, but recreated on
+   * demand.
    */
-  private final List <JMethod> m_aMethods = new ArrayList <> ();
+  private transient Map <MemberKey, List <JMethod>> m_aMemberIndex;
 
   /**
    * Flag that controls whether this class should be really generated or not.
@@ -136,12 +203,18 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
    */
   private String m_sDirectBlock;
 
+  /**
+   * <code>true</code> if this class was already written by
+   * {@link JCodeModel#emit(JDefinedClass, AbstractCodeWriter)}.
+   */
+  private boolean m_bEmitted = false;
+
   /**
    * Set of enum constants that are keyed by names. In Java, enum constant order
    * is actually significant, because of order ID they get. So let's preserve
-   * the order.
+   * the order. Lazily created.
    */
-  private final Map <String, JEnumConstant> m_aEnumConstantsByName = new LinkedHashMap <> ();
+  private Map <String, JEnumConstant> m_aEnumConstantsByName;
 
   /**
    * Annotations on this variable. Lazily created.
@@ -149,17 +222,9 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   private List <JAnnotationUse> m_aAnnotations;
 
   /**
-   * Helper class to implement {@link IJGenerifiable}.
+   * Helper class to implement {@link IJGenerifiable}. Lazily created.
    */
-  private final IJGenerifiable m_aGenerifiable = new AbstractJGenerifiableImpl ()
-  {
-    @Nonnull
-    public JCodeModel owner ()
-    {
-      // The owner is same as the owner of this defined class's owner
-      return JDefinedClass.this.owner ();
-    }
-  };
+  private IJGenerifiable m_aGenerifiable;
 
   protected JDefinedClass (@Nonnull final IJClassContainer <?> aParent,
                            final int nMods,
@@ -257,6 +322,7 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   public JDefinedClass _extends (@Nonnull final AbstractJClass aSuperClass)
   {
     JCValueEnforcer.notNull (aSuperClass, "SuperClass");
+    checkModifiable ();
     if (isInterface ())
     {
       if (aSuperClass.isInterface ())
@@ -277,6 +343,7 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     }
 
     m_aSuperClass = aSuperClass;
+    onSuperTypesChanged ();
     return this;
   }
 
@@ -293,8 +360,9 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nonnull
   public AbstractJClass _extends ()
   {
+    // Don't remember Object so that this is read-only on frozen models
     if (m_aSuperClass == null)
-      m_aSuperClass = owner ().ref (Object.class);
+      return owner ().ref (Object.class);
     return m_aSuperClass;
   }
 
@@ -308,7 +376,11 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nonnull
   public JDefinedClass _implements (@Nonnull final AbstractJClass aInterface)
   {
-    m_aInterfaces.add (aInterface);
+    checkModifiable ();
+    if (m_aInterfaces == null)
+      m_aInterfaces = new TreeSet <> (ClassNameComparator.getInstance ());
+    if (m_aInterfaces.add (aInterface))
+      onSuperTypesChanged ();
     return this;
   }
 
@@ -325,6 +397,8 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nonnull
   public Iterator <AbstractJClass> _implements ()
   {
+    if (m_aInterfaces == null)
+      return Collections.emptyIterator ();
     return m_aInterfaces.iterator ();
   }
 
@@ -340,7 +414,12 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nonnull
   public JEnumConstant enumConstant (@Nonnull final String sName)
   {
-    return m_aEnumConstantsByName.computeIfAbsent (sName, k -> new JEnumConstant (this, k));
+    if (m_aEnumConstantsByName == null)
+      m_aEnumConstantsByName = new LinkedHashMap <> ();
+    return m_aEnumConstantsByName.computeIfAbsent (sName, k -> {
+      checkModifiable ();
+      return new JEnumConstant (this, k);
+    });
   }
 
   @Override
@@ -359,6 +438,19 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     return m_aMods.isAbstract ();
   }
 
+  /**
+   * @return A read-only view of all enum constants of this class in
+   *         declaration order. Never <code>null</code>.
+   * @since 3.0.3
+   */
+  @Nonnull
+  public Collection <JEnumConstant> enumConstants ()
+  {
+    if (m_aEnumConstantsByName == null)
+      return Collections.emptyList ();
+    return Collections.unmodifiableCollection (m_aEnumConstantsByName.values ());
+  }
+
   /**
    * Adds a field to the list of field members of this JDefinedClass.
    *
@@ -399,9 +491,12 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
                           @Nonnull final String sName,
                           @Nullable final IJExpression aInit)
   {
-    JCValueEnforcer.isFalse (m_aFields.containsKey (sName), () -> "trying to create the same field twice: " + sName);
+    JCValueEnforcer.isFalse (containsField (sName), () -> "trying to create the same field twice: " + sName);
+    checkModifiable ();
 
     final JFieldVar f = new JFieldVar (this, JMods.forField (nMods), aType, sName, aInit);
+    if (m_aFields == null)
+      m_aFields = new LinkedHashMap <> ();
     m_aFields.put (sName, f);
     return f;
   }
@@ -421,7 +516,35 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nonnull
   public Map <String, JFieldVar> fields ()
   {
-    return Collections.unmodifiableMap (m_aFields);
+    // The view reads the lazily created map on every access
+    return new AbstractMap <String, JFieldVar> ()
+    {
+      @Override
+      public Set <Map.Entry <String, JFieldVar>> entrySet ()
+      {
+        if (m_aFields == null)
+          return Collections.emptySet ();
+        return Collections.unmodifiableMap (m_aFields).entrySet ();
+      }
+
+      @Override
+      public int size ()
+      {
+        return m_aFields == null ? 0 : m_aFields.size ();
+      }
+
+      @Override
+      public boolean containsKey (final Object aKey)
+      {
+        return m_aFields != null && m_aFields.containsKey (aKey);
+      }
+
+      @Override
+      public JFieldVar get (final Object aKey)
+      {
+        return m_aFields == null ? null : m_aFields.get (aKey);
+      }
+    };
   }
 
   /**
@@ -434,7 +557,8 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
    */
   public void removeField (@Nonnull final JFieldVar aField)
   {
-    if (m_aFields.remove (aField.name ()) != aField)
+    checkModifiable ();
+    if (m_aFields == null || m_aFields.remove (aField.name ()) != aField)
       throw new IllegalArgumentException ("Failed to remove field " + aField);
   }
 
@@ -446,14 +570,14 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
    */
   public boolean containsField (@Nullable final String sName)
   {
-    return sName != null && m_aFields.containsKey (sName);
+    return sName != null && m_aFields != null && m_aFields.containsKey (sName);
   }
 
   void internalRenameField (@Nonnull final String sOldName,
                             @Nonnull final String sNewName,
                             @Nonnull final JFieldVar aField)
   {
-    if (m_aFields.remove (sOldName) == null)
+    if (m_aFields == null || m_aFields.remove (sOldName) == null)
       throw new IllegalArgumentException ("Failed to remove field with name '" +
                                           sOldName +
                                           "' for replacement with field with name '" +
@@ -471,10 +595,23 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   public JBlock init ()
   {
     if (m_aStaticInit == null)
+    {
+      checkModifiable ();
       m_aStaticInit = new JBlock ();
+    }
     return m_aStaticInit;
   }
 
+  /**
+   * @return <code>true</code> if this class already has a static initializer,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasInit ()
+  {
+    return m_aStaticInit != null;
+  }
+
   /**
    * Creates, if necessary, and returns the instance initializer for this class.
    *
@@ -484,10 +621,23 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   public JBlock instanceInit ()
   {
     if (m_aInstanceInit == null)
+    {
+      checkModifiable ();
       m_aInstanceInit = new JBlock ();
+    }
     return m_aInstanceInit;
   }
 
+  /**
+   * @return <code>true</code> if this class already has an instance
+   *         initializer, <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasInstanceInit ()
+  {
+    return m_aInstanceInit != null;
+  }
+
   /**
    * Adds a constructor to this class.
    *
@@ -498,18 +648,45 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nonnull
   public JMethod constructor (final int nMods)
   {
+    checkModifiable ();
     final JMethod c = new JMethod (nMods, this);
+    if (m_aConstructors == null)
+      m_aConstructors = new ArrayList <> ();
     m_aConstructors.add (c);
+    if (m_aMemberIndex != null)
+      _indexMember (c);
     return c;
   }
 
   /**
    * @return an iterator that walks the constructors defined in this class.
+   *         Removing constructors via the iterator is supported.
    */
   @Nonnull
   public Iterator <JMethod> constructors ()
   {
-    return m_aConstructors.iterator ();
+    if (m_aConstructors == null)
+      return Collections.emptyIterator ();
+    return new MemberIterator (m_aConstructors.iterator ());
+  }
+
+  /**
+   * Removes a constructor from this class.
+   *
+   * @param aConstructor
+   *        The constructor to be removed. May be <code>null</code>.
+   * @return <code>true</code> if the constructor was removed,
+   *         <code>false</code> if it is not a constructor of this class.
+   * @since 3.0.3
+   */
+  public boolean removeConstructor (@Nullable final JMethod aConstructor)
+  {
+    checkModifiable ();
+    if (aConstructor == null || m_aConstructors == null || !m_aConstructors.remove (aConstructor))
+      return false;
+    if (m_aMemberIndex != null)
+      _unindexMember (MemberKey.of (aConstructor), aConstructor);
+    return true;
   }
 
   /**
@@ -522,9 +699,14 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nullable
   public JMethod getConstructor (@Nonnull final AbstractJType [] aArgTypes)
   {
-    for (final JMethod m : m_aConstructors)
-      if (m.hasSignature (aArgTypes))
-        return m;
+    // Only constructors with the same number of parameters need to be compared
+    final Map <MemberKey, List <JMethod>> aIndex = _getMemberIndex ();
+    final Collection <JMethod> aCandidates = aIndex != null ? aIndex.get (new MemberKey (null, aArgTypes.length))
+                                                            : m_aConstructors;
+    if (aCandidates != null)
+      for (final JMethod m : aCandidates)
+        if (m.hasSignature (aArgTypes))
+          return m;
     return null;
   }
 
@@ -542,9 +724,11 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nonnull
   public JMethod method (final int nMods, @Nonnull final AbstractJType aType, @Nonnull final String sName)
   {
+    checkModifiable ();
+
     // XXX problems caught in M constructor
     final JMethod m = new JMethod (this, nMods, aType, sName);
-    m_aMethods.add (m);
+    _addMethod (m);
     return m;
   }
 
@@ -554,13 +738,214 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     return method (nMods, owner ()._ref (aType), sName);
   }
 
+  private void _addMethod (@Nonnull final JMethod aMethod)
+  {
+    if (m_aMethods == null)
+      m_aMethods = new ArrayList <> ();
+    m_aMethods.add (aMethod);
+    if (m_aMemberIndex != null)
+      _indexMember (aMethod);
+  }
+
   /**
-   * @return the set of methods defined in this class.
+   * @return the set of methods defined in this class. The returned collection
+   *         is a modifiable live view.
+   * @see #removeMethod(JMethod)
    */
   @Nonnull
   public Collection <JMethod> methods ()
   {
-    return m_aMethods;
+    return new MethodCollection ();
+  }
+
+  /**
+   * Removes a method from this class.
+   *
+   * @param aMethod
+   *        The method to be removed. May be <code>null</code>.
+   * @return <code>true</code> if the method was removed, <code>false</code> if
+   *         it is not a method of this class.
+   * @since 3.0.3
+   */
+  public boolean removeMethod (@Nullable final JMethod aMethod)
+  {
+    checkModifiable ();
+    if (aMethod == null || m_aMethods == null || !m_aMethods.remove (aMethod))
+      return false;
+    if (m_aMemberIndex != null)
+      _unindexMember (MemberKey.of (aMethod), aMethod);
+    return true;
+  }
+
+  /**
+   * Instrument all constructors and methods of this class that match the
+   * passed predicate with timing code. Nested classes are not instrumented.
+   *
+   * @param aFilter
+   *        The predicate selecting the methods to instrument. May not be
+   *        <code>null</code>.
+   * @param aSink
+   *        The sink that emits the reporting code. May not be
+   *        <code>null</code>.
+   * @return The number of instrumented methods.
+   * @see JMethod#instrument(IJMetricsSink)
+   * @since 3.0.3
+   */
+  public int instrumentMethods (@Nonnull final Predicate <? super JMethod> aFilter, @Nonnull final IJMetricsSink aSink)
+  {
+    JCValueEnforcer.notNull (aFilter, "Filter");
+    JCValueEnforcer.notNull (aSink, "Sink");
+    checkModifiable ();
+
+    final List <JMethod> aSelected = new ArrayList <> ();
+    if (m_aConstructors != null)
+      for (final JMethod aConstructor : m_aConstructors)
+        if (aFilter.test (aConstructor))
+          aSelected.add (aConstructor);
+    if (m_aMethods != null)
+      for (final JMethod aMethod : m_aMethods)
+        if (aFilter.test (aMethod))
+          aSelected.add (aMethod);
+
+    int ret = 0;
+    for (final JMethod aMethod : aSelected)
+      if (aMethod.instrument (aSink) != null)
+        ret++;
+    return ret;
+  }
+
+  /**
+   * Live view on {@link #m_aMethods} that keeps the member index up to date.
+   */
+  private final class MethodCollection extends AbstractCollection <JMethod>
+  {
+    @Override
+    @Nonnull
+    public Iterator <JMethod> iterator ()
+    {
+      if (m_aMethods == null)
+        return Collections.emptyIterator ();
+      return new MemberIterator (m_aMethods.iterator ());
+    }
+
+    @Override
+    public int size ()
+    {
+      return m_aMethods == null ? 0 : m_aMethods.size ();
+    }
+
+    @Override
+    public boolean add (@Nonnull final JMethod aMethod)
+    {
+      JCValueEnforcer.notNull (aMethod, "Method");
+      checkModifiable ();
+      _addMethod (aMethod);
+      return true;
+    }
+  }
+
+  /**
+   * Iterator over constructors or methods that keeps the member index up to
+   * date on removal.
+   */
+  private final class MemberIterator implements Iterator <JMethod>
+  {
+    private final Iterator <JMethod> m_aIter;
+    private JMethod m_aLast;
+
+    MemberIterator (@Nonnull final Iterator <JMethod> aIter)
+    {
+      m_aIter = aIter;
+    }
+
+    public boolean hasNext ()
+    {
+      return m_aIter.hasNext ();
+    }
+
+    public JMethod next ()
+    {
+      m_aLast = m_aIter.next ();
+      return m_aLast;
+    }
+
+    @Override
+    public void remove ()
+    {
+      checkModifiable ();
+      m_aIter.remove ();
+      if (m_aMemberIndex != null)
+        _unindexMember (MemberKey.of (m_aLast), m_aLast);
+    }
+  }
+
+  @Nullable
+  private Map <MemberKey, List <JMethod>> _getMemberIndex ()
+  {
+    if (m_aMemberIndex == null)
+    {
+      final int nConstructors = m_aConstructors == null ? 0 : m_aConstructors.size ();
+      final int nMethods = m_aMethods == null ? 0 : m_aMethods.size ();
+      if (nConstructors + nMethods > METHOD_INDEX_THRESHOLD)
+      {
+        m_aMemberIndex = new HashMap <> ();
+        if (m_aConstructors != null)
+          for (final JMethod aConstructor : m_aConstructors)
+            _indexMember (aConstructor);
+        if (m_aMethods != null)
+          for (final JMethod aMethod : m_aMethods)
+            _indexMember (aMethod);
+      }
+    }
+    return m_aMemberIndex;
+  }
+
+  private void _indexMember (@Nonnull final JMethod aMember)
+  {
+    m_aMemberIndex.computeIfAbsent (MemberKey.of (aMember), k -> new ArrayList <> (1)).add (aMember);
+  }
+
+  private boolean _unindexMember (@Nonnull final MemberKey aKey, @Nonnull final JMethod aMember)
+  {
+    final List <JMethod> aBucket = m_aMemberIndex.get (aKey);
+    if (aBucket == null || !aBucket.remove (aMember))
+      return false;
+    if (aBucket.isEmpty ())
+      m_aMemberIndex.remove (aKey);
+    return true;
+  }
+
+  private void _reindexMember (@Nonnull final MemberKey aOldKey, @Nonnull final JMethod aMember)
+  {
+    // Only members that are still part of this class are indexed
+    if (m_aMemberIndex != null && _unindexMember (aOldKey, aMember))
+    {
+      final List <JMethod> aBucket = m_aMemberIndex.computeIfAbsent (MemberKey.of (aMember),
+                                                                      k -> new ArrayList <> (1));
+      // Keep the declaration order within the bucket
+      int nPos = aBucket.size ();
+      if (nPos > 0)
+      {
+        final List <JMethod> aMembers = aMember.isConstructor () ? m_aConstructors : m_aMethods;
+        final int nIndex = aMembers.indexOf (aMember);
+        while (nPos > 0 && aMembers.indexOf (aBucket.get (nPos - 1)) > nIndex)
+          nPos--;
+      }
+      aBucket.add (nPos, aMember);
+    }
+  }
+
+  void internalRenameMethod (@Nonnull final String sOldName, @Nonnull final JMethod aMethod)
+  {
+    if (!aMethod.isConstructor ())
+      _reindexMember (new MemberKey (sOldName, aMethod.params ().size ()), aMethod);
+  }
+
+  void internalAddParam (@Nonnull final JMethod aMember)
+  {
+    final MemberKey aOldKey = new MemberKey (aMember.isConstructor () ? null : aMember.name (),
+                                             aMember.params ().size () - 1);
+    _reindexMember (aOldKey, aMember);
   }
 
   /**
@@ -575,9 +960,14 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nullable
   public JMethod getMethod (final String sName, final AbstractJType [] aArgTypes)
   {
-    for (final JMethod m : m_aMethods)
-      if (m.name ().equals (sName))
-        if (m.hasSignature (aArgTypes))
+    // Only overloads with the same name and number of parameters need to be
+    // compared
+    final Map <MemberKey, List <JMethod>> aIndex = _getMemberIndex ();
+    final Collection <JMethod> aCandidates = aIndex != null ? aIndex.get (new MemberKey (sName, aArgTypes.length))
+                                                            : m_aMethods;
+    if (aCandidates != null)
+      for (final JMethod m : aCandidates)
+        if (m.name ().equals (sName) && m.hasSignature (aArgTypes))
           return m;
     return null;
   }
@@ -599,7 +989,10 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   public JDocComment headerComment ()
   {
     if (m_aHeaderComment == null)
+    {
+      checkModifiable ();
       m_aHeaderComment = new JDocComment (owner ());
+    }
     return m_aHeaderComment;
   }
 
@@ -607,10 +1000,23 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   public JDocComment javadoc ()
   {
     if (m_aJDoc == null)
+    {
+      checkModifiable ();
       m_aJDoc = new JDocComment (owner ());
+    }
     return m_aJDoc;
   }
 
+  /**
+   * @return <code>true</code> if a JavaDoc comment was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasJavadoc ()
+  {
+    return m_aJDoc != null;
+  }
+
   /**
    * Mark this file as hidden, so that this file won't be generated. <br>
    * This feature could be used to generate code that refers to class X, without
@@ -618,6 +1024,7 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
    */
   public void hide ()
   {
+    checkModifiable ();
     m_bHideFile = true;
   }
 
@@ -626,6 +1033,61 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     return m_bHideFile;
   }
 
+  /**
+   * @return <code>true</code> if this class (or the top-level class containing
+   *         it) was already written with
+   *         {@link JCodeModel#emit(JDefinedClass, AbstractCodeWriter)}. In this
+   *         case only a stub of the class is left, that can be referenced but
+   *         no longer modified.
+   * @since 3.0.3
+   */
+  public boolean isEmitted ()
+  {
+    return m_bEmitted;
+  }
+
+  @Override
+  protected void checkModifiable ()
+  {
+    super.checkModifiable ();
+    if (m_bEmitted)
+      throw new IllegalStateException ("The class " +
+                                       fullName () +
+                                       " was already emitted and can no longer be modified");
+  }
+
+  /**
+   * Mark this class and all nested classes as emitted and release everything
+   * that is not needed to reference them: fields, methods, method bodies,
+   * initializers, annotations and javadoc. The name, the modifiers, the type
+   * parameters, the super types, the enum constants and the nested classes
+   * are kept.
+   */
+  void onEmitted ()
+  {
+    m_bEmitted = true;
+    m_aHeaderComment = null;
+    m_aJDoc = null;
+    m_aAnnotations = null;
+    m_aFields = null;
+    m_aStaticInit = null;
+    m_aInstanceInit = null;
+    // Methods may still be referenced by invocations in other classes
+    if (m_aConstructors != null)
+      for (final JMethod aConstructor : m_aConstructors)
+        aConstructor.releaseBody ();
+    if (m_aMethods != null)
+      for (final JMethod aMethod : m_aMethods)
+        aMethod.releaseBody ();
+    m_aConstructors = null;
+    m_aMethods = null;
+    m_aMemberIndex = null;
+    // Enum constants may still be referenced by other classes
+    m_sDirectBlock = null;
+    for (final JDefinedClass aNestedClass : classes ())
+      aNestedClass.onEmitted ();
+  }
+
   public void declare (@Nonnull final JFormatter f)
   {
     // Java docs
@@ -641,7 +1103,9 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     // Type of class (class, interface, enum, @interface)
     // Name of the class
     // Class wildcards
-    f.generable (m_aMods).print (getClassType ().declarationToken ()).id (name ()).declaration (m_aGenerifiable);
+    f.generable (m_aMods).print (getClassType ().declarationToken ()).id (name ());
+    if (m_aGenerifiable != null)
+      f.declaration (m_aGenerifiable);
 
     // If a super class is defined and is not "Object"
     boolean bHasSuperClass = false;
@@ -652,7 +1116,7 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     }
 
     // Add all interfaces
-    if (!m_aInterfaces.isEmpty ())
+    if (m_aInterfaces != null && !m_aInterfaces.isEmpty ())
     {
       if (!bHasSuperClass)
         f.newline ();
@@ -675,7 +1139,7 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     f.print ('{').newline ().indent ();
     boolean bFirst = true;
 
-    if (!m_aEnumConstantsByName.isEmpty ())
+    if (m_aEnumConstantsByName != null && !m_aEnumConstantsByName.isEmpty ())
     {
       for (final JEnumConstant c : m_aEnumConstantsByName.values ())
       {
@@ -689,8 +1153,9 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     }
 
     // All fields
-    for (final JFieldVar field : m_aFields.values ())
-      f.declaration (field);
+    if (m_aFields != null)
+      for (final JFieldVar field : m_aFields.values ())
+        f.declaration (field);
 
     // Static init
     if (m_aStaticInit != null)
@@ -701,16 +1166,18 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
       f.newline ().statement (m_aInstanceInit);
 
     // All constructors
-    for (final JMethod m : m_aConstructors)
-      f.newline ().declaration (m);
+    if (m_aConstructors != null)
+      for (final JMethod m : m_aConstructors)
+        f.newline ().declaration (m);
 
     // All regular methods
-    for (final JMethod m : m_aMethods)
-      f.newline ().declaration (m);
+    if (m_aMethods != null)
+      for (final JMethod m : m_aMethods)
+        f.newline ().declaration (m);
 
     // All inner classes
     if (m_aClasses != null)
-      for (final JDefinedClass dc : m_aClasses.values ())
+      for (final JDefinedClass dc : m_aClasses.getSorted ())
         f.newline ().declaration (dc);
 
     // Hacks...
@@ -730,6 +1197,7 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
    */
   public void direct (@Nullable final String string)
   {
+    checkModifiable ();
     if (m_sDirectBlock == null)
       m_sDirectBlock = string;
     else
@@ -747,28 +1215,47 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     return (JPackage) p;
   }
 
+  @Nonnull
+  private IJGenerifiable _generifiable ()
+  {
+    checkModifiable ();
+    if (m_aGenerifiable == null)
+      m_aGenerifiable = new AbstractJGenerifiableImpl ()
+      {
+        @Nonnull
+        public JCodeModel owner ()
+        {
+          // The owner is same as the owner of this defined class's owner
+          return JDefinedClass.this.owner ();
+        }
+      };
+    return m_aGenerifiable;
+  }
+
   @Nonnull
   public JTypeVar generify (@Nonnull final String sName)
   {
-    return m_aGenerifiable.generify (sName);
+    return _generifiable ().generify (sName);
   }
 
   @Nonnull
   public JTypeVar generify (@Nonnull final String sName, @Nonnull final Class <?> aBoundClass)
   {
-    return m_aGenerifiable.generify (sName, aBoundClass);
+    return _generifiable ().generify (sName, aBoundClass);
   }
 
   @Nonnull
   public JTypeVar generify (@Nonnull final String sName, @Nonnull final AbstractJClass aBoundClass)
   {
-    return m_aGenerifiable.generify (sName, aBoundClass);
+    return _generifiable ().generify (sName, aBoundClass);
   }
 
   @Override
   @Nonnull
   public JTypeVar [] typeParams ()
   {
+    if (m_aGenerifiable == null)
+      return EMPTY_ARRAY;
     return m_aGenerifiable.typeParams ();
   }
 
@@ -788,6 +1275,7 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
   @Nonnull
   public JAnnotationUse annotate (@Nonnull final AbstractJClass aClazz)
   {
+    checkModifiable ();
     if (m_aAnnotations == null)
       m_aAnnotations = new ArrayList <> ();
     final JAnnotationUse a = new JAnnotationUse (aClazz);
@@ -795,17 +1283,38 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
     return a;
   }
 
+  /**
+   * @return The annotations of this class. The returned collection is a
+   *         read-only live view.
+   */
   @Nonnull
   public Collection <JAnnotationUse> annotations ()
   {
-    if (m_aAnnotations == null)
-      m_aAnnotations = new ArrayList <> ();
-    return Collections.unmodifiableCollection (m_aAnnotations);
+    // The view reads the lazily created list on every access
+    return new AbstractCollection <JAnnotationUse> ()
+    {
+      @Override
+      public Iterator <JAnnotationUse> iterator ()
+      {
+        if (m_aAnnotations == null)
+          return Collections.emptyIterator ();
+        return Collections.unmodifiableList (m_aAnnotations).iterator ();
+      }
+
+      @Override
+      public int size ()
+      {
+        return m_aAnnotations == null ? 0 : m_aAnnotations.size ();
+      }
+    };
   }
 
   @Nullable
   public JAnnotationUse getAnnotation (final Class <?> aAnnotationClass)
   {
+    if (m_aAnnotations == null)
+      return null;
+
     for (final JAnnotationUse jannotation : m_aAnnotations)
     {
       final AbstractJClass jannotationClass = jannotation.getAnnotationClass ();
@@ -838,6 +1347,8 @@ public class JDefinedClass extends AbstractJClassContainer <JDefinedClass> imple
    */
   public boolean containsErrorTypes ()
   {
+    if (!owner ().hasErrorClasses ())
+      return false;
     return JFormatter.containsErrorTypes (this);
   }
 }
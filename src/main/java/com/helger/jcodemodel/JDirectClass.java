@@ -58,6 +58,8 @@ import com.helger.jcodemodel.util.JCHashCodeGenerator;
  */
 public class JDirectClass extends AbstractJClassContainer <JDirectClass>
 {
+  private static final long serialVersionUID = 1L;
+
   private final String m_sFullName;
 
   @Deprecated
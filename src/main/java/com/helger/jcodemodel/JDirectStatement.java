@@ -53,6 +53,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public final class JDirectStatement implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   private String m_sSource;
 
   public JDirectStatement (@Nonnull final String sSource)
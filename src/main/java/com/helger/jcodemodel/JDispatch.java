@@ -0,0 +1,351 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
+/**
+ * Factory methods that generate constant time dispatch code for a fixed set of
+ * keys, instead of chains of <code>if (s.equals ("A")) ... else if ...</code>
+ * statements:
+ * <ul>
+ * <li>{@link #intSwitch(JBlock, IJExpression, Map, Consumer)} and
+ * {@link #stringSwitch(JBlock, IJExpression, Map, Consumer)} create a plain
+ * <code>switch</code> statement.</li>
+ * <li>{@link #hashSwitch(JCodeModel, JBlock, IJExpression, Map, Consumer, String)}
+ * creates a <code>switch</code> on the hash code of a string followed by
+ * equality checks and a second <code>switch</code> on the matched index. This
+ * is what the compiler generates for string switches and can be used for
+ * sources that must compile with Java versions before 7.</li>
+ * <li>{@link #lookupArray(JDefinedClass, int, AbstractJType, String, Map, IJExpression)}
+ * and
+ * {@link #lookupEnumMap(JDefinedClass, int, AbstractJClass, AbstractJClass, String, Map)}
+ * create static lookup tables.</li>
+ * </ul>
+ * The actions are callbacks that fill the block of the respective case. Unless
+ * the block ends with a jump statement (<code>return</code>,
+ * <code>throw</code>, <code>break</code> or <code>continue</code>), a
+ * <code>break</code> is added automatically.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+public final class JDispatch
+{
+  /**
+   * The maximum ratio between the length of an array created by
+   * {@link #lookupArray(JDefinedClass, int, AbstractJType, String, Map, IJExpression)}
+   * and the number of its keys.
+   */
+  public static final int LOOKUP_ARRAY_MAX_SPARSENESS = 4;
+
+  /**
+   * Arrays up to this length are created by
+   * {@link #lookupArray(JDefinedClass, int, AbstractJType, String, Map, IJExpression)}
+   * regardless of the number of keys.
+   */
+  public static final int LOOKUP_ARRAY_MIN_CHECKED_LENGTH = 16;
+
+  private JDispatch ()
+  {}
+
+  private static void _fillCase (@Nonnull final JCase aCase, @Nonnull final Consumer <? super JBlock> aAction)
+  {
+    final JBlock aBody = aCase.body ();
+    aAction.accept (aBody);
+    // No "break" after e.g. an if/else whose branches all return, as javac
+    // would reject it as unreachable
+    if (JReachability.canCompleteNormally (aBody))
+      aBody._break ();
+  }
+
+  @Nonnull
+  private static <K> JSwitch _switch (@Nonnull final JBlock aBlock,
+                                      @Nonnull final IJExpression aKey,
+                                      @Nonnull final Map <K, ? extends Consumer <? super JBlock>> aCases,
+                                      @Nullable final Consumer <? super JBlock> aDefault,
+                                      @Nonnull final Function <K, IJExpression> aLabelFactory)
+  {
+    JCValueEnforcer.notNull (aBlock, "Block");
+    JCValueEnforcer.notNull (aKey, "Key");
+    JCValueEnforcer.notNull (aCases, "Cases");
+
+    final JSwitch aSwitch = aBlock._switch (aKey);
+    for (final Map.Entry <K, ? extends Consumer <? super JBlock>> aEntry : aCases.entrySet ())
+      _fillCase (aSwitch._case (aLabelFactory.apply (aEntry.getKey ())), aEntry.getValue ());
+    if (aDefault != null)
+      _fillCase (aSwitch._default (), aDefault);
+    return aSwitch;
+  }
+
+  /**
+   * Create a <code>switch</code> statement on an <code>int</code> key.
+   *
+   * @param aBlock
+   *        The block to add the statement to. May not be <code>null</code>.
+   * @param aKey
+   *        The expression to switch on. May not be <code>null</code>.
+   * @param aCases
+   *        The actions for each key in the order they should be emitted. May
+   *        not be <code>null</code>.
+   * @param aDefault
+   *        The action if no key matches. May be <code>null</code>.
+   * @return The created switch statement. Never <code>null</code>.
+   */
+  @Nonnull
+  public static JSwitch intSwitch (@Nonnull final JBlock aBlock,
+                                   @Nonnull final IJExpression aKey,
+                                   @Nonnull final Map <Integer, ? extends Consumer <? super JBlock>> aCases,
+                                   @Nullable final Consumer <? super JBlock> aDefault)
+  {
+    return _switch (aBlock, aKey, aCases, aDefault, n -> JExpr.lit (n.intValue ()));
+  }
+
+  /**
+   * Create a <code>switch</code> statement on a {@link String} key (Java 7 and
+   * later). The key must not be <code>null</code> at runtime.
+   *
+   * @param aBlock
+   *        The block to add the statement to. May not be <code>null</code>.
+   * @param aKey
+   *        The expression to switch on. May not be <code>null</code>.
+   * @param aCases
+   *        The actions for each key in the order they should be emitted. May
+   *        not be <code>null</code>.
+   * @param aDefault
+   *        The action if no key matches. May be <code>null</code>.
+   * @return The created switch statement. Never <code>null</code>.
+   */
+  @Nonnull
+  public static JSwitch stringSwitch (@Nonnull final JBlock aBlock,
+                                      @Nonnull final IJExpression aKey,
+                                      @Nonnull final Map <String, ? extends Consumer <? super JBlock>> aCases,
+                                      @Nullable final Consumer <? super JBlock> aDefault)
+  {
+    return _switch (aBlock, aKey, aCases, aDefault, JExpr::lit);
+  }
+
+  /**
+   * Create a dispatch on a {@link String} key that switches on the hash code
+   * of the key first. The key is evaluated multiple times, so it should be a
+   * variable. The key must not be <code>null</code> at runtime.
+   *
+   * @param aOwner
+   *        The owning code model. May not be <code>null</code>.
+   * @param aBlock
+   *        The block to add the statements to. May not be <code>null</code>.
+   * @param aKey
+   *        The expression to switch on. May not be <code>null</code>.
+   * @param aCases
+   *        The actions for each key in the order they should be emitted. May
+   *        not be <code>null</code>.
+   * @param aDefault
+   *        The action if no key matches. May be <code>null</code>.
+   * @param sIndexVarName
+   *        The name of the local variable holding the index of the matched
+   *        key. May not be <code>null</code>.
+   * @return The created switch statement on the index. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public static JSwitch hashSwitch (@Nonnull final JCodeModel aOwner,
+                                    @Nonnull final JBlock aBlock,
+                                    @Nonnull final IJExpression aKey,
+                                    @Nonnull final Map <String, ? extends Consumer <? super JBlock>> aCases,
+                                    @Nullable final Consumer <? super JBlock> aDefault,
+                                    @Nonnull final String sIndexVarName)
+  {
+    JCValueEnforcer.notNull (aOwner, "Owner");
+    JCValueEnforcer.notNull (aBlock, "Block");
+    JCValueEnforcer.notNull (aKey, "Key");
+    JCValueEnforcer.notNull (aCases, "Cases");
+    JCValueEnforcer.notNull (sIndexVarName, "IndexVarName");
+
+    // Group the keys by hash code
+    final Map <Integer, List <String>> aBuckets = new LinkedHashMap <> ();
+    for (final String sKey : aCases.keySet ())
+      aBuckets.computeIfAbsent (Integer.valueOf (sKey.hashCode ()), k -> new ArrayList <> ()).add (sKey);
+
+    final Map <String, Integer> aIndices = new LinkedHashMap <> ();
+    for (final String sKey : aCases.keySet ())
+      aIndices.put (sKey, Integer.valueOf (aIndices.size ()));
+
+    final JVar aIndex = aBlock.decl (aOwner.INT, sIndexVarName, JExpr.lit (-1));
+    final JSwitch aHashSwitch = aBlock._switch (aKey.invoke ("hashCode"));
+    for (final Map.Entry <Integer, List <String>> aEntry : aBuckets.entrySet ())
+    {
+      final JBlock aBody = aHashSwitch._case (JExpr.lit (aEntry.getKey ().intValue ())).body ();
+      JConditional aCond = null;
+      for (final String sKey : aEntry.getValue ())
+      {
+        final IJExpression aTest = JExpr.lit (sKey).invoke ("equals").arg (aKey);
+        aCond = aCond == null ? aBody._if (aTest) : aCond._elseif (aTest);
+        aCond._then ().assign (aIndex, JExpr.lit (aIndices.get (sKey).intValue ()));
+      }
+      aBody._break ();
+    }
+
+    final Map <Integer, Consumer <? super JBlock>> aIndexCases = new LinkedHashMap <> ();
+    for (final Map.Entry <String, ? extends Consumer <? super JBlock>> aEntry : aCases.entrySet ())
+      aIndexCases.put (aIndices.get (aEntry.getKey ()), aEntry.getValue ());
+    return intSwitch (aBlock, aIndex, aIndexCases, aDefault);
+  }
+
+  /**
+   * Create a static final array field to be used as a lookup table for
+   * non-negative <code>int</code> keys. Missing keys are filled with the
+   * default value. The array length is the largest key plus one, so the keys
+   * must be dense: arrays longer than {@link #LOOKUP_ARRAY_MIN_CHECKED_LENGTH}
+   * may have at most {@link #LOOKUP_ARRAY_MAX_SPARSENESS} elements per key.
+   * Use {@link #intSwitch(JBlock, IJExpression, Map, Consumer)} for sparse
+   * keys.
+   *
+   * @param aClass
+   *        The class to add the field to. May not be <code>null</code>.
+   * @param nMods
+   *        The modifiers of the field. <code>static</code> and
+   *        <code>final</code> are always added.
+   * @param aElementType
+   *        The type of the array elements. May not be <code>null</code>.
+   * @param sName
+   *        The field name. May not be <code>null</code>.
+   * @param aValues
+   *        The values by index. May not be <code>null</code>.
+   * @param aDefault
+   *        The value for missing indices. May not be <code>null</code>.
+   * @return The created field. Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the keys are too sparse.
+   */
+  @Nonnull
+  public static JFieldVar lookupArray (@Nonnull final JDefinedClass aClass,
+                                       final int nMods,
+                                       @Nonnull final AbstractJType aElementType,
+                                       @Nonnull final String sName,
+                                       @Nonnull final Map <Integer, ? extends IJExpression> aValues,
+                                       @Nonnull final IJExpression aDefault)
+  {
+    JCValueEnforcer.notNull (aClass, "Class");
+    JCValueEnforcer.notNull (aElementType, "ElementType");
+    JCValueEnforcer.notNull (aValues, "Values");
+    JCValueEnforcer.notNull (aDefault, "Default");
+
+    long nLength = 0;
+    for (final Integer aKey : aValues.keySet ())
+    {
+      JCValueEnforcer.isGE0 (aKey.intValue (), "Key");
+      nLength = Math.max (nLength, aKey.longValue () + 1);
+    }
+
+    // Not checked with JCValueEnforcer, as these checks must not be disabled
+    if (nLength > Math.max (LOOKUP_ARRAY_MIN_CHECKED_LENGTH, (long) aValues.size () * LOOKUP_ARRAY_MAX_SPARSENESS))
+      throw new IllegalArgumentException ("The " +
+                                          aValues.size () +
+                                          " keys are too sparse for a lookup array of length " +
+                                          nLength +
+                                          " - use a switch instead");
+    final int nSize = (int) nLength;
+
+    final JArray aArray = JExpr.newArray (aElementType);
+    for (int i = 0; i < nSize; ++i)
+    {
+      final IJExpression aValue = aValues.get (Integer.valueOf (i));
+      aArray.add (aValue != null ? aValue : aDefault);
+    }
+    return aClass.field (nMods | JMod.STATIC | JMod.FINAL, aElementType.array (), sName, aArray);
+  }
+
+  /**
+   * Create a static final {@link EnumMap} field to be used as a lookup table
+   * for enum keys. The map is filled in the static initializer of the class.
+   *
+   * @param aClass
+   *        The class to add the field to. May not be <code>null</code>.
+   * @param nMods
+   *        The modifiers of the field. <code>static</code> and
+   *        <code>final</code> are always added.
+   * @param aEnumType
+   *        The enum type of the keys. May not be <code>null</code>.
+   * @param aValueType
+   *        The type of the values. May not be <code>null</code>.
+   * @param sName
+   *        The field name. May not be <code>null</code>.
+   * @param aValues
+   *        The values by enum constant name. May not be <code>null</code>.
+   * @return The created field. Never <code>null</code>.
+   */
+  @Nonnull
+  public static JFieldVar lookupEnumMap (@Nonnull final JDefinedClass aClass,
+                                         final int nMods,
+                                         @Nonnull final AbstractJClass aEnumType,
+                                         @Nonnull final AbstractJClass aValueType,
+                                         @Nonnull final String sName,
+                                         @Nonnull final Map <String, ? extends IJExpression> aValues)
+  {
+    JCValueEnforcer.notNull (aClass, "Class");
+    JCValueEnforcer.notNull (aEnumType, "EnumType");
+    JCValueEnforcer.notNull (aValueType, "ValueType");
+    JCValueEnforcer.notNull (aValues, "Values");
+
+    final JCodeModel aOwner = aClass.owner ();
+    final AbstractJClass aMapType = aOwner.ref (Map.class).narrow (aEnumType, aValueType);
+    final AbstractJClass aEnumMapType = aOwner.ref (EnumMap.class).narrow (aEnumType, aValueType);
+    final JFieldVar aField = aClass.field (nMods | JMod.STATIC | JMod.FINAL,
+                                          aMapType,
+                                          sName,
+                                          JExpr._new (aEnumMapType).arg (aEnumType.dotclass ()));
+    final JBlock aInit = aClass.init ();
+    for (final Map.Entry <String, ? extends IJExpression> aEntry : aValues.entrySet ())
+      aInit.invoke (aField, "put").arg (aEnumType.staticRef (aEntry.getKey ())).arg (aEntry.getValue ());
+    return aField;
+  }
+}
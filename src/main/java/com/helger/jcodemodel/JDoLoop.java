@@ -49,10 +49,12 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JDoLoop implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Test part of Do statement for determining exit state
    */
-  private final IJExpression m_aTest;
+  private IJExpression m_aTest;
 
   /**
    * JBlock of statements which makes up body of this Do statement
@@ -76,6 +78,28 @@ public class JDoLoop implements IJStatement
     return m_aTest;
   }
 
+  /**
+   * Change the loop condition.
+   *
+   * @param aTestExpr
+   *        The new test expression. May not be <code>null</code>.
+   * @since 3.0.3
+   */
+  public void test (@Nonnull final IJExpression aTestExpr)
+  {
+    m_aTest = JCValueEnforcer.notNull (aTestExpr, "TestExpr");
+  }
+
+  /**
+   * @return <code>true</code> if the body was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasBody ()
+  {
+    return m_aBody != null;
+  }
+
   @Nonnull
   public JBlock body ()
   {
@@ -67,6 +67,11 @@ public class JDocComment extends JCommentPart implements IJGenerable, IJOwned
 
   private static final long serialVersionUID = 1L;
 
+  private static final String INDENT = " * ";
+  private static final String INDENT_LARGE = INDENT + "    ";
+  private static final String INDENT_SINGLE_LINE = "// ";
+  private static final String INDENT_SINGLE_LINE_LARGE = INDENT_SINGLE_LINE + "    ";
+
   private final JCodeModel m_aOwner;
 
   private boolean m_bIsSingleLineMode = false;
@@ -402,8 +407,8 @@ public class JDocComment extends JCommentPart implements IJGenerable, IJOwned
     if (!isEmpty () || bHasAt)
     {
       final boolean bIsJavaDoc = true;
-      final String sIndent = m_bIsSingleLineMode ? "// " : " * ";
-      final String sIndentLarge = sIndent + "    ";
+      final String sIndent = m_bIsSingleLineMode ? INDENT_SINGLE_LINE : INDENT;
+      final String sIndentLarge = m_bIsSingleLineMode ? INDENT_SINGLE_LINE_LARGE : INDENT_LARGE;
 
       // Start comment
       if (!m_bIsSingleLineMode)
@@ -416,27 +421,27 @@ public class JDocComment extends JCommentPart implements IJGenerable, IJOwned
 
       for (final Map.Entry <String, JCommentPart> aEntry : m_aAtParams.entrySet ())
       {
-        f.print (sIndent + "@param ").print (aEntry.getKey ()).newline ();
+        f.print (sIndent).print ("@param ").print (aEntry.getKey ()).newline ();
         aEntry.getValue ().format (f, sIndentLarge);
       }
       if (m_aAtReturn != null)
       {
-        f.print (sIndent + "@return").newline ();
+        f.print (sIndent).print ("@return").newline ();
         m_aAtReturn.format (f, sIndentLarge);
       }
       for (final Map.Entry <AbstractJClass, JCommentPart> aEntry : m_aAtThrows.entrySet ())
       {
-        f.print (sIndent + "@throws ").type (aEntry.getKey ()).newline ();
+        f.print (sIndent).print ("@throws ").type (aEntry.getKey ()).newline ();
         aEntry.getValue ().format (f, sIndentLarge);
       }
       for (final Map.Entry <String, JCommentPart> aEntry : m_aAtTags.entrySet ())
       {
-        f.print (sIndent + "@" + aEntry.getKey () + " ");
+        f.print (sIndent).print ('@').print (aEntry.getKey ()).print (' ');
         aEntry.getValue ().format (f, "");
       }
       for (final Map.Entry <String, Map <String, String>> aEntry : m_aAtXdoclets.entrySet ())
       {
-        f.print (sIndent + "@").print (aEntry.getKey ());
+        f.print (sIndent).print ('@').print (aEntry.getKey ());
         if (aEntry.getValue () != null)
         {
           for (final Map.Entry <String, String> aEntry2 : aEntry.getValue ().entrySet ())
@@ -61,6 +61,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JEnumConstant implements IJExpression, IJDeclaration, IJAnnotatable, IJDocCommentable
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * The enum class.
    */
@@ -166,6 +168,16 @@ public class JEnumConstant implements IJExpression, IJDeclaration, IJAnnotatable
     return m_aJavaDoc;
   }
 
+  /**
+   * @return <code>true</code> if a JavaDoc comment was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasJavadoc ()
+  {
+    return m_aJavaDoc != null;
+  }
+
   /**
    * Adds an annotation to this variable.
    *
@@ -201,7 +213,7 @@ public class JEnumConstant implements IJExpression, IJDeclaration, IJAnnotatable
   public Collection <JAnnotationUse> annotations ()
   {
     if (m_aAnnotations == null)
-      m_aAnnotations = new ArrayList <> ();
+      return Collections.emptyList ();
     return Collections.unmodifiableList (m_aAnnotations);
   }
 
@@ -55,6 +55,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JEnumConstantRef implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * The enum class.
    */
@@ -115,6 +117,12 @@ public class JEnumConstantRef implements IJExpression
     return isEqual (m_aType.fullName (), rhs.m_aType.fullName ()) && isEqual (m_sName, rhs.m_sName);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    return true;
+  }
+
   @Override
   public int hashCode ()
   {
@@ -71,6 +71,8 @@ import javax.annotation.Nullable;
  */
 public class JErrorClass extends AbstractJClass
 {
+  private static final long serialVersionUID = 1L;
+
   private final String m_sMessage;
   private final String m_sName;
 
@@ -84,6 +86,7 @@ public class JErrorClass extends AbstractJClass
     super (aOwner);
     m_sMessage = sMessage;
     m_sName = sName;
+    aOwner.onErrorClassCreated ();
   }
 
   @Override
@@ -48,6 +48,8 @@ package com.helger.jcodemodel;
  */
 public class JErrorClassUsedException extends UnsupportedOperationException
 {
+  private static final long serialVersionUID = 1L;
+
   JErrorClassUsedException (final String sMessage)
   {
     super (sMessage);
@@ -63,6 +63,15 @@ public final class JExpr
 
   private static final String CHAR_ESCAPE = "\b\t\n\f\r\"\'\\";
   private static final String CHAR_MACRO = "btnfr\"'\\";
+  /** The escape macro by ASCII char or 0 if there is none */
+  private static final char [] ESCAPE_MACRO = new char [0x80];
+  private static final char [] HEX_DIGITS = "0123456789abcdef".toCharArray ();
+
+  static
+  {
+    for (int i = 0; i < CHAR_ESCAPE.length (); ++i)
+      ESCAPE_MACRO[CHAR_ESCAPE.charAt (i)] = CHAR_MACRO.charAt (i);
+  }
   private static final JAtom THIS = new JAtom ("this");
   private static final JAtom SUPER = new JAtom ("super");
   private static final JAtom NULL = new JAtom ("null");
@@ -347,6 +356,35 @@ public final class JExpr
     return NULL;
   }
 
+  /**
+   * Get the shared instance of a predefined atom with the same text, so that
+   * identity checks like <code>== JExpr.TRUE</code> work for deserialized
+   * atoms as well.
+   *
+   * @param aAtom
+   *        The atom to resolve. May not be <code>null</code>.
+   * @return The shared instance or the passed atom if it is not predefined.
+   */
+  @Nonnull
+  static JAtom getPredefinedAtom (@Nonnull final JAtom aAtom)
+  {
+    switch (aAtom.what ())
+    {
+      case "true":
+        return TRUE;
+      case "false":
+        return FALSE;
+      case "this":
+        return THIS;
+      case "super":
+        return SUPER;
+      case "null":
+        return NULL;
+      default:
+        return aAtom;
+    }
+  }
+
   @Nonnull
   public static JAtom lit (final boolean b)
   {
@@ -377,6 +415,15 @@ public final class JExpr
     return new JAtomDouble (d);
   }
 
+  private static boolean _needsEscape (final char cQuote, final char c)
+  {
+    // Unicode escape non-printable and non-ASCII chars
+    if (c < 0x20 || c > 0x7E)
+      return true;
+    // The other quote char does not need to be escaped
+    return c == cQuote || c == '\\';
+  }
+
   /**
    * Escapes the given string, then surrounds it by the specified quotation
    * mark.
@@ -391,24 +438,55 @@ public final class JExpr
   public static String quotify (final char cQuote, @Nonnull final String sStr)
   {
     final int n = sStr.length ();
-    final StringBuilder sb = new StringBuilder (n + 2);
-    sb.append (cQuote);
-    for (int i = 0; i < n; i++)
+    int nFirstEscape = 0;
+    while (nFirstEscape < n && !_needsEscape (cQuote, sStr.charAt (nFirstEscape)))
+      nFirstEscape++;
+    if (nFirstEscape == n)
+    {
+      // Fast path: printable ASCII only
+      return cQuote + sStr + cQuote;
+    }
+    return appendQuotified (new StringBuilder (n + 16), cQuote, sStr, 0, n).toString ();
+  }
+
+  /**
+   * Escapes a part of the given string, surrounds it by the specified
+   * quotation mark and appends the result to the passed {@link StringBuilder}.
+   * Runs of characters that don't need escaping are appended at once.
+   *
+   * @param aSB
+   *        The string builder to append to. May not be <code>null</code>.
+   * @param cQuote
+   *        Quote char. Either single quote (') or double quote (")
+   * @param sStr
+   *        Source string to quote. May not be <code>null</code>.
+   * @param nStart
+   *        Index of the first char to quote (inclusive).
+   * @param nEnd
+   *        Index of the last char to quote (exclusive).
+   * @return The passed string builder
+   * @since 3.0.3
+   */
+  @Nonnull
+  public static StringBuilder appendQuotified (@Nonnull final StringBuilder aSB,
+                                               final char cQuote,
+                                               @Nonnull final String sStr,
+                                               @Nonnegative final int nStart,
+                                               @Nonnegative final int nEnd)
+  {
+    aSB.append (cQuote);
+    int nRunStart = nStart;
+    for (int i = nStart; i < nEnd; i++)
     {
       final char c = sStr.charAt (i);
-      final int j = CHAR_ESCAPE.indexOf (c);
-      if (j >= 0)
-      {
-        if ((cQuote == '"' && c == '\'') || (cQuote == '\'' && c == '"'))
-        {
-          sb.append (c);
-        }
-        else
-        {
-          sb.append ('\\');
-          sb.append (CHAR_MACRO.charAt (j));
-        }
-      }
+      if (!_needsEscape (cQuote, c))
+        continue;
+
+      aSB.append (sStr, nRunStart, i);
+      nRunStart = i + 1;
+      final char cMacro = c < 0x80 ? ESCAPE_MACRO[c] : 0;
+      if (cMacro != 0)
+        aSB.append ('\\').append (cMacro);
       else
       {
         // technically Unicode escape shouldn't be done here,
@@ -419,23 +497,17 @@ public final class JExpr
         // the escaping here (regardless of the actual file encoding)
         //
         // see bug
-        if (c < 0x20 || c > 0x7E)
-        {
-          // not printable. use Unicode escape
-          sb.append ("\\u");
-          final String hex = Integer.toHexString (c & 0xFFFF);
-          for (int k = hex.length (); k < 4; k++)
-            sb.append ('0');
-          sb.append (hex);
-        }
-        else
-        {
-          sb.append (c);
-        }
+        aSB.append ('\\')
+           .append ('u')
+           .append (HEX_DIGITS[(c >> 12) & 0xf])
+           .append (HEX_DIGITS[(c >> 8) & 0xf])
+           .append (HEX_DIGITS[(c >> 4) & 0xf])
+           .append (HEX_DIGITS[c & 0xf]);
       }
     }
-    sb.append (cQuote);
-    return sb.toString ();
+    aSB.append (sStr, nRunStart, nEnd);
+    aSB.append (cQuote);
+    return aSB;
   }
 
   @Nonnull
@@ -46,6 +46,7 @@ import static com.helger.jcodemodel.util.JCHashCodeGenerator.getHashCode;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.helger.jcodemodel.util.JCStructuralHashCode;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 /**
@@ -53,6 +54,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JFieldRef implements IJAssignmentTarget, IJOwnedMaybe
 {
+  private static final long serialVersionUID = 1L;
+
   private final JCodeModel m_aOwner;
 
   /**
@@ -76,6 +79,15 @@ public class JFieldRef implements IJAssignmentTarget, IJOwnedMaybe
    */
   private boolean m_bExplicitThis;
 
+  /**
+   * Memoized structural hash code. 0 if not yet calculated or after a
+   * modification.
+   */
+  private transient int m_nHashCode;
+
+  /** The modification stamp {@link #m_nHashCode} was calculated with. */
+  private transient long m_nHashCodeStamp;
+
   /**
    * Field reference constructor given an object expression and field name.
    * <code>object.name</code> or just <code>name</code> if object is
@@ -183,7 +195,12 @@ public class JFieldRef implements IJAssignmentTarget, IJOwnedMaybe
   @Nonnull
   public JFieldRef explicitThis (final boolean bExplicitThis)
   {
-    m_bExplicitThis = bExplicitThis;
+    if (bExplicitThis != m_bExplicitThis)
+    {
+      m_bExplicitThis = bExplicitThis;
+      // The hash code is claimed to be stable
+      JCStructuralHashCode.onStableNodeModified ();
+    }
     return this;
   }
 
@@ -219,9 +236,28 @@ public class JFieldRef implements IJAssignmentTarget, IJOwnedMaybe
            isEqual (m_bExplicitThis, rhs.m_bExplicitThis);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    // Changing explicitThis or renaming the variable updates the modification
+    // stamp
+    return JCStructuralHashCode.isStable (m_aObject);
+  }
+
   @Override
   public int hashCode ()
   {
-    return getHashCode (this, m_aObject, name (), Boolean.valueOf (m_bExplicitThis));
+    int ret = m_nHashCode;
+    final long nStamp = JCStructuralHashCode.getModificationStamp ();
+    if (ret == 0 || m_nHashCodeStamp != nStamp)
+    {
+      ret = getHashCode (this, m_aObject, name (), Boolean.valueOf (m_bExplicitThis));
+      if (isHashCodeStable ())
+      {
+        m_nHashCode = ret;
+        m_nHashCodeStamp = nStamp;
+      }
+    }
+    return ret;
   }
 }
@@ -50,6 +50,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JFieldVar extends JVar implements IJDocCommentable
 {
+  private static final long serialVersionUID = 1L;
+
   private final JDefinedClass m_aOwnerClass;
 
   /**
@@ -110,6 +112,16 @@ public class JFieldVar extends JVar implements IJDocCommentable
     return m_aJavaDoc;
   }
 
+  /**
+   * @return <code>true</code> if a JavaDoc comment was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasJavadoc ()
+  {
+    return m_aJavaDoc != null;
+  }
+
   /**
    * @return A field reference to this field variable. May be used for public
    *         static final constants.
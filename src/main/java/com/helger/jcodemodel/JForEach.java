@@ -52,6 +52,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JForEach implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   private final AbstractJType m_aType;
   private final String m_sVarName;
   private JBlock m_aBody; // lazily created
@@ -93,6 +95,16 @@ public class JForEach implements IJStatement
     return m_aCollection;
   }
 
+  /**
+   * @return <code>true</code> if the body was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasBody ()
+  {
+    return m_aBody != null;
+  }
+
   @Nonnull
   public JBlock body ()
   {
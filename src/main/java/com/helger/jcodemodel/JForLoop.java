@@ -54,6 +54,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JForLoop implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   private final List <Object> m_aInitExprs = new ArrayList <> ();
   private IJExpression m_aTestExpr;
   private final List <IJExpression> m_aUpdateExprs = new ArrayList <> ();
@@ -119,6 +121,16 @@ public class JForLoop implements IJStatement
     return Collections.unmodifiableList (m_aUpdateExprs);
   }
 
+  /**
+   * @return <code>true</code> if the body was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasBody ()
+  {
+    return m_aBody != null;
+  }
+
   @Nonnull
   public JBlock body ()
   {
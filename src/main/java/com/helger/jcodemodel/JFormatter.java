@@ -114,20 +114,16 @@ public class JFormatter implements Closeable
 
       // special case where a generated type collides with a type in package
       // java.lang
-      if (aSingleRef._package () == JFormatter.this.m_aPckJavaLang)
+      if (_isJavaLang (aSingleRef._package ()))
       {
         // make sure that there's no other class with this name within the
-        // same package
-        for (final JDefinedClass aClass : aEnclosingClass._package ().classes ())
+        // same package. Even if this is the only "String" class we use, if
+        // the class called "String" is in the same package, we still need to
+        // import it. This is a lookup in the name index of the package.
+        if (aEnclosingClass._package ().isDefined (aSingleRef.name ()))
         {
-          // even if this is the only "String" class we use,
-          // if the class called "String" is in the same package,
-          // we still need to import it.
-          if (aClass.name ().equals (aSingleRef.name ()))
-          {
-            // collision -> ambiguous
-            return true;
-          }
+          // collision -> ambiguous
+          return true;
         }
       }
 
@@ -613,6 +609,31 @@ public class JFormatter implements Closeable
     return this;
   }
 
+  /**
+   * Print a part of a String into the stream, without creating a substring.
+   * Indentation happens automatically.
+   *
+   * @param sStr
+   *        the String
+   * @param nStart
+   *        Index of the first char to print (inclusive)
+   * @param nEnd
+   *        Index of the last char to print (exclusive)
+   * @return this
+   * @since 3.0.3
+   */
+  @Nonnull
+  public JFormatter print (@Nonnull final String sStr, final int nStart, final int nEnd)
+  {
+    if (m_eMode == EMode.PRINTING && nEnd > nStart)
+    {
+      _spaceIfNeeded (sStr.charAt (nStart));
+      m_aPW.print (sStr, nStart, nEnd - nStart);
+      m_cLastChar = sStr.charAt (nEnd - 1);
+    }
+    return this;
+  }
+
   @Nonnull
   public JFormatter type (@Nonnull final AbstractJType aType)
   {
@@ -657,7 +678,7 @@ public class JFormatter implements Closeable
         else
           // many of the JTypes in this list are either primitive or belong to
           // package java so we don't need a FQCN
-          if (m_aImportedClasses.contains (aType) || aType._package () == m_aPckJavaLang)
+          if (m_aImportedClasses.contains (aType) || _isJavaLang (aType._package ()))
           {
             // FQCN imported or not necessary, so generate short name
             print (aType.name ());
@@ -965,7 +986,7 @@ public class JFormatter implements Closeable
       return true;
     }
 
-    if (aPackage == m_aPckJavaLang)
+    if (_isJavaLang (aPackage))
     {
       // no need to explicitly import java.lang classes
       return true;
@@ -973,7 +994,9 @@ public class JFormatter implements Closeable
 
     // All pkg local classes do not need an
     // import stmt for ref, except for inner classes
-    if (aPackage == aClassToBeWrittem._package ())
+    // Compare by name, because the classes of a fork and its base model are in
+    // different package objects
+    if (aPackage.name ().equals (aClassToBeWrittem._package ().name ()))
     {
       AbstractJClass aOuter = aRealReference.outer ();
       if (aOuter == null) // top-level class
@@ -1006,9 +1029,18 @@ public class JFormatter implements Closeable
    * @param aClassToBeWritten
    *        Class to be written
    */
+  private boolean _isJavaLang (@Nullable final JPackage aPackage)
+  {
+    // Compare by name, because a fork may have its own java.lang package
+    // object in addition to the one of its base model
+    if (aPackage == m_aPckJavaLang)
+      return true;
+    return aPackage != null && m_aPckJavaLang != null && aPackage.name ().equals (m_aPckJavaLang.name ());
+  }
+
   void write (@Nonnull final JDefinedClass aClassToBeWritten)
   {
-    m_aPckJavaLang = aClassToBeWritten.owner ()._package ("java.lang");
+    m_aPckJavaLang = aClassToBeWritten.owner ().ref (Object.class)._package ();
 
     // first collect all the types and identifiers
     m_eMode = EMode.COLLECTING;
@@ -1106,12 +1138,55 @@ public class JFormatter implements Closeable
         m_aImportedClasses.addDontImportClass (aClass);
   }
 
-  public static boolean containsErrorTypes (@Nonnull final JDefinedClass aClass)
+  /**
+   * Check if the passed element references an error type, by generating it in
+   * a special mode.
+   *
+   * @param aObject
+   *        The element to check. May not be <code>null</code>.
+   * @return <code>true</code> if an error type is referenced.
+   */
+  private static boolean _generatesErrorTypes (@Nonnull final IJObject aObject)
   {
     final JFormatter aFormatter = new JFormatter (NullWriter.getInstance ());
     aFormatter.m_eMode = EMode.FIND_ERROR_TYPES;
     aFormatter.m_bContainsErrorTypes = false;
-    aFormatter.declaration (aClass);
+    if (aObject instanceof IJGenerable)
+      aFormatter.generable ((IJGenerable) aObject);
+    else
+      if (aObject instanceof IJStatement)
+        aFormatter.statement ((IJStatement) aObject);
+      else
+        if (aObject instanceof IJDeclaration)
+          aFormatter.declaration ((IJDeclaration) aObject);
     return aFormatter.m_bContainsErrorTypes;
   }
+
+  /**
+   * Check if the passed class references an error type anywhere. The model is
+   * walked with a {@link JModelWalker} and the walk stops at the first error
+   * type. Only elements the walker cannot look into are generated in a special
+   * mode.
+   *
+   * @param aClass
+   *        The class to check. May not be <code>null</code>.
+   * @return <code>true</code> if an error type is referenced.
+   */
+  public static boolean containsErrorTypes (@Nonnull final JDefinedClass aClass)
+  {
+    return !JModelWalker.walkClass (aClass, new IJModelVisitor ()
+    {
+      @Override
+      public EVisitResult visitType (@Nonnull final AbstractJType aType)
+      {
+        return aType.isError () ? EVisitResult.TERMINATE : EVisitResult.CONTINUE;
+      }
+
+      @Override
+      public EVisitResult visitOpaque (@Nonnull final IJObject aObject)
+      {
+        return _generatesErrorTypes (aObject) ? EVisitResult.TERMINATE : EVisitResult.CONTINUE;
+      }
+    });
+  }
 }
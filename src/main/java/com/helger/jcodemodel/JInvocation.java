@@ -50,6 +50,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.helger.jcodemodel.util.JCHashCodeGenerator;
+import com.helger.jcodemodel.util.JCStructuralHashCode;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 /**
@@ -57,6 +58,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
 {
+  private static final long serialVersionUID = 1L;
+
   private final JCodeModel m_aOwner;
 
   /**
@@ -78,9 +81,9 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
   private final boolean m_bIsConstructor;
 
   /**
-   * List of argument expressions for this method invocation
+   * List of argument expressions for this method invocation. Lazily created.
    */
-  private final List <IJExpression> m_aArgs = new ArrayList <> ();
+  private List <IJExpression> m_aArgs;
 
   /**
    * If isConstructor==true, this field keeps the type to be created.
@@ -92,6 +95,15 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
    */
   private List <JTypeVar> m_aTypeVariables;
 
+  /**
+   * Memoized structural hash code. 0 if not yet calculated or after a
+   * modification.
+   */
+  private transient int m_nHashCode;
+
+  /** The modification stamp {@link #m_nHashCode} was calculated with. */
+  private transient long m_nHashCodeStamp;
+
   /**
    * Invokes a method on an object.
    *
@@ -191,6 +203,29 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
     return m_aOwner;
   }
 
+  /**
+   * @return The object or type on which the method is invoked. May be
+   *         <code>null</code> for unqualified invocations and constructor
+   *         invocations.
+   * @since 3.0.3
+   */
+  @Nullable
+  public IJGenerable object ()
+  {
+    return m_aObject;
+  }
+
+  /**
+   * @return The type to be constructed. Only non-<code>null</code> for
+   *         constructor invocations.
+   * @since 3.0.3
+   */
+  @Nullable
+  public AbstractJType constructorType ()
+  {
+    return m_aConstructorType;
+  }
+
   public boolean isConstructor ()
   {
     return m_bIsConstructor;
@@ -207,7 +242,10 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
   public JInvocation arg (@Nonnull final IJExpression aArg)
   {
     JCValueEnforcer.notNull (aArg, "Argument");
+    if (m_aArgs == null)
+      m_aArgs = new ArrayList <> ();
     m_aArgs.add (aArg);
+    m_nHashCode = 0;
     return this;
   }
 
@@ -336,7 +374,8 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
   @Deprecated
   public IJExpression [] listArgs ()
   {
-    return m_aArgs.toArray (new IJExpression [m_aArgs.size ()]);
+    final List <IJExpression> aArgs = _args ();
+    return aArgs.toArray (new IJExpression [aArgs.size ()]);
   }
 
   /**
@@ -347,7 +386,31 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
   @Nonnull
   public List <IJExpression> args ()
   {
-    return new ArrayList <> (m_aArgs);
+    return new ArrayList <> (_args ());
+  }
+
+  @Nonnull
+  private List <IJExpression> _args ()
+  {
+    // Arguments cannot be removed, so a created list is never empty
+    if (m_aArgs == null)
+      return Collections.emptyList ();
+    return m_aArgs;
+  }
+
+  /**
+   * Replace an existing argument.
+   *
+   * @param nIndex
+   *        Index of the argument to replace
+   * @param aArg
+   *        The new argument. May not be <code>null</code>.
+   */
+  void internalSetArg (final int nIndex, @Nonnull final IJExpression aArg)
+  {
+    JCValueEnforcer.notNull (aArg, "Argument");
+    _args ().set (nIndex, aArg);
+    m_nHashCode = 0;
   }
 
   @Nonnull
@@ -366,6 +429,7 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
     if (m_aTypeVariables == null)
       m_aTypeVariables = new ArrayList <> (3);
     m_aTypeVariables.add (v);
+    m_nHashCode = 0;
     return this;
   }
 
@@ -382,6 +446,7 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
     if (m_aTypeVariables == null)
       m_aTypeVariables = new ArrayList <> (3);
     m_aTypeVariables.add (v);
+    m_nHashCode = 0;
     return this;
   }
 
@@ -410,6 +475,15 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
     }
   }
 
+  /**
+   * @return <code>true</code> if this is an explicit <code>super (...)</code>
+   *         or <code>this (...)</code> constructor invocation.
+   */
+  boolean isExplicitConstructorCall ()
+  {
+    return m_aObject == null && ("super".equals (m_sMethodName) || "this".equals (m_sMethodName));
+  }
+
   @Nullable
   private String _methodName ()
   {
@@ -456,7 +530,7 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
     }
 
     // Method arguments
-    f.generable (m_aArgs);
+    f.generable (_args ());
 
     // Close arg list
     if (m_bIsConstructor && m_aConstructorType.isArray ())
@@ -492,7 +566,7 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
     if (!(isEqual (m_aObject, rhs.m_aObject) &&
           isEqual (m_bIsConstructor, rhs.m_bIsConstructor) &&
           (m_bIsConstructor || isEqual (_methodName (), rhs._methodName ())) &&
-          isEqual (m_aArgs, rhs.m_aArgs) &&
+          isEqual (_args (), rhs._args ()) &&
           isEqual (_typeFullName (), rhs._typeFullName ())))
     {
       return false;
@@ -514,10 +588,15 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
   @Override
   public int hashCode ()
   {
+    int ret = m_nHashCode;
+    final long nStamp = JCStructuralHashCode.getModificationStamp ();
+    if (ret != 0 && m_nHashCodeStamp == nStamp)
+      return ret;
+
     JCHashCodeGenerator hashCodeGenerator = new JCHashCodeGenerator (this).append (m_aObject).append (m_bIsConstructor);
     if (!m_bIsConstructor)
       hashCodeGenerator = hashCodeGenerator.append (_methodName ());
-    hashCodeGenerator = hashCodeGenerator.append (m_aArgs).append (_typeFullName ());
+    hashCodeGenerator = hashCodeGenerator.append (_args ()).append (_typeFullName ());
     if (m_aTypeVariables != null)
     {
       hashCodeGenerator = hashCodeGenerator.append (m_aTypeVariables.size ());
@@ -526,7 +605,15 @@ public class JInvocation implements IJExpressionStatement, IJOwnedMaybe
         hashCodeGenerator = hashCodeGenerator.append (typeVariable.fullName ());
       }
     }
-    return hashCodeGenerator.getHashCode ();
+    ret = hashCodeGenerator.getHashCode ();
+
+    // Renaming the referenced method updates the modification stamp
+    if (JCStructuralHashCode.isStable (m_aObject) && JCStructuralHashCode.areAllStable (m_aArgs))
+    {
+      m_nHashCode = ret;
+      m_nHashCodeStamp = nStamp;
+    }
+    return ret;
   }
 
   /**
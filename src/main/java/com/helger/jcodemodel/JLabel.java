@@ -51,6 +51,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JLabel implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   private final String m_sLabel;
 
   /**
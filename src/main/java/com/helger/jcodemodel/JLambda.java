@@ -58,6 +58,8 @@ import javax.annotation.Nullable;
  */
 public class JLambda implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   private final List <JLambdaParam> m_aParams = new ArrayList <> ();
   private final JLambdaBlock m_aBodyStatement = new JLambdaBlock ();
 
@@ -156,10 +158,7 @@ public class JLambda implements IJExpression
       }
     f.print (" -> ");
 
-    // Print body
-    final boolean bBraces = m_aBodyStatement.size () != 1 ||
-                            !(m_aBodyStatement.getContents ().get (0) instanceof IJExpression);
-    m_aBodyStatement.bracesRequired (bBraces);
+    // Print body - braces are decided by the lambda block
     f.statement (m_aBodyStatement);
   }
 
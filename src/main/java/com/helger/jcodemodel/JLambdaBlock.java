@@ -52,6 +52,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JLambdaBlock extends JBlock
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Remove all existing expressions and only add the provided expression
    *
@@ -65,6 +67,13 @@ public class JLambdaBlock extends JBlock
     internalInsert (aExpr);
   }
 
+  @Override
+  boolean generatesBraces ()
+  {
+    // Braces are only needed if the body is not a single expression
+    return m_aContentList.size () != 1 || !(m_aContentList.get (0) instanceof IJExpression);
+  }
+
   @Override
   protected void generateBody (@Nonnull final JFormatter f)
   {
@@ -53,6 +53,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JLambdaMethodRef implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   private final boolean m_bStatic;
   private final AbstractJType m_aType;
   private final JVar m_aVar;
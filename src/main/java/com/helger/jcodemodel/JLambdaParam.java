@@ -53,6 +53,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JLambdaParam implements IJAssignmentTarget, IJDeclaration
 {
+  private static final long serialVersionUID = 1L;
+
   private final AbstractJType m_aType;
   private final String m_sName;
 
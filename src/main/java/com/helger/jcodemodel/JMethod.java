@@ -44,6 +44,7 @@ import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -53,6 +54,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.helger.jcodemodel.util.ClassNameComparator;
+import com.helger.jcodemodel.util.JCStructuralHashCode;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 /**
@@ -60,6 +62,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable, IJDocCommentable
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Modifiers for this method
    */
@@ -76,9 +80,17 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   private String m_sName;
 
   /**
-   * List of parameters for this method's declaration
+   * List of parameters for this method's declaration. Lazily created.
+   */
+  private List <JVar> m_aParams;
+
+  /**
+   * The default name of the local variable holding the start time of an
+   * instrumented method.
+   *
+   * @since 3.0.3
    */
-  private final List <JVar> m_aParams = new ArrayList <> ();
+  public static final String DEFAULT_INSTRUMENTATION_VAR_NAME = "__startNanos";
 
   /**
    * Set of exceptions that this method may throw. A set instance lazily
@@ -179,6 +191,7 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   @Nonnull
   public JMethod _throws (@Nonnull final AbstractJClass aException)
   {
+    _checkModifiable ();
     if (m_aThrows == null)
       m_aThrows = new TreeSet <> (ClassNameComparator.getInstance ());
     m_aThrows.add (aException);
@@ -199,13 +212,15 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   @Nonnull
   public List <JVar> params ()
   {
+    if (m_aParams == null)
+      return Collections.emptyList ();
     return Collections.unmodifiableList (m_aParams);
   }
 
   @Nonnull
   public JVar paramAtIndex (@Nonnegative final int nIndex) throws IndexOutOfBoundsException
   {
-    return m_aParams.get (nIndex);
+    return params ().get (nIndex);
   }
 
   /**
@@ -223,8 +238,12 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   @Nonnull
   public JVar param (final int nMods, @Nonnull final AbstractJType aType, @Nonnull final String sName)
   {
+    _checkModifiable ();
     final JVar aVar = new JVar (JMods.forVar (nMods), aType, sName, null);
+    if (m_aParams == null)
+      m_aParams = new ArrayList <> ();
     m_aParams.add (aVar);
+    m_aOwningClass.internalAddParam (this);
     return aVar;
   }
 
@@ -325,6 +344,7 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   @Nonnull
   public JVar varParam (final int nMods, @Nonnull final AbstractJType aType, @Nonnull final String sName)
   {
+    _checkModifiable ();
     JCValueEnforcer.isFalse (hasVarArgs (),
                              "Cannot have two varargs in a method,\n" +
                                             "Check if varParam method of JMethod is" +
@@ -370,6 +390,7 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   @Nonnull
   public JAnnotationUse annotate (@Nonnull final AbstractJClass aClazz)
   {
+    _checkModifiable ();
     if (m_aAnnotations == null)
       m_aAnnotations = new ArrayList <> ();
     final JAnnotationUse a = new JAnnotationUse (aClazz);
@@ -412,7 +433,15 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   public void name (@Nonnull final String sName)
   {
     JCValueEnforcer.notEmpty (sName, "Name");
+    _checkModifiable ();
+    final String sOldName = m_sName;
     m_sName = sName;
+    if (!sOldName.equals (sName))
+    {
+      m_aOwningClass.internalRenameMethod (sOldName, this);
+      // Invocations of this method memoize their hash code
+      JCStructuralHashCode.onStableNodeModified ();
+    }
   }
 
   /**
@@ -433,6 +462,7 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
    */
   public void type (@Nullable final AbstractJType aReturnType)
   {
+    _checkModifiable ();
     m_aReturnType = aReturnType;
   }
 
@@ -444,9 +474,10 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   @Nonnull
   public AbstractJType [] listParamTypes ()
   {
-    final AbstractJType [] r = new AbstractJType [m_aParams.size ()];
+    final List <JVar> aParams = params ();
+    final AbstractJType [] r = new AbstractJType [aParams.size ()];
     for (int i = 0; i < r.length; i++)
-      r[i] = m_aParams.get (i).type ();
+      r[i] = aParams.get (i).type ();
     return r;
   }
 
@@ -458,7 +489,8 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   @Nonnull
   public JVar [] listParams ()
   {
-    return m_aParams.toArray (new JVar [m_aParams.size ()]);
+    final List <JVar> aParams = params ();
+    return aParams.toArray (new JVar [aParams.size ()]);
   }
 
   /**
@@ -483,17 +515,27 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
    */
   public boolean hasSignature (@Nonnull final AbstractJType [] argTypes)
   {
-    final JVar [] aParams = listParams ();
-    if (aParams.length != argTypes.length)
+    final int nParams = m_aParams == null ? 0 : m_aParams.size ();
+    if (nParams != argTypes.length)
       return false;
 
-    for (int i = 0; i < aParams.length; i++)
-      if (!aParams[i].type ().equals (argTypes[i]))
+    for (int i = 0; i < nParams; i++)
+      if (!m_aParams.get (i).type ().equals (argTypes[i]))
         return false;
 
     return true;
   }
 
+  /**
+   * @return <code>true</code> if the body was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasBody ()
+  {
+    return m_aBody != null;
+  }
+
   /**
    * Get the block that makes up body of this method
    *
@@ -503,10 +545,168 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
   public JBlock body ()
   {
     if (m_aBody == null)
+    {
+      _checkModifiable ();
       m_aBody = new JBlock ();
+    }
     return m_aBody;
   }
 
+  @Override
+  @Nonnull
+  public JTypeVar generify (@Nonnull final String sName)
+  {
+    _checkModifiable ();
+    return super.generify (sName);
+  }
+
+  /**
+   * Check that neither the owning code model is frozen nor the owning class
+   * was already emitted.
+   *
+   * @throws IllegalStateException
+   *         if this method may not be modified
+   */
+  private void _checkModifiable ()
+  {
+    m_aOwningClass.checkModifiable ();
+  }
+
+  /**
+   * Release the body and the javadoc of this method after the owning class was
+   * emitted. Afterwards all modifications are rejected.
+   */
+  void releaseBody ()
+  {
+    m_aBody = null;
+    m_aJDoc = null;
+  }
+
+  /**
+   * Wrap the current body of this method with code that measures the elapsed
+   * time and reports it to the passed sink:
+   *
+   * <pre>
+   * final long __startNanos = System.nanoTime ();
+   * try {
+   *   // original body
+   * } finally {
+   *   // aSink.onExit code
+   * }
+   * </pre>
+   *
+   * An explicit <code>super (...)</code> or <code>this (...)</code> call of a
+   * constructor stays the first statement. This method should be called after
+   * the body is complete, as statements added to {@link #body()} afterwards are
+   * placed behind the <code>try</code> block.
+   *
+   * @param aSink
+   *        The sink that emits the reporting code. May not be
+   *        <code>null</code>.
+   * @return The created <code>try</code> block or <code>null</code> if this
+   *         method has no body.
+   * @since 3.0.3
+   */
+  @Nullable
+  public JTryBlock instrument (@Nonnull final IJMetricsSink aSink)
+  {
+    return instrument (aSink, DEFAULT_INSTRUMENTATION_VAR_NAME);
+  }
+
+  /**
+   * Wrap the current body of this method with code that measures the elapsed
+   * time and reports it to the passed sink.
+   *
+   * @param aSink
+   *        The sink that emits the reporting code. May not be
+   *        <code>null</code>.
+   * @param sStartVarName
+   *        The name of the local variable holding the start time. May not be
+   *        <code>null</code>. If a parameter or local variable of this method
+   *        already uses the name (e.g. because the method is instrumented
+   *        twice), a numeric suffix is appended.
+   * @return The created <code>try</code> block or <code>null</code> if this
+   *         method has no body.
+   * @see #instrument(IJMetricsSink)
+   * @since 3.0.3
+   */
+  @Nullable
+  public JTryBlock instrument (@Nonnull final IJMetricsSink aSink, @Nonnull final String sStartVarName)
+  {
+    JCValueEnforcer.notNull (aSink, "Sink");
+    JCValueEnforcer.notEmpty (sStartVarName, "StartVarName");
+    _checkModifiable ();
+
+    if (m_aBody == null)
+      return null;
+
+    // Keep an explicit constructor invocation in front
+    final List <IJObject> aContents = m_aBody.getContents ();
+    final int nFirst = isConstructor () &&
+                       !aContents.isEmpty () &&
+                       aContents.get (0) instanceof JInvocation &&
+                       ((JInvocation) aContents.get (0)).isExplicitConstructorCall () ? 1 : 0;
+    final JBlock aOriginal = new JBlock ();
+    m_aBody.internalMoveTo (nFirst, aOriginal);
+
+    // The name must not clash with a parameter or local variable - e.g. the
+    // one of a previous instrumentation
+    final Set <String> aUsedNames = new HashSet <> ();
+    for (final JVar aParam : params ())
+      aUsedNames.add (aParam.name ());
+    if (m_aVarParam != null)
+      aUsedNames.add (m_aVarParam.name ());
+    _collectLocalVarNames (aOriginal, aUsedNames);
+    String sVarName = sStartVarName;
+    for (int nIndex = 1; aUsedNames.contains (sVarName); ++nIndex)
+      sVarName = sStartVarName + nIndex;
+
+    final AbstractJClass aSystem = owner ().ref (System.class);
+    aSink.onEnter (this, m_aBody);
+    final JVar aStart = m_aBody.decl (JMod.FINAL, owner ().LONG, sVarName, aSystem.staticInvoke ("nanoTime"));
+    final JTryBlock aTry = m_aBody._try ();
+    aOriginal.internalMoveTo (0, aTry.body ());
+    aSink.onExit (this, aTry._finally (), aSystem.staticInvoke ("nanoTime").minus (aStart));
+    return aTry;
+  }
+
+  private static void _collectLocalVarNames (@Nonnull final JBlock aBlock, @Nonnull final Set <String> aTarget)
+  {
+    // Includes the variables of local and anonymous classes, which may shadow
+    // the new variable, but collecting them does no harm
+    JModelWalker.walkStatement (aBlock, new IJModelVisitor ()
+    {
+      @Override
+      public EVisitResult visitVar (@Nonnull final JVar aVar)
+      {
+        aTarget.add (aVar.name ());
+        return EVisitResult.CONTINUE;
+      }
+
+      @Override
+      public EVisitResult visitStatement (@Nonnull final IJStatement aStatement)
+      {
+        if (aStatement instanceof JTryBlock)
+          for (final JCatchBlock aCatch : ((JTryBlock) aStatement).catches ())
+            if (aCatch.param () == null)
+            {
+              aTarget.add (JCatchBlock.DEFAULT_PARAM_NAME);
+            }
+        return EVisitResult.CONTINUE;
+      }
+
+      @Override
+      public EVisitResult visitExpression (@Nonnull final IJExpression aExpression)
+      {
+        // Lambda parameters may not shadow local variables either
+        if (aExpression instanceof JLambda)
+          for (final JLambdaParam aParam : ((JLambda) aExpression).params ())
+            aTarget.add (aParam.name ());
+        return EVisitResult.CONTINUE;
+      }
+    });
+  }
+
   /**
    * Specify the default value for this method
    *
@@ -515,17 +715,42 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
    */
   public void declareDefaultValue (@Nullable final IJExpression aDefaultValue)
   {
+    _checkModifiable ();
     m_aDefaultValue = aDefaultValue;
   }
 
+  /**
+   * @return The default value of this annotation method. May be
+   *         <code>null</code>.
+   * @since 3.0.3
+   */
+  @Nullable
+  public IJExpression defaultValue ()
+  {
+    return m_aDefaultValue;
+  }
+
   @Nonnull
   public JDocComment javadoc ()
   {
     if (m_aJDoc == null)
+    {
+      _checkModifiable ();
       m_aJDoc = new JDocComment (owner ());
+    }
     return m_aJDoc;
   }
 
+  /**
+   * @return <code>true</code> if a JavaDoc comment was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasJavadoc ()
+  {
+    return m_aJDoc != null;
+  }
+
   @Override
   public void declare (@Nonnull final JFormatter f)
   {
@@ -547,7 +772,7 @@ public class JMethod extends AbstractJGenerifiableImpl implements IJAnnotatable,
     // when parameters are printed in new lines, we want them to be indented.
     // there's a good chance no newlines happen, too, but just in case it does.
     boolean first = true;
-    for (final JVar var : m_aParams)
+    for (final JVar var : params ())
     {
       if (!first)
         f.print (',');
@@ -0,0 +1,425 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
+/**
+ * Splits huge method bodies and initializer blocks into private helper methods
+ * that are invoked one after another from the original body. This keeps the
+ * generated methods below the 64 KB byte code limit of the JVM, and, with the
+ * default limit, below the size up to which the JIT compiles methods (see
+ * <code>-XX:-DontCompileHugeMethods</code>).
+ * <p>
+ * The size of a block is estimated from the number of statements and
+ * expressions it contains (see {@link #estimateSize(IJStatement)}). Only
+ * top-level statements of a block are moved, and only if this does not change
+ * the semantics:
+ * <ul>
+ * <li>Local variable declarations, labels and explicit <code>super</code> or
+ * <code>this</code> constructor calls are never moved.</li>
+ * <li>Statements referencing a local variable declared in the same block, or
+ * containing a <code>return</code> or a labeled jump are not moved.</li>
+ * <li>Statements assigning to method parameters are not moved. In constructors
+ * and initializer blocks, statements assigning to final (or unresolved)
+ * fields are not moved either.</li>
+ * </ul>
+ * The helper methods get the same parameters and <code>throws</code> clause
+ * as the split method. Generic methods and methods of interfaces are not
+ * split.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+@Immutable
+public final class JMethodSplitter
+{
+  /**
+   * The default maximum estimated size of a method body. This is the byte
+   * code size up to which HotSpot compiles methods by default.
+   */
+  public static final int DEFAULT_MAX_SIZE = 8000;
+
+  private JMethodSplitter ()
+  {}
+
+  /**
+   * Get a rough estimation of the byte code size of the passed statement.
+   *
+   * @param aStatement
+   *        The statement to estimate. May not be <code>null</code>.
+   * @return The estimated size in bytes.
+   */
+  @Nonnegative
+  public static int estimateSize (@Nonnull final IJStatement aStatement)
+  {
+    JCValueEnforcer.notNull (aStatement, "Statement");
+
+    final int [] aSize = new int [1];
+    JModelWalker.walkStatement (aStatement, new IJModelVisitor ()
+    {
+      @Override
+      public EVisitResult visitVar (@Nonnull final JVar aVar)
+      {
+        // store
+        aSize[0] += 2;
+        return EVisitResult.CONTINUE;
+      }
+
+      @Override
+      public EVisitResult visitStatement (@Nonnull final IJStatement aStmt)
+      {
+        // jumps and pops
+        aSize[0] += 2;
+        return EVisitResult.CONTINUE;
+      }
+
+      @Override
+      public EVisitResult visitExpression (@Nonnull final IJExpression aExpression)
+      {
+        // load, constant pool reference or operation
+        aSize[0] += 3;
+        return EVisitResult.CONTINUE;
+      }
+    });
+    return aSize[0];
+  }
+
+  @Nullable
+  private static IJAssignmentTarget _getAssigned (@Nonnull final IJExpression aExpression)
+  {
+    if (aExpression instanceof JAssignment)
+      return ((JAssignment) aExpression).lhs ();
+    if (aExpression instanceof JOpUnaryTight)
+    {
+      final IJExpression aOperand = ((JOpUnaryTight) aExpression).expr ();
+      if (aOperand instanceof IJAssignmentTarget)
+        return (IJAssignmentTarget) aOperand;
+    }
+    return null;
+  }
+
+  private static boolean _isMovable (@Nonnull final IJObject aObject,
+                                     @Nonnull final Set <JVar> aLocals,
+                                     @Nonnull final Collection <JVar> aParams,
+                                     final boolean bCheckFinalFields)
+  {
+    if (!(aObject instanceof IJStatement) || aObject instanceof JLabel)
+      return false;
+    if (aObject instanceof JInvocation && ((JInvocation) aObject).isExplicitConstructorCall ())
+      return false;
+
+    return JModelWalker.walkStatement ((IJStatement) aObject, new IJModelVisitor ()
+    {
+      @Override
+      public EVisitResult visitStatement (@Nonnull final IJStatement aStmt)
+      {
+        if (aStmt instanceof JReturn ||
+            (aStmt instanceof JBreak && ((JBreak) aStmt).label () != null) ||
+            (aStmt instanceof JContinue && ((JContinue) aStmt).label () != null))
+          return EVisitResult.TERMINATE;
+        return EVisitResult.CONTINUE;
+      }
+
+      @Override
+      public EVisitResult visitExpression (@Nonnull final IJExpression aExpression)
+      {
+        if (aExpression instanceof JVar && aLocals.contains (aExpression))
+          return EVisitResult.TERMINATE;
+
+        final IJAssignmentTarget aTarget = _getAssigned (aExpression);
+        if (aTarget != null)
+        {
+          if (aTarget instanceof JVar && aParams.contains (aTarget))
+            return EVisitResult.TERMINATE;
+          if (bCheckFinalFields)
+          {
+            final JVar aField = aTarget instanceof JFieldRef ? ((JFieldRef) aTarget).var ()
+                                                             : aTarget instanceof JFieldVar ? (JVar) aTarget : null;
+            if (aField == null ? aTarget instanceof JFieldRef
+                               : (aField.mods ().getValue () & JMod.FINAL) != 0)
+              return EVisitResult.TERMINATE;
+          }
+        }
+        return EVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  @Nonnull
+  private static String _getUniqueName (@Nonnull final JDefinedClass aClass,
+                                        @Nonnull final String sPrefix,
+                                        @Nonnull final int [] aNextIndex)
+  {
+    while (true)
+    {
+      final String sName = sPrefix + aNextIndex[0]++;
+      boolean bExists = false;
+      for (final JMethod aMethod : aClass.methods ())
+        if (aMethod.name ().equals (sName))
+        {
+          bExists = true;
+          break;
+        }
+      if (!bExists)
+        return sName;
+    }
+  }
+
+  private static int _split (@Nonnull final JDefinedClass aClass,
+                             @Nonnull final JBlock aBlock,
+                             @Nonnull final List <JVar> aParams,
+                             @Nonnull final Collection <AbstractJClass> aThrows,
+                             final boolean bStatic,
+                             final boolean bCheckFinalFields,
+                             @Nonnull final String sPrefix,
+                             @Nonnegative final int nMaxSize)
+  {
+    if (estimateSize (aBlock) <= nMaxSize)
+      return 0;
+
+    final List <IJObject> aContents = new ArrayList <> (aBlock.getContents ());
+    final Set <JVar> aLocals = Collections.newSetFromMap (new IdentityHashMap <> ());
+    for (final IJObject aObject : aContents)
+      if (aObject instanceof JVar)
+        aLocals.add ((JVar) aObject);
+
+    // Group the movable statements into chunks
+    final List <List <IJObject>> aChunks = new ArrayList <> ();
+    List <IJObject> aChunk = new ArrayList <> ();
+    int nChunkSize = 0;
+    for (final IJObject aObject : aContents)
+    {
+      if (_isMovable (aObject, aLocals, aParams, bCheckFinalFields))
+      {
+        final int nSize = estimateSize ((IJStatement) aObject);
+        if (!aChunk.isEmpty () && nChunkSize + nSize > nMaxSize)
+        {
+          aChunks.add (aChunk);
+          aChunk = new ArrayList <> ();
+          nChunkSize = 0;
+        }
+        aChunk.add (aObject);
+        nChunkSize += nSize;
+      }
+      else
+      {
+        aChunks.add (aChunk);
+        aChunks.add (Collections.singletonList (aObject));
+        aChunk = new ArrayList <> ();
+        nChunkSize = 0;
+      }
+    }
+    aChunks.add (aChunk);
+
+    // Rebuild the block
+    aBlock.removeAll ();
+    final int [] aNextIndex = new int [1];
+    int ret = 0;
+    for (int i = 0; i < aChunks.size (); ++i)
+    {
+      final List <IJObject> aCurChunk = aChunks.get (i);
+      // Single statements are kept - moving them does not gain anything
+      if (aCurChunk.size () < 2)
+      {
+        for (final IJObject aObject : aCurChunk)
+          aBlock.internalInsert (aObject);
+        continue;
+      }
+
+      final JMethod aHelper = aClass.method (JMod.PRIVATE | (bStatic ? JMod.STATIC : JMod.NONE),
+                                             aClass.owner ().VOID,
+                                             _getUniqueName (aClass, sPrefix, aNextIndex));
+      final JInvocation aInvocation = JExpr.invoke (aHelper);
+      for (final JVar aParam : aParams)
+      {
+        aHelper.param (aParam.mods ().getValue (), aParam.type (), aParam.name ());
+        aInvocation.arg (aParam);
+      }
+      for (final AbstractJClass aThrow : aThrows)
+        aHelper._throws (aThrow);
+      for (final IJObject aObject : aCurChunk)
+        aHelper.body ().internalInsert (aObject);
+      aBlock.add (aInvocation);
+      ret++;
+    }
+    return ret;
+  }
+
+  /**
+   * Split the body of the passed method or constructor, if its estimated size
+   * exceeds the passed maximum.
+   *
+   * @param aMethod
+   *        The method to split. May not be <code>null</code>.
+   * @param nMaxSize
+   *        The maximum estimated size of a method body. Must be &gt; 0.
+   * @return The number of created helper methods.
+   */
+  @Nonnegative
+  public static int split (@Nonnull final JMethod aMethod, @Nonnegative final int nMaxSize)
+  {
+    JCValueEnforcer.notNull (aMethod, "Method");
+    JCValueEnforcer.isGT0 (nMaxSize, "MaxSize");
+    aMethod.owner ().checkNotFrozen ();
+
+    final JDefinedClass aClass = aMethod.owningClass ();
+    if (!aMethod.hasBody () || aMethod.typeParams ().length > 0 || aClass.isInterface ())
+      return 0;
+
+    final List <JVar> aParams = new ArrayList <> (aMethod.params ());
+    if (aMethod.hasVarArgs ())
+      aParams.add (aMethod.varParam ());
+    final boolean bConstructor = aMethod.isConstructor ();
+    return _split (aClass,
+                   aMethod.body (),
+                   aParams,
+                   aMethod.getThrows (),
+                   (aMethod.mods ().getValue () & JMod.STATIC) != 0,
+                   bConstructor,
+                   "_" + (bConstructor ? "constructor" : aMethod.name ()) + "Part",
+                   nMaxSize);
+  }
+
+  /**
+   * An instance initializer may throw every checked exception that is declared
+   * by all constructors.
+   *
+   * @param aClass
+   *        The class to check. May not be <code>null</code>.
+   * @return The exceptions that may be declared by helper methods of the
+   *         instance initializer. Never <code>null</code>.
+   */
+  @Nonnull
+  private static List <AbstractJClass> _getInstanceInitThrows (@Nonnull final JDefinedClass aClass)
+  {
+    final List <JMethod> aCtors = new ArrayList <> ();
+    aClass.constructors ().forEachRemaining (aCtors::add);
+
+    final List <AbstractJClass> ret = new ArrayList <> ();
+    // Without an explicit constructor, the default constructor declares none
+    for (final JMethod aCtor : aCtors)
+      for (final AbstractJClass aThrow : aCtor.getThrows ())
+        if (!ret.contains (aThrow) && _isDeclaredByAll (aCtors, aThrow))
+          ret.add (aThrow);
+    return ret;
+  }
+
+  private static boolean _isDeclaredByAll (@Nonnull final List <JMethod> aMethods,
+                                           @Nonnull final AbstractJClass aThrow)
+  {
+    for (final JMethod aMethod : aMethods)
+    {
+      boolean bDeclared = false;
+      for (final AbstractJClass aDeclared : aMethod.getThrows ())
+        if (aDeclared.isAssignableFrom (aThrow))
+        {
+          bDeclared = true;
+          break;
+        }
+      if (!bDeclared)
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Split the static and instance initializer blocks, the constructors and the
+   * methods of the passed class and its inner classes.
+   *
+   * @param aClass
+   *        The class to split. May not be <code>null</code>.
+   * @param nMaxSize
+   *        The maximum estimated size of a method body. Must be &gt; 0.
+   * @return The number of created helper methods.
+   */
+  @Nonnegative
+  public static int split (@Nonnull final JDefinedClass aClass, @Nonnegative final int nMaxSize)
+  {
+    JCValueEnforcer.notNull (aClass, "Class");
+    JCValueEnforcer.isGT0 (nMaxSize, "MaxSize");
+    aClass.owner ().checkNotFrozen ();
+
+    int ret = 0;
+    if (!aClass.isInterface ())
+    {
+      final List <JVar> aNoParams = Collections.emptyList ();
+      final List <AbstractJClass> aNoThrows = Collections.emptyList ();
+      if (aClass.hasInit ())
+        ret += _split (aClass, aClass.init (), aNoParams, aNoThrows, true, true, "_staticInitPart", nMaxSize);
+      // The checked exceptions of an anonymous class initializer are unknown
+      if (aClass.hasInstanceInit () && !(aClass instanceof JAnonymousClass))
+        ret += _split (aClass,
+                       aClass.instanceInit (),
+                       aNoParams,
+                       _getInstanceInitThrows (aClass),
+                       false,
+                       true,
+                       "_instanceInitPart",
+                       nMaxSize);
+    }
+
+    final List <JMethod> aMethods = new ArrayList <> ();
+    final Iterator <JMethod> it = aClass.constructors ();
+    while (it.hasNext ())
+      aMethods.add (it.next ());
+    aMethods.addAll (aClass.methods ());
+    for (final JMethod aMethod : aMethods)
+      ret += split (aMethod, nMaxSize);
+
+    for (final JDefinedClass aInnerClass : aClass.classes ())
+      ret += split (aInnerClass, nMaxSize);
+    return ret;
+  }
+}
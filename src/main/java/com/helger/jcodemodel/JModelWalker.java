@@ -0,0 +1,605 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import java.util.Iterator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
+/**
+ * Walks the object model of classes, methods, statements, expressions and
+ * types and passes all elements to an {@link IJModelVisitor}. In contrast to
+ * the {@link JFormatter} nothing is formatted. Sub trees can be pruned with
+ * {@link EVisitResult#SKIP_CHILDREN} and the whole walk can be stopped with
+ * {@link EVisitResult#TERMINATE}.
+ * <p>
+ * Lazily created parts of the model (e.g. method bodies or JavaDoc comments)
+ * are never created by walking.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+public final class JModelWalker
+{
+  private final IJModelVisitor m_aVisitor;
+
+  private JModelWalker (@Nonnull final IJModelVisitor aVisitor)
+  {
+    m_aVisitor = JCValueEnforcer.notNull (aVisitor, "Visitor");
+  }
+
+  private static boolean _isTerminate (@Nonnull final EVisitResult eResult)
+  {
+    return eResult == EVisitResult.TERMINATE;
+  }
+
+  private boolean _opaque (@Nonnull final IJObject aObject)
+  {
+    return !_isTerminate (m_aVisitor.visitOpaque (aObject));
+  }
+
+  private boolean _type (@Nullable final AbstractJType aType)
+  {
+    if (aType == null)
+      return true;
+    final EVisitResult eResult = m_aVisitor.visitType (aType);
+    if (eResult != EVisitResult.CONTINUE)
+      return !_isTerminate (eResult);
+
+    if (aType instanceof JNarrowedClass)
+    {
+      final JNarrowedClass aNarrowed = (JNarrowedClass) aType;
+      if (!_type (aNarrowed.basis ()))
+        return false;
+      for (final AbstractJClass aArg : aNarrowed.getTypeParameters ())
+        if (!_type (aArg))
+          return false;
+    }
+    else
+      if (aType instanceof JArrayClass)
+        return _type (((JArrayClass) aType).elementType ());
+      else
+        if (aType instanceof JTypeWildcard)
+          return _type (((JTypeWildcard) aType).bound ());
+    return true;
+  }
+
+  private boolean _types (@Nonnull final Iterator <? extends AbstractJType> aTypes)
+  {
+    while (aTypes.hasNext ())
+      if (!_type (aTypes.next ()))
+        return false;
+    return true;
+  }
+
+  private boolean _typeParams (@Nonnull final JTypeVar [] aTypeParams)
+  {
+    for (final JTypeVar aTypeVar : aTypeParams)
+    {
+      // Bounds are only walked for the declaration, as they may be recursive
+      final EVisitResult eResult = m_aVisitor.visitType (aTypeVar);
+      if (_isTerminate (eResult))
+        return false;
+      if (eResult == EVisitResult.CONTINUE && !_types (aTypeVar.bounds ().iterator ()))
+        return false;
+    }
+    return true;
+  }
+
+  private boolean _annotationValue (@Nonnull final AbstractJAnnotationValue aValue)
+  {
+    if (aValue instanceof JAnnotationUse)
+      return _annotation ((JAnnotationUse) aValue);
+    if (aValue instanceof JAnnotationArrayMember)
+    {
+      for (final AbstractJAnnotationValue aElement : ((JAnnotationArrayMember) aValue).getAllAnnotations ())
+        if (!_annotationValue (aElement))
+          return false;
+      return true;
+    }
+    if (aValue instanceof JAnnotationStringValue)
+      return _expression (((JAnnotationStringValue) aValue).value ());
+    return _opaque (aValue);
+  }
+
+  private boolean _annotation (@Nonnull final JAnnotationUse aAnnotation)
+  {
+    final EVisitResult eResult = m_aVisitor.visitAnnotation (aAnnotation);
+    if (eResult != EVisitResult.CONTINUE)
+      return !_isTerminate (eResult);
+
+    if (!_type (aAnnotation.getAnnotationClass ()))
+      return false;
+    if (aAnnotation.hasAnnotationMembers ())
+      for (final AbstractJAnnotationValue aValue : aAnnotation.getAnnotationMembers ().values ())
+        if (!_annotationValue (aValue))
+          return false;
+    return true;
+  }
+
+  private boolean _annotations (@Nonnull final Iterable <JAnnotationUse> aAnnotations)
+  {
+    for (final JAnnotationUse aAnnotation : aAnnotations)
+      if (!_annotation (aAnnotation))
+        return false;
+    return true;
+  }
+
+  private boolean _var (@Nonnull final JVar aVar)
+  {
+    final EVisitResult eResult = m_aVisitor.visitVar (aVar);
+    if (eResult != EVisitResult.CONTINUE)
+      return !_isTerminate (eResult);
+
+    if (aVar instanceof JFieldVar && ((JFieldVar) aVar).hasJavadoc () && !_opaque (((JFieldVar) aVar).javadoc ()))
+      return false;
+    if (!_annotations (aVar.annotations ()))
+      return false;
+    if (!_type (aVar.type ()))
+      return false;
+    return aVar.init () == null || _expression (aVar.init ());
+  }
+
+  private boolean _expressions (@Nonnull final Iterable <? extends IJExpression> aExprs)
+  {
+    for (final IJExpression aExpr : aExprs)
+      if (!_expression (aExpr))
+        return false;
+    return true;
+  }
+
+  /**
+   * Walk something that may either be an expression or a type, like the
+   * object of a method invocation.
+   */
+  private boolean _expressionOrType (@Nullable final IJGenerable aGenerable)
+  {
+    if (aGenerable == null)
+      return true;
+    if (aGenerable instanceof AbstractJType)
+      return _type ((AbstractJType) aGenerable);
+    if (aGenerable instanceof IJExpression)
+      return _expression ((IJExpression) aGenerable);
+    return _opaque (aGenerable);
+  }
+
+  private boolean _expressionChildren (@Nonnull final IJExpression aExpr)
+  {
+    if (aExpr instanceof JOpBinary)
+    {
+      final JOpBinary aOp = (JOpBinary) aExpr;
+      return _expression (aOp.left ()) && _expressionOrType (aOp.right ());
+    }
+    if (aExpr instanceof JOpUnary)
+      return _expression (((JOpUnary) aExpr).expr ());
+    if (aExpr instanceof JOpTernary)
+    {
+      final JOpTernary aOp = (JOpTernary) aExpr;
+      return _expression (aOp.expr1 ()) && _expressionOrType (aOp.expr2 ()) && _expressionOrType (aOp.expr3 ());
+    }
+    if (aExpr instanceof JCast)
+    {
+      final JCast aCast = (JCast) aExpr;
+      return _type (aCast.type ()) && _expression (aCast.object ());
+    }
+    if (aExpr instanceof JInvocation)
+    {
+      final JInvocation aInvocation = (JInvocation) aExpr;
+      if (!_expressionOrType (aInvocation.object ()))
+        return false;
+      final AbstractJType aConstructorType = aInvocation.constructorType ();
+      if (aConstructorType instanceof JAnonymousClass)
+      {
+        if (!_type (((JAnonymousClass) aConstructorType).base ()))
+          return false;
+      }
+      else
+        if (!_type (aConstructorType))
+          return false;
+      if (!_types (aInvocation.typeParamList ().iterator ()))
+        return false;
+      if (!_expressions (aInvocation.args ()))
+        return false;
+      return !(aConstructorType instanceof JAnonymousClass) || _class ((JAnonymousClass) aConstructorType);
+    }
+    if (aExpr instanceof JFieldRef)
+      return _expressionOrType (((JFieldRef) aExpr).object ());
+    if (aExpr instanceof JArray)
+    {
+      final JArray aArray = (JArray) aExpr;
+      if (!_type (aArray.type ()))
+        return false;
+      if (aArray.size () != null && !_expression (aArray.size ()))
+        return false;
+      return _expressions (aArray.exprs ());
+    }
+    if (aExpr instanceof JArrayCompRef)
+    {
+      final JArrayCompRef aRef = (JArrayCompRef) aExpr;
+      return _expression (aRef.array ()) && _expression (aRef.index ());
+    }
+    if (aExpr instanceof JAssignment)
+    {
+      final JAssignment aAssignment = (JAssignment) aExpr;
+      return _expressionOrType (aAssignment.lhs ()) && _expression (aAssignment.rhs ());
+    }
+    if (aExpr instanceof JEnumConstantRef)
+      return _type (((JEnumConstantRef) aExpr).type ());
+    if (aExpr instanceof JEnumConstant)
+      return _type (((JEnumConstant) aExpr).type ());
+    if (aExpr instanceof JLambda)
+    {
+      final JLambda aLambda = (JLambda) aExpr;
+      for (final JLambdaParam aParam : aLambda.params ())
+        if (aParam.hasType () && !_type (aParam.type ()))
+          return false;
+      return _statement (aLambda.body ());
+    }
+    if (aExpr instanceof JLambdaMethodRef)
+    {
+      final JLambdaMethodRef aRef = (JLambdaMethodRef) aExpr;
+      if (!_type (aRef.type ()))
+        return false;
+      return aRef.invocation () == null || _expression (aRef.invocation ());
+    }
+    if (aExpr instanceof JAtom ||
+        aExpr instanceof JAtomInt ||
+        aExpr instanceof JAtomLong ||
+        aExpr instanceof JAtomFloat ||
+        aExpr instanceof JAtomDouble ||
+        aExpr instanceof JStringLiteral ||
+        aExpr instanceof JVar ||
+        aExpr instanceof JLambdaParam)
+    {
+      // Leaf expressions
+      return true;
+    }
+    return _opaque (aExpr);
+  }
+
+  private boolean _expression (@Nonnull final IJExpression aExpr)
+  {
+    final EVisitResult eResult = m_aVisitor.visitExpression (aExpr);
+    if (eResult != EVisitResult.CONTINUE)
+      return !_isTerminate (eResult);
+    return _expressionChildren (aExpr);
+  }
+
+  private boolean _blockContent (@Nonnull final JBlock aBlock)
+  {
+    for (final IJObject aObj : aBlock.getContents ())
+    {
+      if (aObj instanceof JVar)
+      {
+        if (!_var ((JVar) aObj))
+          return false;
+      }
+      else
+        if (aObj instanceof IJStatement)
+        {
+          if (!_statement ((IJStatement) aObj))
+            return false;
+        }
+        else
+          if (aObj instanceof IJExpression)
+          {
+            // E.g. the expression of a lambda
+            if (!_expression ((IJExpression) aObj))
+              return false;
+          }
+          else
+            if (!_opaque (aObj))
+              return false;
+    }
+    return true;
+  }
+
+  private boolean _statementChildren (@Nonnull final IJStatement aStatement)
+  {
+    if (aStatement instanceof JBlock)
+      return _blockContent ((JBlock) aStatement);
+    if (aStatement instanceof IJExpression)
+      return _expression ((IJExpression) aStatement);
+    if (aStatement instanceof JConditional)
+    {
+      final JConditional aCond = (JConditional) aStatement;
+      return _expression (aCond.test ()) &&
+             _statement (aCond._then ()) &&
+             (!aCond.hasElse () || _statement (aCond._else ()));
+    }
+    if (aStatement instanceof JWhileLoop)
+    {
+      final JWhileLoop aLoop = (JWhileLoop) aStatement;
+      return _expression (aLoop.test ()) && (!aLoop.hasBody () || _statement (aLoop.body ()));
+    }
+    if (aStatement instanceof JDoLoop)
+    {
+      final JDoLoop aLoop = (JDoLoop) aStatement;
+      return (!aLoop.hasBody () || _statement (aLoop.body ())) && _expression (aLoop.test ());
+    }
+    if (aStatement instanceof JForLoop)
+    {
+      final JForLoop aLoop = (JForLoop) aStatement;
+      for (final Object aInit : aLoop.inits ())
+      {
+        if (aInit instanceof JVar)
+        {
+          if (!_var ((JVar) aInit))
+            return false;
+        }
+        else
+          if (!_expressionOrType ((IJGenerable) aInit))
+            return false;
+      }
+      if (aLoop.test () != null && !_expression (aLoop.test ()))
+        return false;
+      return _expressions (aLoop.updates ()) && (!aLoop.hasBody () || _statement (aLoop.body ()));
+    }
+    if (aStatement instanceof JForEach)
+    {
+      final JForEach aLoop = (JForEach) aStatement;
+      return _var (aLoop.var ()) &&
+             _expression (aLoop.collection ()) &&
+             (!aLoop.hasBody () || _statement (aLoop.body ()));
+    }
+    if (aStatement instanceof JSwitch)
+    {
+      final JSwitch aSwitch = (JSwitch) aStatement;
+      if (!_expression (aSwitch.test ()))
+        return false;
+      final Iterator <JCase> it = aSwitch.cases ();
+      while (it.hasNext ())
+        if (!_statement (it.next ()))
+          return false;
+      return !aSwitch.hasDefault () || _statement (aSwitch._default ());
+    }
+    if (aStatement instanceof JCase)
+    {
+      final JCase aCase = (JCase) aStatement;
+      return (aCase.label () == null || _expression (aCase.label ())) &&
+             (!aCase.hasBody () || _statement (aCase.body ()));
+    }
+    if (aStatement instanceof JTryBlock)
+    {
+      final JTryBlock aTry = (JTryBlock) aStatement;
+      if (!_statement (aTry.body ()))
+        return false;
+      for (final JCatchBlock aCatch : aTry.catches ())
+      {
+        if (!_type (aCatch.exception ()))
+          return false;
+        if (aCatch.param () != null && !_var (aCatch.param ()))
+          return false;
+        if (!_statement (aCatch.body ()))
+          return false;
+      }
+      return !aTry.hasFinally () || _statement (aTry._finally ());
+    }
+    if (aStatement instanceof JSynchronizedBlock)
+    {
+      final JSynchronizedBlock aSync = (JSynchronizedBlock) aStatement;
+      return _expression (aSync.expr ()) && (!aSync.hasBody () || _statement (aSync.body ()));
+    }
+    if (aStatement instanceof JReturn)
+      return ((JReturn) aStatement).expr () == null || _expression (((JReturn) aStatement).expr ());
+    if (aStatement instanceof JThrow)
+      return _expression (((JThrow) aStatement).expr ());
+    if (aStatement instanceof JLabel ||
+        aStatement instanceof JBreak ||
+        aStatement instanceof JContinue ||
+        aStatement instanceof JDirectStatement ||
+        aStatement instanceof JSingleLineCommentStatement)
+    {
+      // Leaf statements
+      return true;
+    }
+    return _opaque (aStatement);
+  }
+
+  private boolean _statement (@Nonnull final IJStatement aStatement)
+  {
+    final EVisitResult eResult = m_aVisitor.visitStatement (aStatement);
+    if (eResult != EVisitResult.CONTINUE)
+      return !_isTerminate (eResult);
+    return _statementChildren (aStatement);
+  }
+
+  private boolean _method (@Nonnull final JMethod aMethod)
+  {
+    final EVisitResult eResult = m_aVisitor.visitMethod (aMethod);
+    if (eResult != EVisitResult.CONTINUE)
+      return !_isTerminate (eResult);
+
+    if (aMethod.hasJavadoc () && !_opaque (aMethod.javadoc ()))
+      return false;
+    if (!_annotations (aMethod.annotations ()))
+      return false;
+    if (!_typeParams (aMethod.typeParams ()))
+      return false;
+    if (!aMethod.isConstructor () && !_type (aMethod.type ()))
+      return false;
+    for (final JVar aParam : aMethod.params ())
+      if (!_var (aParam))
+        return false;
+    if (aMethod.hasVarArgs () && !_var (aMethod.varParam ()))
+      return false;
+    if (!_types (aMethod.getThrows ().iterator ()))
+      return false;
+    if (aMethod.defaultValue () != null && !_expression (aMethod.defaultValue ()))
+      return false;
+    return !aMethod.hasBody () || _statement (aMethod.body ());
+  }
+
+  private boolean _class (@Nonnull final JDefinedClass aClass)
+  {
+    final EVisitResult eResult = m_aVisitor.visitClass (aClass);
+    if (eResult != EVisitResult.CONTINUE)
+      return !_isTerminate (eResult);
+
+    if (!(aClass instanceof JAnonymousClass))
+    {
+      // Anonymous classes only have a body
+      if (aClass.hasJavadoc () && !_opaque (aClass.javadoc ()))
+        return false;
+      if (!_annotations (aClass.annotations ()))
+        return false;
+      if (!_typeParams (aClass.typeParams ()))
+        return false;
+      if (!_type (aClass._extends ()))
+        return false;
+      if (!_types (aClass._implements ()))
+        return false;
+    }
+
+    for (final JEnumConstant aEnumConstant : aClass.enumConstants ())
+    {
+      if (aEnumConstant.hasJavadoc () && !_opaque (aEnumConstant.javadoc ()))
+        return false;
+      if (!_annotations (aEnumConstant.annotations ()))
+        return false;
+      if (!_expressions (aEnumConstant.args ()))
+        return false;
+    }
+    for (final JFieldVar aField : aClass.fields ().values ())
+      if (!_var (aField))
+        return false;
+    if (aClass.hasInit () && !_statement (aClass.init ()))
+      return false;
+    if (aClass.hasInstanceInit () && !_statement (aClass.instanceInit ()))
+      return false;
+    final Iterator <JMethod> it = aClass.constructors ();
+    while (it.hasNext ())
+      if (!_method (it.next ()))
+        return false;
+    for (final JMethod aMethod : aClass.methods ())
+      if (!_method (aMethod))
+        return false;
+    for (final JDefinedClass aInnerClass : aClass.classes ())
+      if (!_class (aInnerClass))
+        return false;
+    return true;
+  }
+
+  /**
+   * Walk a class including all members and inner classes.
+   *
+   * @param aClass
+   *        The class to walk. May not be <code>null</code>.
+   * @param aVisitor
+   *        The visitor to be invoked. May not be <code>null</code>.
+   * @return <code>true</code> if the walk was completed, <code>false</code> if
+   *         it was terminated by the visitor.
+   */
+  public static boolean walkClass (@Nonnull final JDefinedClass aClass, @Nonnull final IJModelVisitor aVisitor)
+  {
+    JCValueEnforcer.notNull (aClass, "Class");
+    return new JModelWalker (aVisitor)._class (aClass);
+  }
+
+  /**
+   * Walk a method including its signature and body.
+   *
+   * @param aMethod
+   *        The method to walk. May not be <code>null</code>.
+   * @param aVisitor
+   *        The visitor to be invoked. May not be <code>null</code>.
+   * @return <code>true</code> if the walk was completed, <code>false</code> if
+   *         it was terminated by the visitor.
+   */
+  public static boolean walkMethod (@Nonnull final JMethod aMethod, @Nonnull final IJModelVisitor aVisitor)
+  {
+    JCValueEnforcer.notNull (aMethod, "Method");
+    return new JModelWalker (aVisitor)._method (aMethod);
+  }
+
+  /**
+   * Walk a statement (e.g. a {@link JBlock}) including all nested statements
+   * and expressions.
+   *
+   * @param aStatement
+   *        The statement to walk. May not be <code>null</code>.
+   * @param aVisitor
+   *        The visitor to be invoked. May not be <code>null</code>.
+   * @return <code>true</code> if the walk was completed, <code>false</code> if
+   *         it was terminated by the visitor.
+   */
+  public static boolean walkStatement (@Nonnull final IJStatement aStatement, @Nonnull final IJModelVisitor aVisitor)
+  {
+    JCValueEnforcer.notNull (aStatement, "Statement");
+    return new JModelWalker (aVisitor)._statement (aStatement);
+  }
+
+  /**
+   * Walk an expression including all nested expressions and types.
+   *
+   * @param aExpr
+   *        The expression to walk. May not be <code>null</code>.
+   * @param aVisitor
+   *        The visitor to be invoked. May not be <code>null</code>.
+   * @return <code>true</code> if the walk was completed, <code>false</code> if
+   *         it was terminated by the visitor.
+   */
+  public static boolean walkExpression (@Nonnull final IJExpression aExpr, @Nonnull final IJModelVisitor aVisitor)
+  {
+    JCValueEnforcer.notNull (aExpr, "Expression");
+    return new JModelWalker (aVisitor)._expression (aExpr);
+  }
+
+  /**
+   * Walk a type including type arguments, array element types and wildcard
+   * bounds.
+   *
+   * @param aType
+   *        The type to walk. May not be <code>null</code>.
+   * @param aVisitor
+   *        The visitor to be invoked. May not be <code>null</code>.
+   * @return <code>true</code> if the walk was completed, <code>false</code> if
+   *         it was terminated by the visitor.
+   */
+  public static boolean walkType (@Nonnull final AbstractJType aType, @Nonnull final IJModelVisitor aVisitor)
+  {
+    JCValueEnforcer.notNull (aType, "Type");
+    return new JModelWalker (aVisitor)._type (aType);
+  }
+}
@@ -51,6 +51,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JMods implements IJGenerable
 {
+  private static final long serialVersionUID = 1L;
+
   //
   // mask
   //
@@ -58,6 +58,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JNarrowedClass extends AbstractJClass
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * A generic class with type parameters.
    */
@@ -211,6 +213,13 @@ public class JNarrowedClass extends AbstractJClass
     return m_aBasis._package ();
   }
 
+  @Override
+  long computeHierarchyStamp ()
+  {
+    // The super types are derived from the basis
+    return m_aBasis.getHierarchyStamp ();
+  }
+
   @Override
   @Nullable
   public AbstractJClass _extends ()
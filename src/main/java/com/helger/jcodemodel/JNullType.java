@@ -56,6 +56,8 @@ import javax.annotation.Nullable;
  */
 public final class JNullType extends AbstractJClass
 {
+  private static final long serialVersionUID = 1L;
+
   protected JNullType (@Nonnull final JCodeModel aOwner)
   {
     super (aOwner);
@@ -45,14 +45,26 @@ import static com.helger.jcodemodel.util.JCHashCodeGenerator.getHashCode;
 
 import javax.annotation.Nonnull;
 
+import com.helger.jcodemodel.util.JCStructuralHashCode;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 public class JOpBinary implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   private final IJExpression m_aLeft;
   private final String m_sOperator;
   private final IJGenerable m_aRight;
 
+  /** Memoized structural hash code. 0 if not yet calculated. */
+  private transient int m_nHashCode;
+
+  /** The modification stamp {@link #m_nHashCode} was calculated with. */
+  private transient long m_nHashCodeStamp;
+
+  /** Lazily determined result of {@link #isHashCodeStable()}. */
+  private transient Boolean m_aHashCodeStable;
+
   protected JOpBinary (@Nonnull final IJExpression aLeft,
                        @Nonnull final String sOperator,
                        @Nonnull final IJGenerable aRight)
@@ -96,9 +108,28 @@ public class JOpBinary implements IJExpression
     return isEqual (m_aLeft, rhs.m_aLeft) && isEqual (m_sOperator, rhs.m_sOperator) && isEqual (m_aRight, rhs.m_aRight);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    if (m_aHashCodeStable == null)
+      m_aHashCodeStable = Boolean.valueOf (JCStructuralHashCode.areStable (m_aLeft, m_aRight));
+    return m_aHashCodeStable.booleanValue ();
+  }
+
   @Override
   public int hashCode ()
   {
-    return getHashCode (this, m_aLeft, m_sOperator, m_aRight);
+    int ret = m_nHashCode;
+    final long nStamp = JCStructuralHashCode.getModificationStamp ();
+    if (ret == 0 || m_nHashCodeStamp != nStamp)
+    {
+      ret = getHashCode (this, m_aLeft, m_sOperator, m_aRight);
+      if (isHashCodeStable ())
+      {
+        m_nHashCode = ret;
+        m_nHashCodeStamp = nStamp;
+      }
+    }
+    return ret;
   }
 }
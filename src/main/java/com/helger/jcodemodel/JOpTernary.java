@@ -45,16 +45,28 @@ import static com.helger.jcodemodel.util.JCHashCodeGenerator.getHashCode;
 
 import javax.annotation.Nonnull;
 
+import com.helger.jcodemodel.util.JCStructuralHashCode;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 public class JOpTernary implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
   private final IJExpression m_aExpr1;
   private final String m_sOperator1;
   private final IJExpression m_aExpr2;
   private final String m_sOperator2;
   private final IJExpression m_aExpr3;
 
+  /** Memoized structural hash code. 0 if not yet calculated. */
+  private transient int m_nHashCode;
+
+  /** The modification stamp {@link #m_nHashCode} was calculated with. */
+  private transient long m_nHashCodeStamp;
+
+  /** Lazily determined result of {@link #isHashCodeStable()}. */
+  private transient Boolean m_aHashCodeStable;
+
   protected JOpTernary (@Nonnull final IJExpression aExpr1,
                         @Nonnull final String sOperator1,
                         @Nonnull final IJExpression aExpr2,
@@ -124,9 +136,28 @@ public class JOpTernary implements IJExpression
            isEqual (m_aExpr3, rhs.m_aExpr3);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    if (m_aHashCodeStable == null)
+      m_aHashCodeStable = Boolean.valueOf (JCStructuralHashCode.areStable (m_aExpr1, m_aExpr2, m_aExpr3));
+    return m_aHashCodeStable.booleanValue ();
+  }
+
   @Override
   public int hashCode ()
   {
-    return getHashCode (this, m_aExpr1, m_sOperator1, m_aExpr2, m_sOperator2, m_aExpr3);
+    int ret = m_nHashCode;
+    final long nStamp = JCStructuralHashCode.getModificationStamp ();
+    if (ret == 0 || m_nHashCodeStamp != nStamp)
+    {
+      ret = getHashCode (this, m_aExpr1, m_sOperator1, m_aExpr2, m_sOperator2, m_aExpr3);
+      if (isHashCodeStable ())
+      {
+        m_nHashCode = ret;
+        m_nHashCodeStamp = nStamp;
+      }
+    }
+    return ret;
   }
 }
@@ -44,6 +44,8 @@ import javax.annotation.Nonnull;
 
 public class JOpUnaryTight extends JOpUnary
 {
+  private static final long serialVersionUID = 1L;
+
   protected JOpUnaryTight (@Nonnull final IJExpression aExpr, @Nonnull final String sOperator)
   {
     super (aExpr, sOperator);
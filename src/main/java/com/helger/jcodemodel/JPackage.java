@@ -43,23 +43,26 @@ package com.helger.jcodemodel;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.WillNotClose;
 
+import com.helger.jcodemodel.util.JCNameRegistry;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 /**
@@ -73,6 +76,8 @@ public class JPackage implements
                       Comparable <JPackage>,
                       IJDocCommentable
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Name of the package. May be the empty string for the root package.
    */
@@ -81,21 +86,18 @@ public class JPackage implements
   private final JCodeModel m_aOwner;
 
   /**
-   * List of classes contained within this package keyed by their name.
+   * List of classes contained within this package keyed by their name. On
+   * case insensitive file systems (see
+   * {@link JCodeModel#isFileSystemCaseSensitive()}) "Foo" and "foo" are
+   * detected as a collision.
    */
-  private final Map <String, JDefinedClass> m_aClasses = new TreeMap <> ();
+  private final JCNameRegistry <JDefinedClass> m_aClasses;
 
   /**
-   * List of resources files inside this package.
+   * List of resources files inside this package keyed by their name. The
+   * insertion order is the build order.
    */
-  private final Set <AbstractJResourceFile> m_aResources = new HashSet <> ();
-
-  /**
-   * All {@link AbstractJClass}s in this package keyed the upper case class
-   * name. This field is non-null only on Windows, to detect "Foo" and "foo" as
-   * a collision.
-   */
-  private final Map <String, JDefinedClass> m_aUpperCaseClassMap;
+  private final Map <String, AbstractJResourceFile> m_aResources = new LinkedHashMap <> ();
 
   /**
    * Lazily created list of package annotations.
@@ -125,10 +127,8 @@ public class JPackage implements
 
     m_aOwner = aOwner;
     m_sName = sName;
-    if (JCodeModel.isFileSystemCaseSensitive ())
-      m_aUpperCaseClassMap = null;
-    else
-      m_aUpperCaseClassMap = new HashMap <> ();
+    m_aClasses = new JCNameRegistry <> ((Function <JDefinedClass, String> & Serializable) JDefinedClass::name,
+                                      (BooleanSupplier & Serializable) () -> !JCodeModel.isFileSystemCaseSensitive ());
   }
 
   @Nullable
@@ -174,21 +174,16 @@ public class JPackage implements
                                @Nonnull final String sName,
                                @Nonnull final EClassType eClassType) throws JClassAlreadyExistsException
   {
-    if (m_aClasses.containsKey (sName))
-      throw new JClassAlreadyExistsException (m_aClasses.get (sName));
+    m_aOwner.checkNotFrozen ();
+
+    // Same name or same name in a different case
+    final JDefinedClass aExistingClass = m_aClasses.getConflicting (sName);
+    if (aExistingClass != null)
+      throw new JClassAlreadyExistsException (aExistingClass);
 
     // XXX problems caught in the NC constructor
     final JDefinedClass c = new JDefinedClass (this, nMods, sName, eClassType);
-
-    if (m_aUpperCaseClassMap != null)
-    {
-      final String sUpperName = sName.toUpperCase ();
-      final JDefinedClass dc = m_aUpperCaseClassMap.get (sUpperName);
-      if (dc != null)
-        throw new JClassAlreadyExistsException (dc);
-      m_aUpperCaseClassMap.put (sUpperName, c);
-    }
-    m_aClasses.put (sName, c);
+    m_aClasses.add (c);
     return c;
   }
 
@@ -222,12 +217,25 @@ public class JPackage implements
    * @param rsrc
    *        Resource file to add
    * @return Parameter resource file
+   * @throws IllegalArgumentException
+   *         If a different resource file with the same name is already
+   *         contained. Adding the same resource file again has no effect.
    */
   @Nonnull
   public AbstractJResourceFile addResourceFile (@Nonnull final AbstractJResourceFile rsrc)
   {
     JCValueEnforcer.notNull (rsrc, "ResourceFile");
-    m_aResources.add (rsrc);
+    m_aOwner.checkNotFrozen ();
+    // Not checked with JCValueEnforcer, as a disabled check would silently
+    // drop the resource file
+    final AbstractJResourceFile aOld = m_aResources.get (rsrc.name ());
+    if (aOld != null && aOld != rsrc)
+      throw new IllegalArgumentException ("A different resource file with name '" +
+                                          rsrc.name () +
+                                          "' is already contained in package '" +
+                                          name () +
+                                          "'");
+    m_aResources.put (rsrc.name (), rsrc);
     return rsrc;
   }
 
@@ -240,10 +248,21 @@ public class JPackage implements
    */
   public boolean hasResourceFile (@Nullable final String sName)
   {
-    for (final AbstractJResourceFile r : m_aResources)
-      if (r.name ().equals (sName))
-        return true;
-    return false;
+    return sName != null && m_aResources.containsKey (sName);
+  }
+
+  /**
+   * Get the resource file with the given name.
+   *
+   * @param sName
+   *        Filename to search. May be <code>null</code>.
+   * @return <code>null</code> if no such resource file is contained.
+   * @since 3.0.3
+   */
+  @Nullable
+  public AbstractJResourceFile getResourceFile (@Nullable final String sName)
+  {
+    return sName == null ? null : m_aResources.get (sName);
   }
 
   /**
@@ -254,14 +273,17 @@ public class JPackage implements
   @Nonnull
   public Iterator <AbstractJResourceFile> propertyFiles ()
   {
-    return m_aResources.iterator ();
+    return m_aResources.values ().iterator ();
   }
 
   @Nonnull
   public JDocComment javadoc ()
   {
     if (m_aJavaDoc == null)
+    {
+      m_aOwner.checkNotFrozen ();
       m_aJavaDoc = new JDocComment (owner ());
+    }
     return m_aJavaDoc;
   }
 
@@ -279,12 +301,11 @@ public class JPackage implements
                                   ") is not a member of this package (" +
                                   name () +
                                   "), or it is a referenced class");
+    m_aOwner.checkNotFrozen ();
 
     // note that c may not be a member of classes.
     // this happens when someone is trying to remove a non generated class
     m_aClasses.remove (aClass.name ());
-    if (m_aUpperCaseClassMap != null)
-      m_aUpperCaseClassMap.remove (aClass.name ().toUpperCase ());
   }
 
   /**
@@ -327,12 +348,13 @@ public class JPackage implements
   }
 
   /**
-   * @return the top-level classes defined in this package.
+   * @return the top-level classes defined in this package, sorted by name.
+   *         The returned collection is an unmodifiable snapshot.
    */
   @Nonnull
   public Collection <JDefinedClass> classes ()
   {
-    return m_aClasses.values ();
+    return m_aClasses.getSorted ();
   }
 
   /**
@@ -344,10 +366,7 @@ public class JPackage implements
    */
   public boolean isDefined (@Nullable final String sClassLocalName)
   {
-    for (final JDefinedClass clazz : m_aClasses.values ())
-      if (clazz.name ().equals (sClassLocalName))
-        return true;
-    return false;
+    return m_aClasses.containsName (sClassLocalName);
   }
 
   /**
@@ -386,6 +405,7 @@ public class JPackage implements
   public JAnnotationUse annotate (@Nonnull final AbstractJClass aClazz)
   {
     JCValueEnforcer.isFalse (isUnnamed (), "the root package cannot be annotated");
+    m_aOwner.checkNotFrozen ();
 
     if (m_aAnnotations == null)
       m_aAnnotations = new ArrayList <> ();
@@ -442,13 +462,48 @@ public class JPackage implements
     return ret;
   }
 
+  private boolean _hasPackageInfo ()
+  {
+    return m_aAnnotations != null || m_aJavaDoc != null;
+  }
+
+  /**
+   * Check if a class of this package is replaced by the overlay package of a
+   * fork.
+   *
+   * @param aClass
+   *        The class of this package to check.
+   * @param aOverlay
+   *        The package with the same name in the fork. May be
+   *        <code>null</code>.
+   * @return <code>true</code> if the overlay contains a class with the same
+   *         name (or a conflicting name on case insensitive file systems).
+   */
+  private static boolean _isShadowed (@Nonnull final JDefinedClass aClass, @Nullable final JPackage aOverlay)
+  {
+    return aOverlay != null && aOverlay.m_aClasses.getConflicting (aClass.name ()) != null;
+  }
+
+  /**
+   * Build all files of this package.
+   *
+   * @param aSrcWriter
+   *        Source writer
+   * @param aResWriter
+   *        Resource writer
+   * @param aOverlay
+   *        The package with the same name of a fork of the owning model. All
+   *        artifacts defined in the overlay are not written. May be
+   *        <code>null</code>.
+   */
   void build (@Nonnull @WillNotClose final AbstractCodeWriter aSrcWriter,
-              @Nonnull @WillNotClose final AbstractCodeWriter aResWriter) throws IOException
+              @Nonnull @WillNotClose final AbstractCodeWriter aResWriter,
+              @Nullable final JPackage aOverlay) throws IOException
   {
     // write classes
-    for (final JDefinedClass c : m_aClasses.values ())
+    for (final JDefinedClass c : m_aClasses.getSorted ())
     {
-      if (c.isHidden ())
+      if (c.isHidden () || c.isEmitted () || _isShadowed (c, aOverlay))
       {
         // don't generate this file
         continue;
@@ -461,7 +516,7 @@ public class JPackage implements
     }
 
     // write package annotations
-    if (m_aAnnotations != null || m_aJavaDoc != null)
+    if (_hasPackageInfo () && (aOverlay == null || !aOverlay._hasPackageInfo ()))
     {
       try (final JFormatter f = _createJavaSourceFileWriter (aSrcWriter, "package-info"))
       {
@@ -479,8 +534,11 @@ public class JPackage implements
     }
 
     // write resources
-    for (final AbstractJResourceFile rsrc : m_aResources)
+    for (final AbstractJResourceFile rsrc : m_aResources.values ())
     {
+      if (aOverlay != null && aOverlay.hasResourceFile (rsrc.name ()))
+        continue;
+
       final AbstractCodeWriter cw = rsrc.isResource () ? aResWriter : aSrcWriter;
       try (final OutputStream os = new BufferedOutputStream (cw.openBinary (this, rsrc.name ())))
       {
@@ -489,12 +547,112 @@ public class JPackage implements
     }
   }
 
-  boolean buildsErrorTypeRefs ()
+  /**
+   * Check if the contents of the package with the same name of another model
+   * can be merged into this package.
+   *
+   * @param aOther
+   *        The package of the other model.
+   * @throws JClassAlreadyExistsException
+   *         If a class of the other package conflicts with a class of this
+   *         package.
+   * @throws IllegalArgumentException
+   *         If both packages contain a resource file with the same name or if
+   *         both have package annotations or javadoc.
+   * @see JCodeModelMerger
+   */
+  void checkMergeable (@Nonnull final JPackage aOther) throws JClassAlreadyExistsException
+  {
+    for (final JDefinedClass c : aOther.m_aClasses.getSorted ())
+    {
+      final JDefinedClass aExistingClass = m_aClasses.getConflicting (c.name ());
+      if (aExistingClass != null)
+        throw new JClassAlreadyExistsException (aExistingClass);
+    }
+    for (final String sName : aOther.m_aResources.keySet ())
+      if (m_aResources.containsKey (sName))
+        throw new IllegalArgumentException ("Both models contain the resource file '" +
+                                            sName +
+                                            "' in package '" +
+                                            name () +
+                                            "'");
+    if (_hasPackageInfo () && aOther._hasPackageInfo ())
+      throw new IllegalArgumentException ("Both models contain package annotations or javadoc for package '" +
+                                          name () +
+                                          "'");
+  }
+
+  /**
+   * Write the classes, annotations and javadoc of this package so that they
+   * can be read by {@link #readMergeContents(ObjectInputStream)} of the
+   * package with the same name of another model.
+   *
+   * @param aOOS
+   *        The stream to write to.
+   * @throws IOException
+   *         on write error
+   */
+  void writeMergeContents (@Nonnull final ObjectOutputStream aOOS) throws IOException
+  {
+    aOOS.writeObject (new ArrayList <> (m_aClasses.getSorted ()));
+    aOOS.writeObject (m_aAnnotations);
+    aOOS.writeObject (m_aJavaDoc);
+  }
+
+  /**
+   * Add the classes, annotations and javadoc of a package of another model,
+   * that were written with {@link #writeMergeContents(ObjectOutputStream)} and
+   * rebound to the owner of this package while reading.
+   *
+   * @param aOIS
+   *        The stream to read from.
+   * @throws IOException
+   *         on read error
+   * @throws ClassNotFoundException
+   *         if a contained class cannot be resolved
+   */
+  @SuppressWarnings ("unchecked")
+  void readMergeContents (@Nonnull final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  {
+    m_aOwner.checkNotFrozen ();
+    for (final JDefinedClass c : (List <JDefinedClass>) aOIS.readObject ())
+      m_aClasses.add (c);
+    final List <JAnnotationUse> aAnnotations = (List <JAnnotationUse>) aOIS.readObject ();
+    if (aAnnotations != null)
+      m_aAnnotations = aAnnotations;
+    final JDocComment aJavaDoc = (JDocComment) aOIS.readObject ();
+    if (aJavaDoc != null)
+      m_aJavaDoc = aJavaDoc;
+  }
+
+  /**
+   * Write a top-level class of this package and release its contents
+   * afterwards.
+   *
+   * @param aClass
+   *        The class to write.
+   * @param aSrcWriter
+   *        Source writer. It is not closed.
+   * @throws IOException
+   *         on write error
+   */
+  void emit (@Nonnull final JDefinedClass aClass,
+             @Nonnull @WillNotClose final AbstractCodeWriter aSrcWriter) throws IOException
+  {
+    if (!aClass.isHidden ())
+      try (final JFormatter f = _createJavaSourceFileWriter (aSrcWriter, aClass.name ()))
+      {
+        f.write (aClass);
+      }
+    aClass.onEmitted ();
+  }
+
+  boolean buildsErrorTypeRefs (@Nullable final JPackage aOverlay)
   {
     // check classes
-    for (final JDefinedClass c : m_aClasses.values ())
+    for (final JDefinedClass c : m_aClasses.getSorted ())
     {
-      if (c.isHidden ())
+      if (c.isHidden () || c.isEmitted () || _isShadowed (c, aOverlay))
       {
         // don't check this file
         continue;
@@ -506,12 +664,12 @@ public class JPackage implements
     return false;
   }
 
-  /* package */int countArtifacts ()
+  /* package */int countArtifacts (@Nullable final JPackage aOverlay)
   {
     int ret = 0;
-    for (final JDefinedClass c : m_aClasses.values ())
+    for (final JDefinedClass c : m_aClasses.getSorted ())
     {
-      if (c.isHidden ())
+      if (c.isHidden () || c.isEmitted () || _isShadowed (c, aOverlay))
       {
         // don't generate this file
         continue;
@@ -519,13 +677,18 @@ public class JPackage implements
       ret++;
     }
 
-    if (m_aAnnotations != null || m_aJavaDoc != null)
+    if (_hasPackageInfo () && (aOverlay == null || !aOverlay._hasPackageInfo ()))
     {
       // package-info
       ret++;
     }
 
-    ret += m_aResources.size ();
+    if (aOverlay == null)
+      ret += m_aResources.size ();
+    else
+      for (final String sName : m_aResources.keySet ())
+        if (!aOverlay.hasResourceFile (sName))
+          ret++;
 
     return ret;
   }
@@ -50,6 +50,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JPrimitiveType extends AbstractJType
 {
+  private static final long serialVersionUID = 1L;
+
   private final JCodeModel m_aOwner;
   private final String m_sTypeName;
   /**
@@ -0,0 +1,276 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import java.util.Iterator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Implementation of the "can complete normally" rules of the Java Language
+ * Specification (chapter 14.22) for the statements of the code model. Used to
+ * avoid generating unreachable statements. Statements that are not modelled
+ * (e.g. direct statements) are assumed to complete normally.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+@Immutable
+final class JReachability
+{
+  private JReachability ()
+  {}
+
+  static boolean isConstantTrue (@Nullable final IJExpression aExpr)
+  {
+    return JExpr.TRUE.equals (aExpr);
+  }
+
+  /**
+   * @param aStatement
+   *        The statement or declaration to check. May be <code>null</code>.
+   * @return <code>false</code> if the passed statement cannot complete
+   *         normally, because it always ends in a <code>return</code>,
+   *         <code>throw</code>, <code>break</code> or <code>continue</code> or
+   *         loops forever.
+   */
+  static boolean canCompleteNormally (@Nullable final IJObject aStatement)
+  {
+    return _canCompleteNormally (aStatement, null);
+  }
+
+  private static boolean _canCompleteNormally (@Nullable final IJObject aStatement, @Nullable final JLabel aLabel)
+  {
+    // A break targeting the label of a statement completes it
+    if (aLabel != null && _hasJump (aStatement, JBreak.class, aLabel, false))
+      return true;
+
+    if (aStatement == null)
+      return true;
+    if (aStatement instanceof JReturn ||
+        aStatement instanceof JThrow ||
+        aStatement instanceof JBreak ||
+        aStatement instanceof JContinue)
+      return false;
+    if (aStatement instanceof JBlock)
+    {
+      JLabel aCurLabel = null;
+      for (final IJObject aObj : ((JBlock) aStatement).getContents ())
+      {
+        if (aObj instanceof JLabel)
+        {
+          aCurLabel = (JLabel) aObj;
+          continue;
+        }
+        if (!_canCompleteNormally (aObj, aCurLabel))
+          return false;
+        aCurLabel = null;
+      }
+      return true;
+    }
+    if (aStatement instanceof JConditional)
+    {
+      final JConditional aCond = (JConditional) aStatement;
+      // An "if" without "else" can always complete normally
+      return !aCond.hasElse () ||
+             _canCompleteNormally (aCond._then (), null) ||
+             _canCompleteNormally (aCond._else (), null);
+    }
+    if (aStatement instanceof JWhileLoop)
+    {
+      final JWhileLoop aLoop = (JWhileLoop) aStatement;
+      return !isConstantTrue (aLoop.test ()) || _hasBreak (aLoop.hasBody () ? aLoop.body () : null);
+    }
+    if (aStatement instanceof JDoLoop)
+    {
+      final JDoLoop aLoop = (JDoLoop) aStatement;
+      final JBlock aBody = aLoop.hasBody () ? aLoop.body () : null;
+      if (!isConstantTrue (aLoop.test ()) &&
+          (_canCompleteNormally (aBody, null) || _hasJump (aBody, JContinue.class, null, true)))
+        return true;
+      return _hasBreak (aBody);
+    }
+    if (aStatement instanceof JForLoop)
+    {
+      final JForLoop aLoop = (JForLoop) aStatement;
+      if (aLoop.test () != null && !isConstantTrue (aLoop.test ()))
+        return true;
+      return _hasBreak (aLoop.hasBody () ? aLoop.body () : null);
+    }
+    if (aStatement instanceof JSwitch)
+    {
+      final JSwitch aSwitch = (JSwitch) aStatement;
+      if (!aSwitch.hasDefault ())
+        return true;
+      final Iterator <JCase> it = aSwitch.cases ();
+      while (it.hasNext ())
+      {
+        final JCase aCase = it.next ();
+        if (aCase.hasBody () && _hasBreak (aCase.body ()))
+          return true;
+      }
+      // The default case is always generated last
+      final JCase aDefault = aSwitch._default ();
+      return !aDefault.hasBody () || _canCompleteNormally (aDefault.body (), null) || _hasBreak (aDefault.body ());
+    }
+    if (aStatement instanceof JTryBlock)
+    {
+      final JTryBlock aTry = (JTryBlock) aStatement;
+      if (aTry.hasFinally () && !_canCompleteNormally (aTry._finally (), null))
+        return false;
+      if (_canCompleteNormally (aTry.body (), null))
+        return true;
+      for (final JCatchBlock aCatch : aTry.catches ())
+        if (_canCompleteNormally (aCatch.body (), null))
+          return true;
+      return false;
+    }
+    if (aStatement instanceof JSynchronizedBlock)
+    {
+      final JSynchronizedBlock aSync = (JSynchronizedBlock) aStatement;
+      return !aSync.hasBody () || _canCompleteNormally (aSync.body (), null);
+    }
+    return true;
+  }
+
+  private static boolean _hasBreak (@Nullable final JBlock aBody)
+  {
+    return _hasJump (aBody, JBreak.class, null, true);
+  }
+
+  /**
+   * Check if the passed statement contains a <code>break</code> or
+   * <code>continue</code> that leaves it.
+   *
+   * @param aStatement
+   *        The statement to search. May be <code>null</code>.
+   * @param aJumpClass
+   *        {@link JBreak} or {@link JContinue}
+   * @param aLabel
+   *        The label of the statement. May be <code>null</code>.
+   * @param bUnlabeled
+   *        <code>true</code> if a jump without label targets the statement.
+   */
+  private static boolean _hasJump (@Nullable final IJObject aStatement,
+                                   @Nonnull final Class <?> aJumpClass,
+                                   @Nullable final JLabel aLabel,
+                                   final boolean bUnlabeled)
+  {
+    if (aStatement == null)
+      return false;
+    if (aStatement instanceof JBreak || aStatement instanceof JContinue)
+    {
+      if (!aJumpClass.isInstance (aStatement))
+        return false;
+      final JLabel aJumpLabel = aStatement instanceof JBreak ? ((JBreak) aStatement).label ()
+                                                             : ((JContinue) aStatement).label ();
+      return aJumpLabel == null ? bUnlabeled : aJumpLabel == aLabel;
+    }
+    if (aStatement instanceof JBlock)
+    {
+      for (final IJObject aObj : ((JBlock) aStatement).getContents ())
+        if (_hasJump (aObj, aJumpClass, aLabel, bUnlabeled))
+          return true;
+      return false;
+    }
+    if (aStatement instanceof JConditional)
+    {
+      final JConditional aCond = (JConditional) aStatement;
+      return _hasJump (aCond._then (), aJumpClass, aLabel, bUnlabeled) ||
+             (aCond.hasElse () && _hasJump (aCond._else (), aJumpClass, aLabel, bUnlabeled));
+    }
+    // Unlabeled jumps inside a nested loop target the nested loop
+    if (aStatement instanceof JWhileLoop)
+    {
+      final JWhileLoop aLoop = (JWhileLoop) aStatement;
+      return aLoop.hasBody () && _hasJump (aLoop.body (), aJumpClass, aLabel, false);
+    }
+    if (aStatement instanceof JDoLoop)
+    {
+      final JDoLoop aLoop = (JDoLoop) aStatement;
+      return aLoop.hasBody () && _hasJump (aLoop.body (), aJumpClass, aLabel, false);
+    }
+    if (aStatement instanceof JForLoop)
+    {
+      final JForLoop aLoop = (JForLoop) aStatement;
+      return aLoop.hasBody () && _hasJump (aLoop.body (), aJumpClass, aLabel, false);
+    }
+    if (aStatement instanceof JForEach)
+    {
+      final JForEach aLoop = (JForEach) aStatement;
+      return aLoop.hasBody () && _hasJump (aLoop.body (), aJumpClass, aLabel, false);
+    }
+    if (aStatement instanceof JSwitch)
+    {
+      // An unlabeled continue inside a switch targets the enclosing loop
+      final boolean bNestedUnlabeled = aJumpClass == JContinue.class && bUnlabeled;
+      final JSwitch aSwitch = (JSwitch) aStatement;
+      final Iterator <JCase> it = aSwitch.cases ();
+      while (it.hasNext ())
+      {
+        final JCase aCase = it.next ();
+        if (aCase.hasBody () && _hasJump (aCase.body (), aJumpClass, aLabel, bNestedUnlabeled))
+          return true;
+      }
+      return aSwitch.hasDefault () &&
+             aSwitch._default ().hasBody () &&
+             _hasJump (aSwitch._default ().body (), aJumpClass, aLabel, bNestedUnlabeled);
+    }
+    if (aStatement instanceof JTryBlock)
+    {
+      final JTryBlock aTry = (JTryBlock) aStatement;
+      if (_hasJump (aTry.body (), aJumpClass, aLabel, bUnlabeled))
+        return true;
+      for (final JCatchBlock aCatch : aTry.catches ())
+        if (_hasJump (aCatch.body (), aJumpClass, aLabel, bUnlabeled))
+          return true;
+      return aTry.hasFinally () && _hasJump (aTry._finally (), aJumpClass, aLabel, bUnlabeled);
+    }
+    if (aStatement instanceof JSynchronizedBlock)
+    {
+      final JSynchronizedBlock aSync = (JSynchronizedBlock) aStatement;
+      return aSync.hasBody () && _hasJump (aSync.body (), aJumpClass, aLabel, bUnlabeled);
+    }
+    return false;
+  }
+}
@@ -40,15 +40,15 @@
  */
 package com.helger.jcodemodel;
 
-import java.lang.reflect.Modifier;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import com.helger.jcodemodel.util.JCNameUtilities;
-
 /**
  * References to existing classes.
  * <p>
@@ -57,11 +57,15 @@ import com.helger.jcodemodel.util.JCNameUtilities;
  * <p>
  * It is impossible to cache JReferencedClass globally only because there is the
  * {@link #_package()} method, which obtains the owner {@link JPackage} object,
- * which is scoped to JCodeModel.
+ * which is scoped to JCodeModel. The reflection metadata of the class however
+ * is shared globally (see {@link JReferencedClassMetadata}).
  */
 class JReferencedClass extends AbstractJClass implements IJDeclaration
 {
+  private static final long serialVersionUID = 1L;
+
   private final Class <?> m_aClass;
+  private transient JReferencedClassMetadata m_aMetadata;
 
   // Cached status vars
   private transient boolean m_bResolvedPrimitive = false;
@@ -72,31 +76,44 @@ class JReferencedClass extends AbstractJClass implements IJDeclaration
     super (aOwner);
     m_aClass = aClass;
     assert !m_aClass.isArray ();
+    m_aMetadata = JReferencedClassMetadata.get (aClass);
+  }
+
+  @Nonnull
+  Class <?> getReferencedClass ()
+  {
+    return m_aClass;
+  }
+
+  private void readObject (@Nonnull final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  {
+    aOIS.defaultReadObject ();
+    m_aMetadata = JReferencedClassMetadata.get (m_aClass);
   }
 
   @Override
   public String name ()
   {
-    return m_aClass.getSimpleName ();
+    return m_aMetadata.getName ();
   }
 
   @Override
   @Nonnull
   public String fullName ()
   {
-    return JCNameUtilities.getFullName (m_aClass);
+    return m_aMetadata.getFullName ();
   }
 
   @Override
   public String binaryName ()
   {
-    return m_aClass.getName ();
+    return m_aMetadata.getBinaryName ();
   }
 
   @Override
   public AbstractJClass outer ()
   {
-    final Class <?> p = m_aClass.getDeclaringClass ();
+    final Class <?> p = m_aMetadata.getDeclaringClass ();
     if (p == null)
       return null;
     return owner ().ref (p);
@@ -106,23 +123,13 @@ class JReferencedClass extends AbstractJClass implements IJDeclaration
   @Nonnull
   public JPackage _package ()
   {
-    final String name = fullName ();
-
-    // this type is array
-    if (name.indexOf ('[') != -1)
-      return owner ()._package ("");
-
-    // other normal case
-    final int idx = name.lastIndexOf ('.');
-    if (idx < 0)
-      return owner ()._package ("");
-    return owner ()._package (name.substring (0, idx));
+    return owner ()._package (m_aMetadata.getPackageName ());
   }
 
   @Override
   public AbstractJClass _extends ()
   {
-    final Class <?> sp = m_aClass.getSuperclass ();
+    final Class <?> sp = m_aMetadata.getSuperClass ();
     if (sp == null)
     {
       if (isInterface ())
@@ -135,20 +142,22 @@ class JReferencedClass extends AbstractJClass implements IJDeclaration
   @Override
   public Iterator <AbstractJClass> _implements ()
   {
-    final Class <?> [] aInterfaces = m_aClass.getInterfaces ();
+    final JReferencedClassMetadata aMetadata = m_aMetadata;
     return new Iterator <AbstractJClass> ()
     {
       private int m_nIdx = 0;
 
       public boolean hasNext ()
       {
-        return m_nIdx < aInterfaces.length;
+        return m_nIdx < aMetadata.getInterfaceCount ();
       }
 
       @Nonnull
       public AbstractJClass next ()
       {
-        return owner ().ref (aInterfaces[m_nIdx++]);
+        if (!hasNext ())
+          throw new NoSuchElementException ();
+        return owner ().ref (aMetadata.getInterfaceAtIndex (m_nIdx++));
       }
 
       public void remove ()
@@ -161,13 +170,13 @@ class JReferencedClass extends AbstractJClass implements IJDeclaration
   @Override
   public boolean isInterface ()
   {
-    return m_aClass.isInterface ();
+    return m_aMetadata.isInterface ();
   }
 
   @Override
   public boolean isAbstract ()
   {
-    return Modifier.isAbstract (m_aClass.getModifiers ());
+    return m_aMetadata.isAbstract ();
   }
 
   @Override
@@ -177,7 +186,7 @@ class JReferencedClass extends AbstractJClass implements IJDeclaration
     // Resolve only once
     if (!m_bResolvedPrimitive)
     {
-      final Class <?> v = JCodeModel.boxToPrimitive.get (m_aClass);
+      final Class <?> v = m_aMetadata.getPrimitiveClass ();
       if (v != null)
         m_aPrimitiveType = AbstractJType.parse (owner (), v.getName ());
       else
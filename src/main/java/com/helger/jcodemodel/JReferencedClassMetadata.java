@@ -0,0 +1,190 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import java.lang.reflect.Modifier;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.jcodemodel.util.JCNameUtilities;
+
+/**
+ * Immutable reflection metadata of a {@link Class} as needed by
+ * {@link JReferencedClass}. The metadata is shared process-wide by all code
+ * models. It is stored with a {@link ClassValue}, so it is bound to the
+ * lifetime of the {@link Class} object and does not prevent class loaders from
+ * being unloaded.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+@Immutable
+final class JReferencedClassMetadata
+{
+  private static final Class <?> [] NO_CLASSES = new Class <?> [0];
+
+  private static final ClassValue <JReferencedClassMetadata> s_aCache = new ClassValue <JReferencedClassMetadata> ()
+  {
+    @Override
+    protected JReferencedClassMetadata computeValue (final Class <?> aClass)
+    {
+      return new JReferencedClassMetadata (aClass);
+    }
+  };
+
+  private final String m_sName;
+  private final String m_sFullName;
+  private final String m_sBinaryName;
+  private final String m_sPackageName;
+  private final Class <?> m_aDeclaringClass;
+  private final Class <?> m_aSuperClass;
+  private final Class <?> [] m_aInterfaces;
+  private final boolean m_bInterface;
+  private final boolean m_bAbstract;
+  private final Class <?> m_aPrimitiveClass;
+
+  private JReferencedClassMetadata (@Nonnull final Class <?> aClass)
+  {
+    m_sName = aClass.getSimpleName ();
+    m_sFullName = JCNameUtilities.getFullName (aClass);
+    m_sBinaryName = aClass.getName ();
+
+    final int nIdx = m_sFullName.indexOf ('[') >= 0 ? -1 : m_sFullName.lastIndexOf ('.');
+    m_sPackageName = nIdx < 0 ? "" : m_sFullName.substring (0, nIdx);
+
+    m_aDeclaringClass = aClass.getDeclaringClass ();
+    m_aSuperClass = aClass.getSuperclass ();
+    final Class <?> [] aInterfaces = aClass.getInterfaces ();
+    m_aInterfaces = aInterfaces.length == 0 ? NO_CLASSES : aInterfaces;
+    m_bInterface = aClass.isInterface ();
+    m_bAbstract = Modifier.isAbstract (aClass.getModifiers ());
+    m_aPrimitiveClass = JCodeModel.boxToPrimitive.get (aClass);
+  }
+
+  /**
+   * Get the metadata of the passed class. It is created only once per class.
+   *
+   * @param aClass
+   *        The class to get the metadata of. May not be <code>null</code>.
+   * @return The shared metadata. Never <code>null</code>.
+   */
+  @Nonnull
+  static JReferencedClassMetadata get (@Nonnull final Class <?> aClass)
+  {
+    return s_aCache.get (aClass);
+  }
+
+  @Nonnull
+  String getName ()
+  {
+    return m_sName;
+  }
+
+  @Nonnull
+  String getFullName ()
+  {
+    return m_sFullName;
+  }
+
+  @Nonnull
+  String getBinaryName ()
+  {
+    return m_sBinaryName;
+  }
+
+  /**
+   * @return The package name derived from the full name. Empty for the default
+   *         package.
+   */
+  @Nonnull
+  String getPackageName ()
+  {
+    return m_sPackageName;
+  }
+
+  @Nullable
+  Class <?> getDeclaringClass ()
+  {
+    return m_aDeclaringClass;
+  }
+
+  @Nullable
+  Class <?> getSuperClass ()
+  {
+    return m_aSuperClass;
+  }
+
+  @Nonnegative
+  int getInterfaceCount ()
+  {
+    return m_aInterfaces.length;
+  }
+
+  @Nonnull
+  Class <?> getInterfaceAtIndex (final int nIndex)
+  {
+    return m_aInterfaces[nIndex];
+  }
+
+  boolean isInterface ()
+  {
+    return m_bInterface;
+  }
+
+  boolean isAbstract ()
+  {
+    return m_bAbstract;
+  }
+
+  /**
+   * @return The primitive class if this is a wrapper class (e.g.
+   *         <code>int</code> for {@link Integer}), <code>null</code>
+   *         otherwise.
+   */
+  @Nullable
+  Class <?> getPrimitiveClass ()
+  {
+    return m_aPrimitiveClass;
+  }
+}
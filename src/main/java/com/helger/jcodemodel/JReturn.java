@@ -48,6 +48,8 @@ import javax.annotation.Nullable;
  */
 public class JReturn implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * {@link IJExpression} to return; may be null.
    */
@@ -54,6 +54,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JSingleLineCommentStatement implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   private String m_sComment;
 
   /**
@@ -45,20 +45,36 @@ import static com.helger.jcodemodel.util.JCHashCodeGenerator.getHashCode;
 
 import javax.annotation.Nonnull;
 
+import com.helger.jcodemodel.util.JCStructuralHashCode;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 /**
- * String literal.
+ * String literal. The quoted form is created only once. Literals that exceed
+ * the maximum length of a string constant in a class file are emitted as a
+ * concatenation of chunks using a {@link StringBuilder}, because the compiler
+ * would fold a plain <code>+</code> concatenation back into a single constant.
  *
  * @author Kohsuke Kawaguchi (kohsuke.kawaguchi@sun.com)
  */
 public class JStringLiteral implements IJExpression
 {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The maximum number of bytes of a string constant in the modified UTF-8
+   * encoding of the class file format.
+   *
+   * @since 3.0.3
+   */
+  public static final int MAX_CONSTANT_UTF8_LENGTH = 65535;
+
   private String m_sWhat;
+  // Lazily created quoted form
+  private transient String m_sQuoted;
 
   protected JStringLiteral (@Nonnull final String sWhat)
   {
-    what (sWhat);
+    m_sWhat = JCValueEnforcer.notNull (sWhat, "What");
   }
 
   @Nonnull
@@ -70,12 +86,70 @@ public class JStringLiteral implements IJExpression
   public final void what (@Nonnull final String sWhat)
   {
     JCValueEnforcer.notNull (sWhat, "What");
-    m_sWhat = sWhat;
+    if (!sWhat.equals (m_sWhat))
+    {
+      m_sWhat = sWhat;
+      m_sQuoted = null;
+      // The hash code is claimed to be stable
+      JCStructuralHashCode.onStableNodeModified ();
+    }
+  }
+
+  private static int _getUTF8Length (final char c)
+  {
+    if (c != 0 && c < 0x80)
+      return 1;
+    return c < 0x800 ? 2 : 3;
+  }
+
+  @Nonnull
+  private static String _getQuoted (@Nonnull final String sStr)
+  {
+    final int n = sStr.length ();
+    if (n <= MAX_CONSTANT_UTF8_LENGTH / 3)
+    {
+      // Cannot exceed the limit
+      return JExpr.quotify ('"', sStr);
+    }
+
+    final StringBuilder aSB = new StringBuilder (n + 64);
+    int nStart = 0;
+    while (nStart < n)
+    {
+      int nEnd = nStart;
+      int nBytes = 0;
+      while (nEnd < n)
+      {
+        final int nCharBytes = _getUTF8Length (sStr.charAt (nEnd));
+        if (nBytes + nCharBytes > MAX_CONSTANT_UTF8_LENGTH)
+          break;
+        nBytes += nCharBytes;
+        nEnd++;
+      }
+      if (nStart == 0)
+      {
+        if (nEnd == n)
+          return JExpr.quotify ('"', sStr);
+        aSB.append ("new java.lang.StringBuilder(").append (n).append (')');
+      }
+      // Don't split surrogate pairs
+      if (nEnd < n && Character.isLowSurrogate (sStr.charAt (nEnd)) && Character.isHighSurrogate (sStr.charAt (nEnd - 1)))
+        nEnd--;
+      JExpr.appendQuotified (aSB.append (".append("), '"', sStr, nStart, nEnd).append (')');
+      nStart = nEnd;
+    }
+    return aSB.append (".toString()").toString ();
   }
 
   public void generate (@Nonnull final JFormatter f)
   {
-    f.print (JExpr.quotify ('"', m_sWhat));
+    String sQuoted = m_sQuoted;
+    if (sQuoted == null)
+    {
+      sQuoted = _getQuoted (m_sWhat);
+      m_sQuoted = sQuoted;
+    }
+    f.print (sQuoted);
   }
 
   @Override
@@ -89,6 +163,13 @@ public class JStringLiteral implements IJExpression
     return isEqual (m_sWhat, rhs.m_sWhat);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    // Changing the text updates the modification stamp
+    return true;
+  }
+
   @Override
   public int hashCode ()
   {
@@ -51,6 +51,8 @@ import javax.annotation.Nonnull;
  */
 public class JSwitch implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Test part of switch statement.
    */
@@ -108,6 +110,16 @@ public class JSwitch implements IJStatement
     return m_aDefaultCase;
   }
 
+  /**
+   * @return <code>true</code> if a default case was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasDefault ()
+  {
+    return m_aDefaultCase != null;
+  }
+
   public void state (@Nonnull final JFormatter f)
   {
     if (JOp.hasTopOp (m_aTestExpr))
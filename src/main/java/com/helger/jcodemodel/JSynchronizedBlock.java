@@ -52,6 +52,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JSynchronizedBlock implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   private IJExpression m_aExpression;
   private JBlock m_aBody;
 
@@ -72,6 +74,16 @@ public class JSynchronizedBlock implements IJStatement
     return m_aExpression;
   }
 
+  /**
+   * @return <code>true</code> if the body was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasBody ()
+  {
+    return m_aBody != null;
+  }
+
   @Nonnull
   public JBlock body ()
   {
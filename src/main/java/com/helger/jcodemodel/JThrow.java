@@ -47,6 +47,8 @@ import javax.annotation.Nonnull;
  */
 public class JThrow implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * JExpression to throw
    */
@@ -51,6 +51,8 @@ import javax.annotation.Nonnull;
  */
 public class JTryBlock implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   private final JBlock m_aBody = new JBlock ();
   private final List <JCatchBlock> m_aCatches = new ArrayList <> ();
   private JBlock m_aFinally;
@@ -86,6 +88,16 @@ public class JTryBlock implements IJStatement
     return m_aFinally;
   }
 
+  /**
+   * @return <code>true</code> if a finally block was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasFinally ()
+  {
+    return m_aFinally != null;
+  }
+
   public void state (@Nonnull final JFormatter f)
   {
     f.print ("try").generable (m_aBody);
@@ -59,6 +59,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JTypeVar extends AbstractJClass implements IJDeclaration
 {
+  private static final long serialVersionUID = 1L;
+
   private final String m_sName;
   private final List <AbstractJClass> m_aBounds = new ArrayList <> ();
 
@@ -107,6 +109,7 @@ public class JTypeVar extends AbstractJClass implements IJDeclaration
   {
     JCValueEnforcer.notNull (aBound, "Bound");
     m_aBounds.add (aBound);
+    onSuperTypesChanged ();
     return this;
   }
 
@@ -51,6 +51,8 @@ import javax.annotation.Nullable;
  */
 public class JTypeVarClass extends JTypeVar
 {
+  private static final long serialVersionUID = 1L;
+
   private final AbstractJClass m_aClass;
 
   protected JTypeVarClass (@Nonnull final AbstractJClass aClass)
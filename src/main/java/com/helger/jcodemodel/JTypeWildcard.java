@@ -61,6 +61,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JTypeWildcard extends AbstractJClass
 {
+  private static final long serialVersionUID = 1L;
+
   private final AbstractJClass m_aBoundClass;
   private final EWildcardBoundMode m_eBoundMode;
 
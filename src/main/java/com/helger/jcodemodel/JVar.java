@@ -44,14 +44,17 @@ import static com.helger.jcodemodel.util.JCEqualsHelper.isEqual;
 import static com.helger.jcodemodel.util.JCHashCodeGenerator.getHashCode;
 
 import java.lang.annotation.Annotation;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.helger.jcodemodel.util.JCStructuralHashCode;
 import com.helger.jcodemodel.util.JCValueEnforcer;
 
 /**
@@ -59,6 +62,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JVar implements IJAssignmentTarget, IJDeclaration, IJAnnotatable
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Modifiers.
    */
@@ -151,7 +156,12 @@ public class JVar implements IJAssignmentTarget, IJDeclaration, IJAnnotatable
   public void name (@Nonnull final String sName)
   {
     JCValueEnforcer.isTrue (JJavaName.isJavaIdentifier (sName), () -> "Illegal variable name '" + sName + "'");
-    m_sName = sName;
+    if (!sName.equals (m_sName))
+    {
+      m_sName = sName;
+      // The hash code is claimed to be stable
+      JCStructuralHashCode.onStableNodeModified ();
+    }
   }
 
   /**
@@ -221,12 +231,30 @@ public class JVar implements IJAssignmentTarget, IJDeclaration, IJAnnotatable
     return annotate (m_aType.owner ().ref (aClazz));
   }
 
+  /**
+   * @return The annotations of this variable. The returned collection is a
+   *         read-only live view.
+   */
   @Nonnull
   public Collection <JAnnotationUse> annotations ()
   {
-    if (m_aAnnotations == null)
-      m_aAnnotations = new ArrayList <> ();
-    return Collections.unmodifiableList (m_aAnnotations);
+    // The view reads the lazily created list on every access
+    return new AbstractCollection <JAnnotationUse> ()
+    {
+      @Override
+      public Iterator <JAnnotationUse> iterator ()
+      {
+        if (m_aAnnotations == null)
+          return Collections.emptyIterator ();
+        return Collections.unmodifiableList (m_aAnnotations).iterator ();
+      }
+
+      @Override
+      public int size ()
+      {
+        return m_aAnnotations == null ? 0 : m_aAnnotations.size ();
+      }
+    };
   }
 
   protected boolean isAnnotated ()
@@ -265,6 +293,13 @@ public class JVar implements IJAssignmentTarget, IJDeclaration, IJAnnotatable
     return isEqual (m_sName, rhs.m_sName);
   }
 
+  @Override
+  public boolean isHashCodeStable ()
+  {
+    // Renaming updates the modification stamp
+    return true;
+  }
+
   @Override
   public int hashCode ()
   {
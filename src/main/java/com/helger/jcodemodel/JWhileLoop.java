@@ -42,15 +42,19 @@ package com.helger.jcodemodel;
 
 import javax.annotation.Nonnull;
 
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
 /**
  * While statement
  */
 public class JWhileLoop implements IJStatement
 {
+  private static final long serialVersionUID = 1L;
+
   /**
    * Test part of While statement for determining exit state
    */
-  private final IJExpression m_aTextExpr;
+  private IJExpression m_aTextExpr;
 
   /**
    * JBlock of statements which makes up body of this While statement
@@ -74,6 +78,28 @@ public class JWhileLoop implements IJStatement
     return m_aTextExpr;
   }
 
+  /**
+   * Change the loop condition.
+   *
+   * @param aTestExpr
+   *        The new test expression. May not be <code>null</code>.
+   * @since 3.0.3
+   */
+  public void test (@Nonnull final IJExpression aTestExpr)
+  {
+    m_aTextExpr = JCValueEnforcer.notNull (aTestExpr, "TestExpr");
+  }
+
+  /**
+   * @return <code>true</code> if the body was already created,
+   *         <code>false</code> otherwise.
+   * @since 3.0.3
+   */
+  public boolean hasBody ()
+  {
+    return m_aBody != null;
+  }
+
   @Nonnull
   public JBlock body ()
   {
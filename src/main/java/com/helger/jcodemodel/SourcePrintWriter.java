@@ -92,6 +92,18 @@ public final class SourcePrintWriter extends FilterWriter
     }
   }
 
+  private void _write (@Nonnull final String sStr, final int nOfs, final int nLen)
+  {
+    try
+    {
+      super.write (sStr, nOfs, nLen);
+    }
+    catch (final IOException ex)
+    {
+      _handleException (ex, "write String part");
+    }
+  }
+
   public void print (final char c)
   {
     _write (c);
@@ -102,6 +114,22 @@ public final class SourcePrintWriter extends FilterWriter
     _write (sStr);
   }
 
+  /**
+   * Print a part of a string without creating a substring.
+   *
+   * @param sStr
+   *        The string to print a part of
+   * @param nOfs
+   *        Index of the first char to print
+   * @param nLen
+   *        Number of chars to print
+   * @since 3.0.3
+   */
+  public void print (@Nonnull final String sStr, final int nOfs, final int nLen)
+  {
+    _write (sStr, nOfs, nLen);
+  }
+
   public void println ()
   {
     _write (m_sNewLine);
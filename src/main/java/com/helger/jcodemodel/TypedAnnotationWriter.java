@@ -42,13 +42,13 @@ package com.helger.jcodemodel;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -57,6 +57,11 @@ import com.helger.jcodemodel.util.JCSecureLoader;
 
 /**
  * Dynamically implements the typed annotation writer interfaces.
+ * <p>
+ * The reflection metadata needed to dispatch a writer method call (the
+ * annotation member type, its default value and the writer return type) is
+ * determined only once per annotation type and writer method and shared
+ * process-wide.
  *
  * @author Kohsuke Kawaguchi
  */
@@ -65,6 +70,53 @@ public class TypedAnnotationWriter <A extends Annotation, W extends IJAnnotation
                                    InvocationHandler,
                                    IJAnnotationWriter <A>
 {
+  /**
+   * Cached information about a writer method and the annotation member it
+   * writes.
+   */
+  private static final class MemberInfo
+  {
+    private final String m_sName;
+    private final Class <?> m_aMemberType;
+    private final Class <?> m_aWriterReturnType;
+    private final Object m_aDefaultValue;
+
+    MemberInfo (@Nonnull final Method aWriterMethod, @Nonnull final Method aMember)
+    {
+      m_sName = aMember.getName ();
+      m_aMemberType = aMember.getReturnType ();
+      m_aWriterReturnType = aWriterMethod.getReturnType ();
+      m_aDefaultValue = aMember.getDefaultValue ();
+    }
+  }
+
+  /**
+   * The member infos of an annotation type by writer method.
+   */
+  private static final class MemberInfoCache extends ClassValue <Map <Method, MemberInfo>>
+  {
+    @Override
+    protected Map <Method, MemberInfo> computeValue (final Class <?> aAnnotationType)
+    {
+      return new ConcurrentHashMap <> ();
+    }
+  }
+
+  /**
+   * The annotation type of each writer type.
+   */
+  private static final class AnnotationTypeCache extends ClassValue <Class <? extends Annotation>>
+  {
+    @Override
+    protected Class <? extends Annotation> computeValue (final Class <?> aWriterType)
+    {
+      return _findAnnotationType (aWriterType);
+    }
+  }
+
+  private static final MemberInfoCache s_aMemberInfos = new MemberInfoCache ();
+  private static final AnnotationTypeCache s_aAnnotationTypes = new AnnotationTypeCache ();
+
   /**
    * This is what we are writing to.
    */
@@ -85,11 +137,17 @@ public class TypedAnnotationWriter <A extends Annotation, W extends IJAnnotation
    */
   private Map <String, JAnnotationArrayMember> m_aArrays;
 
+  /**
+   * The member infos of the annotation type.
+   */
+  private final Map <Method, MemberInfo> m_aMemberInfos;
+
   protected TypedAnnotationWriter (final Class <A> aAnnotation, final Class <W> aWriterType, final JAnnotationUse aUse)
   {
     m_aAnnotationType = aAnnotation;
     m_aWriterType = aWriterType;
     m_aUse = aUse;
+    m_aMemberInfos = s_aMemberInfos.get (aAnnotation);
   }
 
   public JAnnotationUse getAnnotationUse ()
@@ -102,40 +160,61 @@ public class TypedAnnotationWriter <A extends Annotation, W extends IJAnnotation
     return m_aAnnotationType;
   }
 
+  @Nonnull
+  private MemberInfo _getMemberInfo (@Nonnull final Method aMethod) throws NoSuchMethodException
+  {
+    MemberInfo ret = m_aMemberInfos.get (aMethod);
+    if (ret == null)
+    {
+      // check how it's defined on the annotation
+      ret = new MemberInfo (aMethod, m_aAnnotationType.getDeclaredMethod (aMethod.getName ()));
+      m_aMemberInfos.put (aMethod, ret);
+    }
+    return ret;
+  }
+
   public Object invoke (final Object aProxy, final Method aMethod, final Object [] aArgs) throws Throwable
   {
-    if (aMethod.getDeclaringClass () == IJAnnotationWriter.class)
+    final Class <?> aDeclaringClass = aMethod.getDeclaringClass ();
+    if (aDeclaringClass == IJAnnotationWriter.class)
     {
-      try
-      {
-        return aMethod.invoke (this, aArgs);
-      }
-      catch (final InvocationTargetException e)
+      // Dispatch directly without reflection
+      if (aMethod.getName ().equals ("getAnnotationUse"))
+        return getAnnotationUse ();
+      return getAnnotationType ();
+    }
+    if (aDeclaringClass == Object.class)
+    {
+      switch (aMethod.getName ())
       {
-        throw e.getTargetException ();
+        case "equals":
+          return Boolean.valueOf (aProxy == aArgs[0]);
+        case "hashCode":
+          return Integer.valueOf (System.identityHashCode (aProxy));
+        default:
+          return getClass ().getName () + "[" + m_aAnnotationType.getName () + "]";
       }
     }
 
-    final String name = aMethod.getName ();
+    final MemberInfo aInfo = _getMemberInfo (aMethod);
+    final String name = aInfo.m_sName;
     Object arg = null;
     if (aArgs != null && aArgs.length > 0)
       arg = aArgs[0];
 
-    // check how it's defined on the annotation
-    final Method m = m_aAnnotationType.getDeclaredMethod (name);
-    final Class <?> rt = m.getReturnType ();
+    final Class <?> rt = aInfo.m_aMemberType;
 
     // array value
     if (rt.isArray ())
     {
-      return _addArrayValue (aProxy, name, rt.getComponentType (), aMethod.getReturnType (), arg);
+      return _addArrayValue (aProxy, name, rt.getComponentType (), aInfo.m_aWriterReturnType, arg);
     }
 
     // sub annotation
     if (Annotation.class.isAssignableFrom (rt))
     {
       final Class <? extends Annotation> r = (Class <? extends Annotation>) rt;
-      return new TypedAnnotationWriter (r, aMethod.getReturnType (), m_aUse.annotationParam (name, r))._createProxy ();
+      return new TypedAnnotationWriter (r, aInfo.m_aWriterReturnType, m_aUse.annotationParam (name, r))._createProxy ();
     }
 
     // scalar value
@@ -144,10 +223,10 @@ public class TypedAnnotationWriter <A extends Annotation, W extends IJAnnotation
     {
       final AbstractJType targ = (AbstractJType) arg;
       _checkType (Class.class, rt);
-      if (m.getDefaultValue () != null)
+      if (aInfo.m_aDefaultValue != null)
       {
         // check the default
-        if (targ.equals (targ.owner ().ref ((Class <?>) m.getDefaultValue ())))
+        if (targ.equals (targ.owner ().ref ((Class <?>) aInfo.m_aDefaultValue)))
           return aProxy; // defaulted
       }
       m_aUse.param (name, targ);
@@ -156,7 +235,7 @@ public class TypedAnnotationWriter <A extends Annotation, W extends IJAnnotation
 
     // other Java built-in types
     _checkType (arg.getClass (), rt);
-    if (m.getDefaultValue () != null && m.getDefaultValue ().equals (arg))
+    if (aInfo.m_aDefaultValue != null && aInfo.m_aDefaultValue.equals (arg))
     {
       /*
        * defaulted. no need to write out.
@@ -276,7 +355,7 @@ public class TypedAnnotationWriter <A extends Annotation, W extends IJAnnotation
   static <W extends IJAnnotationWriter <?>> W create (@Nonnull final Class <W> aWriterType,
                                                       @Nonnull final IJAnnotatable aAnnotatable)
   {
-    final Class <? extends Annotation> a = _findAnnotationType (aWriterType);
+    final Class <? extends Annotation> a = s_aAnnotationTypes.get (aWriterType);
     return (W) new TypedAnnotationWriter (a, aWriterType, aAnnotatable.annotate (a))._createProxy ();
   }
 
@@ -42,6 +42,8 @@ package com.helger.jcodemodel.fmt;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 
 import javax.annotation.Nonnull;
@@ -57,7 +59,9 @@ import com.helger.jcodemodel.AbstractJResourceFile;
  */
 public class JBinaryFile extends AbstractJResourceFile
 {
-  private final ByteArrayOutputStream m_aBAOS = new ByteArrayOutputStream ();
+  private static final long serialVersionUID = 1L;
+
+  private transient ByteArrayOutputStream m_aBAOS = new ByteArrayOutputStream ();
 
   public JBinaryFile (@Nonnull final String sName)
   {
@@ -74,6 +78,22 @@ public class JBinaryFile extends AbstractJResourceFile
     return m_aBAOS;
   }
 
+  private void writeObject (@Nonnull final ObjectOutputStream aOOS) throws IOException
+  {
+    aOOS.defaultWriteObject ();
+    aOOS.writeInt (m_aBAOS.size ());
+    m_aBAOS.writeTo (aOOS);
+  }
+
+  private void readObject (@Nonnull final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  {
+    aOIS.defaultReadObject ();
+    final byte [] aData = new byte [aOIS.readInt ()];
+    aOIS.readFully (aData);
+    m_aBAOS = new ByteArrayOutputStream (aData.length);
+    m_aBAOS.write (aData, 0, aData.length);
+  }
+
   @Override
   public void build (@Nonnull @WillNotClose final OutputStream aOS) throws IOException
   {
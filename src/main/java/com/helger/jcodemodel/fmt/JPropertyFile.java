@@ -54,6 +54,8 @@ import com.helger.jcodemodel.AbstractJResourceFile;
  */
 public class JPropertyFile extends AbstractJResourceFile
 {
+  private static final long serialVersionUID = 1L;
+
   private final Properties m_aProps = new Properties ();
 
   public JPropertyFile (@Nonnull final String sName)
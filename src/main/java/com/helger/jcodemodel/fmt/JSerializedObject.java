@@ -56,6 +56,8 @@ import com.helger.jcodemodel.AbstractJResourceFile;
  */
 public class JSerializedObject extends AbstractJResourceFile
 {
+  private static final long serialVersionUID = 1L;
+
   private final Serializable m_aObj;
 
   /**
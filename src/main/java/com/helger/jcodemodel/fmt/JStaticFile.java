@@ -42,6 +42,7 @@ package com.helger.jcodemodel.fmt;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.OutputStream;
 
 import javax.annotation.Nonnull;
@@ -57,7 +58,10 @@ import com.helger.jcodemodel.util.JCSecureLoader;
  */
 public class JStaticFile extends AbstractJResourceFile
 {
-  private final ClassLoader m_aClassLoader;
+  private static final long serialVersionUID = 1L;
+
+  // Class loaders are not serializable - the default one is used after reading
+  private transient ClassLoader m_aClassLoader;
   private final String m_sResourceName;
   private final boolean m_bIsResource;
 
@@ -107,4 +111,10 @@ public class JStaticFile extends AbstractJResourceFile
         aOS.write (buf, 0, sz);
     }
   }
+
+  private void readObject (@Nonnull final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  {
+    aOIS.defaultReadObject ();
+    m_aClassLoader = JCSecureLoader.getClassClassLoader (JStaticFile.class);
+  }
 }
@@ -86,6 +86,8 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JStaticJavaFile extends AbstractJResourceFile
 {
+  private static final long serialVersionUID = 1L;
+
   private final JPackage m_aPkg;
   private final String m_sClassName;
   private final URL m_aSource;
@@ -188,6 +190,8 @@ public class JStaticJavaFile extends AbstractJResourceFile
 
   private class JStaticClass extends AbstractJClass
   {
+    private static final long serialVersionUID = 1L;
+
     private final JTypeVar [] typeParams;
 
     JStaticClass ()
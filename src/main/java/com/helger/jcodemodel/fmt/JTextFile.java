@@ -41,6 +41,8 @@
 package com.helger.jcodemodel.fmt;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -60,8 +62,10 @@ import com.helger.jcodemodel.util.JCValueEnforcer;
  */
 public class JTextFile extends AbstractJResourceFile
 {
+  private static final long serialVersionUID = 1L;
+
   private String m_sContents;
-  private final Charset m_aEncoding;
+  private transient Charset m_aEncoding;
 
   public JTextFile (@Nonnull final String sName, @Nonnull final Charset aEncoding)
   {
@@ -86,6 +90,18 @@ public class JTextFile extends AbstractJResourceFile
     return m_aEncoding;
   }
 
+  private void writeObject (@Nonnull final ObjectOutputStream aOOS) throws IOException
+  {
+    aOOS.defaultWriteObject ();
+    aOOS.writeUTF (m_aEncoding.name ());
+  }
+
+  private void readObject (@Nonnull final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  {
+    aOIS.defaultReadObject ();
+    m_aEncoding = Charset.forName (aOIS.readUTF ());
+  }
+
   @Override
   public void build (@Nonnull @WillNotClose final OutputStream aOS) throws IOException
   {
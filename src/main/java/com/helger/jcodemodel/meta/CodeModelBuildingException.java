@@ -47,6 +47,8 @@ import com.helger.jcodemodel.JClassAlreadyExistsException;
  */
 public class CodeModelBuildingException extends Exception
 {
+  private static final long serialVersionUID = 1L;
+
   public CodeModelBuildingException (final JClassAlreadyExistsException ex)
   {
     super (ex);
@@ -47,6 +47,8 @@ package com.helger.jcodemodel.meta;
  */
 public class ErrorTypeFound extends Exception
 {
+  private static final long serialVersionUID = 1L;
+
   ErrorTypeFound (final String message)
   {
     super (message);
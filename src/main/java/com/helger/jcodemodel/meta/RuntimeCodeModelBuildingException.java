@@ -45,6 +45,8 @@ package com.helger.jcodemodel.meta;
  */
 class RuntimeCodeModelBuildingException extends RuntimeException
 {
+  private static final long serialVersionUID = 1L;
+
   private final CodeModelBuildingException m_aCause;
 
   public RuntimeCodeModelBuildingException (final CodeModelBuildingException cause)
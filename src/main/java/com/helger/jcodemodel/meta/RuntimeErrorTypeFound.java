@@ -45,6 +45,8 @@ package com.helger.jcodemodel.meta;
  */
 class RuntimeErrorTypeFound extends RuntimeException
 {
+  private static final long serialVersionUID = 1L;
+
   private final ErrorTypeFound m_aCause;
 
   public RuntimeErrorTypeFound (final ErrorTypeFound cause)
@@ -40,6 +40,7 @@
  */
 package com.helger.jcodemodel.util;
 
+import java.io.Serializable;
 import java.util.Comparator;
 
 import javax.annotation.Nonnull;
@@ -52,8 +53,10 @@ import com.helger.jcodemodel.AbstractJClass;
  *
  * @author Kohsuke Kawaguchi (kohsuke.kawaguchi@sun.com)
  */
-public final class ClassNameComparator implements Comparator <AbstractJClass>
+public final class ClassNameComparator implements Comparator <AbstractJClass>, Serializable
 {
+  private static final long serialVersionUID = 1L;
+
   private static final ClassNameComparator s_aInstance = new ClassNameComparator ();
 
   private ClassNameComparator ()
@@ -65,10 +68,17 @@ public final class ClassNameComparator implements Comparator <AbstractJClass>
     return s_aInstance;
   }
 
+  private Object readResolve ()
+  {
+    return s_aInstance;
+  }
+
   /**
    * Compare two JTypes by FQCN, giving sorting precedence to types that belong
    * to packages java and javax over all others. This method is used to sort
-   * generated import statements in a conventional way for readability.
+   * generated import statements in a conventional way for readability. The
+   * cached {@link AbstractJClass#getSortKey()} is used, so no strings are built
+   * while comparing.
    */
   public int compare (@Nonnull final AbstractJClass aObj1, @Nonnull final AbstractJClass aObj2)
   {
@@ -79,15 +89,6 @@ public final class ClassNameComparator implements Comparator <AbstractJClass>
     if (aObj2.isError ())
       return +1;
 
-    final String lhs = aObj1.fullName ();
-    final String rhs = aObj2.fullName ();
-    final boolean bLeftJava = lhs.startsWith ("java.");
-    final boolean bRightJava = rhs.startsWith ("java.");
-
-    if (bLeftJava && !bRightJava)
-      return -1;
-    if (!bLeftJava && bRightJava)
-      return +1;
-    return lhs.compareTo (rhs);
+    return aObj1.getSortKey ().compareTo (aObj2.getSortKey ());
   }
 }
@@ -0,0 +1,209 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A list implemented as a gap buffer: the elements are stored in a single
+ * array with a movable gap of free slots in it. An insertion or removal moves
+ * the gap to the affected index first, so consecutive modifications at or
+ * near the same position (like statements being added at the insertion cursor
+ * of a block) are amortized O(1) instead of shifting the whole tail of the
+ * array each time. Indexed access stays O(1).
+ *
+ * @author Philip Helger
+ * @param <ELEMENTTYPE>
+ *        The element type
+ * @since 3.0.3
+ */
+@NotThreadSafe
+public final class JCGapList <ELEMENTTYPE> extends AbstractList <ELEMENTTYPE> implements RandomAccess
+{
+  private static final int DEFAULT_CAPACITY = 8;
+  private static final Object [] NO_ELEMENTS = new Object [0];
+
+  private Object [] m_aData;
+  /** Index of the first free slot */
+  private int m_nGapStart;
+  /** Index of the first used slot after the gap */
+  private int m_nGapEnd;
+
+  public JCGapList ()
+  {
+    m_aData = NO_ELEMENTS;
+    m_nGapStart = 0;
+    m_nGapEnd = 0;
+  }
+
+  private int _gapLength ()
+  {
+    return m_nGapEnd - m_nGapStart;
+  }
+
+  private int _physicalIndex (final int nIndex)
+  {
+    return nIndex < m_nGapStart ? nIndex : nIndex + _gapLength ();
+  }
+
+  private void _checkIndex (final int nIndex, final int nUpperExcl)
+  {
+    if (nIndex < 0 || nIndex >= nUpperExcl)
+      throw new IndexOutOfBoundsException ("Index: " + nIndex + ", Size: " + size ());
+  }
+
+  /**
+   * Move the gap so that it starts at the passed logical index.
+   */
+  private void _moveGap (final int nIndex)
+  {
+    if (nIndex < m_nGapStart)
+    {
+      // Shift the elements [nIndex, gapStart) behind the gap
+      final int nCount = m_nGapStart - nIndex;
+      System.arraycopy (m_aData, nIndex, m_aData, m_nGapEnd - nCount, nCount);
+      Arrays.fill (m_aData, nIndex, Math.min (m_nGapStart, m_nGapEnd - nCount), null);
+      m_nGapStart = nIndex;
+      m_nGapEnd -= nCount;
+    }
+    else
+      if (nIndex > m_nGapStart)
+      {
+        // Shift the elements directly after the gap before it
+        final int nCount = nIndex - m_nGapStart;
+        System.arraycopy (m_aData, m_nGapEnd, m_aData, m_nGapStart, nCount);
+        Arrays.fill (m_aData, Math.max (m_nGapEnd, nIndex), m_nGapEnd + nCount, null);
+        m_nGapStart += nCount;
+        m_nGapEnd += nCount;
+      }
+  }
+
+  private void _ensureGap ()
+  {
+    if (m_nGapStart == m_nGapEnd)
+    {
+      final int nOldCapacity = m_aData.length;
+      final int nNewCapacity = Math.max (DEFAULT_CAPACITY, nOldCapacity + (nOldCapacity >> 1));
+      final Object [] aNewData = new Object [nNewCapacity];
+      final int nTailLen = nOldCapacity - m_nGapEnd;
+      System.arraycopy (m_aData, 0, aNewData, 0, m_nGapStart);
+      System.arraycopy (m_aData, m_nGapEnd, aNewData, nNewCapacity - nTailLen, nTailLen);
+      m_aData = aNewData;
+      m_nGapEnd = nNewCapacity - nTailLen;
+    }
+  }
+
+  @Override
+  @Nonnegative
+  public int size ()
+  {
+    return m_aData.length - _gapLength ();
+  }
+
+  @Override
+  @SuppressWarnings ("unchecked")
+  public ELEMENTTYPE get (final int nIndex)
+  {
+    _checkIndex (nIndex, size ());
+    return (ELEMENTTYPE) m_aData[_physicalIndex (nIndex)];
+  }
+
+  @Override
+  @SuppressWarnings ("unchecked")
+  public ELEMENTTYPE set (final int nIndex, final ELEMENTTYPE aElement)
+  {
+    _checkIndex (nIndex, size ());
+    final int nPhysical = _physicalIndex (nIndex);
+    final ELEMENTTYPE aOld = (ELEMENTTYPE) m_aData[nPhysical];
+    m_aData[nPhysical] = aElement;
+    return aOld;
+  }
+
+  @Override
+  public void add (final int nIndex, final ELEMENTTYPE aElement)
+  {
+    _checkIndex (nIndex, size () + 1);
+    _moveGap (nIndex);
+    _ensureGap ();
+    m_aData[m_nGapStart++] = aElement;
+    modCount++;
+  }
+
+  @Override
+  @SuppressWarnings ("unchecked")
+  public ELEMENTTYPE remove (final int nIndex)
+  {
+    _checkIndex (nIndex, size ());
+    _moveGap (nIndex);
+    final ELEMENTTYPE aOld = (ELEMENTTYPE) m_aData[m_nGapEnd];
+    m_aData[m_nGapEnd++] = null;
+    modCount++;
+    return aOld;
+  }
+
+  @Override
+  protected void removeRange (final int nFromIndex, final int nToIndex)
+  {
+    if (nFromIndex < nToIndex)
+    {
+      _moveGap (nFromIndex);
+      final int nCount = nToIndex - nFromIndex;
+      Arrays.fill (m_aData, m_nGapEnd, m_nGapEnd + nCount, null);
+      m_nGapEnd += nCount;
+      modCount++;
+    }
+  }
+
+  @Override
+  public void clear ()
+  {
+    Arrays.fill (m_aData, null);
+    m_nGapStart = 0;
+    m_nGapEnd = m_aData.length;
+    modCount++;
+  }
+}
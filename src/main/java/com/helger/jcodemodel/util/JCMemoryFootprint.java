@@ -0,0 +1,414 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * An estimation of the memory retained by a code model, grouped by model
+ * element type. The object graph is walked starting at a root object (usually
+ * the {@link com.helger.jcodemodel.JCodeModel}). Only objects of this library,
+ * the collections, arrays and strings referenced by them are considered. Other
+ * objects (e.g. {@link Class} objects of referenced classes) are shared with
+ * the rest of the application and are not counted.
+ * <p>
+ * The sizes of helper objects (collections, arrays, strings and the classes of
+ * the <code>util</code> package) are added to the nearest model element
+ * referencing them. Sizes are estimated for a 64-bit JVM with compressed
+ * object pointers, so they are an approximation only.
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+@Immutable
+public final class JCMemoryFootprint
+{
+  /**
+   * The estimated footprint of a single model element type.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Entry
+  {
+    private final int m_nObjectCount;
+    private final long m_nEstimatedBytes;
+
+    Entry (@Nonnegative final int nObjectCount, @Nonnegative final long nEstimatedBytes)
+    {
+      m_nObjectCount = nObjectCount;
+      m_nEstimatedBytes = nEstimatedBytes;
+    }
+
+    /**
+     * @return The number of instances of the type.
+     */
+    @Nonnegative
+    public int getObjectCount ()
+    {
+      return m_nObjectCount;
+    }
+
+    /**
+     * @return The estimated number of bytes retained by all instances of the
+     *         type, including their helper objects.
+     */
+    @Nonnegative
+    public long getEstimatedBytes ()
+    {
+      return m_nEstimatedBytes;
+    }
+
+    @Override
+    public String toString ()
+    {
+      return m_nObjectCount + " objects, " + m_nEstimatedBytes + " bytes";
+    }
+  }
+
+  private static final String MODEL_PACKAGE_PREFIX = "com.helger.jcodemodel.";
+  private static final String UTIL_PACKAGE_PREFIX = MODEL_PACKAGE_PREFIX + "util.";
+  // Process-wide objects (held in a ClassValue) that are shared by all models
+  private static final Set <String> SHARED_CLASS_NAMES = Collections.singleton (MODEL_PACKAGE_PREFIX +
+                                                                                "JReferencedClassMetadata");
+
+  private static final int OBJECT_HEADER = 12;
+  private static final int ARRAY_HEADER = 16;
+  private static final int REFERENCE = 4;
+
+  private final Map <Class <?>, Entry> m_aEntries;
+  private final int m_nTotalObjectCount;
+  private final long m_nTotalEstimatedBytes;
+
+  private JCMemoryFootprint (@Nonnull final Map <Class <?>, Entry> aEntries)
+  {
+    int nCount = 0;
+    long nBytes = 0;
+    for (final Entry aEntry : aEntries.values ())
+    {
+      nCount += aEntry.getObjectCount ();
+      nBytes += aEntry.getEstimatedBytes ();
+    }
+    m_aEntries = Collections.unmodifiableMap (aEntries);
+    m_nTotalObjectCount = nCount;
+    m_nTotalEstimatedBytes = nBytes;
+  }
+
+  /**
+   * @return All model element types with their footprint, ordered by
+   *         descending estimated bytes. Never <code>null</code>.
+   */
+  @Nonnull
+  public Map <Class <?>, Entry> getAllEntries ()
+  {
+    return m_aEntries;
+  }
+
+  /**
+   * @param aClass
+   *        The model element type to query. May be <code>null</code>.
+   * @return <code>null</code> if no such model element is contained.
+   */
+  @Nullable
+  public Entry getEntry (@Nullable final Class <?> aClass)
+  {
+    return m_aEntries.get (aClass);
+  }
+
+  /**
+   * @return The total number of model elements.
+   */
+  @Nonnegative
+  public int getTotalObjectCount ()
+  {
+    return m_nTotalObjectCount;
+  }
+
+  /**
+   * @return The total number of estimated bytes.
+   */
+  @Nonnegative
+  public long getTotalEstimatedBytes ()
+  {
+    return m_nTotalEstimatedBytes;
+  }
+
+  @Override
+  public String toString ()
+  {
+    final StringBuilder aSB = new StringBuilder ();
+    aSB.append ("Total: ").append (m_nTotalObjectCount).append (" objects, ");
+    aSB.append (m_nTotalEstimatedBytes).append (" bytes");
+    for (final Map.Entry <Class <?>, Entry> aEntry : m_aEntries.entrySet ())
+      aSB.append ('\n').append (aEntry.getKey ().getName ()).append (": ").append (aEntry.getValue ());
+    return aSB.toString ();
+  }
+
+  private static long _align (final long nBytes)
+  {
+    return (nBytes + 7) & ~7L;
+  }
+
+  private static int _primitiveSize (@Nonnull final Class <?> aType)
+  {
+    if (aType == long.class || aType == double.class)
+      return 8;
+    if (aType == int.class || aType == float.class)
+      return 4;
+    if (aType == short.class || aType == char.class)
+      return 2;
+    return 1;
+  }
+
+  /**
+   * The cached reflective layout of a class.
+   */
+  private static final class Layout
+  {
+    private final long m_nShallowSize;
+    private final List <Field> m_aRefFields = new ArrayList <> ();
+
+    Layout (@Nonnull final Class <?> aClass)
+    {
+      long nSize = OBJECT_HEADER;
+      for (Class <?> aCur = aClass; aCur != null && aCur != Object.class; aCur = aCur.getSuperclass ())
+        for (final Field aField : aCur.getDeclaredFields ())
+          if (!Modifier.isStatic (aField.getModifiers ()))
+          {
+            if (aField.getType ().isPrimitive ())
+              nSize += _primitiveSize (aField.getType ());
+            else
+            {
+              nSize += REFERENCE;
+              if (aCur.getName ().startsWith (MODEL_PACKAGE_PREFIX))
+              {
+                aField.setAccessible (true);
+                m_aRefFields.add (aField);
+              }
+            }
+          }
+      m_nShallowSize = _align (nSize);
+    }
+  }
+
+  /**
+   * @return The estimated size of the collection or map itself, without the
+   *         contained elements.
+   */
+  private static long _containerSize (@Nonnull final Object aContainer, @Nonnegative final int nSize)
+  {
+    if (aContainer instanceof ArrayList <?>)
+      return 24 + _align (ARRAY_HEADER + (long) REFERENCE * nSize);
+    if (aContainer instanceof LinkedList <?>)
+      return 32 + 24L * nSize;
+    if (aContainer instanceof TreeMap <?, ?> || aContainer instanceof TreeSet <?>)
+      return 48 + 40L * nSize + (aContainer instanceof TreeSet <?> ? 16 : 0);
+    if (aContainer instanceof HashMap <?, ?> || aContainer instanceof HashSet <?>)
+    {
+      int nCapacity = 16;
+      while (nCapacity * 3 < nSize * 4)
+        nCapacity <<= 1;
+      final boolean bLinked = aContainer instanceof LinkedHashMap <?, ?> || aContainer instanceof LinkedHashSet <?>;
+      return (bLinked ? 56 : 48) +
+             _align (ARRAY_HEADER + (long) REFERENCE * nCapacity) +
+             (bLinked ? 40L : 32L) * nSize +
+             (aContainer instanceof HashSet <?> ? 16 : 0);
+    }
+    // Wrappers, empty collections etc.
+    return 16 + 16L * nSize;
+  }
+
+  @NotThreadSafe
+  private static final class Walker
+  {
+    private final Set <Object> m_aVisited = Collections.newSetFromMap (new IdentityHashMap <> ());
+    private final Map <Class <?>, Layout> m_aLayouts = new HashMap <> ();
+    private final Map <Class <?>, int []> m_aCounts = new HashMap <> ();
+    private final Map <Class <?>, long []> m_aBytes = new HashMap <> ();
+    // Pairs of object and owning model element type
+    private final Deque <Object []> m_aStack = new ArrayDeque <> ();
+
+    private void _push (@Nullable final Object aObject, @Nullable final Class <?> aOwner)
+    {
+      if (aObject != null && m_aVisited.add (aObject))
+        m_aStack.push (new Object [] { aObject, aOwner });
+    }
+
+    private void _add (@Nullable final Class <?> aOwner, final long nBytes)
+    {
+      if (aOwner != null)
+        m_aBytes.computeIfAbsent (aOwner, k -> new long [1])[0] += nBytes;
+    }
+
+    void walk (@Nonnull final Object aRoot)
+    {
+      _push (aRoot, null);
+      while (!m_aStack.isEmpty ())
+      {
+        final Object [] aPair = m_aStack.pop ();
+        final Object aObject = aPair[0];
+        Class <?> aOwner = (Class <?>) aPair[1];
+        final Class <?> aClass = aObject.getClass ();
+
+        if (aObject instanceof Enum <?> || SHARED_CLASS_NAMES.contains (aClass.getName ()))
+        {
+          // Enum constants and the shared metadata are not part of the model
+        }
+        else
+          if (aObject instanceof String)
+            _add (aOwner, 24 + _align (ARRAY_HEADER + ((String) aObject).length ()));
+        else
+          if (aClass.isArray ())
+          {
+            final int nLength = Array.getLength (aObject);
+            final Class <?> aComponentType = aClass.getComponentType ();
+            if (aComponentType.isPrimitive ())
+              _add (aOwner, _align (ARRAY_HEADER + (long) _primitiveSize (aComponentType) * nLength));
+            else
+            {
+              _add (aOwner, _align (ARRAY_HEADER + (long) REFERENCE * nLength));
+              for (final Object aElement : (Object []) aObject)
+                _push (aElement, aOwner);
+            }
+          }
+          else
+            if (aObject instanceof Collection <?>)
+            {
+              final Collection <?> aCollection = (Collection <?>) aObject;
+              _add (aOwner, _containerSize (aObject, aCollection.size ()));
+              for (final Object aElement : aCollection)
+                _push (aElement, aOwner);
+            }
+            else
+              if (aObject instanceof Map <?, ?>)
+              {
+                final Map <?, ?> aMap = (Map <?, ?>) aObject;
+                _add (aOwner, _containerSize (aObject, aMap.size ()));
+                for (final Map.Entry <?, ?> aEntry : aMap.entrySet ())
+                {
+                  _push (aEntry.getKey (), aOwner);
+                  _push (aEntry.getValue (), aOwner);
+                }
+              }
+              else
+                if (aClass.getName ().startsWith (MODEL_PACKAGE_PREFIX) && !aClass.isSynthetic ())
+                {
+                  final Layout aLayout = m_aLayouts.computeIfAbsent (aClass, Layout::new);
+                  if (!aClass.getName ().startsWith (UTIL_PACKAGE_PREFIX))
+                  {
+                    // A model element on its own
+                    aOwner = aClass;
+                    m_aCounts.computeIfAbsent (aClass, k -> new int [1])[0]++;
+                  }
+                  _add (aOwner, aLayout.m_nShallowSize);
+                  for (final Field aField : aLayout.m_aRefFields)
+                  {
+                    try
+                    {
+                      _push (aField.get (aObject), aOwner);
+                    }
+                    catch (final IllegalAccessException ex)
+                    {
+                      throw new IllegalStateException ("Failed to access " + aField, ex);
+                    }
+                  }
+                }
+        // else: objects shared with the rest of the application
+      }
+    }
+
+    @Nonnull
+    Map <Class <?>, Entry> getEntries ()
+    {
+      final List <Class <?>> aClasses = new ArrayList <> (m_aCounts.keySet ());
+      aClasses.sort ( (a, b) -> {
+        final int ret = Long.compare (m_aBytes.get (b)[0], m_aBytes.get (a)[0]);
+        return ret != 0 ? ret : a.getName ().compareTo (b.getName ());
+      });
+      final Map <Class <?>, Entry> ret = new LinkedHashMap <> ();
+      for (final Class <?> aClass : aClasses)
+        ret.put (aClass, new Entry (m_aCounts.get (aClass)[0], m_aBytes.get (aClass)[0]));
+      return ret;
+    }
+  }
+
+  /**
+   * Estimate the memory footprint of all model elements reachable from the
+   * provided root object.
+   *
+   * @param aRoot
+   *        The root object, e.g. a {@link com.helger.jcodemodel.JCodeModel}. May
+   *        not be <code>null</code>.
+   * @return The estimated footprint. Never <code>null</code>.
+   */
+  @Nonnull
+  public static JCMemoryFootprint estimate (@Nonnull final Object aRoot)
+  {
+    JCValueEnforcer.notNull (aRoot, "Root");
+    final Walker aWalker = new Walker ();
+    aWalker.walk (aRoot);
+    return new JCMemoryFootprint (aWalker.getEntries ());
+  }
+}
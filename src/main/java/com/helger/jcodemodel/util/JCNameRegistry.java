@@ -0,0 +1,419 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A compact registry of named elements (e.g. the classes of a package). It is
+ * an open addressing hash table storing only the lookup key and the element
+ * per slot, so it needs considerably less memory than a {@link java.util.Map}
+ * that allocates an entry object per element. The elements are sorted by
+ * their name only when the sorted view is requested and the result is cached
+ * until the next modification.
+ * <p>
+ * If case folding is enabled, two names differing only in case are considered
+ * conflicting, and the upper case lookup key is computed only once per
+ * element.
+ *
+ * @author Philip Helger
+ * @param <ELEMENTTYPE>
+ *        The element type
+ * @since 3.0.3
+ */
+@NotThreadSafe
+public final class JCNameRegistry <ELEMENTTYPE> implements Serializable
+{
+  private static final long serialVersionUID = 1L;
+
+  private static final int DEFAULT_CAPACITY = 8;
+
+  private final Function <? super ELEMENTTYPE, String> m_aNameExtractor;
+  private final BooleanSupplier m_aFoldCase;
+  // Evaluated on construction and after deserialization
+  private transient boolean m_bFoldCase;
+
+  /** The lookup keys - the name or the upper case name if case folding */
+  private transient String [] m_aKeys;
+  /** <code>true</code> if the keys need to be rebuilt after deserialization */
+  private transient boolean m_bRebuildKeys;
+  private Object [] m_aElements;
+  private int m_nSize;
+
+  /** The cached sorted view. <code>null</code> if invalidated. */
+  private transient List <ELEMENTTYPE> m_aSorted;
+
+  /**
+   * Constructor
+   *
+   * @param aNameExtractor
+   *        The function to extract the name of an element. May not be
+   *        <code>null</code>. The name of an element may not change while it
+   *        is contained. To be able to serialize the registry, the function
+   *        must be serializable as well.
+   * @param bFoldCase
+   *        <code>true</code> if names differing only in case should be
+   *        considered as conflicting.
+   */
+  public JCNameRegistry (@Nonnull final Function <? super ELEMENTTYPE, String> aNameExtractor, final boolean bFoldCase)
+  {
+    this (aNameExtractor, (BooleanSupplier & Serializable) () -> bFoldCase);
+  }
+
+  /**
+   * Constructor with a case folding policy that is evaluated again when the
+   * registry is deserialized, e.g. because it depends on the file system.
+   *
+   * @param aNameExtractor
+   *        The function to extract the name of an element. May not be
+   *        <code>null</code>. The name of an element may not change while it
+   *        is contained. To be able to serialize the registry, the function
+   *        must be serializable as well.
+   * @param aFoldCase
+   *        Returns <code>true</code> if names differing only in case should be
+   *        considered as conflicting. May not be <code>null</code>. To be able
+   *        to serialize the registry, it must be serializable as well.
+   */
+  public JCNameRegistry (@Nonnull final Function <? super ELEMENTTYPE, String> aNameExtractor,
+                         @Nonnull final BooleanSupplier aFoldCase)
+  {
+    m_aNameExtractor = JCValueEnforcer.notNull (aNameExtractor, "NameExtractor");
+    m_aFoldCase = JCValueEnforcer.notNull (aFoldCase, "FoldCase");
+    m_bFoldCase = aFoldCase.getAsBoolean ();
+  }
+
+  /**
+   * @return <code>true</code> if names differing only in case are considered
+   *         as conflicting.
+   */
+  public boolean isFoldCase ()
+  {
+    return m_bFoldCase;
+  }
+
+  @Nonnull
+  private String _getKey (@Nonnull final String sName)
+  {
+    return m_bFoldCase ? sName.toUpperCase (Locale.US) : sName;
+  }
+
+  private static int _getSlot (@Nonnull final String sKey, final int nMask)
+  {
+    // Spread the bits, as the table size is a power of 2
+    final int h = sKey.hashCode ();
+    return (h ^ (h >>> 16)) & nMask;
+  }
+
+  /**
+   * @return The slot of the key or the negative (empty slot + 1) if not found
+   */
+  private int _findSlot (@Nonnull final String sKey)
+  {
+    if (m_bRebuildKeys)
+      _rebuildKeys ();
+    if (m_aKeys == null)
+      return -1;
+    final int nMask = m_aKeys.length - 1;
+    int nSlot = _getSlot (sKey, nMask);
+    while (true)
+    {
+      final String sSlotKey = m_aKeys[nSlot];
+      if (sSlotKey == null)
+        return -nSlot - 1;
+      if (sSlotKey.equals (sKey))
+        return nSlot;
+      nSlot = (nSlot + 1) & nMask;
+    }
+  }
+
+  @SuppressWarnings ("unchecked")
+  @Nullable
+  private ELEMENTTYPE _getElement (final int nSlot)
+  {
+    return nSlot < 0 ? null : (ELEMENTTYPE) m_aElements[nSlot];
+  }
+
+  /**
+   * @return The number of contained elements.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    return m_nSize;
+  }
+
+  /**
+   * @return <code>true</code> if no element is contained.
+   */
+  public boolean isEmpty ()
+  {
+    return m_nSize == 0;
+  }
+
+  /**
+   * Get the element with exactly the provided name.
+   *
+   * @param sName
+   *        The name to search. May be <code>null</code>.
+   * @return <code>null</code> if no such element is contained.
+   */
+  @Nullable
+  public ELEMENTTYPE get (@Nullable final String sName)
+  {
+    if (sName == null)
+      return null;
+    final ELEMENTTYPE ret = _getElement (_findSlot (_getKey (sName)));
+    // If the key is case folded, the name may differ
+    if (ret == null || (m_bFoldCase && !sName.equals (m_aNameExtractor.apply (ret))))
+      return null;
+    return ret;
+  }
+
+  /**
+   * @param sName
+   *        The name to search. May be <code>null</code>.
+   * @return <code>true</code> if an element with exactly the provided name is
+   *         contained.
+   */
+  public boolean containsName (@Nullable final String sName)
+  {
+    return get (sName) != null;
+  }
+
+  /**
+   * Get the element which conflicts with the provided name. That is the
+   * element with the same name, or, if case folding is enabled, the element
+   * with the same name ignoring the case.
+   *
+   * @param sName
+   *        The name to search. May be <code>null</code>.
+   * @return <code>null</code> if no conflicting element is contained.
+   */
+  @Nullable
+  public ELEMENTTYPE getConflicting (@Nullable final String sName)
+  {
+    if (sName == null)
+      return null;
+    return _getElement (_findSlot (_getKey (sName)));
+  }
+
+  private void _resize (final int nNewCapacity)
+  {
+    final String [] aOldKeys = m_aKeys;
+    final Object [] aOldElements = m_aElements;
+    m_aKeys = new String [nNewCapacity];
+    m_aElements = new Object [nNewCapacity];
+    if (aOldKeys != null)
+    {
+      final int nMask = nNewCapacity - 1;
+      for (int i = 0; i < aOldKeys.length; ++i)
+        if (aOldKeys[i] != null)
+        {
+          int nSlot = _getSlot (aOldKeys[i], nMask);
+          while (m_aKeys[nSlot] != null)
+            nSlot = (nSlot + 1) & nMask;
+          m_aKeys[nSlot] = aOldKeys[i];
+          m_aElements[nSlot] = aOldElements[i];
+        }
+    }
+  }
+
+  @SuppressWarnings ("unchecked")
+  private void _rebuildKeys ()
+  {
+    final Object [] aElements = m_aElements;
+    m_bRebuildKeys = false;
+    m_aElements = null;
+    m_nSize = 0;
+    for (final Object aElement : aElements)
+      if (aElement != null)
+        add ((ELEMENTTYPE) aElement);
+  }
+
+  /**
+   * Add a new element.
+   *
+   * @param aElement
+   *        The element to add. May not be <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If a conflicting element is already contained
+   * @see #getConflicting(String)
+   */
+  public void add (@Nonnull final ELEMENTTYPE aElement)
+  {
+    JCValueEnforcer.notNull (aElement, "Element");
+    if (m_bRebuildKeys)
+      _rebuildKeys ();
+
+    // Keep the load factor at most 2/3
+    if (m_aKeys == null)
+      _resize (DEFAULT_CAPACITY);
+    else
+      if ((m_nSize + 1) * 3 > m_aKeys.length * 2)
+        _resize (m_aKeys.length * 2);
+
+    final String sName = m_aNameExtractor.apply (aElement);
+    final String sKey = _getKey (sName);
+    final int nSlot = _findSlot (sKey);
+    if (nSlot >= 0)
+      throw new IllegalArgumentException ("Another element with name '" + sName + "' is already contained");
+
+    m_aKeys[-nSlot - 1] = sKey;
+    m_aElements[-nSlot - 1] = aElement;
+    m_nSize++;
+    m_aSorted = null;
+  }
+
+  /**
+   * Remove the element with exactly the provided name.
+   *
+   * @param sName
+   *        The name of the element to remove. May be <code>null</code>.
+   * @return The removed element or <code>null</code> if no such element is
+   *         contained.
+   */
+  @Nullable
+  public ELEMENTTYPE remove (@Nullable final String sName)
+  {
+    final ELEMENTTYPE ret = get (sName);
+    if (ret == null)
+      return null;
+
+    // Backward shift deletion, so that no tombstones are needed
+    final int nMask = m_aKeys.length - 1;
+    int nFree = _findSlot (_getKey (sName));
+    int nCur = nFree;
+    while (true)
+    {
+      nCur = (nCur + 1) & nMask;
+      final String sCurKey = m_aKeys[nCur];
+      if (sCurKey == null)
+        break;
+      final int nHome = _getSlot (sCurKey, nMask);
+      // Move the entry if its home slot is not cyclically in (nFree, nCur]
+      if (nFree <= nCur ? (nHome <= nFree || nHome > nCur) : (nHome <= nFree && nHome > nCur))
+      {
+        m_aKeys[nFree] = sCurKey;
+        m_aElements[nFree] = m_aElements[nCur];
+        nFree = nCur;
+      }
+    }
+    m_aKeys[nFree] = null;
+    m_aElements[nFree] = null;
+    m_nSize--;
+    m_aSorted = null;
+    return ret;
+  }
+
+  /**
+   * Get all elements sorted by their name. The sorting happens only once after
+   * each modification.
+   *
+   * @return A non-<code>null</code> unmodifiable list. Changes to this
+   *         registry are not reflected.
+   */
+  @Nonnull
+  public List <ELEMENTTYPE> getSorted ()
+  {
+    List <ELEMENTTYPE> ret = m_aSorted;
+    if (ret == null)
+    {
+      if (m_nSize == 0)
+        ret = Collections.emptyList ();
+      else
+      {
+        @SuppressWarnings ("unchecked")
+        final ELEMENTTYPE [] aArray = (ELEMENTTYPE []) new Object [m_nSize];
+        int nIndex = 0;
+        for (final Object aElement : m_aElements)
+          if (aElement != null)
+          {
+            @SuppressWarnings ("unchecked")
+            final ELEMENTTYPE aTyped = (ELEMENTTYPE) aElement;
+            aArray[nIndex++] = aTyped;
+          }
+        Arrays.sort (aArray, Comparator.comparing (m_aNameExtractor));
+        ret = Collections.unmodifiableList (Arrays.asList (aArray));
+      }
+      m_aSorted = ret;
+    }
+    return ret;
+  }
+
+  private void readObject (@Nonnull final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  {
+    aOIS.defaultReadObject ();
+    // The file system may differ from the one the registry was written on
+    m_bFoldCase = m_aFoldCase.getAsBoolean ();
+    // The names of the elements may not be available before the complete
+    // object graph was read, so the keys are rebuilt afterwards. Names that
+    // conflict only under the new case folding policy are reported while
+    // reading and not on first access.
+    m_bRebuildKeys = m_aElements != null;
+    if (m_bRebuildKeys)
+      aOIS.registerValidation ( () -> {
+        if (m_bRebuildKeys)
+          try
+          {
+            _rebuildKeys ();
+          }
+          catch (final IllegalArgumentException ex)
+          {
+            throw new InvalidObjectException (ex.getMessage ());
+          }
+      }, 0);
+  }
+}
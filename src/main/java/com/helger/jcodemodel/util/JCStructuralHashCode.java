@@ -0,0 +1,182 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.jcodemodel.AbstractJType;
+import com.helger.jcodemodel.IJExpression;
+
+/**
+ * Helper for memoizing structural hash codes of code model nodes (e.g.
+ * expressions). The hash code of a node usually depends on the hash codes of
+ * all its child nodes, so calculating it is linear in the size of the tree.
+ * <br>
+ * Nodes don't know their parents, so the modification of a child cannot
+ * invalidate the hash codes memoized by its parents. Therefore a node only
+ * memoizes its hash code if all the values it is calculated from are stable
+ * (see {@link IJExpression#isHashCodeStable()}). A node that can be modified
+ * itself (like a method invocation getting more arguments) forgets its
+ * memoized hash code on each of its own modifications. Calculating the hash
+ * code of a tree therefore only descends until the closest stable nodes.
+ * <br>
+ * Variables, string literals and field references can only be changed rarely
+ * (e.g. by renaming a variable or a method). To still let their parents
+ * memoize, they are stable and increment a global modification stamp on each
+ * change instead (see {@link #onStableNodeModified()}). A memoized hash code
+ * is only valid for the stamp it was calculated with.
+ * <p>
+ * The usage in an unmodifiable node looks like this:
+ *
+ * <pre>
+ * // 0 if not yet calculated
+ * private transient int m_nHashCode;
+ * private transient long m_nHashCodeStamp;
+ * private transient Boolean m_aHashCodeStable;
+ *
+ * &#064;Override
+ * public boolean isHashCodeStable ()
+ * {
+ *   if (m_aHashCodeStable == null)
+ *     m_aHashCodeStable = Boolean.valueOf (JCStructuralHashCode.areStable (member1, member2));
+ *   return m_aHashCodeStable.booleanValue ();
+ * }
+ *
+ * &#064;Override
+ * public int hashCode ()
+ * {
+ *   int ret = m_nHashCode;
+ *   final long nStamp = JCStructuralHashCode.getModificationStamp ();
+ *   if (ret == 0 || m_nHashCodeStamp != nStamp)
+ *   {
+ *     ret = getHashCode (this, member1, member2);
+ *     if (isHashCodeStable ())
+ *     {
+ *       m_nHashCode = ret;
+ *       m_nHashCodeStamp = nStamp;
+ *     }
+ *   }
+ *   return ret;
+ * }
+ * </pre>
+ *
+ * @author Philip Helger
+ * @since 3.0.3
+ */
+@Immutable
+public final class JCStructuralHashCode
+{
+  private static final AtomicLong s_aModificationStamp = new AtomicLong ();
+
+  private JCStructuralHashCode ()
+  {}
+
+  /**
+   * @return The current modification stamp. Memoized hash codes calculated
+   *         with a different stamp must be calculated again.
+   */
+  public static long getModificationStamp ()
+  {
+    return s_aModificationStamp.get ();
+  }
+
+  /**
+   * Must be called whenever a node modifies a value that its hash code is
+   * calculated from, although the node claims to be stable. This invalidates
+   * all memoized hash codes, so it should only be called for rare
+   * modifications like renames.
+   */
+  public static void onStableNodeModified ()
+  {
+    s_aModificationStamp.incrementAndGet ();
+  }
+
+  /**
+   * Check if the hash code of the passed value can never change.
+   * <code>null</code>, strings, booleans and types are stable. Expressions
+   * decide themselves.
+   *
+   * @param aValue
+   *        The value to check. May be <code>null</code>.
+   * @return <code>true</code> if the hash code of the value is stable.
+   */
+  public static boolean isStable (@Nullable final Object aValue)
+  {
+    if (aValue == null || aValue instanceof String || aValue instanceof Boolean || aValue instanceof AbstractJType)
+      return true;
+    return aValue instanceof IJExpression && ((IJExpression) aValue).isHashCodeStable ();
+  }
+
+  /**
+   * @param aValues
+   *        The values to check. May be <code>null</code>.
+   * @return <code>true</code> if the hash codes of all passed values are
+   *         stable.
+   * @see #isStable(Object)
+   */
+  public static boolean areStable (@Nullable final Object... aValues)
+  {
+    if (aValues != null)
+      for (final Object aValue : aValues)
+        if (!isStable (aValue))
+          return false;
+    return true;
+  }
+
+  /**
+   * @param aValues
+   *        The values to check. May be <code>null</code>.
+   * @return <code>true</code> if the hash codes of all passed values are
+   *         stable.
+   * @see #isStable(Object)
+   */
+  public static boolean areAllStable (@Nullable final Iterable <?> aValues)
+  {
+    if (aValues != null)
+      for (final Object aValue : aValues)
+        if (!isStable (aValue))
+          return false;
+    return true;
+  }
+}
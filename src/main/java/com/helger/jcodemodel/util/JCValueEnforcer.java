@@ -55,22 +55,51 @@ import javax.annotation.concurrent.Immutable;
 @Immutable
 public final class JCValueEnforcer
 {
+  /**
+   * Name of the system property that permanently disables all checks if it is
+   * set to <code>true</code> when this class is loaded. As this is evaluated
+   * only once, the JIT compiler can remove the checks completely.
+   *
+   * @since 3.0.3
+   */
+  public static final String SYSTEM_PROPERTY_DISABLED = "com.helger.jcodemodel.util.JCValueEnforcer.disabled";
+
+  /**
+   * <code>false</code> if the checks are disabled via
+   * {@link #SYSTEM_PROPERTY_DISABLED}. Must be static final.
+   */
+  private static final boolean CHECKS_AVAILABLE = !_isDisabledBySystemProperty ();
+
   private static final AtomicBoolean s_aEnabled = new AtomicBoolean (true);
 
   private JCValueEnforcer ()
   {}
 
+  private static boolean _isDisabledBySystemProperty ()
+  {
+    try
+    {
+      return Boolean.getBoolean (SYSTEM_PROPERTY_DISABLED);
+    }
+    catch (final Exception ex)
+    {
+      // E.g. SecurityException
+      return false;
+    }
+  }
+
   /**
    * @return <code>true</code> if the assertions are enabled, <code>false</code>
    *         otherwise. By default the checks are enabled.
    */
   public static boolean isEnabled ()
   {
-    return s_aEnabled.get ();
+    return CHECKS_AVAILABLE && s_aEnabled.get ();
   }
 
   /**
-   * Enable or disable the checks. By default checks are enabled.
+   * Enable or disable the checks. By default checks are enabled. This has no
+   * effect if the checks are disabled via {@link #SYSTEM_PROPERTY_DISABLED}.
    *
    * @param bEnabled
    *        <code>true</code> to enable it, <code>false</code> otherwise.
@@ -92,7 +121,8 @@ public final class JCValueEnforcer
    */
   public static void isTrue (final boolean bValue, final String sMsg)
   {
-    isTrue (bValue, () -> sMsg);
+    if (isEnabled ())
+      isTrue (bValue, () -> sMsg);
   }
 
   /**
@@ -124,7 +154,8 @@ public final class JCValueEnforcer
    */
   public static void isFalse (final boolean bValue, final String sMsg)
   {
-    isFalse (bValue, () -> sMsg);
+    if (isEnabled ())
+      isFalse (bValue, () -> sMsg);
   }
 
   /**
@@ -163,7 +194,8 @@ public final class JCValueEnforcer
                                        @Nonnull final Class <? extends T> aClass,
                                        final String sMsg)
   {
-    isInstanceOf (aValue, aClass, () -> sMsg);
+    if (isEnabled ())
+      isInstanceOf (aValue, aClass, () -> sMsg);
   }
 
   /**
@@ -249,7 +281,8 @@ public final class JCValueEnforcer
    */
   public static void isNull (final Object aValue, final String sName)
   {
-    isNull (aValue, () -> sName);
+    if (isEnabled ())
+      isNull (aValue, () -> sName);
   }
 
   /**
@@ -284,7 +317,9 @@ public final class JCValueEnforcer
    */
   public static <T extends CharSequence> T notEmpty (final T aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -324,7 +359,9 @@ public final class JCValueEnforcer
    */
   public static <T> T [] notEmpty (final T [] aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -362,7 +399,9 @@ public final class JCValueEnforcer
    */
   public static boolean [] notEmpty (final boolean [] aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -398,7 +437,9 @@ public final class JCValueEnforcer
    */
   public static byte [] notEmpty (final byte [] aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -434,7 +475,9 @@ public final class JCValueEnforcer
    */
   public static char [] notEmpty (final char [] aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -470,7 +513,9 @@ public final class JCValueEnforcer
    */
   public static double [] notEmpty (final double [] aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -506,7 +551,9 @@ public final class JCValueEnforcer
    */
   public static float [] notEmpty (final float [] aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -542,7 +589,9 @@ public final class JCValueEnforcer
    */
   public static int [] notEmpty (final int [] aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -578,7 +627,9 @@ public final class JCValueEnforcer
    */
   public static long [] notEmpty (final long [] aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -614,7 +665,9 @@ public final class JCValueEnforcer
    */
   public static short [] notEmpty (final short [] aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -653,7 +706,9 @@ public final class JCValueEnforcer
    */
   public static <T extends Collection <?>> T notEmpty (final T aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -695,7 +750,9 @@ public final class JCValueEnforcer
    */
   public static <T extends Iterable <?>> T notEmpty (final T aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -736,7 +793,9 @@ public final class JCValueEnforcer
    */
   public static <T extends Map <?, ?>> T notEmpty (final T aValue, final String sName)
   {
-    return notEmpty (aValue, () -> sName);
+    if (isEnabled ())
+      notEmpty (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -779,7 +838,9 @@ public final class JCValueEnforcer
   @Nullable
   public static <T> T [] noNullValue (final T [] aValue, final String sName)
   {
-    return noNullValue (aValue, () -> sName);
+    if (isEnabled ())
+      noNullValue (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -832,7 +893,9 @@ public final class JCValueEnforcer
   @Nullable
   public static <T extends Iterable <?>> T noNullValue (final T aValue, final String sName)
   {
-    return noNullValue (aValue, () -> sName);
+    if (isEnabled ())
+      noNullValue (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -890,7 +953,9 @@ public final class JCValueEnforcer
   @Nullable
   public static <T extends Map <?, ?>> T noNullValue (final T aValue, final String sName)
   {
-    return noNullValue (aValue, () -> sName);
+    if (isEnabled ())
+      noNullValue (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -942,7 +1007,9 @@ public final class JCValueEnforcer
    */
   public static <T> T [] notNullNoNullValue (final T [] aValue, final String sName)
   {
-    return notNullNoNullValue (aValue, () -> sName);
+    if (isEnabled ())
+      notNullNoNullValue (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -984,7 +1051,9 @@ public final class JCValueEnforcer
    */
   public static <T extends Iterable <?>> T notNullNoNullValue (final T aValue, final String sName)
   {
-    return notNullNoNullValue (aValue, () -> sName);
+    if (isEnabled ())
+      notNullNoNullValue (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -1027,7 +1096,9 @@ public final class JCValueEnforcer
    */
   public static <T extends Map <?, ?>> T notNullNoNullValue (final T aValue, final String sName)
   {
-    return notNullNoNullValue (aValue, () -> sName);
+    if (isEnabled ())
+      notNullNoNullValue (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -1070,7 +1141,9 @@ public final class JCValueEnforcer
    */
   public static <T> T [] notEmptyNoNullValue (final T [] aValue, final String sName)
   {
-    return notEmptyNoNullValue (aValue, () -> sName);
+    if (isEnabled ())
+      notEmptyNoNullValue (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -1112,7 +1185,9 @@ public final class JCValueEnforcer
    */
   public static <T extends Iterable <?>> T notEmptyNoNullValue (final T aValue, final String sName)
   {
-    return notEmptyNoNullValue (aValue, () -> sName);
+    if (isEnabled ())
+      notEmptyNoNullValue (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -1155,7 +1230,9 @@ public final class JCValueEnforcer
    */
   public static <T extends Map <?, ?>> T notEmptyNoNullValue (final T aValue, final String sName)
   {
-    return notEmptyNoNullValue (aValue, () -> sName);
+    if (isEnabled ())
+      notEmptyNoNullValue (aValue, () -> sName);
+    return aValue;
   }
 
   /**
@@ -1198,7 +1275,9 @@ public final class JCValueEnforcer
    */
   public static <T> T notNullNotEquals (final T aValue, final String sName, @Nonnull final T aUnexpectedValue)
   {
-    return notNullNotEquals (aValue, () -> sName, aUnexpectedValue);
+    if (isEnabled ())
+      notNullNotEquals (aValue, () -> sName, aUnexpectedValue);
+    return aValue;
   }
 
   /**
@@ -1250,7 +1329,9 @@ public final class JCValueEnforcer
    */
   public static <T> T notNullAndEquals (final T aValue, final String sName, @Nonnull final T aExpectedValue)
   {
-    return notNullAndEquals (aValue, () -> sName, aExpectedValue);
+    if (isEnabled ())
+      notNullAndEquals (aValue, () -> sName, aExpectedValue);
+    return aValue;
   }
 
   /**
@@ -1304,7 +1385,9 @@ public final class JCValueEnforcer
    */
   public static <T> T isSame (final T aValue, final String sName, @Nullable final T aExpectedValue)
   {
-    return isSame (aValue, () -> sName, aExpectedValue);
+    if (isEnabled ())
+      isSame (aValue, () -> sName, aExpectedValue);
+    return aValue;
   }
 
   /**
@@ -1358,7 +1441,9 @@ public final class JCValueEnforcer
    */
   public static <T> T isEqual (final T aValue, @Nullable final T aExpectedValue, final String sName)
   {
-    return isSame (aValue, () -> sName, aExpectedValue);
+    if (isEnabled ())
+      isSame (aValue, () -> sName, aExpectedValue);
+    return aValue;
   }
 
   /**
@@ -1408,7 +1493,8 @@ public final class JCValueEnforcer
    */
   public static void isEqual (final int nValue, final int nExpectedValue, final String sName)
   {
-    isEqual (nValue, nExpectedValue, () -> sName);
+    if (isEnabled ())
+      isEqual (nValue, nExpectedValue, () -> sName);
   }
 
   /**
@@ -1453,7 +1539,8 @@ public final class JCValueEnforcer
    */
   public static void isEqual (final long nValue, final long nExpectedValue, final String sName)
   {
-    isEqual (nValue, nExpectedValue, () -> sName);
+    if (isEnabled ())
+      isEqual (nValue, nExpectedValue, () -> sName);
   }
 
   /**
@@ -1498,7 +1585,8 @@ public final class JCValueEnforcer
    */
   public static void isEqual (final double dValue, final double dExpectedValue, final String sName)
   {
-    isEqual (dValue, dExpectedValue, () -> sName);
+    if (isEnabled ())
+      isEqual (dValue, dExpectedValue, () -> sName);
   }
 
   /**
@@ -1530,7 +1618,9 @@ public final class JCValueEnforcer
 
   public static int isGE0 (final int nValue, final String sName)
   {
-    return isGE0 (nValue, () -> sName);
+    if (isEnabled ())
+      isGE0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static int isGE0 (final int nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1546,7 +1636,9 @@ public final class JCValueEnforcer
 
   public static long isGE0 (final long nValue, final String sName)
   {
-    return isGE0 (nValue, () -> sName);
+    if (isEnabled ())
+      isGE0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static long isGE0 (final long nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1562,7 +1654,9 @@ public final class JCValueEnforcer
 
   public static short isGE0 (final short nValue, final String sName)
   {
-    return isGE0 (nValue, () -> sName);
+    if (isEnabled ())
+      isGE0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static short isGE0 (final short nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1578,7 +1672,9 @@ public final class JCValueEnforcer
 
   public static double isGE0 (final double dValue, final String sName)
   {
-    return isGE0 (dValue, () -> sName);
+    if (isEnabled ())
+      isGE0 (dValue, () -> sName);
+    return dValue;
   }
 
   public static double isGE0 (final double dValue, @Nonnull final Supplier <? extends String> aName)
@@ -1594,7 +1690,9 @@ public final class JCValueEnforcer
 
   public static float isGE0 (final float fValue, final String sName)
   {
-    return isGE0 (fValue, () -> sName);
+    if (isEnabled ())
+      isGE0 (fValue, () -> sName);
+    return fValue;
   }
 
   public static float isGE0 (final float fValue, @Nonnull final Supplier <? extends String> aName)
@@ -1610,7 +1708,9 @@ public final class JCValueEnforcer
 
   public static BigDecimal isGE0 (final BigDecimal aValue, final String sName)
   {
-    return isGE0 (aValue, () -> sName);
+    if (isEnabled ())
+      isGE0 (aValue, () -> sName);
+    return aValue;
   }
 
   public static BigDecimal isGE0 (final BigDecimal aValue, @Nonnull final Supplier <? extends String> aName)
@@ -1627,7 +1727,9 @@ public final class JCValueEnforcer
 
   public static BigInteger isGE0 (final BigInteger aValue, final String sName)
   {
-    return isGE0 (aValue, () -> sName);
+    if (isEnabled ())
+      isGE0 (aValue, () -> sName);
+    return aValue;
   }
 
   public static BigInteger isGE0 (final BigInteger aValue, @Nonnull final Supplier <? extends String> aName)
@@ -1644,7 +1746,9 @@ public final class JCValueEnforcer
 
   public static int isGT0 (final int nValue, final String sName)
   {
-    return isGT0 (nValue, () -> sName);
+    if (isEnabled ())
+      isGT0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static int isGT0 (final int nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1660,7 +1764,9 @@ public final class JCValueEnforcer
 
   public static long isGT0 (final long nValue, final String sName)
   {
-    return isGT0 (nValue, () -> sName);
+    if (isEnabled ())
+      isGT0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static long isGT0 (final long nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1676,7 +1782,9 @@ public final class JCValueEnforcer
 
   public static short isGT0 (final short nValue, final String sName)
   {
-    return isGT0 (nValue, () -> sName);
+    if (isEnabled ())
+      isGT0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static short isGT0 (final short nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1692,7 +1800,9 @@ public final class JCValueEnforcer
 
   public static double isGT0 (final double dValue, final String sName)
   {
-    return isGT0 (dValue, () -> sName);
+    if (isEnabled ())
+      isGT0 (dValue, () -> sName);
+    return dValue;
   }
 
   public static double isGT0 (final double dValue, @Nonnull final Supplier <? extends String> aName)
@@ -1708,7 +1818,9 @@ public final class JCValueEnforcer
 
   public static float isGT0 (final float fValue, final String sName)
   {
-    return isGT0 (fValue, () -> sName);
+    if (isEnabled ())
+      isGT0 (fValue, () -> sName);
+    return fValue;
   }
 
   public static float isGT0 (final float fValue, @Nonnull final Supplier <? extends String> aName)
@@ -1724,7 +1836,9 @@ public final class JCValueEnforcer
 
   public static BigDecimal isGT0 (final BigDecimal aValue, final String sName)
   {
-    return isGT0 (aValue, () -> sName);
+    if (isEnabled ())
+      isGT0 (aValue, () -> sName);
+    return aValue;
   }
 
   public static BigDecimal isGT0 (final BigDecimal aValue, @Nonnull final Supplier <? extends String> aName)
@@ -1741,7 +1855,9 @@ public final class JCValueEnforcer
 
   public static BigInteger isGT0 (final BigInteger aValue, final String sName)
   {
-    return isGT0 (aValue, () -> sName);
+    if (isEnabled ())
+      isGT0 (aValue, () -> sName);
+    return aValue;
   }
 
   public static BigInteger isGT0 (final BigInteger aValue, @Nonnull final Supplier <? extends String> aName)
@@ -1758,7 +1874,9 @@ public final class JCValueEnforcer
 
   public static int isLE0 (final int nValue, final String sName)
   {
-    return isLE0 (nValue, () -> sName);
+    if (isEnabled ())
+      isLE0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static int isLE0 (final int nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1774,7 +1892,9 @@ public final class JCValueEnforcer
 
   public static long isLE0 (final long nValue, final String sName)
   {
-    return isLE0 (nValue, () -> sName);
+    if (isEnabled ())
+      isLE0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static long isLE0 (final long nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1790,7 +1910,9 @@ public final class JCValueEnforcer
 
   public static short isLE0 (final short nValue, final String sName)
   {
-    return isLE0 (nValue, () -> sName);
+    if (isEnabled ())
+      isLE0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static short isLE0 (final short nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1806,7 +1928,9 @@ public final class JCValueEnforcer
 
   public static double isLE0 (final double dValue, final String sName)
   {
-    return isLE0 (dValue, () -> sName);
+    if (isEnabled ())
+      isLE0 (dValue, () -> sName);
+    return dValue;
   }
 
   public static double isLE0 (final double dValue, @Nonnull final Supplier <? extends String> aName)
@@ -1822,7 +1946,9 @@ public final class JCValueEnforcer
 
   public static float isLE0 (final float fValue, final String sName)
   {
-    return isLE0 (fValue, () -> sName);
+    if (isEnabled ())
+      isLE0 (fValue, () -> sName);
+    return fValue;
   }
 
   public static float isLE0 (final float fValue, @Nonnull final Supplier <? extends String> aName)
@@ -1838,7 +1964,9 @@ public final class JCValueEnforcer
 
   public static BigDecimal isLE0 (final BigDecimal aValue, final String sName)
   {
-    return isLE0 (aValue, () -> sName);
+    if (isEnabled ())
+      isLE0 (aValue, () -> sName);
+    return aValue;
   }
 
   public static BigDecimal isLE0 (final BigDecimal aValue, @Nonnull final Supplier <? extends String> aName)
@@ -1855,7 +1983,9 @@ public final class JCValueEnforcer
 
   public static BigInteger isLE0 (final BigInteger aValue, final String sName)
   {
-    return isLE0 (aValue, () -> sName);
+    if (isEnabled ())
+      isLE0 (aValue, () -> sName);
+    return aValue;
   }
 
   public static BigInteger isLE0 (final BigInteger aValue, @Nonnull final Supplier <? extends String> aName)
@@ -1872,7 +2002,9 @@ public final class JCValueEnforcer
 
   public static int isLT0 (final int nValue, final String sName)
   {
-    return isLT0 (nValue, () -> sName);
+    if (isEnabled ())
+      isLT0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static int isLT0 (final int nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1888,7 +2020,9 @@ public final class JCValueEnforcer
 
   public static long isLT0 (final long nValue, final String sName)
   {
-    return isLT0 (nValue, () -> sName);
+    if (isEnabled ())
+      isLT0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static long isLT0 (final long nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1904,7 +2038,9 @@ public final class JCValueEnforcer
 
   public static short isLT0 (final short nValue, final String sName)
   {
-    return isLT0 (nValue, () -> sName);
+    if (isEnabled ())
+      isLT0 (nValue, () -> sName);
+    return nValue;
   }
 
   public static short isLT0 (final short nValue, @Nonnull final Supplier <? extends String> aName)
@@ -1920,7 +2056,9 @@ public final class JCValueEnforcer
 
   public static double isLT0 (final double dValue, final String sName)
   {
-    return isLT0 (dValue, () -> sName);
+    if (isEnabled ())
+      isLT0 (dValue, () -> sName);
+    return dValue;
   }
 
   public static double isLT0 (final double dValue, @Nonnull final Supplier <? extends String> aName)
@@ -1936,7 +2074,9 @@ public final class JCValueEnforcer
 
   public static float isLT0 (final float fValue, final String sName)
   {
-    return isLT0 (fValue, () -> sName);
+    if (isEnabled ())
+      isLT0 (fValue, () -> sName);
+    return fValue;
   }
 
   public static float isLT0 (final float fValue, @Nonnull final Supplier <? extends String> aName)
@@ -1952,7 +2092,9 @@ public final class JCValueEnforcer
 
   public static BigDecimal isLT0 (final BigDecimal aValue, final String sName)
   {
-    return isLT0 (aValue, () -> sName);
+    if (isEnabled ())
+      isLT0 (aValue, () -> sName);
+    return aValue;
   }
 
   public static BigDecimal isLT0 (final BigDecimal aValue, @Nonnull final Supplier <? extends String> aName)
@@ -1969,7 +2111,9 @@ public final class JCValueEnforcer
 
   public static BigInteger isLT0 (final BigInteger aValue, final String sName)
   {
-    return isLT0 (aValue, () -> sName);
+    if (isEnabled ())
+      isLT0 (aValue, () -> sName);
+    return aValue;
   }
 
   public static BigInteger isLT0 (final BigInteger aValue, @Nonnull final Supplier <? extends String> aName)
@@ -2003,7 +2147,9 @@ public final class JCValueEnforcer
                                         final int nLowerBoundInclusive,
                                         final int nUpperBoundInclusive)
   {
-    return isBetweenInclusive (nValue, () -> sName, nLowerBoundInclusive, nUpperBoundInclusive);
+    if (isEnabled ())
+      isBetweenInclusive (nValue, () -> sName, nLowerBoundInclusive, nUpperBoundInclusive);
+    return nValue;
   }
 
   /**
@@ -2057,7 +2203,9 @@ public final class JCValueEnforcer
                                          final long nLowerBoundInclusive,
                                          final long nUpperBoundInclusive)
   {
-    return isBetweenInclusive (nValue, () -> sName, nLowerBoundInclusive, nUpperBoundInclusive);
+    if (isEnabled ())
+      isBetweenInclusive (nValue, () -> sName, nLowerBoundInclusive, nUpperBoundInclusive);
+    return nValue;
   }
 
   /**
@@ -2111,7 +2259,9 @@ public final class JCValueEnforcer
                                           final short nLowerBoundInclusive,
                                           final short nUpperBoundInclusive)
   {
-    return isBetweenInclusive (nValue, () -> sName, nLowerBoundInclusive, nUpperBoundInclusive);
+    if (isEnabled ())
+      isBetweenInclusive (nValue, () -> sName, nLowerBoundInclusive, nUpperBoundInclusive);
+    return nValue;
   }
 
   /**
@@ -2165,7 +2315,9 @@ public final class JCValueEnforcer
                                            final double dLowerBoundInclusive,
                                            final double dUpperBoundInclusive)
   {
-    return isBetweenInclusive (dValue, () -> sName, dLowerBoundInclusive, dUpperBoundInclusive);
+    if (isEnabled ())
+      isBetweenInclusive (dValue, () -> sName, dLowerBoundInclusive, dUpperBoundInclusive);
+    return dValue;
   }
 
   /**
@@ -2219,7 +2371,9 @@ public final class JCValueEnforcer
                                           final float fLowerBoundInclusive,
                                           final float fUpperBoundInclusive)
   {
-    return isBetweenInclusive (fValue, () -> sName, fLowerBoundInclusive, fUpperBoundInclusive);
+    if (isEnabled ())
+      isBetweenInclusive (fValue, () -> sName, fLowerBoundInclusive, fUpperBoundInclusive);
+    return fValue;
   }
 
   /**
@@ -2273,7 +2427,9 @@ public final class JCValueEnforcer
                                                @Nonnull final BigDecimal aLowerBoundInclusive,
                                                @Nonnull final BigDecimal aUpperBoundInclusive)
   {
-    return isBetweenInclusive (aValue, () -> sName, aLowerBoundInclusive, aUpperBoundInclusive);
+    if (isEnabled ())
+      isBetweenInclusive (aValue, () -> sName, aLowerBoundInclusive, aUpperBoundInclusive);
+    return aValue;
   }
 
   /**
@@ -2330,7 +2486,9 @@ public final class JCValueEnforcer
                                                @Nonnull final BigInteger aLowerBoundInclusive,
                                                @Nonnull final BigInteger aUpperBoundInclusive)
   {
-    return isBetweenInclusive (aValue, () -> sName, aLowerBoundInclusive, aUpperBoundInclusive);
+    if (isEnabled ())
+      isBetweenInclusive (aValue, () -> sName, aLowerBoundInclusive, aUpperBoundInclusive);
+    return aValue;
   }
 
   /**
@@ -2387,7 +2545,9 @@ public final class JCValueEnforcer
                                         final int nLowerBoundExclusive,
                                         final int nUpperBoundExclusive)
   {
-    return isBetweenExclusive (nValue, () -> sName, nLowerBoundExclusive, nUpperBoundExclusive);
+    if (isEnabled ())
+      isBetweenExclusive (nValue, () -> sName, nLowerBoundExclusive, nUpperBoundExclusive);
+    return nValue;
   }
 
   /**
@@ -2441,7 +2601,9 @@ public final class JCValueEnforcer
                                          final long nLowerBoundExclusive,
                                          final long nUpperBoundExclusive)
   {
-    return isBetweenExclusive (nValue, () -> sName, nLowerBoundExclusive, nUpperBoundExclusive);
+    if (isEnabled ())
+      isBetweenExclusive (nValue, () -> sName, nLowerBoundExclusive, nUpperBoundExclusive);
+    return nValue;
   }
 
   /**
@@ -2495,7 +2657,9 @@ public final class JCValueEnforcer
                                           final short nLowerBoundExclusive,
                                           final short nUpperBoundExclusive)
   {
-    return isBetweenExclusive (nValue, () -> sName, nLowerBoundExclusive, nUpperBoundExclusive);
+    if (isEnabled ())
+      isBetweenExclusive (nValue, () -> sName, nLowerBoundExclusive, nUpperBoundExclusive);
+    return nValue;
   }
 
   /**
@@ -2549,7 +2713,9 @@ public final class JCValueEnforcer
                                            final double dLowerBoundExclusive,
                                            final double dUpperBoundExclusive)
   {
-    return isBetweenExclusive (dValue, () -> sName, dLowerBoundExclusive, dUpperBoundExclusive);
+    if (isEnabled ())
+      isBetweenExclusive (dValue, () -> sName, dLowerBoundExclusive, dUpperBoundExclusive);
+    return dValue;
   }
 
   /**
@@ -2603,7 +2769,9 @@ public final class JCValueEnforcer
                                           final float fLowerBoundExclusive,
                                           final float fUpperBoundExclusive)
   {
-    return isBetweenExclusive (fValue, () -> sName, fLowerBoundExclusive, fUpperBoundExclusive);
+    if (isEnabled ())
+      isBetweenExclusive (fValue, () -> sName, fLowerBoundExclusive, fUpperBoundExclusive);
+    return fValue;
   }
 
   /**
@@ -2657,7 +2825,9 @@ public final class JCValueEnforcer
                                                @Nonnull final BigDecimal aLowerBoundExclusive,
                                                @Nonnull final BigDecimal aUpperBoundExclusive)
   {
-    return isBetweenExclusive (aValue, () -> sName, aLowerBoundExclusive, aUpperBoundExclusive);
+    if (isEnabled ())
+      isBetweenExclusive (aValue, () -> sName, aLowerBoundExclusive, aUpperBoundExclusive);
+    return aValue;
   }
 
   /**
@@ -2714,7 +2884,9 @@ public final class JCValueEnforcer
                                                @Nonnull final BigInteger aLowerBoundExclusive,
                                                @Nonnull final BigInteger aUpperBoundExclusive)
   {
-    return isBetweenExclusive (aValue, () -> sName, aLowerBoundExclusive, aUpperBoundExclusive);
+    if (isEnabled ())
+      isBetweenExclusive (aValue, () -> sName, aLowerBoundExclusive, aUpperBoundExclusive);
+    return aValue;
   }
 
   /**
@@ -41,6 +41,9 @@
 package com.helger.jcodemodel;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -66,6 +69,20 @@ public final class AnnotationUseFuncTest
     String ns();
   }
 
+  @interface XmlList
+  {
+    String name() default "##default";
+
+    XmlElement [] elements();
+  }
+
+  interface XmlListW extends IJAnnotationWriter <XmlList>
+  {
+    XmlListW name (String s);
+
+    XmlElementW elements ();
+  }
+
   interface XmlElementW extends IJAnnotationWriter <XmlElement>
   {
     XmlElementW value (String s);
@@ -166,4 +183,29 @@ public final class AnnotationUseFuncTest
 
     CodeModelTestsHelper.parseCodeModel (cm);
   }
+
+  @Test
+  public void testTypedAnnotationWriter () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass cls = cm._class ("TypedWriter");
+    for (int i = 0; i < 3; ++i)
+    {
+      final JFieldVar aField = cls.field (JMod.PRIVATE, cm.INT, "f" + i);
+      final XmlListW w = aField.annotate2 (XmlListW.class);
+      // The default value is not written
+      w.name ("##default");
+      w.elements ().value ("a" + i).ns ("b");
+      w.elements ().value ("c" + i);
+
+      assertSame (XmlList.class, w.getAnnotationType ());
+      final JAnnotationUse aUse = w.getAnnotationUse ();
+      assertEquals (1, aUse.getAnnotationMembers ().size ());
+      assertTrue (aUse.getAnnotationMembers ().containsKey ("elements"));
+      assertEquals (w, w);
+      assertNotNull (w.toString ());
+    }
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
 }
+
@@ -41,6 +41,7 @@
 package com.helger.jcodemodel;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -92,4 +93,46 @@ public final class JBlockTest
                   CRLF,
                   CodeModelTestsHelper.toString (aBlock));
   }
+
+  @Test
+  public void testInsertAtPosition ()
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JBlock aBlock = new JBlock ();
+    final JVar aLast = aBlock.decl (cm.INT, "last");
+    aBlock.pos (0);
+    for (int i = 0; i < 1000; ++i)
+      aBlock.decl (cm.INT, "v" + i);
+    assertEquals (1001, aBlock.size ());
+    assertEquals (1000, aBlock.pos ());
+    assertSame (aLast, aBlock.getContents ().get (1000));
+
+    final JVar aFirst = aBlock.decl (cm.INT, "first");
+    aBlock.insertBefore (aFirst, aBlock.getContents ().get (0));
+    assertSame (aFirst, aBlock.getContents ().get (0));
+    assertEquals ("v0", ((JVar) aBlock.getContents ().get (1)).name ());
+    aBlock.remove (aFirst);
+    aBlock.remove (aFirst);
+    assertEquals ("v0", ((JVar) aBlock.getContents ().get (0)).name ());
+    assertEquals ("v999", ((JVar) aBlock.getContents ().get (999)).name ());
+    assertSame (aLast, aBlock.getContents ().get (1000));
+
+    // Inserted before the first equal element, regardless of the position
+    final JBlock aBlock2 = new JBlock ();
+    aBlock2.invoke ("work");
+    aBlock2.invoke ("other");
+    final JInvocation aSecondWork = aBlock2.invoke ("work");
+    final JVar aInserted = aBlock2.decl (cm.INT, "inserted");
+    aBlock2.insertBefore (aInserted, aSecondWork);
+    assertSame (aInserted, aBlock2.getContents ().get (0));
+  }
+
+  @Test (expected = IndexOutOfBoundsException.class)
+  public void testInsertBeforeMissing ()
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JBlock aBlock = new JBlock ();
+    aBlock.invoke ("work");
+    aBlock.insertBefore (new JVar (JMods.forVar (0), cm.INT, "v", null), new JBlock ());
+  }
 }
@@ -0,0 +1,99 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.helger.jcodemodel.util.CodeModelTestsHelper;
+
+/**
+ * Test class for class {@link JCanonicalExprFactory}.
+ *
+ * @author Philip Helger
+ */
+public final class JCanonicalExprFactoryTest
+{
+  @Test
+  public void testLiterals ()
+  {
+    final JCanonicalExprFactory f = new JCodeModel ().canonicalExpr ();
+    assertSame (f.lit (0), f.lit (0));
+    assertNotSame (f.lit (0), f.lit (1));
+    assertSame (f.lit (5L), f.lit (5L));
+    assertSame (f.lit ("abc"), f.lit (new String ("abc")));
+    assertSame (f.lit ('x'), f.lit ('x'));
+    assertNotSame (f.lit (0.0), f.lit (-0.0));
+    assertSame (JExpr._null (), f._null ());
+    assertEquals ("-0.0", CodeModelTestsHelper.toString (f.lit (-0.0)));
+  }
+
+  @Test
+  public void testOperators () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JCanonicalExprFactory f = cm.canonicalExpr ();
+    final JDefinedClass c = cm._class ("Canonical");
+    final JFieldVar aField = c.field (JMod.PRIVATE, String.class, "name");
+    final JFieldVar aOther = c.field (JMod.PRIVATE, String.class, "other");
+
+    final IJExpression aIsNull = f.eq (f.refthis (aField), f._null ());
+    assertSame (aIsNull, f.eq (f.refthis (aField), f._null ()));
+    assertNotSame (aIsNull, f.eq (f.refthis (aOther), f._null ()));
+    assertNotSame (aIsNull, f.eq (f.ref (aField), f._null ()));
+    assertSame (f.plus (f.lit (1), f.lit (2)), f.plus (f.lit (1), f.lit (2)));
+    assertSame (f.cond (aIsNull, f.lit (1), f.lit (2)), f.cond (aIsNull, f.lit (1), f.lit (2)));
+
+    // Non-canonical operands are compared by identity
+    assertNotSame (f.plus (JExpr.lit (1), f.lit (2)), f.plus (JExpr.lit (1), f.lit (2)));
+
+    // Simplifications of JOp are kept
+    assertSame (aIsNull, f.cand (JExpr.TRUE, aIsNull));
+
+    assertEquals ("(this.name == null)", CodeModelTestsHelper.toString (aIsNull));
+    final JMethod m = c.method (JMod.PUBLIC, cm.BOOLEAN, "isUnnamed");
+    m.body ()._return (f.cor (aIsNull, f.eq (f.refthis (aOther), f._null ())));
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+}
@@ -0,0 +1,229 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Test;
+
+import com.helger.jcodemodel.fmt.JTextFile;
+import com.helger.jcodemodel.util.CodeModelTestsHelper;
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
+/**
+ * Test class for class {@link JCodeModelMerger}.
+ *
+ * @author Philip Helger
+ */
+public final class JCodeModelMergerTest
+{
+  private static void _populate (@Nonnull final JCodeModel cm, @Nonnull final String sPackage) throws Exception
+  {
+    final JDefinedClass aBase = cm._class (sPackage + ".Base", EClassType.INTERFACE);
+    aBase.method (JMod.NONE, cm.INT, "size");
+
+    final JDefinedClass c = cm._class (sPackage + ".Impl");
+    c._implements (aBase);
+    final JFieldVar aList = c.field (JMod.PRIVATE | JMod.FINAL,
+                                     cm.ref (List.class).narrow (String.class),
+                                     "m_aList",
+                                     JExpr._null ());
+    final JMethod m = c.method (JMod.PUBLIC, cm.INT, "size");
+    m.annotate (Override.class);
+    m.body ()._if (aList.eq (JExpr._null ()))._then ()._return (JExpr.lit (0));
+    m.body ()._return (aList.invoke ("size"));
+    c._class (JMod.STATIC, "Nested").method (JMod.PUBLIC, cm.VOID, "run").body ().add (JExpr.invoke (m));
+    cm._package (sPackage).javadoc ().add ("Package " + sPackage);
+
+    final JTextFile aText = new JTextFile ("info.txt", StandardCharsets.UTF_8);
+    aText.setContents (sPackage);
+    cm._package (sPackage).addResourceFile (aText);
+  }
+
+  @Test
+  public void testMerge () throws Exception
+  {
+    final JCodeModel aExpected = new JCodeModel ();
+    _populate (aExpected, "a");
+    _populate (aExpected, "b");
+
+    final JCodeModel cm1 = new JCodeModel ();
+    _populate (cm1, "a");
+    final JCodeModel cm2 = new JCodeModel ();
+    _populate (cm2, "b");
+
+    final JCodeModel aTarget = new JCodeModel ();
+    JCodeModelMerger.merge (aTarget, cm1, cm2);
+    assertArrayEquals (CodeModelTestsHelper.getAllBytes (aExpected), CodeModelTestsHelper.getAllBytes (aTarget));
+
+    // Everything is rebound to the target model
+    final JDefinedClass c = aTarget._getClass ("b.Impl");
+    assertSame (aTarget, c.owner ());
+    assertSame (aTarget._package ("b"), c.getPackage ());
+    assertSame (aTarget._getClass ("b.Base"), c._implements ().next ());
+    final JMethod m = c.getMethod ("size", new AbstractJType [0]);
+    assertSame (aTarget.INT, m.type ());
+    assertSame (aTarget.ref (Override.class), m.annotations ().iterator ().next ().getAnnotationClass ());
+    assertSame (aTarget.ref (List.class), ((AbstractJClass) c.fields ().get ("m_aList").type ()).erasure ());
+
+    // The merged model can be modified further
+    aTarget._class ("b.Other")._extends (c);
+    assertEquals (3, aTarget._package ("b").classes ().size ());
+  }
+
+  @Test
+  public void testClassConflict () throws Exception
+  {
+    final JCodeModel cm1 = new JCodeModel ();
+    cm1._class ("a.Same");
+    cm1._class ("a.Other");
+    final JCodeModel cm2 = new JCodeModel ();
+    cm2._class ("a.Same");
+
+    final JCodeModel aTarget = new JCodeModel ();
+    try
+    {
+      JCodeModelMerger.merge (aTarget, cm1, cm2);
+      fail ();
+    }
+    catch (final JClassAlreadyExistsException ex)
+    {
+      assertSame (cm1._getClass ("a.Same"), ex.getExistingClass ());
+    }
+    // Nothing was merged
+    assertNull (aTarget._getClass ("a.Other"));
+
+    try
+    {
+      JCodeModelMerger.merge (cm2, cm1);
+      fail ();
+    }
+    catch (final JClassAlreadyExistsException ex)
+    {
+      assertSame (cm2._getClass ("a.Same"), ex.getExistingClass ());
+    }
+  }
+
+  @Test
+  public void testCrossModelReference () throws Exception
+  {
+    final JCodeModel cm1 = new JCodeModel ();
+    final JDefinedClass aBase = cm1._class ("p.A");
+    final JCodeModel cm2 = new JCodeModel ();
+    cm2._class ("p.B")._extends (aBase);
+
+    final JCodeModel aTarget = new JCodeModel ();
+    try
+    {
+      JCodeModelMerger.merge (aTarget, cm1, cm2);
+      fail ();
+    }
+    catch (final UncheckedIOException ex)
+    {
+      // expected
+    }
+    // Nothing was merged
+    assertNull (aTarget._getClass ("p.A"));
+    assertNull (aTarget._getClass ("p.B"));
+
+    // Referencing the class by name works
+    final JCodeModel cm3 = new JCodeModel ();
+    cm3._class ("p.C")._extends (cm3.directClass ("p.A"));
+    JCodeModelMerger.merge (aTarget, cm1, cm3);
+    assertSame (aTarget, aTarget._getClass ("p.A").owner ());
+    assertSame (aTarget, aTarget._getClass ("p.C")._extends ().owner ());
+    assertEquals ("p.A", aTarget._getClass ("p.C")._extends ().fullName ());
+  }
+
+  @Test
+  public void testResourceConflict () throws Exception
+  {
+    final JCodeModel cm1 = new JCodeModel ();
+    cm1._package ("a").addResourceFile (new JTextFile ("x.txt", StandardCharsets.UTF_8));
+    final JCodeModel cm2 = new JCodeModel ();
+    cm2._package ("a").addResourceFile (new JTextFile ("x.txt", StandardCharsets.UTF_8));
+    try
+    {
+      JCodeModelMerger.merge (cm1, cm2);
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testConflictChecksNotDisabled () throws Exception
+  {
+    final JCodeModel cm1 = new JCodeModel ();
+    cm1._package ("a").addResourceFile (new JTextFile ("x.txt", StandardCharsets.UTF_8));
+    final JCodeModel cm2 = new JCodeModel ();
+    cm2._package ("a").addResourceFile (new JTextFile ("x.txt", StandardCharsets.UTF_8));
+    cm2._class ("a.Other");
+
+    JCValueEnforcer.setEnabled (false);
+    try
+    {
+      JCodeModelMerger.merge (cm1, cm2);
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // expected
+    }
+    finally
+    {
+      JCValueEnforcer.setEnabled (true);
+    }
+    assertNull (cm1._getClass ("a.Other"));
+  }
+}
@@ -0,0 +1,286 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Test;
+
+import com.helger.jcodemodel.fmt.JBinaryFile;
+import com.helger.jcodemodel.fmt.JTextFile;
+import com.helger.jcodemodel.util.CodeModelTestsHelper;
+
+/**
+ * Test class for class {@link JCodeModelSnapshot}.
+ *
+ * @author Philip Helger
+ */
+public final class JCodeModelSnapshotTest
+{
+  private static final String CRLF = System.getProperty ("line.separator");
+
+  @Nonnull
+  private static byte [] _write (@Nonnull final JCodeModel cm) throws IOException
+  {
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    JCodeModelSnapshot.write (cm, aBAOS);
+    return aBAOS.toByteArray ();
+  }
+
+  @Nonnull
+  private static JCodeModel _read (@Nonnull final byte [] aBytes) throws IOException
+  {
+    return JCodeModelSnapshot.read (new ByteArrayInputStream (aBytes));
+  }
+
+  @Nonnull
+  private static JCodeModel _createModel () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    cm.setBuildingCharset (StandardCharsets.ISO_8859_1);
+
+    final JDefinedClass aEnum = cm._class ("foo.Color", EClassType.ENUM);
+    aEnum.enumConstant ("RED").arg (JExpr.lit (1));
+    aEnum.enumConstant ("GREEN").arg (JExpr.lit (2));
+    aEnum.field (JMod.PRIVATE | JMod.FINAL, cm.INT, "code");
+    aEnum.javadoc ().add ("A color");
+
+    final JDefinedClass aIntf = cm._class ("foo.Named", EClassType.INTERFACE);
+    aIntf.method (JMod.NONE, String.class, "getName");
+
+    final JDefinedClass c = cm._class ("foo.Impl");
+    final JTypeVar aTV = c.generify ("T", Serializable.class);
+    c._implements (aIntf);
+    c.annotate (Deprecated.class);
+    c.javadoc ().add ("The implementation");
+    final JFieldVar aList = c.field (JMod.PRIVATE | JMod.FINAL,
+                                     cm.ref (List.class).narrow (aTV),
+                                     "m_aList",
+                                     JExpr._new (cm.ref (ArrayList.class).narrow (aTV)));
+    final JFieldVar aName = c.field (JMod.PRIVATE, String.class, "m_sName", JExpr.lit ("a \"quoted\"\nname"));
+    c.init ().assign (aName, JExpr.lit ("init"));
+
+    final JDefinedClass aInner = c._class (JMod.PRIVATE | JMod.STATIC, "Inner");
+    final JMethod aHelper = aInner.method (JMod.STATIC, cm.BOOLEAN, "isSet");
+    aHelper.param (String.class, "s");
+    aHelper.body ()._return (JExpr.ref ("s").ne (JExpr._null ()).cand (JExpr.TRUE));
+
+    final JMethod aGetName = c.method (JMod.PUBLIC, String.class, "getName");
+    aGetName.annotate (Override.class);
+    aGetName.body ()._return (aName);
+
+    final JMethod m = c.method (JMod.PUBLIC, cm.INT, "compute");
+    final JVar aParam = m.param (JMod.FINAL, aEnum, "color");
+    m._throws (IOException.class);
+    final JBlock b = m.body ();
+    final JVar aSum = b.decl (cm.INT, "sum", JExpr.lit (0));
+    final JForLoop aFor = b._for ();
+    final JVar i = aFor.init (cm.INT, "i", JExpr.lit (0));
+    aFor.test (i.lt (JExpr.lit (10)));
+    aFor.update (i.incr ());
+    aFor.body ()._if (aInner.staticInvoke (aHelper).arg (aName))._then ().assignPlus (aSum, i);
+    final JSwitch aSwitch = b._switch (aParam);
+    aSwitch._case (JExpr.enumConstantRef (aEnum, "RED")).body ().assign (aSum, JExpr.lit (-1))._break ();
+    aSwitch._default ().body ()._break ();
+    final JTryBlock aTry = b._try ();
+    aTry.body ().add (aList.invoke ("clear"));
+    aTry._catch (cm.ref (RuntimeException.class)).body ()._throw (JExpr._new (cm.ref (IOException.class)));
+    aTry._finally ().assign (aSum, aSum.plus (JExpr.lit (1)));
+    final JLambda aLambda = new JLambda ();
+    final JLambdaParam aLP = aLambda.addParam ("x");
+    aLambda.body ().lambdaExpr (aLP.invoke ("toString"));
+    b.decl (cm.ref (java.util.function.Function.class).narrow (Object.class, String.class), "f", aLambda);
+    final JDefinedClass aAnon = cm.anonymousClass (Runnable.class);
+    aAnon.method (JMod.PUBLIC, cm.VOID, "run").body ().add (JExpr.invoke (aGetName));
+    b.add (JExpr._new (aAnon).invoke ("run"));
+    b._return (aSum);
+
+    final JTextFile aText = new JTextFile ("readme.txt", StandardCharsets.UTF_8);
+    aText.setContents ("Hello");
+    cm._package ("foo").addResourceFile (aText);
+    final JBinaryFile aBin = new JBinaryFile ("data.bin");
+    aBin.getDataStore ().write (new byte [] { 1, 2, 3 });
+    cm._package ("foo").addResourceFile (aBin);
+    return cm;
+  }
+
+  @Test
+  public void testRoundTrip () throws Exception
+  {
+    final JCodeModel cm = _createModel ();
+    final byte [] aExpected = CodeModelTestsHelper.getAllBytes (cm);
+
+    final JCodeModel aRead = _read (_write (cm));
+    assertNotSame (cm, aRead);
+    assertEquals (StandardCharsets.ISO_8859_1, aRead.getBuildingCharset ());
+    assertArrayEquals (aExpected, CodeModelTestsHelper.getAllBytes (aRead));
+
+    // Referenced classes are still pooled
+    final JDefinedClass c = aRead._getClass ("foo.Impl");
+    assertSame (aRead.ref (Override.class),
+                c.getMethod ("getName", new AbstractJType [0]).annotations ().iterator ().next ().getAnnotationClass ());
+    assertSame (aRead.INT, c.getMethod ("compute", new AbstractJType [] { aRead._getClass ("foo.Color") }).type ());
+
+    // The restored model can be modified
+    c.method (JMod.PUBLIC, aRead.VOID, "added").body ()._if (JExpr.TRUE)._then ()._return ();
+    aRead._class ("bar.Other")._extends (c);
+    final String sOutput = new String (CodeModelTestsHelper.getAllBytes (aRead), CodeModelTestsHelper.DEFAULT_ENCODING);
+    assertTrue (sOutput.contains ("public class Other" + CRLF + "    extends Impl"));
+    assertTrue (sOutput.contains ("public void added() {"));
+  }
+
+  @Test
+  public void testPlainSerialization () throws Exception
+  {
+    final JCodeModel cm = _createModel ();
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    try (final ObjectOutputStream aOOS = new ObjectOutputStream (aBAOS))
+    {
+      aOOS.writeObject (cm);
+    }
+    try (final ObjectInputStream aOIS = new ObjectInputStream (new ByteArrayInputStream (aBAOS.toByteArray ())))
+    {
+      final JCodeModel aRead = (JCodeModel) aOIS.readObject ();
+      assertArrayEquals (CodeModelTestsHelper.getAllBytes (cm), CodeModelTestsHelper.getAllBytes (aRead));
+    }
+  }
+
+  @Test
+  public void testDeepReferenceChain () throws Exception
+  {
+    // Each method calls the method of the next class
+    final JCodeModel cm = new JCodeModel ();
+    final int nCount = 5000;
+    JMethod aNext = null;
+    for (int i = nCount - 1; i >= 0; --i)
+    {
+      final JMethod m = cm._class ("chain.C" + i).method (JMod.PUBLIC | JMod.STATIC, cm.INT, "get");
+      m.body ()._return (aNext == null ? JExpr.lit (i) : JExpr.invoke (aNext).plus (JExpr.lit (1)));
+      aNext = m;
+    }
+    final JCodeModel aRead = _read (_write (cm));
+    assertEquals (nCount, aRead._package ("chain").classes ().size ());
+    assertArrayEquals (CodeModelTestsHelper.getAllBytes (cm), CodeModelTestsHelper.getAllBytes (aRead));
+  }
+
+  @Test
+  public void testInvalidStream ()
+  {
+    try
+    {
+      _read (new byte [] { 1, 2, 3, 4 });
+      fail ();
+    }
+    catch (final IOException ex)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testIncompatibleVersion () throws Exception
+  {
+    final byte [] aSnapshot = _write (new JCodeModel ());
+
+    // Simulate a different set of serialized fields of JCodeModel
+    final long nFingerprint = JCodeModelSnapshot.getFieldFingerprint (JCodeModel.class);
+    assertTrue (nFingerprint != 0);
+    final byte [] aExpected = ByteBuffer.allocate (8).putLong (nFingerprint).array ();
+    int nFound = -1;
+    for (int i = 0; i + 8 <= aSnapshot.length && nFound < 0; ++i)
+      if (Arrays.equals (aExpected, Arrays.copyOfRange (aSnapshot, i, i + 8)))
+        nFound = i;
+    assertTrue (nFound >= 0);
+    aSnapshot[nFound] ^= 1;
+
+    try
+    {
+      _read (aSnapshot);
+      fail ();
+    }
+    catch (final InvalidClassException ex)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testFrozenBlocksStayFrozen () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    cm._class ("foo.Frozen").method (JMod.PUBLIC, cm.VOID, "run").body ()._if (JExpr.TRUE)._then ()._return ();
+    cm.freeze ();
+
+    final JCodeModel aRead = _read (_write (cm));
+    assertTrue (aRead.isFrozen ());
+    final JBlock aBody = aRead._getClass ("foo.Frozen").getMethod ("run", new AbstractJType [0]).body ();
+    final JBlock aThen = ((JConditional) aBody.getContents ().get (0))._then ();
+    try
+    {
+      aThen._return ();
+      fail ();
+    }
+    catch (final IllegalStateException ex)
+    {
+      // expected
+    }
+  }
+}
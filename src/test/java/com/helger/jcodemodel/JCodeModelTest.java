@@ -40,15 +40,37 @@
  */
 package com.helger.jcodemodel;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
 
 import org.junit.Test;
 
 import com.helger.jcodemodel.util.CodeModelTestsHelper;
+import com.helger.jcodemodel.util.JCMemoryFootprint;
+import com.helger.jcodemodel.util.JCValueEnforcer;
+import com.helger.jcodemodel.writer.OutputStreamCodeWriter;
 
 /**
  * @author Kohsuke Kawaguchi
@@ -103,4 +125,361 @@ public final class JCodeModelTest
     jClass.field (JMod.PRIVATE, cm.ref (Map.class).narrow (String.class), "strMap", JExpr._new (hashMap));
     CodeModelTestsHelper.parseCodeModel (cm);
   }
+
+  @Test
+  public void testMemoryFootprint () throws JClassAlreadyExistsException
+  {
+    final JCodeModel cm = new JCodeModel ();
+    for (int i = 0; i < 10; ++i)
+    {
+      final JDefinedClass c = cm._class ("foo.Class" + i);
+      c.method (JMod.PUBLIC, cm.VOID, "run").body ().invoke ("work").arg (i);
+    }
+    cm._class ("foo.Empty");
+
+    final JCMemoryFootprint aFP = cm.getMemoryFootprint ();
+    assertEquals (11, aFP.getEntry (JDefinedClass.class).getObjectCount ());
+    assertEquals (10, aFP.getEntry (JMethod.class).getObjectCount ());
+    assertEquals (10, aFP.getEntry (JInvocation.class).getObjectCount ());
+    assertEquals (1, aFP.getEntry (JCodeModel.class).getObjectCount ());
+    assertTrue (aFP.getTotalEstimatedBytes () > 0);
+    assertTrue (aFP.getEntry (JDefinedClass.class).getEstimatedBytes () > 11 * 32);
+
+    // The metadata of referenced classes is shared by all models
+    cm.ref (StringBuilder.class);
+    final JCMemoryFootprint aFP2 = cm.getMemoryFootprint ();
+    assertNull (aFP2.getEntry (JReferencedClassMetadata.class));
+    final JCMemoryFootprint.Entry aRefEntry = aFP2.getEntry (JReferencedClass.class);
+    assertTrue (aRefEntry.toString (), aRefEntry.getEstimatedBytes () <= 64L * aRefEntry.getObjectCount ());
+  }
+
+  @Nonnull
+  private static JCodeModel _createFrozenBase () throws JClassAlreadyExistsException
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass aShared = cm._class ("foo.Shared");
+    aShared.field (JMod.PRIVATE, String.class, "name");
+    aShared.method (JMod.PUBLIC, cm.VOID, "run").body ().invoke ("toString");
+    cm._class ("foo.Variant").field (JMod.PUBLIC | JMod.STATIC, cm.INT, "VALUE", JExpr.lit (1));
+    return cm.freeze ();
+  }
+
+  @Test
+  public void testFreeze () throws Exception
+  {
+    final JCodeModel cm = _createFrozenBase ();
+    assertTrue (cm.isFrozen ());
+    final byte [] aExpected = CodeModelTestsHelper.getAllBytes (cm);
+
+    // Build concurrently
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try
+    {
+      final List <Future <byte []>> aResults = new ArrayList <> ();
+      for (int i = 0; i < 16; ++i)
+        aResults.add (aES.submit ( () -> CodeModelTestsHelper.getAllBytes (cm)));
+      for (final Future <byte []> aResult : aResults)
+        assertArrayEquals (aExpected, aResult.get ());
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testFreezeRejectsNewClass () throws JClassAlreadyExistsException
+  {
+    _createFrozenBase ()._class ("foo.Other");
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testFreezeRejectsNewMethod () throws JClassAlreadyExistsException
+  {
+    final JCodeModel cm = _createFrozenBase ();
+    cm._getClass ("foo.Shared").method (JMod.PUBLIC, cm.VOID, "other");
+  }
+
+  @Test
+  public void testFreezeRejectsBlockChanges () throws JClassAlreadyExistsException
+  {
+    final JCodeModel cm = _createFrozenBase ();
+    final JBlock aBody = cm._getClass ("foo.Shared").getMethod ("run", new AbstractJType [0]).body ();
+    try
+    {
+      aBody._return ();
+      fail ();
+    }
+    catch (final IllegalStateException ex)
+    {
+      // expected
+    }
+    try
+    {
+      aBody.removeAll ();
+      fail ();
+    }
+    catch (final IllegalStateException ex)
+    {
+      // expected
+    }
+    assertEquals (1, aBody.size ());
+  }
+
+  @Test
+  public void testFreezeDoesNotAddPackages () throws JClassAlreadyExistsException
+  {
+    final JCodeModel cm = _createFrozenBase ();
+    final JPackage aPackage = cm._package ("bar.baz");
+    assertEquals ("bar.baz", aPackage.name ());
+    final Iterator <JPackage> it = cm.packages ();
+    while (it.hasNext ())
+      assertNotSame (aPackage, it.next ());
+    assertSame (cm._getClass ("foo.Shared")._package (), cm._package ("foo"));
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testForkRequiresFrozen ()
+  {
+    JCValueEnforcer.setEnabled (false);
+    try
+    {
+      new JCodeModel ().fork ();
+    }
+    finally
+    {
+      JCValueEnforcer.setEnabled (true);
+    }
+  }
+
+  @Test
+  public void testFork () throws Exception
+  {
+    final JCodeModel aBase = _createFrozenBase ();
+    final byte [] aBaseBytes = CodeModelTestsHelper.getAllBytes (aBase);
+
+    final JCodeModel cm = aBase.fork ();
+    assertFalse (cm.isFrozen ());
+    assertSame (aBase, cm.getForkBase ());
+    assertSame (aBase._getClass ("foo.Shared"), cm._getClass ("foo.Shared"));
+    assertSame (aBase.ref (String.class), cm.ref (String.class));
+    final Set <String> aBasePackages = new HashSet <> ();
+    aBase.packages ().forEachRemaining (p -> aBasePackages.add (p.name ()));
+
+    // Replace one class and add another one
+    cm._class ("foo.Variant").field (JMod.PUBLIC | JMod.STATIC, cm.INT, "VALUE", JExpr.lit (2));
+    final JDefinedClass aTenant = cm._class ("bar.Tenant");
+    aTenant._extends (cm._getClass ("foo.Shared")).field (JMod.PRIVATE, String.class, "tenant");
+    aTenant.field (JMod.PRIVATE, StringBuilder.class, "buffer");
+    aTenant.field (JMod.PRIVATE, AtomicLong.class, "counter");
+
+    // New references are kept in the fork
+    final AbstractJClass aAtomicLong = cm.ref (AtomicLong.class);
+    assertSame (cm, aAtomicLong.owner ());
+    assertSame (cm, aAtomicLong._package ().owner ());
+    assertEquals (3, cm.countArtifacts ());
+    assertFalse (cm.buildsErrorTypeRefs ());
+
+    final String sSource = new String (CodeModelTestsHelper.getAllBytes (cm), StandardCharsets.UTF_8);
+    assertTrue (sSource.contains ("class Shared"));
+    assertTrue (sSource.contains ("VALUE = 2"));
+    assertFalse (sSource.contains ("VALUE = 1"));
+    assertTrue (sSource.contains ("import foo.Shared;"));
+    assertFalse (sSource.contains ("import java.lang.String;"));
+    assertFalse (sSource.contains ("import java.lang.StringBuilder;"));
+    assertTrue (sSource.contains ("import java.util.concurrent.atomic.AtomicLong;"));
+    CodeModelTestsHelper.parseCodeModel (cm);
+
+    // Base is unchanged
+    assertArrayEquals (aBaseBytes, CodeModelTestsHelper.getAllBytes (aBase));
+    final Set <String> aBasePackagesAfter = new HashSet <> ();
+    aBase.packages ().forEachRemaining (p -> aBasePackagesAfter.add (p.name ()));
+    assertEquals (aBasePackages, aBasePackagesAfter);
+  }
+
+  @Test
+  public void testErrorTypeRefs () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("foo.Bar");
+    final JMethod m = c.method (JMod.PUBLIC, cm.VOID, "run");
+    assertFalse (cm.hasErrorClasses ());
+    assertFalse (cm.buildsErrorTypeRefs ());
+
+    final JErrorClass aError = cm.errorClass ("Missing");
+    assertTrue (cm.hasErrorClasses ());
+    assertFalse (cm.buildsErrorTypeRefs ());
+
+    m.body ().decl (aError, "x");
+    assertTrue (cm.buildsErrorTypeRefs ());
+
+    // Hidden classes are not checked
+    c.hide ();
+    assertFalse (cm.buildsErrorTypeRefs ());
+
+    // Forks know about the error classes of the base
+    cm.freeze ();
+    final JCodeModel aFork = cm.fork ();
+    assertTrue (aFork.hasErrorClasses ());
+    aFork._class ("foo.Other").field (JMod.PRIVATE, aError, "y");
+    assertTrue (aFork.buildsErrorTypeRefs ());
+  }
+
+  @Test
+  public void testSharedReflectionMetadata ()
+  {
+    final JCodeModel cm1 = new JCodeModel ();
+    final JCodeModel cm2 = new JCodeModel ();
+    final AbstractJClass aRef1 = cm1.ref (Map.Entry.class);
+    final AbstractJClass aRef2 = cm2.ref (Map.Entry.class);
+    assertNotSame (aRef1, aRef2);
+    assertSame (aRef1.fullName (), aRef2.fullName ());
+    assertSame (JReferencedClassMetadata.get (Map.Entry.class), JReferencedClassMetadata.get (Map.Entry.class));
+
+    assertEquals ("Entry", aRef1.name ());
+    assertEquals ("java.util.Map.Entry", aRef1.fullName ());
+    assertEquals ("java.util.Map$Entry", aRef1.binaryName ());
+    assertSame (cm1.ref (Map.class), aRef1.outer ());
+    assertTrue (aRef1.isInterface ());
+    assertTrue (aRef1.isAbstract ());
+
+    final AbstractJClass aArrayList = cm2.ref (ArrayList.class);
+    assertSame (cm2._package ("java.util"), aArrayList._package ());
+    assertSame (cm2.ref (ArrayList.class.getSuperclass ()), aArrayList._extends ());
+    int nInterfaces = 0;
+    for (final Iterator <AbstractJClass> it = aArrayList._implements (); it.hasNext ();)
+    {
+      assertSame (cm2, it.next ().owner ());
+      nInterfaces++;
+    }
+    assertEquals (ArrayList.class.getInterfaces ().length, nInterfaces);
+    assertSame (cm1.INT, cm1.ref (Integer.class).getPrimitiveType ());
+  }
+
+  @Nonnull
+  private static JCodeModel _createStreamingModel () throws JClassAlreadyExistsException
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass aUser = cm._class ("foo.User");
+    final JDefinedClass aUtil = cm._class ("foo.Util");
+    final JMethod aTwice = aUtil.method (JMod.PUBLIC | JMod.STATIC, cm.INT, "twice");
+    aTwice.body ()._return (JExpr.ref (aTwice.param (cm.INT, "i")).mul (JExpr.lit (2)));
+    final JDefinedClass aNested = aUtil._class (JMod.PUBLIC | JMod.STATIC, "Nested");
+    aUser.field (JMod.PRIVATE, aNested, "m_aNested");
+    aUser.method (JMod.PUBLIC, cm.INT, "get").body ()._return (aUtil.staticInvoke (aTwice).arg (JExpr.lit (21)));
+    cm._class ("bar.Other")._extends (aUtil);
+    return cm;
+  }
+
+  @Test
+  public void testEmit () throws Exception
+  {
+    final byte [] aExpected = CodeModelTestsHelper.getAllBytes (_createStreamingModel ());
+
+    // Emit in build order
+    final JCodeModel cm = _createStreamingModel ();
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    final AbstractCodeWriter aWriter = new OutputStreamCodeWriter (aBAOS, StandardCharsets.UTF_8);
+    assertEquals (3, cm.countArtifacts ());
+    for (final Iterator <JPackage> it = cm.packages (); it.hasNext ();)
+      cm.emit (it.next (), aWriter);
+    assertEquals (0, cm.countArtifacts ());
+
+    // Only stubs are left
+    final JDefinedClass aUtil = cm._getClass ("foo.Util");
+    assertTrue (aUtil.isEmitted ());
+    assertTrue (aUtil.classes ().iterator ().next ().isEmitted ());
+    assertTrue (aUtil.methods ().isEmpty ());
+    assertEquals ("foo.Util", aUtil.fullName ());
+    assertSame (aUtil, cm._getClass ("bar.Other")._extends ());
+    try
+    {
+      aUtil.method (JMod.PUBLIC, cm.VOID, "other");
+      fail ();
+    }
+    catch (final IllegalStateException ex)
+    {
+      // expected
+    }
+    try
+    {
+      cm.emit (aUtil, aWriter);
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // expected
+    }
+
+    // Nothing left to build
+    cm.build (aWriter);
+    assertArrayEquals (aExpected, aBAOS.toByteArray ());
+  }
+
+  @Test
+  public void testEmitRejectsMethodChanges () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass aEnum = cm._class (JMod.PUBLIC, "foo.Color", EClassType.ENUM);
+    final JEnumConstant aRed = aEnum.enumConstant ("RED");
+    final JMethod aMethod = aEnum.method (JMod.PUBLIC, cm.VOID, "paint");
+    aMethod.body ().invoke ("toString");
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    cm.emit (aEnum, new OutputStreamCodeWriter (aBAOS, StandardCharsets.UTF_8));
+
+    // Existing constants can still be looked up
+    assertSame (aRed, aEnum.enumConstant ("RED"));
+    assertEquals (1, aEnum.enumConstants ().size ());
+    try
+    {
+      aEnum.enumConstant ("GREEN");
+      fail ();
+    }
+    catch (final IllegalStateException ex)
+    {
+      // expected
+    }
+
+    // The released method cannot be modified
+    final List <Runnable> aModifications = new ArrayList <> ();
+    aModifications.add ( () -> aMethod.body ());
+    aModifications.add ( () -> aMethod.param (cm.INT, "i"));
+    aModifications.add ( () -> aMethod.varParam (cm.INT, "i"));
+    aModifications.add ( () -> aMethod._throws (Exception.class));
+    aModifications.add ( () -> aMethod.annotate (Deprecated.class));
+    aModifications.add ( () -> aMethod.javadoc ());
+    aModifications.add ( () -> aMethod.generify ("T"));
+    aModifications.add ( () -> aMethod.name ("other"));
+    aModifications.add ( () -> aEnum.generify ("T"));
+    for (final Runnable aModification : aModifications)
+      try
+      {
+        aModification.run ();
+        fail ();
+      }
+      catch (final IllegalStateException ex)
+      {
+        // expected
+      }
+    assertEquals ("paint", aMethod.name ());
+    assertFalse (aMethod.hasBody ());
+    assertEquals (0, aEnum.typeParams ().length);
+  }
+
+  @Test
+  public void testEmitReferencedStub () throws Exception
+  {
+    final JCodeModel cm = _createStreamingModel ();
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    final AbstractCodeWriter aWriter = new OutputStreamCodeWriter (aBAOS, StandardCharsets.UTF_8);
+    cm.emit (cm._getClass ("foo.Util"), aWriter);
+    cm.build (aWriter);
+
+    final String sOutput = new String (aBAOS.toByteArray (), StandardCharsets.UTF_8);
+    assertTrue (sOutput.contains ("return (i* 2);"));
+    assertTrue (sOutput.contains ("private Util.Nested m_aNested;"));
+    assertTrue (sOutput.contains ("return Util.twice(21);"));
+    // Written only once
+    assertEquals (sOutput.indexOf ("public class Util"), sOutput.lastIndexOf ("public class Util"));
+  }
 }
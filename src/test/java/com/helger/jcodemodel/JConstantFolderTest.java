@@ -0,0 +1,171 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.helger.jcodemodel.util.CodeModelTestsHelper;
+
+/**
+ * Test class for class {@link JConstantFolder}.
+ *
+ * @author Philip Helger
+ */
+public final class JConstantFolderTest
+{
+  private static String _fold (final IJExpression aExpr)
+  {
+    return CodeModelTestsHelper.toString (JConstantFolder.fold (aExpr));
+  }
+
+  @Test
+  public void testFoldNumeric ()
+  {
+    assertEquals ("12", _fold (JExpr.lit (1).plus (JExpr.lit (2)).mul (JExpr.lit (4))));
+    assertEquals ("7L", _fold (JExpr.lit (3).plus (JExpr.lit (4L))));
+    assertEquals ("2.5", _fold (JExpr.lit (5).div (JExpr.lit (2.0))));
+    assertEquals ("2", _fold (JExpr.lit (5).div (JExpr.lit (2))));
+    assertEquals ("16", _fold (JExpr.lit (1).shl (JExpr.lit (4L))));
+    assertEquals ("-3", _fold (JOp.minus (JExpr.lit (3))));
+    assertEquals ("-1", _fold (JOp.complement (JExpr.lit (0))));
+    assertEquals ("3", _fold (JExpr.cast (new JCodeModel ().INT, JExpr.lit (3.7))));
+
+    // Division by zero is kept
+    assertEquals ("(1 / 0)", _fold (JExpr.lit (1).div (JExpr.lit (0))));
+  }
+
+  @Test
+  public void testFoldBoolean ()
+  {
+    final JVar aVar = new JVar (JMods.forVar (0), new JCodeModel ().BOOLEAN, "b", null);
+    assertSame (JExpr.TRUE, JConstantFolder.fold (JExpr.lit (1).lt (JExpr.lit (2))));
+    assertSame (JExpr.FALSE, JConstantFolder.fold (JExpr.lit (1.0).eq (JExpr.lit (2))));
+    assertSame (JExpr.FALSE, JConstantFolder.fold (JOp.not (JExpr.lit (1).lt (JExpr.lit (2)))));
+    assertSame (aVar, JConstantFolder.fold (JOp.cand (JExpr.lit (1).lt (JExpr.lit (2)), aVar)));
+    assertSame (JExpr.TRUE, JConstantFolder.fold (JOp.cor (JExpr.lit (1).lt (JExpr.lit (2)), aVar)));
+
+    // The left operand might have side effects
+    assertEquals ("(b&&false)", _fold (JOp.cand (aVar, JExpr.lit (1).gt (JExpr.lit (2)))).replace (" ", ""));
+  }
+
+  @Test
+  public void testFoldString ()
+  {
+    final JVar aVar = new JVar (JMods.forVar (0), new JCodeModel ().ref (String.class), "s", null);
+    assertEquals ("\"abc\"", _fold (JExpr.lit ("a").plus (JExpr.lit ("b")).plus (JExpr.lit ("c"))));
+    assertEquals ("\"a12\"", _fold (JExpr.lit ("a").plus (JExpr.lit (1)).plus (JExpr.lit (2))));
+    assertEquals ("\"3a\"", _fold (JExpr.lit (1).plus (JExpr.lit (2)).plus (JExpr.lit ("a"))));
+    assertEquals ("(s+\"abtrue\")",
+                  _fold (aVar.plus (JExpr.lit ("a")).plus (JExpr.lit ("b")).plus (JExpr.TRUE)).replace (" ", ""));
+  }
+
+  @Test
+  public void testFoldTernary ()
+  {
+    assertEquals ("1", _fold (JOp.cond (JExpr.lit (1).lt (JExpr.lit (2)), JExpr.lit (1), JExpr.lit (2))));
+    // The type of the conditional would be double
+    assertEquals ("(true? 1 : 2.0)",
+                  _fold (JOp.cond (JExpr.lit (1).lt (JExpr.lit (2)), JExpr.lit (1), JExpr.lit (2.0))));
+  }
+
+  @Test
+  public void testOptimize () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("Folded");
+    final JFieldVar aField = c.field (JMod.PRIVATE | JMod.STATIC, cm.INT, "SIZE", JExpr.lit (4).mul (JExpr.lit (1024)));
+    final JMethod m = c.method (JMod.PUBLIC, cm.INT, "test");
+    final JBlock body = m.body ();
+    final JVar aVar = body.decl (cm.INT, "x", JExpr.lit (1).plus (JExpr.lit (2)));
+    body._if (JExpr.lit (1).gt (JExpr.lit (2)))._then ().assign (aVar, JExpr.lit (0));
+    final JConditional aCond = body._if (JExpr.lit (1).lt (JExpr.lit (2)));
+    aCond._then ().assign (aVar, aVar.plus (JExpr.lit (2).mul (JExpr.lit (3))));
+    aCond._else ().assign (aVar, JExpr.lit (0));
+    body._while (JExpr.lit (1).gt (JExpr.lit (2))).body ().assign (aVar, JExpr.lit (1));
+    body._return (aVar.plus (JExpr.lit (1).minus (JExpr.lit (1))));
+
+    JConstantFolder.optimize (cm);
+
+    assertEquals ("4096", CodeModelTestsHelper.toString (aField.init ()));
+    assertEquals (3, body.size ());
+    assertEquals ("3", CodeModelTestsHelper.toString (aVar.init ()));
+    assertSame (aCond._then (), body.getContents ().get (1));
+    assertEquals ("x = (x + 6);", CodeModelTestsHelper.toString ((IJStatement) aCond._then ().getContents ().get (0)).trim ());
+    assertEquals ("return (x + 0);", CodeModelTestsHelper.toString ((IJStatement) body.getContents ().get (2)).trim ());
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+
+  @Test
+  public void testOptimizeKeepsReturningBranch () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("Folded");
+    final JMethod m = c.method (JMod.PUBLIC, cm.INT, "test");
+    final JBlock body = m.body ();
+    final JConditional aCond = body._if (JExpr.lit (1).lt (JExpr.lit (2)));
+    aCond._then ()._return (JExpr.lit (1));
+    body._return (JExpr.lit (2));
+
+    JConstantFolder.optimize (cm);
+
+    // "{ return 1; } return 2;" would not compile
+    assertEquals (2, body.size ());
+    assertSame (aCond, body.getContents ().get (0));
+    assertSame (JExpr.TRUE, aCond.test ());
+    final String sCode = CodeModelTestsHelper.toString (body);
+    assertTrue (sCode, sCode.contains ("if (true)"));
+    assertTrue (sCode, sCode.contains ("return  1;"));
+
+    // A branch that completes normally is still inlined
+    final JMethod m2 = c.method (JMod.PUBLIC, cm.INT, "test2");
+    final JConditional aCond2 = m2.body ()._if (JExpr.lit (1).gt (JExpr.lit (2)));
+    aCond2._then ()._return (JExpr.lit (1));
+    aCond2._else ()._throw (JExpr._new (cm.ref (IllegalStateException.class)));
+    JConstantFolder.optimize (cm);
+    assertSame (aCond2, m2.body ().getContents ().get (0));
+    assertTrue (CodeModelTestsHelper.toString (m2.body ()).contains ("if (false)"));
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+}
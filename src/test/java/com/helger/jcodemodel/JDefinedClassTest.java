@@ -40,7 +40,18 @@
  */
 package com.helger.jcodemodel;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -113,4 +124,158 @@ public final class JDefinedClassTest
     con2.body ().invokeSuper ().arg ("Test");
     CodeModelTestsHelper.parseCodeModel (cm);
   }
+
+  @Test
+  public void testGetMethod () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._package ("myPackage")._class (0, "MyClass");
+    final AbstractJType [] aNoArgs = new AbstractJType [0];
+    final AbstractJType [] aIntArg = new AbstractJType [] { cm.INT };
+
+    final JMethod m1 = c.method (JMod.PUBLIC, cm.VOID, "foo");
+    final JMethod m2 = c.method (JMod.PUBLIC, cm.VOID, "foo");
+    m2.param (cm.INT, "i");
+    final JMethod m3 = c.method (JMod.PUBLIC, cm.VOID, "bar");
+    assertSame (m1, c.getMethod ("foo", aNoArgs));
+    assertSame (m2, c.getMethod ("foo", aIntArg));
+    assertSame (m3, c.getMethod ("bar", aNoArgs));
+    assertNull (c.getMethod ("bar", aIntArg));
+    assertNull (c.getMethod ("baz", aNoArgs));
+
+    // Rename
+    m1.name ("baz");
+    assertNull (c.getMethod ("foo", aNoArgs));
+    assertSame (m1, c.getMethod ("baz", aNoArgs));
+    assertSame (m2, c.getMethod ("foo", aIntArg));
+
+    // Renaming keeps the declaration order for identical signatures
+    m1.name ("bar");
+    assertSame (m1, c.getMethod ("bar", aNoArgs));
+
+    // Remove
+    assertTrue (c.removeMethod (m1));
+    assertFalse (c.removeMethod (m1));
+    assertSame (m3, c.getMethod ("bar", aNoArgs));
+    assertEquals (2, c.methods ().size ());
+
+    // Renaming a removed method has no effect on the class
+    m1.name ("removed");
+    assertNull (c.getMethod ("removed", aNoArgs));
+
+    final JMethod aCtor = c.constructor (JMod.PUBLIC);
+    aCtor.param (cm.INT, "i");
+    assertSame (aCtor, c.getConstructor (aIntArg));
+    assertNull (c.getConstructor (aNoArgs));
+    assertTrue (c.removeConstructor (aCtor));
+    assertNull (c.getConstructor (aIntArg));
+  }
+
+  @Test
+  public void testLiveViews () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._package ("myPackage")._class (0, "MyClass");
+
+    // Views created before the first element was added
+    final Map <String, JFieldVar> aFields = c.fields ();
+    final Collection <JMethod> aMethods = c.methods ();
+    final Collection <JAnnotationUse> aAnnotations = c.annotations ();
+    assertTrue (aFields.isEmpty ());
+    assertTrue (aMethods.isEmpty ());
+    assertTrue (aAnnotations.isEmpty ());
+
+    final JFieldVar f = c.field (JMod.PRIVATE, cm.INT, "f");
+    final JMethod m = c.method (JMod.PUBLIC, cm.VOID, "foo");
+    c.annotate (Deprecated.class);
+    assertSame (f, aFields.get ("f"));
+    assertEquals (1, aFields.size ());
+    assertTrue (aMethods.contains (m));
+    assertEquals (1, aAnnotations.size ());
+  }
+
+  @Test
+  public void testGetMethodIndexed () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._package ("myPackage")._class (0, "MyClass");
+    final AbstractJType [] aNoArgs = new AbstractJType [0];
+    final AbstractJType [] aIntArg = new AbstractJType [] { cm.INT };
+
+    final List <JMethod> aCtors = new ArrayList <> ();
+    for (int i = 0; i < 20; i++)
+    {
+      final JMethod aCtor = c.constructor (JMod.PUBLIC);
+      for (int j = 0; j < i; j++)
+        aCtor.param (cm.INT, "p" + j);
+      c.method (JMod.PUBLIC, cm.VOID, "m" + i);
+      aCtors.add (aCtor);
+    }
+    assertSame (aCtors.get (0), c.getConstructor (aNoArgs));
+    assertSame (aCtors.get (1), c.getConstructor (aIntArg));
+    assertNotNull (c.getMethod ("m7", aNoArgs));
+
+    // Parameters added after the lookup index was created
+    final JMethod m = c.method (JMod.PUBLIC, cm.VOID, "foo");
+    assertSame (m, c.getMethod ("foo", aNoArgs));
+    m.param (cm.INT, "i");
+    assertNull (c.getMethod ("foo", aNoArgs));
+    assertSame (m, c.getMethod ("foo", aIntArg));
+
+    // The methods view is modifiable and keeps the index up to date
+    assertTrue (c.methods ().remove (m));
+    assertNull (c.getMethod ("foo", aIntArg));
+    assertTrue (c.methods ().add (m));
+    assertSame (m, c.getMethod ("foo", aIntArg));
+    c.methods ().removeIf (x -> x.name ().startsWith ("m"));
+    assertNull (c.getMethod ("m7", aNoArgs));
+    assertEquals (1, c.methods ().size ());
+
+    final Iterator <JMethod> it = c.constructors ();
+    it.next ();
+    it.remove ();
+    assertNull (c.getConstructor (aNoArgs));
+    assertSame (aCtors.get (1), c.getConstructor (aIntArg));
+  }
+
+  @Test
+  public void testGetBaseClassCache () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass aBase = cm._class ("Base");
+    final JTypeVar aT = aBase.generify ("T");
+    final JDefinedClass aDerived = cm._class ("Derived");
+    final AbstractJClass aCollection = cm.ref (Collection.class);
+
+    assertNull (aDerived.getBaseClass (aCollection));
+    assertNull (aDerived.getBaseClass (aCollection));
+
+    // Adding a super class invalidates the memoized result
+    aBase._implements (cm.ref (List.class).narrow (aT));
+    aDerived._extends (aBase.narrow (String.class));
+    final AbstractJClass aResult = aDerived.getBaseClass (List.class);
+    assertEquals (cm.ref (List.class).narrow (String.class), aResult);
+    assertSame (aResult, aDerived.getBaseClass (List.class));
+    assertNotNull (aDerived.getBaseClass (aCollection));
+    assertNull (aDerived.getBaseClass (ArrayList.class));
+    assertSame (aDerived, aDerived.getBaseClass (aDerived));
+
+    // Adding an interface to a super class invalidates as well
+    final JDefinedClass aOther = cm._class (JMod.PUBLIC, "Other", EClassType.INTERFACE);
+    assertNull (aDerived.getBaseClass (aOther));
+    aBase._implements (aOther);
+    assertSame (aOther, aDerived.getBaseClass (aOther));
+
+    // All results are memoized
+    final AbstractJClass aResult2 = aDerived.getBaseClass (List.class);
+    for (final Class <?> aClass : new Class <?> [] { Comparable.class, Map.class, Runnable.class, Cloneable.class })
+      assertNull (aDerived.getBaseClass (aClass));
+    assertSame (aResult2, aDerived.getBaseClass (List.class));
+
+    // Changes of unrelated classes keep the memoized results
+    cm._class ("Unrelated")._extends (aBase);
+    cm._class ("Unrelated2")._implements (aOther);
+    assertSame (aResult2, aDerived.getBaseClass (List.class));
+  }
 }
+
@@ -0,0 +1,200 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+import com.helger.jcodemodel.util.CodeModelTestsHelper;
+
+/**
+ * Test class for class {@link JDispatch}.
+ *
+ * @author Philip Helger
+ */
+public final class JDispatchTest
+{
+  private static List <JCase> _cases (final JSwitch aSwitch)
+  {
+    final List <JCase> ret = new ArrayList <> ();
+    aSwitch.cases ().forEachRemaining (ret::add);
+    return ret;
+  }
+
+  @Test
+  public void testSwitches () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("Dispatch");
+    final JMethod m = c.method (JMod.PUBLIC | JMod.STATIC, cm.INT, "run");
+    final JVar s = m.param (cm.ref (String.class), "s");
+
+    final Map <String, Consumer <JBlock>> aCases = new LinkedHashMap <> ();
+    aCases.put ("a", b -> b._return (JExpr.lit (1)));
+    // "Aa" and "BB" share the same hash code
+    aCases.put ("Aa", b -> b._return (JExpr.lit (2)));
+    aCases.put ("BB", b -> b.add (cm.ref (System.class).staticRef ("out").invoke ("println").arg (s)));
+
+    final JSwitch aStringSwitch = JDispatch.stringSwitch (m.body (), s, aCases, null);
+    assertEquals (3, _cases (aStringSwitch).size ());
+    // No break after return
+    assertEquals (1, _cases (aStringSwitch).get (0).body ().getContents ().size ());
+    assertEquals (2, _cases (aStringSwitch).get (2).body ().getContents ().size ());
+
+    final JSwitch aIndexSwitch = JDispatch.hashSwitch (cm, m.body (), s, aCases, b -> b._return (JExpr.lit (0)), "idx");
+    assertEquals (3, _cases (aIndexSwitch).size ());
+    assertTrue (aIndexSwitch.hasDefault ());
+    final String sCode = CodeModelTestsHelper.declare (c);
+    assertTrue (sCode.contains ("switch (s.hashCode())"));
+    assertTrue (sCode.contains ("case  2112 :"));
+    assertTrue (sCode.contains ("if (\"Aa\".equals(s)) {"));
+
+    final Map <Integer, Consumer <JBlock>> aIntCases = new LinkedHashMap <> ();
+    aIntCases.put (Integer.valueOf (3), b -> b._return (JExpr.lit (30)));
+    final JMethod m2 = c.method (JMod.PUBLIC | JMod.STATIC, cm.INT, "run2");
+    JDispatch.intSwitch (m2.body (), m2.param (cm.INT, "n"), aIntCases, b -> b._return (JExpr.lit (-1)));
+
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+
+  @Test
+  public void testNoBreakAfterCompleteJump () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("Jumps");
+    final JMethod m = c.method (JMod.PUBLIC | JMod.STATIC, cm.INT, "run");
+    final JVar n = m.param (cm.INT, "n");
+    final JVar b = m.param (cm.BOOLEAN, "b");
+
+    final Map <Integer, Consumer <JBlock>> aCases = new LinkedHashMap <> ();
+    // All branches return
+    aCases.put (Integer.valueOf (1), x -> {
+      final JConditional aCond = x._if (b);
+      aCond._then ()._return (JExpr.lit (1));
+      aCond._else ()._throw (JExpr._new (cm.ref (IllegalStateException.class)));
+    });
+    // Only one branch returns
+    aCases.put (Integer.valueOf (2), x -> x._if (b)._then ()._return (JExpr.lit (2)));
+    // Nested block and try
+    aCases.put (Integer.valueOf (3), x -> {
+      final JTryBlock aTry = x.block ()._try ();
+      aTry.body ()._return (JExpr.lit (3));
+      aTry._catch (cm.ref (RuntimeException.class)).body ()._return (JExpr.lit (-3));
+    });
+    // Loop that can be left with break
+    aCases.put (Integer.valueOf (4), x -> x._while (JExpr.TRUE).body ()._break ());
+    final JSwitch aSwitch = JDispatch.intSwitch (m.body (), n, aCases, x -> x._return (JExpr.lit (0)));
+    m.body ()._return (JExpr.lit (-1));
+
+    final List <JCase> aList = _cases (aSwitch);
+    assertEquals (1, aList.get (0).body ().size ());
+    assertEquals (2, aList.get (1).body ().size ());
+    assertEquals (1, aList.get (2).body ().size ());
+    assertEquals (2, aList.get (3).body ().size ());
+    assertEquals (1, aSwitch._default ().body ().size ());
+
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+
+  @Test
+  public void testLookupTables () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("Lookup");
+
+    final Map <Integer, IJExpression> aValues = new LinkedHashMap <> ();
+    aValues.put (Integer.valueOf (3), JExpr.lit ("three"));
+    aValues.put (Integer.valueOf (1), JExpr.lit ("one"));
+    final JFieldVar aArray = JDispatch.lookupArray (c,
+                                                    JMod.PRIVATE,
+                                                    cm.ref (String.class),
+                                                    "NAMES",
+                                                    aValues,
+                                                    JExpr._null ());
+    assertEquals (JMod.PRIVATE | JMod.STATIC | JMod.FINAL, aArray.mods ().getValue ());
+    assertEquals ("new java.lang.String[] {null, \"one\", null, \"three\"}",
+                  CodeModelTestsHelper.toString (aArray.init ()).replace ("\n", "").replaceAll (" +", " "));
+
+    final Map <String, IJExpression> aEnumValues = new LinkedHashMap <> ();
+    aEnumValues.put ("SECONDS", JExpr.lit ("s"));
+    aEnumValues.put ("MINUTES", JExpr.lit ("min"));
+    JDispatch.lookupEnumMap (c, JMod.PRIVATE, cm.ref (TimeUnit.class), cm.ref (String.class), "UNITS", aEnumValues);
+    assertEquals (2, c.init ().getContents ().size ());
+
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+
+  @Test
+  public void testLookupArraySparseKeys () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("foo.Lookup");
+
+    // Short arrays are always fine
+    final Map <Integer, IJExpression> aValues = new LinkedHashMap <> ();
+    aValues.put (Integer.valueOf (15), JExpr.lit (15));
+    final JFieldVar aArray = JDispatch.lookupArray (c, JMod.PRIVATE, cm.INT, "A", aValues, JExpr.lit (-1));
+    assertEquals (16, ((JArray) aArray.init ()).exprs ().size ());
+
+    aValues.put (Integer.valueOf (Integer.MAX_VALUE), JExpr.lit (0));
+    try
+    {
+      JDispatch.lookupArray (c, JMod.PRIVATE, cm.INT, "B", aValues, JExpr.lit (-1));
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // expected
+    }
+    assertNull (c.fields ().get ("B"));
+  }
+}
@@ -41,6 +41,9 @@
 package com.helger.jcodemodel;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -81,4 +84,34 @@ public final class JExprTest
     assertEquals ("5L", CodeModelTestsHelper.toString (JExpr.lit (5l)));
     assertEquals ("5L", CodeModelTestsHelper.toString (JExpr.lit ((long) 5)));
   }
+
+  @Test
+  public void testQuotify () throws Exception
+  {
+    assertEquals ("\"abc\"", JExpr.quotify ('"', "abc"));
+    assertEquals ("\"a'\\\"\\\\\\n\\u00e9\\u0001\"", JExpr.quotify ('"', "a'\"\\\n\u00e9\u0001"));
+    assertEquals ("'\\''", JExpr.quotify ('\'', "'"));
+    assertEquals ("'\"'", JExpr.quotify ('\'', "\""));
+    assertEquals ("\"b\\tc\"", JExpr.appendQuotified (new StringBuilder (), '"', "ab\tcd", 1, 4).toString ());
+  }
+
+  @Test
+  public void testLitLargeString () throws Exception
+  {
+    final char [] aChars = new char [JStringLiteral.MAX_CONSTANT_UTF8_LENGTH];
+    Arrays.fill (aChars, 'x');
+    final String sMax = new String (aChars);
+    assertEquals ("\"" + sMax + "\"", CodeModelTestsHelper.toString (JExpr.lit (sMax)));
+
+    final String sTooLong = sMax + "yz";
+    assertEquals ("new java.lang.StringBuilder(65537).append(\"" + sMax + "\").append(\"yz\").toString()",
+                  CodeModelTestsHelper.toString (JExpr.lit (sTooLong)));
+
+    // 3 bytes per char
+    Arrays.fill (aChars, '\u20ac');
+    final String sGenerated = CodeModelTestsHelper.toString (JExpr.lit (new String (aChars)));
+    assertTrue (sGenerated.startsWith ("new java.lang.StringBuilder(65535).append("));
+    assertEquals (3, sGenerated.split ("\\.append\\(", -1).length - 1);
+  }
 }
+
@@ -40,10 +40,17 @@
  */
 package com.helger.jcodemodel;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -109,4 +116,78 @@ public final class JInvocationTest
 
     CodeModelTestsHelper.parseCodeModel (cm);
   }
+
+  @Test
+  public void testStructuralHashCode ()
+  {
+    final JInvocation aInner = JExpr.invoke ("inner").arg (1);
+    final JInvocation aOuter = JExpr.invoke ("outer").arg (aInner).arg (JOp.plus (JExpr.lit (1), JExpr.lit (2)));
+    final int nHashCode = aOuter.hashCode ();
+    assertEquals (nHashCode, aOuter.hashCode ());
+
+    final Set <IJExpression> aSet = new HashSet <> ();
+    aSet.add (aOuter);
+    assertTrue (aSet.contains (JExpr.invoke ("outer")
+                                    .arg (JExpr.invoke ("inner").arg (1))
+                                    .arg (JOp.plus (JExpr.lit (1), JExpr.lit (2)))));
+
+    // Modifying a child must be reflected by the parent
+    aInner.arg (2);
+    final JInvocation aExpected = JExpr.invoke ("outer")
+                                       .arg (JExpr.invoke ("inner").arg (1).arg (2))
+                                       .arg (JOp.plus (JExpr.lit (1), JExpr.lit (2)));
+    assertEquals (aExpected.hashCode (), aOuter.hashCode ());
+    assertEquals (aExpected, aOuter);
+    assertNotEquals (nHashCode, aOuter.hashCode ());
+
+    // Only unmodifiable trees are stable
+    assertTrue (JOp.plus (JExpr.lit (1), JExpr.lit (2)).isHashCodeStable ());
+    assertFalse (JOp.plus (JExpr.lit (1), aInner).isHashCodeStable ());
+    assertFalse (aInner.isHashCodeStable ());
+  }
+
+  @Test
+  public void testStructuralHashCodeOfRenamedVariable () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JVar aVar = cm.rootPackage ()._class ("Foo").field (JMod.PRIVATE, cm.INT, "a");
+    final IJExpression aExpr = JOp.plus (JExpr.ref (aVar), JExpr.lit (1));
+    final int nHashCode = aExpr.hashCode ();
+
+    aVar.name ("b");
+    assertNotEquals (nHashCode, aExpr.hashCode ());
+    assertEquals (JOp.plus (JExpr.ref ("b"), JExpr.lit (1)).hashCode (), aExpr.hashCode ());
+  }
+
+  @Test
+  public void testStructuralHashCodeOfCommonLeaves () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass aClass = cm.rootPackage ()._class ("Foo");
+    final JVar aVar = aClass.field (JMod.PRIVATE, cm.INT, "a");
+    final JMethod aMethod = aClass.method (JMod.PUBLIC, cm.INT, "get");
+    final JStringLiteral aLit = JExpr.lit ("x");
+
+    // Variables, literals and field references don't prevent memoization
+    final IJExpression aExpr = JOp.plus (JOp.plus (aVar, JExpr.ref (aVar)), aLit);
+    assertTrue (aExpr.isHashCodeStable ());
+    final int nHashCode = aExpr.hashCode ();
+    assertEquals (nHashCode, aExpr.hashCode ());
+
+    // Memoized hash codes are recalculated after a modification
+    aLit.what ("y");
+    final int nModifiedHashCode = aExpr.hashCode ();
+    assertNotEquals (nHashCode, nModifiedHashCode);
+    assertEquals (JOp.plus (JOp.plus (aVar, JExpr.ref (aVar)), JExpr.lit ("y")).hashCode (), nModifiedHashCode);
+    aVar.name ("b");
+    assertNotEquals (nModifiedHashCode, aExpr.hashCode ());
+    assertEquals (JOp.plus (JOp.plus (aVar, JExpr.ref ("b")), JExpr.lit ("y")).hashCode (), aExpr.hashCode ());
+
+    // Invocations of renamed methods
+    final JInvocation aInvocation = JExpr.invoke (aMethod).arg (aVar);
+    final int nInvocationHashCode = aInvocation.hashCode ();
+    aMethod.name ("other");
+    assertNotEquals (nInvocationHashCode, aInvocation.hashCode ());
+    assertEquals (JExpr.invoke ("other").arg (aVar).hashCode (), aInvocation.hashCode ());
+  }
 }
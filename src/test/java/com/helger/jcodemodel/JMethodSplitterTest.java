@@ -0,0 +1,138 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.helger.jcodemodel.util.CodeModelTestsHelper;
+
+/**
+ * Test class for class {@link JMethodSplitter}.
+ *
+ * @author Philip Helger
+ */
+public final class JMethodSplitterTest
+{
+  @Test
+  public void testSplitStaticInit () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("Huge");
+    final JFieldVar aMap = c.field (JMod.PRIVATE | JMod.STATIC | JMod.FINAL,
+                                    cm.ref (Map.class).narrow (String.class, Integer.class),
+                                    "MAP");
+    final JBlock aInit = c.init ();
+    aInit.assign (aMap, JExpr._new (cm.ref (HashMap.class).narrowEmpty ()));
+    for (int i = 0; i < 2000; ++i)
+      aInit.invoke (aMap, "put").arg ("key" + i).arg (JExpr.lit (i));
+
+    assertTrue (JMethodSplitter.estimateSize (aInit) > JMethodSplitter.DEFAULT_MAX_SIZE);
+    final int nHelpers = JMethodSplitter.split (c, JMethodSplitter.DEFAULT_MAX_SIZE);
+    assertTrue (nHelpers > 1);
+    assertEquals (nHelpers, c.methods ().size ());
+    // The assignment of the final field stays in the initializer
+    assertEquals (1 + nHelpers, aInit.size ());
+    assertTrue (aInit.getContents ().get (0) instanceof JAssignment);
+    for (final JMethod aHelper : c.methods ())
+    {
+      assertTrue (aHelper.name ().startsWith ("_staticInitPart"));
+      assertTrue ((aHelper.mods ().getValue () & JMod.STATIC) != 0);
+      assertTrue (JMethodSplitter.estimateSize (aHelper.body ()) <= JMethodSplitter.DEFAULT_MAX_SIZE);
+    }
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+
+  @Test
+  public void testSplitMethod () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("HugeMethod");
+    final JMethod m = c.method (JMod.PUBLIC, cm.INT, "run");
+    final JVar aList = m.param (cm.ref (List.class).narrow (String.class), "list");
+    m._throws (Exception.class);
+    final JVar aLocal = m.body ().decl (cm.INT, "n", JExpr.lit (0));
+    for (int i = 0; i < 50; ++i)
+      m.body ().add (aList.invoke ("add").arg ("v" + i));
+    m.body ().assignPlus (aLocal, aList.invoke ("size"));
+    m.body ()._return (aLocal);
+
+    assertEquals (0, JMethodSplitter.split (m, 100000));
+    final int nHelpers = JMethodSplitter.split (m, 100);
+    assertTrue (nHelpers > 1);
+    // decl + helpers + assignment + return
+    assertEquals (3 + nHelpers, m.body ().size ());
+    final JMethod aHelper = c.getMethod ("_runPart0", new AbstractJType [] { aList.type () });
+    assertEquals (1, aHelper.getThrows ().size ());
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+
+  @Test
+  public void testSplitInstanceInitWithCheckedExceptions () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("HugeInstanceInit");
+    c.constructor (JMod.PUBLIC)._throws (IOException.class)._throws (InterruptedException.class);
+    c.constructor (JMod.PUBLIC)._throws (Exception.class).param (cm.INT, "n");
+    final JBlock aInit = c.instanceInit ();
+    for (int i = 0; i < 50; ++i)
+      aInit.add (cm.ref (Thread.class).staticInvoke ("sleep").arg (JExpr.lit (i)));
+
+    final int nHelpers = JMethodSplitter.split (c, 100);
+    assertTrue (nHelpers > 1);
+    for (final JMethod aHelper : c.methods ())
+    {
+      assertTrue (aHelper.name ().startsWith ("_instanceInitPart"));
+      // Exception is not declared by the first constructor
+      assertEquals (2, aHelper.getThrows ().size ());
+      assertTrue (aHelper.getThrows ().contains (cm.ref (IOException.class)));
+      assertTrue (aHelper.getThrows ().contains (cm.ref (InterruptedException.class)));
+    }
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+}
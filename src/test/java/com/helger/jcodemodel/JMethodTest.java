@@ -40,6 +40,8 @@
  */
 package com.helger.jcodemodel;
 
+import java.util.function.Consumer;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -66,4 +68,78 @@ public final class JMethodTest
 
     CodeModelTestsHelper.parseCodeModel (cm);
   }
+
+  @Test
+  public void testInstrument () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass cls = cm._class ("Instrumented");
+    final JMethod ctor = cls.constructor (JMod.PUBLIC);
+    ctor.body ().invokeSuper ();
+    ctor.body ().invoke ("toString");
+    final JMethod m = cls.method (JMod.PUBLIC, cm.INT, "foo");
+    m.body ()._return (JExpr.lit (42));
+    final JMethod abs = cm._class (JMod.PUBLIC | JMod.ABSTRACT, "AbstractInstrumented")
+                          .method (JMod.PUBLIC | JMod.ABSTRACT, cm.VOID, "bar");
+
+    final IJMetricsSink aSink = IJMetricsSink.staticInvoke (cm.ref ("org.example.Metrics"), "record");
+    Assert.assertEquals (2, cls.instrumentMethods (x -> true, aSink));
+    Assert.assertNull (abs.instrument (aSink));
+
+    // super() must stay first
+    Assert.assertEquals (3, ctor.body ().size ());
+    Assert.assertTrue (ctor.body ().getContents ().get (0) instanceof JInvocation);
+    Assert.assertTrue (ctor.body ().getContents ().get (2) instanceof JTryBlock);
+
+    Assert.assertEquals (2, m.body ().size ());
+    final JTryBlock aTry = (JTryBlock) m.body ().getContents ().get (1);
+    Assert.assertTrue (aTry.body ().getContents ().get (0) instanceof JReturn);
+    Assert.assertEquals ("org.example.Metrics.record(\"Instrumented.foo\", (java.lang.System.nanoTime()-__startNanos));",
+                         CodeModelTestsHelper.toString ((IJStatement) aTry._finally ().getContents ().get (0)).trim ());
+
+    // A second instrumentation must not redeclare the start variable
+    final JTryBlock aOuterTry = m.instrument (aSink);
+    Assert.assertEquals (2, m.body ().size ());
+    Assert.assertEquals ("__startNanos1", ((JVar) m.body ().getContents ().get (0)).name ());
+    Assert.assertSame (aTry, aOuterTry.body ().getContents ().get (1));
+    final JMethod m2 = cls.method (JMod.PUBLIC, cm.VOID, "bar");
+    m2.param (cm.LONG, JMethod.DEFAULT_INSTRUMENTATION_VAR_NAME);
+    m2.body ();
+    m2.instrument (aSink);
+    Assert.assertEquals ("__startNanos1", ((JVar) m2.body ().getContents ().get (0)).name ());
+
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
+
+  @Test
+  public void testInstrumentNestedNames () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass cls = cm._class ("InstrumentedNested");
+    final String sName = JMethod.DEFAULT_INSTRUMENTATION_VAR_NAME;
+
+    // Variable in a switch case
+    final JMethod m1 = cls.method (JMod.PUBLIC, cm.VOID, "m1");
+    final JVar p = m1.param (cm.INT, "p");
+    m1.body ()._switch (p)._case (JExpr.lit (1)).body ().decl (cm.LONG, sName, JExpr.lit (0L));
+
+    // Lambda parameter
+    final JMethod m2 = cls.method (JMod.PUBLIC, cm.VOID, "m2");
+    final JLambda aLambda = new JLambda ();
+    aLambda.body ().add (aLambda.addParam (sName).invoke ("toString"));
+    m2.body ().decl (cm.ref (Consumer.class).narrow (Long.class), "c", aLambda);
+
+    // Catch parameter
+    final JMethod m3 = cls.method (JMod.PUBLIC, cm.VOID, "m3");
+    final JTryBlock aTry = m3.body ()._try ();
+    aTry._catch (cm.ref (RuntimeException.class)).param (sName);
+
+    final IJMetricsSink aSink = IJMetricsSink.staticInvoke (cm.ref ("org.example.Metrics"), "record");
+    for (final JMethod m : new JMethod [] { m1, m2, m3 })
+    {
+      m.instrument (aSink);
+      Assert.assertEquals (sName + "1", ((JVar) m.body ().getContents ().get (0)).name ());
+    }
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
 }
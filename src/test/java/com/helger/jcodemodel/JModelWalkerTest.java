@@ -0,0 +1,148 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link JModelWalker}.
+ *
+ * @author Philip Helger
+ */
+public final class JModelWalkerTest
+{
+  @Test
+  public void testWalk () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("Walked");
+    c.field (JMod.PRIVATE, cm.ref (List.class).narrow (String.class), "list");
+    final JMethod m = c.method (JMod.PUBLIC, cm.VOID, "run");
+    final JVar aParam = m.param (cm.INT, "n");
+    m.body ()._if (aParam.gt (JExpr.lit (0)))._then ().add (JExpr._new (cm.ref (ArrayList.class)).invoke ("clear"));
+
+    final List <AbstractJType> aTypes = new ArrayList <> ();
+    final List <IJExpression> aExprs = new ArrayList <> ();
+    assertTrue (JModelWalker.walkClass (c, new IJModelVisitor ()
+    {
+      @Override
+      public EVisitResult visitType (@Nonnull final AbstractJType aType)
+      {
+        aTypes.add (aType);
+        return EVisitResult.CONTINUE;
+      }
+
+      @Override
+      public EVisitResult visitExpression (@Nonnull final IJExpression aExpression)
+      {
+        aExprs.add (aExpression);
+        return EVisitResult.CONTINUE;
+      }
+    }));
+    assertTrue (aTypes.contains (cm.ref (String.class)));
+    assertTrue (aTypes.contains (cm.ref (List.class)));
+    assertTrue (aTypes.contains (cm.ref (ArrayList.class)));
+    assertTrue (aTypes.contains (cm.INT));
+    assertTrue (aExprs.contains (aParam));
+    assertFalse (m.hasJavadoc ());
+
+    // Prune methods
+    aExprs.clear ();
+    assertTrue (JModelWalker.walkClass (c, new IJModelVisitor ()
+    {
+      @Override
+      public EVisitResult visitMethod (@Nonnull final JMethod aMethod)
+      {
+        return EVisitResult.SKIP_CHILDREN;
+      }
+
+      @Override
+      public EVisitResult visitExpression (@Nonnull final IJExpression aExpression)
+      {
+        aExprs.add (aExpression);
+        return EVisitResult.CONTINUE;
+      }
+    }));
+    assertTrue (aExprs.isEmpty ());
+
+    // Terminate at the first statement
+    final int [] aCount = new int [1];
+    assertFalse (JModelWalker.walkClass (c, new IJModelVisitor ()
+    {
+      @Override
+      public EVisitResult visitStatement (@Nonnull final IJStatement aStatement)
+      {
+        aCount[0]++;
+        return EVisitResult.TERMINATE;
+      }
+    }));
+    assertEquals (1, aCount[0]);
+  }
+
+  @Test
+  public void testContainsErrorTypes () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass c = cm._class ("Erroneous");
+    final JMethod m = c.method (JMod.PUBLIC, cm.VOID, "run");
+    final JBlock aLoop = m.body ()._while (JExpr.TRUE).body ();
+    assertFalse (c.containsErrorTypes ());
+
+    final AbstractJClass aErrorList = cm.ref (List.class).narrow (cm.errorClass ("Missing"));
+    aLoop.decl (cm.ref (List.class), "x", JExpr.cast (aErrorList, JExpr._null ()));
+    assertTrue (c.containsErrorTypes ());
+    assertTrue (cm.buildsErrorTypeRefs ());
+
+    // Only found by generating the class literal
+    final JCodeModel cm2 = new JCodeModel ();
+    cm2._class ("Erroneous").field (JMod.PRIVATE, Object.class, "x", JExpr.dotclass (cm2.errorClass ("Missing")));
+    assertTrue (cm2.buildsErrorTypeRefs ());
+  }
+}
@@ -40,11 +40,20 @@
  */
 package com.helger.jcodemodel;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Iterator;
 
 import org.junit.Test;
 
+import com.helger.jcodemodel.fmt.JBinaryFile;
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
 /**
  * {@link JPackage} tests.
  */
@@ -67,4 +76,74 @@ public final class JPackageTest
     assertNotNull (wCurrentPackage);
     assertNull (wCurrentPackage.parent ());
   }
+
+  @Test
+  public void testResourceFiles ()
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JPackage aPkg = cm._package ("foo");
+    assertFalse (aPkg.hasResourceFile ("b.bin"));
+    assertFalse (aPkg.hasResourceFile (null));
+
+    final JBinaryFile b = new JBinaryFile ("b.bin");
+    final JBinaryFile a = new JBinaryFile ("a.bin");
+    aPkg.addResourceFile (b);
+    aPkg.addResourceFile (a);
+    // Adding the same object twice is fine
+    aPkg.addResourceFile (a);
+    assertTrue (aPkg.hasResourceFile ("b.bin"));
+    assertSame (a, aPkg.getResourceFile ("a.bin"));
+    assertNull (aPkg.getResourceFile ("c.bin"));
+
+    // Insertion order is kept
+    final Iterator <AbstractJResourceFile> it = aPkg.propertyFiles ();
+    assertSame (b, it.next ());
+    assertSame (a, it.next ());
+    assertFalse (it.hasNext ());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testDuplicateResourceFile ()
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JPackage aPkg = cm._package ("foo");
+    aPkg.addResourceFile (new JBinaryFile ("a.bin"));
+    aPkg.addResourceFile (new JBinaryFile ("a.bin"));
+  }
+
+  @Test
+  public void testDuplicateResourceFileNotDisabled ()
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JPackage aPkg = cm._package ("foo");
+    final JBinaryFile a = new JBinaryFile ("a.bin");
+    aPkg.addResourceFile (a);
+    JCValueEnforcer.setEnabled (false);
+    try
+    {
+      aPkg.addResourceFile (new JBinaryFile ("a.bin"));
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // expected
+    }
+    finally
+    {
+      JCValueEnforcer.setEnabled (true);
+    }
+    assertSame (a, aPkg.getResourceFile ("a.bin"));
+  }
+
+  @Test
+  public void testIsDefined () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JPackage aPkg = cm._package ("foo");
+    assertFalse (aPkg.isDefined ("Bar"));
+    assertFalse (aPkg.isDefined (null));
+    aPkg._class ("Bar");
+    assertTrue (aPkg.isDefined ("Bar"));
+    assertFalse (aPkg.isDefined ("bar"));
+  }
 }
@@ -40,6 +40,8 @@
  */
 package com.helger.jcodemodel;
 
+import static org.junit.Assert.assertEquals;
+
 import org.junit.Test;
 
 import com.helger.jcodemodel.util.CodeModelTestsHelper;
@@ -84,4 +86,38 @@ public final class JavadocFuncTest
 
     CodeModelTestsHelper.parseCodeModel (cm);
   }
+
+  @Test
+  public void testFormatting () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final JDefinedClass cls = cm._class ("Formatted");
+    final JMethod method = cls.method (JMod.PUBLIC, cm.VOID, "foo");
+    final JVar aParam = method.param (String.class, "any");
+    final JDocComment aComment = method.javadoc ();
+    aComment.add ("First line\nSecond */ line **/\n\nLast");
+    aComment.add (" line");
+    aComment.addParam (aParam).add ("Multi\nline");
+    aComment.addReturn ().add ("nothing");
+    aComment.addTag ("since").add ("1.0");
+    aComment.addXdoclet ("xdoc").put ("key", "value");
+
+    assertEquals ("/**\n" +
+                  " * First line\n" +
+                  " * Second *<!---->/ line **<!---->/\n" +
+                  " * \n" +
+                  " * Last line\n" +
+                  " * \n" +
+                  " * @param any\n" +
+                  " *     Multi\n" +
+                  " *     line\n" +
+                  " * @return\n" +
+                  " *     nothing\n" +
+                  " * @since  1.0\n" +
+                  " * @xdoc key = \"value\"\n" +
+                  " */\n",
+                  CodeModelTestsHelper.generate (aComment).replace ("\r\n", "\n"));
+    CodeModelTestsHelper.parseCodeModel (cm);
+  }
 }
+
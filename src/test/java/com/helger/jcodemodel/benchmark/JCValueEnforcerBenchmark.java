@@ -0,0 +1,119 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.helger.jcodemodel.JClassAlreadyExistsException;
+import com.helger.jcodemodel.JCodeModel;
+import com.helger.jcodemodel.JDefinedClass;
+import com.helger.jcodemodel.JExpr;
+import com.helger.jcodemodel.JFieldVar;
+import com.helger.jcodemodel.JMethod;
+import com.helger.jcodemodel.JMod;
+import com.helger.jcodemodel.JVar;
+import com.helger.jcodemodel.util.JCValueEnforcer;
+
+/**
+ * JMH benchmark for building a code model with and without the checks of
+ * {@link JCValueEnforcer}. The checks are disabled via
+ * {@link JCValueEnforcer#SYSTEM_PROPERTY_DISABLED} in a separate JVM.
+ * <p>
+ * Run the main method with the test classpath.
+ *
+ * @author Philip Helger
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 5, time = 1)
+public class JCValueEnforcerBenchmark
+{
+  private static JCodeModel _buildModel () throws JClassAlreadyExistsException
+  {
+    final JCodeModel cm = new JCodeModel ();
+    for (int i = 0; i < 20; ++i)
+    {
+      final JDefinedClass c = cm._class ("com.example.pkg" + (i % 4) + ".Bean" + i);
+      for (int j = 0; j < 10; ++j)
+      {
+        final JFieldVar f = c.field (JMod.PRIVATE, String.class, "field" + j);
+        final JMethod aGetter = c.method (JMod.PUBLIC, String.class, "getField" + j);
+        aGetter.body ()._return (f);
+        final JMethod aSetter = c.method (JMod.PUBLIC, cm.VOID, "setField" + j);
+        final JVar aParam = aSetter.param (JMod.FINAL, String.class, "s");
+        aSetter.body ().assign (JExpr._this ().ref (f), aParam);
+        aSetter.body ().add (JExpr.invoke ("onChange").arg (JExpr.lit (j)).arg (aParam));
+      }
+    }
+    return cm;
+  }
+
+  @Benchmark
+  @Fork (1)
+  public JCodeModel checksEnabled () throws JClassAlreadyExistsException
+  {
+    return _buildModel ();
+  }
+
+  @Benchmark
+  @Fork (value = 1, jvmArgsAppend = "-D" + JCValueEnforcer.SYSTEM_PROPERTY_DISABLED + "=true")
+  public JCodeModel checksDisabled () throws JClassAlreadyExistsException
+  {
+    return _buildModel ();
+  }
+
+  public static void main (final String [] args) throws RunnerException
+  {
+    new Runner (new OptionsBuilder ().include (JCValueEnforcerBenchmark.class.getSimpleName ()).build ()).run ();
+  }
+}
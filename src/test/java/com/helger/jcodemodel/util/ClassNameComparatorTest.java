@@ -0,0 +1,84 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.helger.jcodemodel.AbstractJClass;
+import com.helger.jcodemodel.JCodeModel;
+
+/**
+ * Test class for class {@link ClassNameComparator}.
+ *
+ * @author Philip Helger
+ */
+public final class ClassNameComparatorTest
+{
+  @Test
+  public void testOrder () throws Exception
+  {
+    final JCodeModel cm = new JCodeModel ();
+    final AbstractJClass aFoo = cm._class ("org.example.Foo");
+    final AbstractJClass aList = cm.ref (List.class);
+    final AbstractJClass aMap = cm.ref (Map.class).narrow (String.class, Integer.class);
+    final AbstractJClass aNonnull = cm.ref (javax.annotation.Nonnull.class);
+    final AbstractJClass aAbc = cm._class ("abc.Abc");
+    final AbstractJClass aError = cm.errorClass ("error");
+
+    final List <AbstractJClass> aClasses = new ArrayList <> (Arrays.asList (aFoo, aNonnull, aMap, aAbc, aList, aError));
+    aClasses.sort (ClassNameComparator.getInstance ());
+    assertEquals (Arrays.asList (aError, aList, aMap, aAbc, aNonnull, aFoo), aClasses);
+
+    assertEquals ("0java.util.List", aList.getSortKey ());
+    assertEquals ("1org.example.Foo", aFoo.getSortKey ());
+    assertSame (aFoo.getSortKey (), aFoo.getSortKey ());
+    assertTrue (ClassNameComparator.getInstance ().compare (aFoo, aFoo) == 0);
+  }
+}
@@ -0,0 +1,116 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link JCGapList}.
+ *
+ * @author Philip Helger
+ */
+public final class JCGapListTest
+{
+  @Test
+  public void testBasic ()
+  {
+    final JCGapList <String> aList = new JCGapList <> ();
+    assertTrue (aList.isEmpty ());
+    aList.add ("c");
+    aList.add (0, "a");
+    aList.add (1, "b");
+    aList.add ("d");
+    assertEquals ("[a, b, c, d]", aList.toString ());
+    assertEquals ("b", aList.remove (1));
+    aList.set (0, "x");
+    assertEquals ("[x, c, d]", aList.toString ());
+    aList.subList (1, 3).clear ();
+    assertEquals ("[x]", aList.toString ());
+    aList.clear ();
+    assertTrue (aList.isEmpty ());
+  }
+
+  @Test
+  public void testRandomOperations ()
+  {
+    final Random aRandom = new Random (42);
+    final List <Integer> aExpected = new ArrayList <> ();
+    final JCGapList <Integer> aList = new JCGapList <> ();
+    for (int i = 0; i < 20000; ++i)
+    {
+      final int nOp = aRandom.nextInt (10);
+      if (nOp < 6 || aExpected.isEmpty ())
+      {
+        final int nIndex = aRandom.nextInt (aExpected.size () + 1);
+        aExpected.add (nIndex, Integer.valueOf (i));
+        aList.add (nIndex, Integer.valueOf (i));
+      }
+      else
+        if (nOp < 8)
+        {
+          final int nIndex = aRandom.nextInt (aExpected.size ());
+          assertEquals (aExpected.remove (nIndex), aList.remove (nIndex));
+        }
+        else
+          if (nOp < 9)
+          {
+            final int nIndex = aRandom.nextInt (aExpected.size ());
+            assertEquals (aExpected.set (nIndex, Integer.valueOf (-i)), aList.set (nIndex, Integer.valueOf (-i)));
+          }
+          else
+          {
+            final int nFrom = aRandom.nextInt (aExpected.size ());
+            final int nTo = Math.min (aExpected.size (), nFrom + aRandom.nextInt (5));
+            aExpected.subList (nFrom, nTo).clear ();
+            aList.subList (nFrom, nTo).clear ();
+          }
+      assertEquals (aExpected.size (), aList.size ());
+    }
+    assertEquals (aExpected, aList);
+  }
+}
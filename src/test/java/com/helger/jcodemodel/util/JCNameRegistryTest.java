@@ -0,0 +1,215 @@
+/**
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 1997-2010 Oracle and/or its affiliates. All rights reserved.
+ * Portions Copyright 2013-2018 Philip Helger + contributors
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.helger.jcodemodel.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link JCNameRegistry}.
+ *
+ * @author Philip Helger
+ */
+public final class JCNameRegistryTest
+{
+  private static boolean s_bFoldCase;
+
+  @Test
+  public void testBasic ()
+  {
+    final JCNameRegistry <String> aReg = new JCNameRegistry <> (Function.identity (), false);
+    assertTrue (aReg.isEmpty ());
+    assertNull (aReg.get (null));
+    assertTrue (aReg.getSorted ().isEmpty ());
+
+    aReg.add ("b");
+    aReg.add ("a");
+    aReg.add ("B");
+    assertEquals (3, aReg.size ());
+    assertEquals ("a", aReg.get ("a"));
+    assertEquals ("B", aReg.get ("B"));
+    assertNull (aReg.getConflicting ("A"));
+    assertEquals ("[B, a, b]", aReg.getSorted ().toString ());
+
+    assertEquals ("b", aReg.remove ("b"));
+    assertNull (aReg.remove ("b"));
+    assertEquals ("[B, a]", aReg.getSorted ().toString ());
+  }
+
+  @Test
+  public void testFoldCase ()
+  {
+    final JCNameRegistry <String> aReg = new JCNameRegistry <> (Function.identity (), true);
+    aReg.add ("Foo");
+    assertEquals ("Foo", aReg.get ("Foo"));
+    assertNull (aReg.get ("foo"));
+    assertFalse (aReg.containsName ("FOO"));
+    assertEquals ("Foo", aReg.getConflicting ("foo"));
+    assertNull (aReg.remove ("foo"));
+    assertEquals ("Foo", aReg.remove ("Foo"));
+    assertTrue (aReg.isEmpty ());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testConflict ()
+  {
+    final JCNameRegistry <String> aReg = new JCNameRegistry <> (Function.identity (), true);
+    aReg.add ("Foo");
+    aReg.add ("FOO");
+  }
+
+  @Test
+  public void testManyModifications ()
+  {
+    final JCNameRegistry <String> aReg = new JCNameRegistry <> (Function.identity (), false);
+    final TreeMap <String, String> aExpected = new TreeMap <> ();
+    final Random aRandom = new Random (42);
+    for (int i = 0; i < 20000; ++i)
+    {
+      final String s = "C" + aRandom.nextInt (2000);
+      if (aExpected.containsKey (s))
+      {
+        assertSame (aExpected.remove (s), aReg.remove (s));
+        assertNull (aReg.get (s));
+      }
+      else
+      {
+        aExpected.put (s, s);
+        aReg.add (s);
+        assertSame (s, aReg.get (s));
+      }
+      assertEquals (aExpected.size (), aReg.size ());
+    }
+    assertEquals (new ArrayList <> (aExpected.values ()), aReg.getSorted ());
+    for (final String s : aExpected.keySet ())
+      assertSame (aExpected.get (s), aReg.get (s));
+
+    // Cached sorted view
+    final List <String> aSorted = aReg.getSorted ();
+    assertSame (aSorted, aReg.getSorted ());
+  }
+
+  @Test
+  public void testSerializationRecomputesFoldCase () throws Exception
+  {
+    s_bFoldCase = false;
+    final JCNameRegistry <String> aReg = new JCNameRegistry <> ((Function <String, String> & Serializable) x -> x,
+                                                                (BooleanSupplier & Serializable) () -> s_bFoldCase);
+    for (int i = 0; i < 20; ++i)
+      aReg.add ("Name" + i);
+    assertFalse (aReg.isFoldCase ());
+    assertNull (aReg.getConflicting ("NAME7"));
+
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    try (final ObjectOutputStream aOOS = new ObjectOutputStream (aBAOS))
+    {
+      aOOS.writeObject (aReg);
+    }
+
+    // E.g. read on a case insensitive file system
+    s_bFoldCase = true;
+    try (final ObjectInputStream aOIS = new ObjectInputStream (new ByteArrayInputStream (aBAOS.toByteArray ())))
+    {
+      @SuppressWarnings ("unchecked")
+      final JCNameRegistry <String> aRead = (JCNameRegistry <String>) aOIS.readObject ();
+      assertTrue (aRead.isFoldCase ());
+      assertEquals (20, aRead.size ());
+      assertEquals ("Name7", aRead.get ("Name7"));
+      assertEquals ("Name7", aRead.getConflicting ("NAME7"));
+      assertEquals ("Name0", aRead.remove ("Name0"));
+      assertEquals (19, aRead.getSorted ().size ());
+    }
+    finally
+    {
+      s_bFoldCase = false;
+    }
+  }
+
+  @Test
+  public void testSerializationReportsFoldCaseConflicts () throws Exception
+  {
+    s_bFoldCase = false;
+    final JCNameRegistry <String> aReg = new JCNameRegistry <> ((Function <String, String> & Serializable) x -> x,
+                                                                (BooleanSupplier & Serializable) () -> s_bFoldCase);
+    aReg.add ("Name");
+    aReg.add ("NAME");
+
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    try (final ObjectOutputStream aOOS = new ObjectOutputStream (aBAOS))
+    {
+      aOOS.writeObject (aReg);
+    }
+
+    s_bFoldCase = true;
+    try (final ObjectInputStream aOIS = new ObjectInputStream (new ByteArrayInputStream (aBAOS.toByteArray ())))
+    {
+      aOIS.readObject ();
+      fail ();
+    }
+    catch (final InvalidObjectException ex)
+    {
+      // expected - and not only on first access
+    }
+    finally
+    {
+      s_bFoldCase = false;
+    }
+  }
+}